@@ -40,6 +40,7 @@
 package io.hops.hopsworks.api.admin;
 
 import io.hops.hopsworks.api.jwt.JWTHelper;
+import io.hops.hopsworks.api.proxy.LinkRewriter;
 import io.hops.hopsworks.api.proxy.ProxyServlet;
 import io.hops.hopsworks.api.util.CustomSSLProtocolSocketFactory;
 import io.hops.hopsworks.common.dao.hdfs.HdfsLeDescriptorsFacade;
@@ -63,24 +64,25 @@ import javax.ejb.Stateless;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.URLEncoder;
-import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Stateless
 public class HDFSUIProxyServlet extends ProxyServlet {
 
+  private static final Logger LOGGER = Logger.getLogger(HDFSUIProxyServlet.class.getName());
+
   @EJB
   private Settings settings;
   @EJB
@@ -90,6 +92,20 @@ public class HDFSUIProxyServlet extends ProxyServlet {
   @EJB
   private JWTHelper jwtHelper;
 
+  private static final LinkRewriter LINK_REWRITER = new LinkRewriter(
+      "<a href='http://hadoop.apache.org/core'>Hadoop</a>, 2018.",
+      "(?<=(url=))(?=[a-zA-Z])",
+      "(?<=(href|src)=\")/(?=[a-zA-Z])",
+      "(?<=(href|src)=\')/(?=[a-zA-Z])",
+      "(?<=(href|src)=\")//",
+      "(?<=(href|src)=\')//",
+      "(?<=(href|src)=\")(?=(http|https))",
+      "(?<=(href|src)=\')(?=(http|https))",
+      "(?<=(href|src)=\")(?=[a-zA-Z])",
+      "(?<=(href|src)=\')(?=[a-zA-Z])",
+      "(?<=(href|src)=)/(?=[a-zA-Z])",
+      "(?<=(action)=\")(?=[a-zA-Z/]*.jsp)");
+
   private static final HashSet<String> PASS_THROUGH_HEADERS
       = new HashSet<String>(
           Arrays
@@ -233,23 +249,12 @@ public class HDFSUIProxyServlet extends ProxyServlet {
     InputStream entity = method.getResponseBodyAsStream();
     if (entity != null) {
       OutputStream servletOutputStream = servletResponse.getOutputStream();
-      if (servletResponse.getHeader("Content-Type") == null || servletResponse.getHeader("Content-Type").
-          contains("html")) {
-        String inputLine;
-        BufferedReader br = new BufferedReader(new InputStreamReader(entity));
-
+      if (isRewritten(method)) {
         try {
-          int contentSize = 0;
-          while ((inputLine = br.readLine()) != null)  {
-            String outputLine = hopify(inputLine, targetUri) + "\n";
-            byte[] output = outputLine.getBytes(Charset.forName("UTF-8"));
-            servletOutputStream.write(output);
-            contentSize += output.length;
-          }
-          br.close();
-          servletResponse.setHeader("Content-Length", Integer.toString(contentSize));
+          LINK_REWRITER.copy(entity, headerValue(method, HttpHeaders.CONTENT_ENCODING),
+              headerValue(method, HttpHeaders.CONTENT_TYPE), servletOutputStream, linkReplacements(targetUri), null);
         } catch (IOException e) {
-          e.printStackTrace();
+          LOGGER.log(Level.WARNING, "Failed to proxy " + method.getPath(), e);
         }
       } else {
         org.apache.hadoop.io.IOUtils.copyBytes(entity, servletOutputStream, 4096, doLog);
@@ -260,12 +265,14 @@ public class HDFSUIProxyServlet extends ProxyServlet {
   protected void copyResponseHeaders(HttpMethod method,
       HttpServletRequest servletRequest,
       HttpServletResponse servletResponse) {
+    boolean rewritten = isRewritten(method);
     for (org.apache.commons.httpclient.Header header : method.getResponseHeaders()) {
       if (hopByHopHeaders.containsHeader(header.getName())) {
         continue;
       }
-      if (header.getName().equalsIgnoreCase("Content-Length") && (method.getResponseHeader("Content-Type") == null
-          || method.getResponseHeader("Content-Type").getValue().contains("html"))) {
+      //rewritten content is sent uncompressed and chunked
+      if (rewritten && (header.getName().equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)
+          || header.getName().equalsIgnoreCase(HttpHeaders.CONTENT_ENCODING))) {
         continue;
       }
       if (header.getName().
@@ -278,29 +285,33 @@ public class HDFSUIProxyServlet extends ProxyServlet {
     }
   }
 
-  private String hopify(String ui, String source) {
+  private boolean isRewritten(HttpMethod method) {
+    String contentType = headerValue(method, HttpHeaders.CONTENT_TYPE);
+    return contentType == null || contentType.contains("html");
+  }
 
-    ui = ui.replaceAll("<a href='http://hadoop.apache.org/core'>Hadoop</a>, 2018.", "");
-    ui = ui.replaceAll("(?<=(url=))(?=[a-zA-Z])", "/hopsworks-api/hdfsui/");
-    ui = ui.replaceAll("(?<=(href|src)=\")/(?=[a-zA-Z])",
-        "/hopsworks-api/hdfsui/" + source + "/");
-    ui = ui.replaceAll("(?<=(href|src)=\')/(?=[a-zA-Z])",
-        "/hopsworks-api/hdfsui/" + source + "/");
-    ui = ui.replaceAll("(?<=(href|src)=\")//", "/hopsworks-api/hdfsui/");
-    ui = ui.replaceAll("(?<=(href|src)=\')//", "/hopsworks-api/hdfsui/");
-    ui = ui.replaceAll("(?<=(href|src)=\")(?=(http|https))",
-        "/hopsworks-api/hdfsui/");
-    ui = ui.replaceAll("(?<=(href|src)=\')(?=(http|https))",
-        "/hopsworks-api/hdfsui/");
-    ui = ui.replaceAll("(?<=(href|src)=\")(?=[a-zA-Z])",
-        "/hopsworks-api/hdfsui/" + source + "/");
-    ui = ui.replaceAll("(?<=(href|src)=\')(?=[a-zA-Z])",
-        "/hopsworks-api/hdfsui/" + source + "/");
-    ui = ui.replaceAll("(?<=(href|src)=)/(?=[a-zA-Z])",
-        "/hopsworks-api/hdfsui/" + source + "/");
-    ui = ui.replaceAll("(?<=(action)=\")(?=[a-zA-Z/]*.jsp)", "/hopsworks-api/hdfsui/" + source + "/");
-    return ui;
+  private String headerValue(HttpMethod method, String name) {
+    org.apache.commons.httpclient.Header header = method.getResponseHeader(name);
+    return header == null ? null : header.getValue();
+  }
 
+  /**
+   * @return the replacement of each of the {@link #LINK_REWRITER} rules
+   */
+  private String[] linkReplacements(String source) {
+    return new String[]{
+        "",
+        "/hopsworks-api/hdfsui/",
+        "/hopsworks-api/hdfsui/" + source + "/",
+        "/hopsworks-api/hdfsui/" + source + "/",
+        "/hopsworks-api/hdfsui/",
+        "/hopsworks-api/hdfsui/",
+        "/hopsworks-api/hdfsui/",
+        "/hopsworks-api/hdfsui/",
+        "/hopsworks-api/hdfsui/" + source + "/",
+        "/hopsworks-api/hdfsui/" + source + "/",
+        "/hopsworks-api/hdfsui/" + source + "/",
+        "/hopsworks-api/hdfsui/" + source + "/"};
   }
 
   protected String rewriteUrlFromRequest(HttpServletRequest servletRequest) {
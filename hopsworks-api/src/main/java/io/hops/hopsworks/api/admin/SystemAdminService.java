@@ -49,6 +49,18 @@ import io.hops.hopsworks.common.commands.CommandException;
 import io.hops.hopsworks.common.commands.featurestore.search.SearchFSCommandStatus;
 import io.hops.hopsworks.common.commands.featurestore.search.SearchFSReindexer;
 import io.hops.hopsworks.common.dao.kafka.TopicDefaultValueDTO;
+import io.hops.hopsworks.common.featurestore.featuregroup.cached.OfflineFeatureGroupSchemaCache;
+import io.hops.hopsworks.common.featurestore.featuregroup.cached.OfflineFeatureGroupSchemaCacheStats;
+import io.hops.hopsworks.common.hdfs.DistributedFsClientPool;
+import io.hops.hopsworks.common.hdfs.DistributedFsClientPoolStats;
+import io.hops.hopsworks.common.hive.HiveMetastoreClientPool;
+import io.hops.hopsworks.common.hive.HiveMetastoreClientPoolStats;
+import io.hops.hopsworks.common.jdbc.JdbcConnectionPool;
+import io.hops.hopsworks.common.jdbc.JdbcConnectionPoolStats;
+import io.hops.hopsworks.common.upload.UploadMonitor;
+import io.hops.hopsworks.common.upload.UploadStats;
+import io.hops.hopsworks.common.util.LongRunningHttpRequests;
+import io.hops.hopsworks.common.util.LongRunningHttpRequestsStats;
 import io.hops.hopsworks.common.kafka.KafkaController;
 import io.hops.hopsworks.common.security.CertificatesMgmService;
 import io.hops.hopsworks.common.security.ServiceJWTKeepAlive;
@@ -113,6 +125,18 @@ public class SystemAdminService {
   private KafkaController kafkaController;
   @EJB
   private SearchFSReindexer searchFSReindexer;
+  @EJB
+  private DistributedFsClientPool dfsClientPool;
+  @EJB
+  private JdbcConnectionPool jdbcConnectionPool;
+  @EJB
+  private HiveMetastoreClientPool metastoreClientPool;
+  @EJB
+  private OfflineFeatureGroupSchemaCache offlineSchemaCache;
+  @EJB
+  private UploadMonitor uploadMonitor;
+  @EJB
+  private LongRunningHttpRequests longRunningHttpRequests;
   
   /**
    * Admin endpoint that changes the master encryption password used to encrypt the certificates' password
@@ -246,4 +270,58 @@ public class SystemAdminService {
     searchFSReindexer.reindex();
     return Response.noContent().build();
   }
+  
+  @ApiOperation(value = "Get usage statistics of the pooled HopsFS clients")
+  @GET
+  @Path("/hdfs/clientpool")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getDfsClientPoolStats(@Context SecurityContext sc) {
+    DistributedFsClientPoolStats stats = dfsClientPool.getStats();
+    return Response.ok().entity(stats).build();
+  }
+  
+  @ApiOperation(value = "Get usage statistics of the pooled feature store JDBC connections")
+  @GET
+  @Path("/featurestore/jdbcpool")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getJdbcConnectionPoolStats(@Context SecurityContext sc) {
+    JdbcConnectionPoolStats stats = jdbcConnectionPool.getStats();
+    return Response.ok().entity(stats).build();
+  }
+  
+  @ApiOperation(value = "Get usage statistics of the pooled Hive metastore clients")
+  @GET
+  @Path("/hive/metastorepool")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getMetastoreClientPoolStats(@Context SecurityContext sc) {
+    HiveMetastoreClientPoolStats stats = metastoreClientPool.getStats();
+    return Response.ok().entity(stats).build();
+  }
+  
+  @ApiOperation(value = "Get hit and miss counts of the offline feature group schema cache")
+  @GET
+  @Path("/featurestore/schemacache")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getOfflineSchemaCacheStats(@Context SecurityContext sc) {
+    OfflineFeatureGroupSchemaCacheStats stats = offlineSchemaCache.getStats();
+    return Response.ok().entity(stats).build();
+  }
+  
+  @ApiOperation(value = "Get the throughput of the file uploads received by this node")
+  @GET
+  @Path("/upload/stats")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getUploadStats(@Context SecurityContext sc) {
+    UploadStats stats = uploadMonitor.getStats();
+    return Response.ok().entity(stats).build();
+  }
+  
+  @ApiOperation(value = "Get the number and throughput of the long-running downloads of this node")
+  @GET
+  @Path("/http/longrunning")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getLongRunningHttpRequestsStats(@Context SecurityContext sc) {
+    LongRunningHttpRequestsStats stats = longRunningHttpRequests.getStats();
+    return Response.ok().entity(stats).build();
+  }
 }
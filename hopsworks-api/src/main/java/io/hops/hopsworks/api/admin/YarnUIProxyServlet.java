@@ -40,6 +40,7 @@ package io.hops.hopsworks.api.admin;
 
 import com.logicalclocks.servicediscoverclient.service.Service;
 import io.hops.hopsworks.api.jwt.JWTHelper;
+import io.hops.hopsworks.api.proxy.LinkRewriter;
 import io.hops.hopsworks.api.proxy.ProxyServlet;
 import io.hops.hopsworks.api.util.CustomSSLProtocolSocketFactory;
 import io.hops.hopsworks.common.dao.jobhistory.YarnApplicationstateFacade;
@@ -79,16 +80,13 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.Response;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.URLEncoder;
-import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashSet;
@@ -133,7 +131,6 @@ public class YarnUIProxyServlet extends ProxyServlet {
   @EJB
   private CertificateMaterializer certificateMaterializer;
 
-  private String isRemoving = null;
   private Service httpsResourceManager;
 
   protected void initTarget() throws ServletException {
@@ -149,6 +146,21 @@ public class YarnUIProxyServlet extends ProxyServlet {
     targetHost = URIUtils.extractHost(targetUriObj);
   }
 
+  private static final LinkRewriter LINK_REWRITER = new LinkRewriter(
+    "(?<=(href|src)=\")/(?=[a-zA-Z])",
+    "(?<=(href|src)=\')/(?=[a-zA-Z])",
+    "(?<=(href|src)=\")//",
+    "(?<=(href|src)=\')//",
+    "(?<=(href|src)=\")(?=http)",
+    "(?<=(href|src)=\')(?=http)",
+    "(?<=(href|src)=\")(?=[a-zA-Z])",
+    "(?<=(href|src)=\')(?=[a-zA-Z])",
+    "(?<=(url: '))/(?=[a-zA-Z])",
+    "(?<=(location\\.href = '))/(?=[a-zA-Z])",
+    "(?<=\"(stdout\"|stderr\") : \")(?=[a-zA-Z])",
+    "for full log",
+    Pattern.quote("/?start=0"));
+
   private static final Pattern APPLICATION_PATTERN = Pattern.compile("(application_.*?_.\\d*)");
   private static final Pattern APPLICATION_ATTEMPT_PATTERN = Pattern.compile("(appattempt_.*?_.\\d*)");
   private static final Pattern CONTAINER_PATTERN = Pattern.compile("(container_e.*?_.*?_.\\d*)");
@@ -365,29 +377,18 @@ public class YarnUIProxyServlet extends ProxyServlet {
     InputStream entity = method.getResponseBodyAsStream();
     if (entity != null) {
       OutputStream servletOutputStream = servletResponse.getOutputStream();
-      if (servletResponse.getHeader("Content-Type") == null || servletResponse.getHeader("Content-Type").
-        contains("html") || servletResponse.getHeader("Content-Type").contains("application/json")) {
-        String inputLine;
-        BufferedReader br = new BufferedReader(new InputStreamReader(entity));
-        
+      if (isRewritten(method)) {
         try {
-          int contentSize = 0;
           String source = "http://" + method.getURI().getHost() + ":" + method.getURI().getPort();
           // In some cases where the port is -1 replace the link with ResourceManager's (targetUri)
           if (method.getURI().getPort() == -1) {
             source = targetUri;
           }
-          String path = method.getPath();
-          while ((inputLine = br.readLine()) != null) {
-            String outputLine = hopify(inputLine, source, isAdmin, path) + "\n";
-            byte[] output = outputLine.getBytes(Charset.forName("UTF-8"));
-            servletOutputStream.write(output);
-            contentSize += output.length;
-          }
-          br.close();
-          servletResponse.setHeader("Content-Length", Integer.toString(contentSize));
+          LINK_REWRITER.copy(entity, headerValue(method, HttpHeaders.CONTENT_ENCODING),
+            headerValue(method, HttpHeaders.CONTENT_TYPE), servletOutputStream,
+            linkReplacements(source, method.getPath()), isAdmin ? null : new UnusableBlocks());
         } catch (IOException e) {
-          e.printStackTrace();
+          LOGGER.log(Level.WARNING, "Failed to proxy " + method.getPath(), e);
         }
       } else {
         org.apache.hadoop.io.IOUtils.copyBytes(entity, servletOutputStream, 4096, doLog);
@@ -398,13 +399,14 @@ public class YarnUIProxyServlet extends ProxyServlet {
   protected void copyResponseHeaders(HttpMethod method,
     HttpServletRequest servletRequest,
     HttpServletResponse servletResponse) {
+    boolean rewritten = isRewritten(method);
     for (org.apache.commons.httpclient.Header header : method.getResponseHeaders()) {
       if (hopByHopHeaders.containsHeader(header.getName())) {
         continue;
       }
-      if (header.getName().equalsIgnoreCase("Content-Length") && (method.getResponseHeader("Content-Type") == null
-        || method.getResponseHeader("Content-Type").getValue().contains("html") || servletResponse.getHeader(
-        "Content-Type").contains("application/json"))) {
+      //rewritten content is sent uncompressed and chunked
+      if (rewritten && (header.getName().equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)
+        || header.getName().equalsIgnoreCase(HttpHeaders.CONTENT_ENCODING))) {
         continue;
       }
       if (header.getName().
@@ -417,54 +419,62 @@ public class YarnUIProxyServlet extends ProxyServlet {
     }
   }
   
-  private String hopify(String ui, String source, boolean isAdmin, String path) {
-    if (!isAdmin) {
-      ui = removeUnusable(ui);
-    }
-    
-    ui = ui.replaceAll("(?<=(href|src)=\")/(?=[a-zA-Z])",
-      "/hopsworks-api/yarnui/" + source + "/");
-    ui = ui.replaceAll("(?<=(href|src)=\')/(?=[a-zA-Z])",
-      "/hopsworks-api/yarnui/" + source + "/");
-    ui = ui.replaceAll("(?<=(href|src)=\")//", "/hopsworks-api/yarnui/");
-    ui = ui.replaceAll("(?<=(href|src)=\')//", "/hopsworks-api/yarnui/");
-    ui = ui.replaceAll("(?<=(href|src)=\")(?=http)",
-      "/hopsworks-api/yarnui/");
-    ui = ui.replaceAll("(?<=(href|src)=\')(?=http)",
-      "/hopsworks-api/yarnui/");
-    ui = ui.replaceAll("(?<=(href|src)=\")(?=[a-zA-Z])",
-        "/hopsworks-api/yarnui/" + source + "/" + path + "/");
-    ui = ui.replaceAll("(?<=(href|src)=\')(?=[a-zA-Z])",
-        "/hopsworks-api/yarnui/" + source + "/" + path + "/");
-    ui = ui.replaceAll("(?<=(url: '))/(?=[a-zA-Z])", "/hopsworks-api/yarnui/");
-    ui = ui.replaceAll("(?<=(location\\.href = '))/(?=[a-zA-Z])", "/hopsworks-api/yarnui/");
-    ui = ui.replaceAll("(?<=\"(stdout\"|stderr\") : \")(?=[a-zA-Z])",
-      "/hopsworks-api/yarnui/");
-    ui = ui.replaceAll("for full log", "for latest " + settings.getSparkUILogsOffset()
-      + " bytes of logs");
-    ui = ui.replace("/?start=0", "/?start=-" + settings.getSparkUILogsOffset());
-    return ui;
-    
+  private boolean isRewritten(HttpMethod method) {
+    String contentType = headerValue(method, HttpHeaders.CONTENT_TYPE);
+    return contentType == null || contentType.contains("html") || contentType.contains("application/json");
   }
   
-  private String removeUnusable(String ui) {
-
-    if (ui.contains("<div id=\"user\">") || ui.contains("<tfoot>") || ui.contains("<td id=\"navcell\">")) {
-      isRemoving = ui;
-      return "";
-    }
-    if (isRemoving != null) {
-      if (isRemoving.contains("<div id=\"user\">") && ui.contains("<div id=\"logo\">")) {
-        isRemoving = null;
-        return ui;
-      } else if (isRemoving.contains("<tfoot>") && ui.contains("</tfoot>")) {
-        isRemoving = null;
-      } else if (isRemoving.contains("<td id=\"navcell\">") && ui.contains("</td>")) {
-        isRemoving = null;
+  private String headerValue(HttpMethod method, String name) {
+    org.apache.commons.httpclient.Header header = method.getResponseHeader(name);
+    return header == null ? null : header.getValue();
+  }
+  
+  /**
+   * @return the replacement of each of the {@link #LINK_REWRITER} rules
+   */
+  private String[] linkReplacements(String source, String path) {
+    return new String[]{
+      "/hopsworks-api/yarnui/" + source + "/",
+      "/hopsworks-api/yarnui/" + source + "/",
+      "/hopsworks-api/yarnui/",
+      "/hopsworks-api/yarnui/",
+      "/hopsworks-api/yarnui/",
+      "/hopsworks-api/yarnui/",
+      "/hopsworks-api/yarnui/" + source + "/" + path + "/",
+      "/hopsworks-api/yarnui/" + source + "/" + path + "/",
+      "/hopsworks-api/yarnui/",
+      "/hopsworks-api/yarnui/",
+      "/hopsworks-api/yarnui/",
+      "for latest " + settings.getSparkUILogsOffset() + " bytes of logs",
+      "/?start=-" + settings.getSparkUILogsOffset()};
+  }
+  
+  /**
+   * Removes the user, navigation and footer blocks of a page, which non admin users cannot use.
+   */
+  private static class UnusableBlocks implements LinkRewriter.LineFilter {
+    
+    private String isRemoving = null;
+    
+    @Override
+    public boolean keep(String ui) {
+      if (ui.contains("<div id=\"user\">") || ui.contains("<tfoot>") || ui.contains("<td id=\"navcell\">")) {
+        isRemoving = ui;
+        return false;
+      }
+      if (isRemoving != null) {
+        if (isRemoving.contains("<div id=\"user\">") && ui.contains("<div id=\"logo\">")) {
+          isRemoving = null;
+          return true;
+        } else if (isRemoving.contains("<tfoot>") && ui.contains("</tfoot>")) {
+          isRemoving = null;
+        } else if (isRemoving.contains("<td id=\"navcell\">") && ui.contains("</td>")) {
+          isRemoving = null;
+        }
+        return false;
       }
-      return "";
+      return true;
     }
-    return ui;
   }
   
   protected String rewriteUrlFromRequest(HttpServletRequest servletRequest) {
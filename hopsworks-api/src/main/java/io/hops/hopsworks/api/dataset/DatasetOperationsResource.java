@@ -0,0 +1,101 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.api.dataset;
+
+import io.hops.hopsworks.api.filter.AllowedProjectRoles;
+import io.hops.hopsworks.api.filter.Audience;
+import io.hops.hopsworks.api.filter.apiKey.ApiKeyRequired;
+import io.hops.hopsworks.api.jwt.JWTHelper;
+import io.hops.hopsworks.common.dataset.DatasetOperation;
+import io.hops.hopsworks.common.dataset.DatasetOperationTracker;
+import io.hops.hopsworks.common.project.ProjectController;
+import io.hops.hopsworks.exceptions.DatasetException;
+import io.hops.hopsworks.exceptions.ProjectException;
+import io.hops.hopsworks.jwt.annotation.JWTRequired;
+import io.hops.hopsworks.persistence.entity.user.Users;
+import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiScope;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+import javax.ejb.EJB;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.context.RequestScoped;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+
+/**
+ * Progress of the dataset copies and moves submitted with async=true. Kept outside of the dataset resource so that
+ * the operation ids never collide with the dataset paths.
+ */
+@Api(value = "Dataset Operations Resource")
+@RequestScoped
+@TransactionAttribute(TransactionAttributeType.NEVER)
+public class DatasetOperationsResource {
+  
+  @EJB
+  private ProjectController projectController;
+  @EJB
+  private JWTHelper jwtHelper;
+  @EJB
+  private DatasetOperationTracker operationTracker;
+  
+  private Integer projectId;
+  
+  public void setProjectId(Integer projectId) {
+    this.projectId = projectId;
+  }
+  
+  @GET
+  @Path("{operationId}")
+  @Produces(MediaType.APPLICATION_JSON)
+  @ApiOperation(value = "Get the progress of a copy or move running in the background",
+    response = DatasetOperation.class)
+  @AllowedProjectRoles({AllowedProjectRoles.DATA_OWNER, AllowedProjectRoles.DATA_SCIENTIST})
+  @JWTRequired(acceptedTokens = {Audience.API, Audience.JOB},
+    allowedUserRoles = {"HOPS_ADMIN", "HOPS_USER", "HOPS_SERVICE_USER"})
+  @ApiKeyRequired(acceptedScopes = {ApiScope.DATASET_VIEW},
+    allowedUserRoles = {"HOPS_ADMIN", "HOPS_USER", "HOPS_SERVICE_USER"})
+  public Response getOperation(@PathParam("operationId") String operationId,
+                               @Context SecurityContext sc) throws DatasetException, ProjectException {
+    DatasetOperation operation = operationTracker.get(operationId, projectController.findProjectById(projectId));
+    return Response.ok().entity(operation).build();
+  }
+  
+  @DELETE
+  @Path("{operationId}")
+  @Produces(MediaType.APPLICATION_JSON)
+  @ApiOperation(value = "Cancel a copy running in the background", response = DatasetOperation.class)
+  @AllowedProjectRoles({AllowedProjectRoles.DATA_OWNER, AllowedProjectRoles.DATA_SCIENTIST})
+  @JWTRequired(acceptedTokens = {Audience.API, Audience.JOB},
+    allowedUserRoles = {"HOPS_ADMIN", "HOPS_USER", "HOPS_SERVICE_USER"})
+  @ApiKeyRequired(acceptedScopes = {ApiScope.DATASET_CREATE},
+    allowedUserRoles = {"HOPS_ADMIN", "HOPS_USER", "HOPS_SERVICE_USER"})
+  public Response cancelOperation(@PathParam("operationId") String operationId,
+                                  @Context SecurityContext sc) throws DatasetException, ProjectException {
+    Users user = jwtHelper.getUserPrincipal(sc);
+    DatasetOperation operation =
+      operationTracker.cancel(operationId, projectController.findProjectById(projectId), user);
+    return Response.accepted().entity(operation).build();
+  }
+}
@@ -30,6 +30,7 @@ import io.hops.hopsworks.common.api.ResourceRequest;
 import io.hops.hopsworks.common.constants.auth.AllowedRoles;
 import io.hops.hopsworks.common.dao.project.team.ProjectTeamFacade;
 import io.hops.hopsworks.common.dataset.DatasetController;
+import io.hops.hopsworks.common.dataset.DatasetOperation;
 import io.hops.hopsworks.common.dataset.FilePreviewMode;
 import io.hops.hopsworks.common.dataset.util.DatasetHelper;
 import io.hops.hopsworks.common.dataset.util.DatasetPath;
@@ -211,7 +212,7 @@ public class DatasetResource {
         resourceRequest.setLimit(pagination.getLimit());
         resourceRequest.setSort(inodeBeanParam.getSortBySet());
         resourceRequest.setFilter(inodeBeanParam.getFilter());
-        dto = inodeBuilder.buildItems(uriInfo, resourceRequest, user, datasetPath);
+        dto = inodeBuilder.buildItems(uriInfo, resourceRequest, user, datasetPath, inodeBeanParam.getAfter());
         break;
       case STAT:
         if (datasetPath.isTopLevelDataset()) {
@@ -250,6 +251,7 @@ public class DatasetResource {
                              @QueryParam("generate_readme") Boolean generateReadme,
                              @QueryParam("destination_path") String destPath,
                              @QueryParam("destination_type") DatasetType destDatasetType,
+                             @QueryParam("async") @DefaultValue("false") Boolean async,
                              @DefaultValue("READ_ONLY") @QueryParam("permission") DatasetAccessPermission permission)
       throws DatasetException, ProjectException, HopsSecurityException, ProvenanceException, MetadataException,
              FeatureStoreMetadataException, FeaturestoreException {
@@ -297,7 +299,17 @@ public class DatasetResource {
           return Response.created(dto.getHref()).entity(dto).build();
         }
       case COPY:
-        // Until copy is made async
+        if (async) {
+          // Poll the progress at /project/{projectId}/datasetoperations/{operationId}
+          datasetPath = datasetHelper.getDatasetPathIfFileExist(project, path, datasetType);
+          distDatasetPath = datasetHelper.getDatasetPath(project, destPath, destDatasetType);
+          DatasetOperation operation = datasetController.submitCopy(project, user, datasetPath.getFullPath(),
+            distDatasetPath.getFullPath(), datasetPath.getDataset(), distDatasetPath.getDataset());
+          DatasetOperation submitted = operation.copy();
+          datasetController.copyAsync(operation, project, user, datasetPath.getFullPath(),
+            distDatasetPath.getFullPath());
+          return Response.accepted().entity(submitted).build();
+        }
         if (longRunningHttpRequests.get() >= settings.getMaxLongRunningHttpRequests()) {
           LOGGER.log(Level.INFO, "The maximum number of allowed copy operations exceeded. {0}",
             longRunningHttpRequests.get());
@@ -315,7 +327,17 @@ public class DatasetResource {
         }
         break;
       case MOVE:
-        // Until move is made async
+        if (async) {
+          // Poll the progress at /project/{projectId}/datasetoperations/{operationId}
+          datasetPath = datasetHelper.getDatasetPathIfFileExist(project, path, datasetType);
+          distDatasetPath = datasetHelper.getDatasetPath(project, destPath, destDatasetType);
+          DatasetOperation operation = datasetController.submitMove(project, user, datasetPath.getFullPath(),
+            distDatasetPath.getFullPath(), datasetPath.getDataset(), distDatasetPath.getDataset());
+          DatasetOperation submitted = operation.copy();
+          datasetController.moveAsync(operation, project, user, datasetPath.getFullPath(),
+            distDatasetPath.getFullPath(), datasetPath.getDataset());
+          return Response.accepted().entity(submitted).build();
+        }
         if (longRunningHttpRequests.get() >= settings.getMaxLongRunningHttpRequests()) {
           LOGGER.log(Level.INFO, "The maximum number of allowed move operations exceeded. {0}",
             longRunningHttpRequests.get());
@@ -34,12 +34,17 @@ public class InodeBeanParam {
     allowableValues = "id:1, id:2, id:3",
     allowMultiple = true)
   private Set<InodeFilterBy> filter;
+  @QueryParam("after")
+  @ApiParam(value = "Keyset pagination, ex. after= for the first page and after=<next of the previous page> for the " +
+    "following ones. Offset is ignored and only sorting by name or modification_time is allowed.")
+  private String after;
   
-  public InodeBeanParam(@QueryParam("sort_by") String sortBy, @QueryParam("filter_by") Set<InodeFilterBy> filter) {
+  public InodeBeanParam(@QueryParam("sort_by") String sortBy, @QueryParam("filter_by") Set<InodeFilterBy> filter,
+    @QueryParam("after") String after) {
     this.sortBy = sortBy;
     this.sortBySet = getSortBy(sortBy);
     this.filter = filter;
-    
+    this.after = after;
   }
   
   private Set<InodeSortBy> getSortBy(String param) {
@@ -77,4 +82,12 @@ public class InodeBeanParam {
     return sortBySet;
   }
   
+  public String getAfter() {
+    return after;
+  }
+  
+  public void setAfter(String after) {
+    this.after = after;
+  }
+  
 }
\ No newline at end of file
@@ -27,12 +27,14 @@ import io.hops.hopsworks.common.api.ResourceRequest;
 import io.hops.hopsworks.common.dao.AbstractFacade;
 import io.hops.hopsworks.common.dao.hdfs.inode.InodeFacade;
 import io.hops.hopsworks.common.dao.user.UserFacade;
+import io.hops.hopsworks.common.tags.TagsDTO;
 import io.hops.hopsworks.common.dataset.DatasetController;
 import io.hops.hopsworks.common.dataset.FilePreviewMode;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.DatasetException;
 import io.hops.hopsworks.exceptions.MetadataException;
 import io.hops.hopsworks.exceptions.FeatureStoreMetadataException;
+import io.hops.hopsworks.exceptions.InvalidQueryException;
 import io.hops.hopsworks.persistence.entity.hdfs.command.HdfsCommandExecution;
 import io.hops.hopsworks.persistence.entity.hdfs.inode.Inode;
 import io.hops.hopsworks.persistence.entity.project.Project;
@@ -44,9 +46,15 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.ws.rs.core.UriInfo;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -57,6 +65,7 @@ import java.util.stream.Stream;
 public class InodeBuilder {
   
   private static final Logger LOGGER = Logger.getLogger(InodeBuilder.class.getName());
+  private static final String CURSOR_SEPARATOR = ":";
   
   @EJB
   private InodeFacade inodeFacade;
@@ -104,18 +113,17 @@ public class InodeBuilder {
     return dto;
   }
   
-  public InodeDTO buildStat(UriInfo uriInfo, ResourceRequest resourceRequest, Users user, DatasetPath datasetPath,
-                            Inode inode, Users dirOwner)
-    throws DatasetException, FeatureStoreMetadataException, MetadataException {
+  private InodeDTO buildItem(UriInfo uriInfo, ResourceRequest resourceRequest, String parentPath, Inode inode,
+                             Function<String, Users> owners, TagsDTO tags,
+                             Map<String, HdfsCommandExecution> hdfsCommands) {
     InodeDTO dto = new InodeDTO();
     uri(dto, uriInfo, inode);
     expand(dto, resourceRequest);
     if (dto.isExpand()) {
-      String parentPath = datasetPath.getFullPath().toString();
-      dto.setAttributes(inodeAttributeBuilder.build(new InodeAttributeDTO(), resourceRequest, inode, parentPath,
-        dirOwner));
-      dto.setTags(tagsBuilder.build(new InodeTagUri(uriInfo), resourceRequest, user, datasetPath));
-      setZipState(dto);
+      dto.setAttributes(inodeAttributeBuilder.buildItem(new InodeAttributeDTO(), resourceRequest, inode, parentPath,
+        owners));
+      dto.setTags(tags);
+      setZipState(dto, Optional.ofNullable(hdfsCommands.get(dto.getAttributes().getPath())));
     }
     return dto;
   }
@@ -215,6 +223,21 @@ public class InodeBuilder {
    */
   public InodeDTO buildItems(UriInfo uriInfo, ResourceRequest resourceRequest, Users user, DatasetPath datasetPath)
     throws DatasetException, FeatureStoreMetadataException, MetadataException {
+    return buildItems(uriInfo, resourceRequest, user, datasetPath, null);
+  }
+  
+  /**
+   * Build a page of the Inodes under the given path
+   * @param uriInfo
+   * @param resourceRequest
+   * @param datasetPath
+   * @param after - keyset cursor, the next of the previous page or empty for the first page. If null the page is
+   *              selected by offset.
+   * @return
+   */
+  public InodeDTO buildItems(UriInfo uriInfo, ResourceRequest resourceRequest, Users user, DatasetPath datasetPath,
+                             String after)
+    throws DatasetException, FeatureStoreMetadataException, MetadataException {
     Inode parent = datasetPath.getInode();
     if (parent == null) {
       throw new DatasetException(RESTCodes.DatasetErrorCode.PATH_NOT_FOUND, Level.FINE);
@@ -222,27 +245,31 @@ public class InodeBuilder {
     if (!parent.isDir()) {
       throw new DatasetException(RESTCodes.DatasetErrorCode.INVALID_PATH_DIR, Level.FINE);
     }
-    return build(uriInfo, new InodeDTO(), resourceRequest, user, datasetPath, parent);
+    return build(uriInfo, new InodeDTO(), resourceRequest, user, datasetPath, parent, after);
   }
   
   private InodeDTO build(UriInfo uriInfo, InodeDTO dto, ResourceRequest resourceRequest, Users user,
-                         DatasetPath datasetPath, Inode parent)
+                         DatasetPath datasetPath, Inode parent, String after)
     throws DatasetException, FeatureStoreMetadataException, MetadataException {
     uri(dto, uriInfo);
     Users dirOwner = userFacade.findByUsername(parent.getHdfsUser().getUsername());
     datasetHelper.checkResourceRequestLimit(resourceRequest, parent.getChildrenNum());
-    InodeDTO inodeDTO = items(uriInfo, dto, resourceRequest, user, datasetPath, parent, dirOwner);
+    InodeDTO inodeDTO = items(uriInfo, dto, resourceRequest, user, datasetPath, parent, dirOwner, after);
     return inodeDTO;
   }
   
   private InodeDTO items(UriInfo uriInfo, InodeDTO dto, ResourceRequest resourceRequest, Users user,
-                         DatasetPath datasetPath, Inode parent, Users dirOwner)
+                         DatasetPath datasetPath, Inode parent, Users dirOwner, String after)
     throws DatasetException, FeatureStoreMetadataException, MetadataException {
     expand(dto, resourceRequest);
     AbstractFacade.CollectionInfo collectionInfo;
     if (dto.isExpand()) {
-      collectionInfo = inodeFacade.findByParent(resourceRequest.getOffset(), resourceRequest.getLimit(),
-        resourceRequest.getFilter(), resourceRequest.getSort(), parent, datasetPath.getAccessProject());
+      if (after == null) {
+        collectionInfo = inodeFacade.findByParent(resourceRequest.getOffset(), resourceRequest.getLimit(),
+          resourceRequest.getFilter(), resourceRequest.getSort(), parent, datasetPath.getAccessProject());
+      } else {
+        collectionInfo = findAfter(resourceRequest, after, parent, datasetPath.getAccessProject(), dto);
+      }
       items(uriInfo, dto, resourceRequest, user, datasetPath, collectionInfo.getItems(), dirOwner);
       dto.setCount(collectionInfo.getCount());
     }
@@ -253,8 +280,18 @@ public class InodeBuilder {
                          DatasetPath datasetPath, List<Inode> inodes, Users dirOwner)
     throws DatasetException, FeatureStoreMetadataException, MetadataException {
     if (inodes != null && !inodes.isEmpty()) {
+      //owners and zip state of the whole page are fetched at once
+      String parentPath = datasetPath.getFullPath().toString();
+      Function<String, Users> owners = inodeAttributeBuilder.owners(resourceRequest, inodes, dirOwner);
+      Map<String, HdfsCommandExecution> hdfsCommands = hdfsCommandExecutionFacade.findBySrcPaths(inodes.stream()
+          .map(inode -> parentPath + File.separator + inode.getInodePK().getName())
+          .collect(Collectors.toList()))
+        .stream()
+        .collect(Collectors.toMap(HdfsCommandExecution::getSrcPath, Function.identity(), (c1, c2) -> c1));
+      //the items are listed with the tags of the directory, which are the same for all of them
+      TagsDTO tags = tagsBuilder.build(new InodeTagUri(uriInfo), resourceRequest, user, datasetPath);
       for(Inode inode : inodes) {
-        dto.addItem(buildStat(uriInfo, resourceRequest, user, datasetPath, inode, dirOwner));
+        dto.addItem(buildItem(uriInfo, resourceRequest, parentPath, inode, owners, tags, hdfsCommands));
       }
     } else if (inodes != null && inodes.isEmpty()) {
       dto.setItems(new ArrayList<>());
@@ -262,9 +299,44 @@ public class InodeBuilder {
     return dto;
   }
   
+  private AbstractFacade.CollectionInfo findAfter(ResourceRequest resourceRequest, String after, Inode parent,
+                                                  Project project, InodeDTO dto) {
+    Set<? extends AbstractFacade.SortBy> sort = resourceRequest.getSort();
+    if (sort != null && sort.size() > 1) {
+      throw new InvalidQueryException("Keyset pagination needs to sort by a single field.");
+    }
+    AbstractFacade.SortBy sortBy = sort == null || sort.isEmpty() ? null : sort.iterator().next();
+    InodeFacade.Sorts keySort = sortBy == null ? InodeFacade.Sorts.NAME : InodeFacade.Sorts.valueOf(sortBy.getValue());
+    AbstractFacade.OrderBy order = sortBy == null ? AbstractFacade.OrderBy.ASC : sortBy.getParam();
+    Long afterTime = null;
+    String afterName = null;
+    if (!after.isEmpty()) {
+      try {
+        String key = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+        int separator = key.indexOf(CURSOR_SEPARATOR);
+        afterTime = Long.parseLong(key.substring(0, separator));
+        afterName = key.substring(separator + 1);
+      } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+        throw new InvalidQueryException("Pagination cursor is not valid: " + after);
+      }
+    }
+    AbstractFacade.CollectionInfo collectionInfo = inodeFacade.findByParentAfter(resourceRequest.getLimit(),
+      resourceRequest.getFilter(), keySort, order, afterTime, afterName, parent, project);
+    List<Inode> inodes = collectionInfo.getItems();
+    Integer limit = resourceRequest.getLimit();
+    if (limit != null && limit > 0 && inodes.size() >= limit) {
+      Inode last = inodes.get(inodes.size() - 1);
+      String key = last.getModificationTime().longValue() + CURSOR_SEPARATOR + last.getInodePK().getName();
+      dto.setNext(Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8)));
+    }
+    return collectionInfo;
+  }
+  
   private void setZipState(InodeDTO dto) {
-    Optional<HdfsCommandExecution> hdfsCommandExecution =
-      hdfsCommandExecutionFacade.findBySrcPath(dto.getAttributes().getPath());
+    setZipState(dto, hdfsCommandExecutionFacade.findBySrcPath(dto.getAttributes().getPath()));
+  }
+  
+  private void setZipState(InodeDTO dto, Optional<HdfsCommandExecution> hdfsCommandExecution) {
     ZipState zipState = ZipState.NONE;
     if (hdfsCommandExecution.isPresent()) {
       dto.setHdfsCommand(new HdfsCommandDTO(hdfsCommandExecution.get(), dto.getAttributes().getPath()));
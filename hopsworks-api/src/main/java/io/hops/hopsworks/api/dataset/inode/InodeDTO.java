@@ -30,6 +30,7 @@ public class InodeDTO extends RestDTO<InodeDTO> {
   private String zipState = "NONE";
   private TagsDTO tags;
   private HdfsCommandDTO hdfsCommand;
+  private String next;
   
   public InodeDTO() {
   }
@@ -74,6 +75,14 @@ public class InodeDTO extends RestDTO<InodeDTO> {
     this.hdfsCommand = hdfsCommand;
   }
 
+  public String getNext() {
+    return next;
+  }
+
+  public void setNext(String next) {
+    this.next = next;
+  }
+
   @Override
   public String toString() {
     return "InodeDTO{" +
@@ -28,8 +28,14 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import java.io.File;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 @Stateless
 @TransactionAttribute(TransactionAttributeType.NEVER)
@@ -70,25 +76,63 @@ public class InodeAttributeBuilder {
     return getFullName(user, hdfsUser.getUsername());
   }
   
+  /**
+   * Look up the owners of a page of inodes in one query.
+   *
+   * @param resourceRequest
+   * @param inodes
+   * @param dirOwner owner of the parent directory, not looked up again
+   * @return the user by hdfs user name, null if there is none
+   */
+  public Function<String, Users> owners(ResourceRequest resourceRequest, Collection<Inode> inodes, Users dirOwner) {
+    Map<String, Users> owners = new HashMap<>();
+    if (dirOwner != null) {
+      owners.put(dirOwner.getUsername(), dirOwner);
+    }
+    if (expand(resourceRequest)) {
+      Set<String> usernames = inodes.stream()
+        .map(inode -> inode.getHdfsUser().getUsername())
+        .filter(username -> !owners.containsKey(username))
+        .collect(Collectors.toSet());
+      for (Users user : userFacade.findByUsernames(usernames)) {
+        owners.put(user.getUsername(), user);
+      }
+    }
+    return owners::get;
+  }
+  
   public InodeAttributeDTO build(InodeAttributeDTO dto, ResourceRequest resourceRequest, Inode inode,
     String parentPath, Users dirOwner) {
     if (expand(resourceRequest)) {
-      dto.setId(inode.getId());
-      dto.setName(inode.getInodePK().getName());
-      dto.setAccessTime(new Date(inode.getAccessTime().longValue()));
-      dto.setModificationTime(new Date(inode.getModificationTime().longValue()));
-      dto.setDir(inode.isDir());
-      dto.setOwner(getUserName(inode.getHdfsUser(), dirOwner));
-      dto.setGroup(inode.getHdfsGroup().getName());
-      dto.setParentId(inode.getInodePK().getParentId());
-      String path = parentPath != null ? parentPath + File.separator + inode.getInodePK().getName() :
-        inodeController.getPath(inode);
-      dto.setPath(path);
-      dto.setUnderConstruction(inode.isUnderConstruction());
-      dto.setPermission(FsPermission.createImmutable(inode.getPermission()).toString());
-      dto.setSize(inode.getSize());
+      setAttributes(dto, inode, parentPath, getUserName(inode.getHdfsUser(), dirOwner));
+    }
+    return dto;
+  }
+  
+  public InodeAttributeDTO buildItem(InodeAttributeDTO dto, ResourceRequest resourceRequest, Inode inode,
+    String parentPath, Function<String, Users> owners) {
+    if (expand(resourceRequest)) {
+      String hdfsUserName = inode.getHdfsUser().getUsername();
+      setAttributes(dto, inode, parentPath, getFullName(owners.apply(hdfsUserName), hdfsUserName));
     }
     return dto;
   }
   
+  private void setAttributes(InodeAttributeDTO dto, Inode inode, String parentPath, String owner) {
+    dto.setId(inode.getId());
+    dto.setName(inode.getInodePK().getName());
+    dto.setAccessTime(new Date(inode.getAccessTime().longValue()));
+    dto.setModificationTime(new Date(inode.getModificationTime().longValue()));
+    dto.setDir(inode.isDir());
+    dto.setOwner(owner);
+    dto.setGroup(inode.getHdfsGroup().getName());
+    dto.setParentId(inode.getInodePK().getParentId());
+    String path = parentPath != null ? parentPath + File.separator + inode.getInodePK().getName() :
+      inodeController.getPath(inode);
+    dto.setPath(path);
+    dto.setUnderConstruction(inode.isUnderConstruction());
+    dto.setPermission(FsPermission.createImmutable(inode.getPermission()).toString());
+    dto.setSize(inode.getSize());
+  }
+  
 }
\ No newline at end of file
@@ -54,6 +54,10 @@ public class FeaturegroupBuilder {
   public List<FeaturegroupDTO> build(List<Featuregroup> featuregroups, Project project, Users user,
       ResourceRequest resourceRequest) throws ServiceException, FeaturestoreException {
     List<FeaturegroupDTO> featuregroupDTOS = Lists.newArrayList();
+    if (featuregroups.size() > 1 && resourceRequest != null
+        && resourceRequest.contains(ResourceRequest.Name.FEATURES)) {
+      featuregroupController.warmUpSchemaCache(featuregroups, project, user);
+    }
     for (Featuregroup featuregroup : featuregroups) {
       featuregroupDTOS.add(build(featuregroup, project, user, resourceRequest));
     }
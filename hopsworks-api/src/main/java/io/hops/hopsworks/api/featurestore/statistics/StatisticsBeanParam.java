@@ -42,10 +42,16 @@ public class StatisticsBeanParam {
   private String fields;
   private Set<String> fieldSet = new HashSet<>();
 
+  @QueryParam("feature_names")
+  @ApiParam(value = "ex. feature_names=age,amount, only with fields=content")
+  private String featureNames;
+  private Set<String> featureNameSet = new LinkedHashSet<>();
+
   public StatisticsBeanParam(
       @QueryParam("sort_by") String sortBy,
       @QueryParam("filter_by") Set<FilterBy> filter,
-      @QueryParam("fields") String fields) {
+      @QueryParam("fields") String fields,
+      @QueryParam("feature_names") String featureNames) {
     this.sortBy = sortBy;
     this.sortBySet = getSortBy(sortBy);
     this.filterSet = filter;
@@ -54,6 +60,11 @@ public class StatisticsBeanParam {
     if (!Strings.isNullOrEmpty(fields)) {
       this.fieldSet.addAll(Arrays.stream(fields.split(",")).collect(Collectors.toSet()));
     }
+    this.featureNames = featureNames;
+    if (!Strings.isNullOrEmpty(featureNames)) {
+      Arrays.stream(featureNames.split(",")).map(String::trim).filter(n -> !n.isEmpty())
+          .forEach(this.featureNameSet::add);
+    }
   }
 
   private Set<SortBy> getSortBy(String param) {
@@ -82,5 +93,9 @@ public class StatisticsBeanParam {
   public Set<String> getFieldSet() {
     return fieldSet;
   }
+
+  public Set<String> getFeatureNameSet() {
+    return featureNameSet;
+  }
 }
 
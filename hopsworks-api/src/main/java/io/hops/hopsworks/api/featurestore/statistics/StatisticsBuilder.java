@@ -38,7 +38,9 @@ import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 @Stateless
 @TransactionAttribute(TransactionAttributeType.NEVER)
@@ -115,6 +117,32 @@ public class StatisticsBuilder {
     return resourceRequest != null && resourceRequest.contains(ResourceRequest.Name.STATISTICS);
   }
 
+  private Set<String> featureNames(ResourceRequest resourceRequest) {
+    if (resourceRequest instanceof StatisticsResourceRequest) {
+      return ((StatisticsResourceRequest) resourceRequest).getFeatureNames();
+    }
+    return Collections.emptySet();
+  }
+
+  private String readContent(ResourceRequest resourceRequest, Project project, Users user,
+                             FeaturestoreStatistic featurestoreStatistic) throws FeaturestoreException {
+    Set<String> featureNames = featureNames(resourceRequest);
+    if (featureNames.isEmpty()) {
+      return statisticsController.readStatisticsContent(project, user, featurestoreStatistic);
+    }
+    return statisticsController.readStatisticsContent(project, user, featurestoreStatistic, featureNames);
+  }
+
+  private String readContent(ResourceRequest resourceRequest, Project project, Users user,
+                             FeaturestoreStatistic featurestoreStatistic, String splitName)
+      throws FeaturestoreException {
+    Set<String> featureNames = featureNames(resourceRequest);
+    if (featureNames.isEmpty()) {
+      return statisticsController.readStatisticsContent(project, user, featurestoreStatistic, splitName);
+    }
+    return statisticsController.readStatisticsContent(project, user, featurestoreStatistic, splitName, featureNames);
+  }
+
   public StatisticsDTO build(UriInfo uriInfo, ResourceRequest resourceRequest,
                              Project project, Users user,
                              Featuregroup featuregroup,
@@ -129,7 +157,7 @@ public class StatisticsBuilder {
             featurestoreStatistic.getFeatureGroupCommit().getFeatureGroupCommitPK().getCommitId());
       }
       if (resourceRequest.getField() != null && resourceRequest.getField().contains("content")) {
-        dto.setContent(statisticsController.readStatisticsContent(project, user, featurestoreStatistic));
+        dto.setContent(readContent(resourceRequest, project, user, featurestoreStatistic));
       }
     }
 
@@ -151,12 +179,11 @@ public class StatisticsBuilder {
             !featurestoreStatistic.getForTransformation()) {
           for (TrainingDatasetSplit trainingDatasetSplit : trainingDataset.getSplits()) {
             splitStatistics.add(new SplitStatisticsDTO(trainingDatasetSplit.getName(),
-              statisticsController.readStatisticsContent(project, user, featurestoreStatistic,
-                trainingDatasetSplit.getName())));
+              readContent(resourceRequest, project, user, featurestoreStatistic, trainingDatasetSplit.getName())));
           }
           dto.setSplitStatistics(splitStatistics);
         } else {
-          dto.setContent(statisticsController.readStatisticsContent(project, user, featurestoreStatistic));
+          dto.setContent(readContent(resourceRequest, project, user, featurestoreStatistic));
         }
       }
     }
@@ -174,7 +201,7 @@ public class StatisticsBuilder {
     if (dto.isExpand()) {
       dto.setCommitTime(featurestoreStatistic.getCommitTime().getTime());
       if (resourceRequest.getField() != null && resourceRequest.getField().contains("content")) {
-        dto.setContent(statisticsController.readStatisticsContent(project, user, featurestoreStatistic));
+        dto.setContent(readContent(resourceRequest, project, user, featurestoreStatistic));
       }
     }
 
@@ -132,12 +132,13 @@ public class StatisticsResource {
       throws FeaturestoreException {
     Users user = jWTHelper.getUserPrincipal(sc);
 
-    ResourceRequest resourceRequest = new ResourceRequest(ResourceRequest.Name.STATISTICS);
+    StatisticsResourceRequest resourceRequest = new StatisticsResourceRequest(ResourceRequest.Name.STATISTICS);
     resourceRequest.setOffset(pagination.getOffset());
     resourceRequest.setLimit(pagination.getLimit());
     resourceRequest.setSort(statisticsBeanParam.getSortBySet());
     resourceRequest.setFilter(statisticsBeanParam.getFilterSet());
     resourceRequest.setField(statisticsBeanParam.getFieldSet());
+    resourceRequest.setFeatureNames(statisticsBeanParam.getFeatureNameSet());
 
     StatisticsDTO dto;
     if (featuregroup != null) {
@@ -0,0 +1,40 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.api.featurestore.statistics;
+
+import io.hops.hopsworks.common.api.ResourceRequest;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class StatisticsResourceRequest extends ResourceRequest {
+
+  // Empty to read the statistics of all the features
+  private Set<String> featureNames = new HashSet<>();
+
+  public StatisticsResourceRequest(Name name) {
+    super(name);
+  }
+
+  public Set<String> getFeatureNames() {
+    return featureNames;
+  }
+
+  public void setFeatureNames(Set<String> featureNames) {
+    this.featureNames = featureNames;
+  }
+}
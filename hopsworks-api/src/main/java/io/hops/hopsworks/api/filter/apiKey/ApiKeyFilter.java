@@ -19,14 +19,13 @@ import io.hops.hopsworks.api.filter.util.HopsworksSecurityContext;
 import io.hops.hopsworks.api.filter.util.Subject;
 import io.hops.hopsworks.api.util.RESTApiJsonResponse;
 import io.hops.hopsworks.common.user.UserStatusValidator;
-import io.hops.hopsworks.common.user.UsersController;
 import io.hops.hopsworks.common.user.security.apiKey.ApiKeyController;
+import io.hops.hopsworks.common.user.security.apiKey.VerifiedApiKey;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.ApiKeyException;
 import io.hops.hopsworks.exceptions.UserException;
 import io.hops.hopsworks.jwt.annotation.JWTRequired;
 import io.hops.hopsworks.persistence.entity.user.Users;
-import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiKey;
 import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiScope;
 import io.hops.hopsworks.restutils.JsonResponse;
 import io.hops.hopsworks.restutils.RESTCodes;
@@ -65,8 +64,6 @@ public class ApiKeyFilter implements ContainerRequestFilter {
   @EJB
   private ApiKeyController apiKeyController;
   @EJB
-  private UsersController usersController;
-  @EJB
   private UserStatusValidator userStatusValidator;
   @EJB
   private Settings settings;
@@ -107,13 +104,12 @@ public class ApiKeyFilter implements ContainerRequestFilter {
     
     String key = authorizationHeader.substring(API_KEY.length()).trim();
     try {
-      ApiKey apiKey = apiKeyController.getApiKey(key);
+      VerifiedApiKey apiKey = apiKeyController.getVerifiedApiKey(key);
       Users user = apiKey.getUser();
       userStatusValidator.checkStatus(user.getStatus());
-      List<String> roles = usersController.getUserRoles(user);
-      Set<ApiScope> scopes = apiKeyController.getScopes(apiKey);
+      List<String> roles = apiKey.getRoles();
       checkRole(roles);
-      checkScope(scopes);
+      checkScope(apiKey.getScopes());
       Subject subject = new Subject(user.getUsername(), roles);
       String scheme = requestContext.getUriInfo().getRequestUri().getScheme();
       requestContext.setSecurityContext(new HopsworksSecurityContext(subject, scheme));
@@ -25,6 +25,7 @@ import io.hops.hopsworks.api.util.Pagination;
 import io.hops.hopsworks.common.api.ResourceRequest;
 import io.hops.hopsworks.common.jobs.JobLogDTO;
 import io.hops.hopsworks.common.jobs.execution.ExecutionController;
+import io.hops.hopsworks.common.util.LongRunningHttpRequests;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.GenericException;
 import io.hops.hopsworks.exceptions.JobException;
@@ -36,7 +37,9 @@ import io.hops.hopsworks.persistence.entity.jobs.history.Execution;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiScope;
 import io.swagger.annotations.ApiOperation;
+import io.hops.hopsworks.restutils.RESTCodes;
 import io.swagger.annotations.ApiParam;
+import org.apache.commons.io.output.CountingOutputStream;
 
 import javax.ejb.EJB;
 import javax.ejb.TransactionAttribute;
@@ -47,18 +50,23 @@ import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.BeanParam;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
 
 @RequestScoped
 @TransactionAttribute(TransactionAttributeType.NEVER)
@@ -70,6 +78,8 @@ public class ExecutionsResource {
   private ExecutionsBuilder executionsBuilder;
   @EJB
   private Settings settings;
+  @EJB
+  private LongRunningHttpRequests longRunningHttpRequests;
   
   
   @EJB
@@ -210,13 +220,57 @@ public class ExecutionsResource {
   public Response getLog(
     @PathParam("id") Integer id,
     @PathParam("type") JobLogDTO.LogType type,
+    @ApiParam(value = "byte offset of the log window, from the end of the log if negative")
+    @QueryParam("offset") Long offset,
+    @ApiParam(value = "maximum length in bytes of the log window") @QueryParam("length") Integer length,
+    @ApiParam(value = "only return the lines of the window containing it") @QueryParam("grep") String grep,
     @Context HttpServletRequest req,
     @Context SecurityContext sc) throws JobException {
     Execution execution = executionController.authorize(job, id);
-    JobLogDTO dto = executionController.getLog(execution, type);
+    JobLogDTO dto;
+    if (offset == null && length == null && Strings.isNullOrEmpty(grep)) {
+      dto = executionController.getLog(execution, type);
+    } else {
+      dto = executionController.getLog(execution, type, offset == null ? 0 : offset,
+        length == null ? Settings.JOB_LOGS_DISPLAY_SIZE : length, grep);
+    }
     return Response.ok().entity(dto).build();
   }
   
+  @ApiOperation(value = "Follow the log of given execution and type")
+  @GET
+  @Path("{id}/log/{type}/tail")
+  @Produces(MediaType.TEXT_PLAIN)
+  @AllowedProjectRoles({AllowedProjectRoles.DATA_OWNER, AllowedProjectRoles.DATA_SCIENTIST})
+  @JWTRequired(acceptedTokens={Audience.API}, allowedUserRoles={"HOPS_ADMIN", "HOPS_USER", "HOPS_SERVICE_USER"})
+  @ApiKeyRequired( acceptedScopes = {ApiScope.JOB}, allowedUserRoles = {"HOPS_ADMIN", "HOPS_USER", "HOPS_SERVICE_USER"})
+  public Response tailLog(
+    @PathParam("id") Integer id,
+    @PathParam("type") JobLogDTO.LogType type,
+    @ApiParam(value = "byte offset to start from once the execution has finished")
+    @QueryParam("offset") @DefaultValue("0") long offset,
+    @Context HttpServletRequest req,
+    @Context SecurityContext sc) throws JobException {
+    Execution execution = executionController.authorize(job, id);
+    if (longRunningHttpRequests.get() >= settings.getMaxLongRunningHttpRequests()) {
+      throw new JobException(RESTCodes.JobErrorCode.JOB_LOG, Level.FINE,
+        "The maximum number of allowed long running operations exceeded. Please try again later.");
+    }
+    StreamingOutput stream = out -> {
+      longRunningHttpRequests.increment();
+      long started = System.currentTimeMillis();
+      CountingOutputStream counting = new CountingOutputStream(out);
+      try {
+        executionController.tailLog(execution, type, offset, counting);
+      } catch (JobException e) {
+        counting.write(e.getUsrMsg().getBytes(StandardCharsets.UTF_8));
+      } finally {
+        longRunningHttpRequests.decrement(counting.getByteCount(), System.currentTimeMillis() - started);
+      }
+    };
+    return Response.ok(stream).build();
+  }
+  
   @ApiOperation(value = "Retry log aggregation of given execution and type", response = JobLogDTO.class)
   @POST
   @Path("{id}/log/{type}")
@@ -84,6 +84,8 @@ import java.util.regex.Pattern;
 @Stateless
 public class GrafanaProxyServlet extends ProxyServlet {
   private static final Logger LOGGER = Logger.getLogger(GrafanaProxyServlet.class.getName());
+  // largest query body buffered to authorize it
+  private static final long MAX_QUERY_SIZE = 1024 * 1024;
   @EJB
   private YarnApplicationstateFacade yarnApplicationstateFacade;
   @EJB
@@ -150,7 +152,13 @@ public class GrafanaProxyServlet extends ProxyServlet {
       addParamsToHeader.getRequestURI().contains("query")) {
       boolean isAuthorized = false;
       // wrap request for multi read
-      MultiReadHttpServletRequest multiReadHttpServletRequest = new MultiReadHttpServletRequest(addParamsToHeader);
+      MultiReadHttpServletRequest multiReadHttpServletRequest;
+      try {
+        multiReadHttpServletRequest = new MultiReadHttpServletRequest(addParamsToHeader, MAX_QUERY_SIZE);
+      } catch (IOException e) {
+        servletResponse.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, e.getMessage());
+        return;
+      }
       // read body
       String bodyString = IOUtils.toString(multiReadHttpServletRequest.getInputStream(), StandardCharsets.UTF_8);
       try {
@@ -47,12 +47,9 @@ import org.apache.http.HttpStatus;
 import org.apache.http.client.CircularRedirectException;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.HttpClient;
-import org.apache.http.client.config.CookieSpecs;
-import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.utils.URIUtils;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.params.HttpParams;
 import org.apache.http.ssl.SSLContexts;
 
@@ -113,17 +110,12 @@ public class KibanaProxyServlet extends ProxyServlet {
       }
     }
   
-    HttpClientBuilder clientBuilder = HttpClients.custom();
+    HttpClientBuilder clientBuilder = createHttpClientBuilder(hcParams);
     if(sslCtx != null){
       clientBuilder.setSSLContext(sslCtx);
     }
-  
-    RequestConfig config =
-        RequestConfig.custom().setCookieSpec(
-            CookieSpecs.IGNORE_COOKIES).build();
     
-    return clientBuilder.setDefaultRequestConfig(config)
-        .setSSLHostnameVerifier(NoopHostnameVerifier.INSTANCE).build();
+    return clientBuilder.setSSLHostnameVerifier(NoopHostnameVerifier.INSTANCE).build();
   }
   
   @Override
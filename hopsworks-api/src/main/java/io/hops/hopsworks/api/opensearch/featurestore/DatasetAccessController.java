@@ -20,23 +20,23 @@ import io.hops.hopsworks.common.dao.dataset.DatasetSharedWithFacade;
 import io.hops.hopsworks.common.dao.hdfs.inode.InodeFacade;
 import io.hops.hopsworks.common.dao.project.ProjectFacade;
 import io.hops.hopsworks.common.dao.project.team.ProjectTeamFacade;
-import io.hops.hopsworks.common.hdfs.inode.InodeController;
 import io.hops.hopsworks.common.opensearch.FeaturestoreDocType;
 import io.hops.hopsworks.common.featurestore.trainingdatasets.TrainingDatasetController;
 import io.hops.hopsworks.common.hdfs.Utils;
-import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.persistence.entity.dataset.Dataset;
 import io.hops.hopsworks.persistence.entity.dataset.DatasetSharedWith;
 import io.hops.hopsworks.persistence.entity.hdfs.inode.Inode;
 import io.hops.hopsworks.persistence.entity.project.Project;
+import io.hops.hopsworks.persistence.entity.project.team.ProjectTeam;
 import io.hops.hopsworks.persistence.entity.user.Users;
-import org.apache.hadoop.fs.Path;
 import org.javatuples.Pair;
 
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -65,10 +65,6 @@ public class DatasetAccessController {
   private DatasetSharedWithFacade dsSharedWithFacade;
   @EJB
   private TrainingDatasetController tdCtrl;
-  @EJB
-  private Settings settings;
-  @EJB
-  private InodeController inodeController;
   
   private String getDatasetType(DatasetSharedWith ds) {
     Project parentProject = ds.getDataset().getProject();
@@ -134,6 +130,12 @@ public class DatasetAccessController {
   }
   
   public interface DatasetAccessCtrl extends BiConsumer<DatasetDetails, ProjectsCollector> {
+    /**
+     * Resolve what is needed to decide the access to all the given datasets at once, before they are accepted one
+     * by one.
+     */
+    default void prefetch(Collection<? extends DatasetDetails> datasetDetails) {
+    }
   }
   
   /**
@@ -150,11 +152,25 @@ public class DatasetAccessController {
    * Since this cache is used per request, it is safe to use with multiple instances of glassfish.
    * Discarded(reset) between different requests(short intervals) in order to avoid stale cache values.
    *
+   * The access decision is memoized per parent project and dataset. Prefetching the details of all the values of the
+   * request resolves the projects, datasets, shared datasets and user roles with a handful of queries instead of a
+   * few queries per value.
+   *
    * @param user
    */
   public DatasetAccessCtrl memoizedAccessorProjects(Users user) {
     ShortLivedCache cache = new ShortLivedCache();
-    return (i, c) -> accessorProjects(user, i, c, cache);
+    return new DatasetAccessCtrl() {
+      @Override
+      public void accept(DatasetDetails datasetDetails, ProjectsCollector collector) {
+        accessorProjects(user, datasetDetails, collector, cache);
+      }
+      
+      @Override
+      public void prefetch(Collection<? extends DatasetDetails> datasetDetails) {
+        DatasetAccessController.this.prefetch(user, datasetDetails, cache);
+      }
+    };
   }
   
   /**
@@ -172,6 +188,18 @@ public class DatasetAccessController {
   }
   
   private void accessorProjects(Users user, DatasetDetails datasetDetails, ProjectsCollector collector,
+    ShortLivedCache cache) {
+    Pair<Integer, Long> key = Pair.with(datasetDetails.getParentProjectId(), datasetDetails.getParentDatasetIId());
+    List<Project> accessProjects = cache.accessCache.get(key);
+    if (accessProjects == null) {
+      accessProjects = new ArrayList<>();
+      collectAccessorProjects(user, datasetDetails, accessProjects::add, cache);
+      cache.accessCache.put(key, accessProjects);
+    }
+    accessProjects.forEach(collector::addAccessProject);
+  }
+  
+  private void collectAccessorProjects(Users user, DatasetDetails datasetDetails, ProjectsCollector collector,
     ShortLivedCache cache) {
     //<project, userProjectRole>
     Pair<Project, String> projectAux = getProjectWithCache(user, datasetDetails.getParentProjectId(), cache);
@@ -195,11 +223,9 @@ public class DatasetAccessController {
   
   private void checkSharedDatasetsAccess(Users user, Dataset dataset, ProjectsCollector collector,
     ShortLivedCache cache) {
-    Path datasetPath = Utils.getDatasetPath(dataset, settings);
-    Inode datasetInode = inodeController.getInodeAtPath(datasetPath.toString());
-    if(cache.sharedWithProjectsCache.containsKey(datasetInode.getId())) {
+    if(cache.sharedWithProjectsCache.containsKey(dataset.getId())) {
       //cached
-      Set<Integer> projectIds  = cache.sharedWithProjectsCache.get(datasetInode.getId());
+      Set<Integer> projectIds  = cache.sharedWithProjectsCache.get(dataset.getId());
       for(Integer projectId : projectIds) {
         Pair<Project, String> projectAux = getProjectWithCache(user, projectId, cache);
         if(projectAux != null && projectAux.getValue1() != null) {
@@ -210,7 +236,7 @@ public class DatasetAccessController {
       //not yet cached
       List<DatasetSharedWith> dsSharedWith = dsSharedWithFacade.findByDataset(dataset);
       Set<Integer> projectIds = new HashSet<>();
-      cache.sharedWithProjectsCache.put(datasetInode.getId(), projectIds);
+      cache.sharedWithProjectsCache.put(dataset.getId(), projectIds);
       for(DatasetSharedWith ds : dsSharedWith) {
         projectIds.add(ds.getProject().getId());
         Pair<Project, String> projectAux = getProjectWithCache(user, ds.getProject(), cache);
@@ -221,6 +247,62 @@ public class DatasetAccessController {
     }
   }
   
+  private void prefetch(Users user, Collection<? extends DatasetDetails> datasetDetails, ShortLivedCache cache) {
+    //parent projects and the role of the user in them
+    Set<Integer> projectIds = datasetDetails.stream()
+      .map(DatasetDetails::getParentProjectId)
+      .filter(id -> id != null && !cache.projectCache.containsKey(id))
+      .collect(Collectors.toSet());
+    cacheProjects(user, projectFacade.findByIds(projectIds), cache);
+    //not found - stale items
+    projectIds.forEach(id -> cache.projectCache.putIfAbsent(id, null));
+    
+    //parent datasets
+    Map<Long, Integer> datasetParents = new HashMap<>();
+    for(DatasetDetails details : datasetDetails) {
+      if(details.getParentDatasetIId() != null && !cache.datasetCache.containsKey(details.getParentDatasetIId())
+        && cache.projectCache.get(details.getParentProjectId()) != null) {
+        datasetParents.put(details.getParentDatasetIId(), details.getParentProjectId());
+      }
+    }
+    if(!datasetParents.isEmpty()) {
+      Map<Long, String> datasetNames = inodeFacade.findByIdList(new ArrayList<>(datasetParents.keySet())).stream()
+        .collect(Collectors.toMap(Inode::getId, inode -> inode.getInodePK().getName()));
+      Set<Project> parentProjects = datasetParents.values().stream()
+        .map(id -> cache.projectCache.get(id).getValue0())
+        .collect(Collectors.toSet());
+      Map<Pair<Integer, String>, Dataset> datasets = datasetFacade
+        .findByProjectsAndNames(parentProjects, new HashSet<>(datasetNames.values())).stream()
+        .collect(Collectors.toMap(d -> Pair.with(d.getProject().getId(), d.getName()), d -> d));
+      //not found - stale items
+      datasetParents.forEach((datasetIId, projectId) ->
+        cache.datasetCache.put(datasetIId, datasets.get(Pair.with(projectId, datasetNames.get(datasetIId)))));
+    }
+    
+    //shared datasets and the role of the user in the projects they are shared with
+    List<Dataset> sharedDatasets = cache.datasetCache.values().stream()
+      .filter(d -> d != null && !cache.sharedWithProjectsCache.containsKey(d.getId()))
+      .collect(Collectors.toList());
+    List<DatasetSharedWith> dsSharedWith = dsSharedWithFacade.findByDatasets(sharedDatasets);
+    sharedDatasets.forEach(d -> cache.sharedWithProjectsCache.put(d.getId(), new HashSet<>()));
+    Map<Integer, Project> sharedWithProjects = new HashMap<>();
+    for(DatasetSharedWith ds : dsSharedWith) {
+      cache.sharedWithProjectsCache.get(ds.getDataset().getId()).add(ds.getProject().getId());
+      if(!cache.projectCache.containsKey(ds.getProject().getId())) {
+        sharedWithProjects.put(ds.getProject().getId(), ds.getProject());
+      }
+    }
+    cacheProjects(user, sharedWithProjects.values(), cache);
+  }
+  
+  private void cacheProjects(Users user, Collection<Project> projects, ShortLivedCache cache) {
+    Map<Integer, String> roles = projectTeamFacade.findByMemberAndProjects(user, projects).stream()
+      .collect(Collectors.toMap(team -> team.getProject().getId(), ProjectTeam::getTeamRole));
+    for(Project project : projects) {
+      cache.projectCache.put(project.getId(), Pair.with(project, roles.get(project.getId())));
+    }
+  }
+  
   private Dataset getDatasetWithCache(Project project, Long datasetIId, ShortLivedCache cache) {
     if(cache.datasetCache.containsKey(datasetIId)) {
       return cache.datasetCache.get(datasetIId);
@@ -283,6 +365,8 @@ public class DatasetAccessController {
   private static class ShortLivedCache {
     Map<Integer, Pair<Project, String>> projectCache = new HashMap<>();
     Map<Long, Dataset> datasetCache = new HashMap<>();
-    Map<Long, Set<Integer>> sharedWithProjectsCache = new HashMap<>();
+    Map<Integer, Set<Integer>> sharedWithProjectsCache = new HashMap<>();
+    //<parent project, parent dataset> -> projects giving access
+    Map<Pair<Integer, Long>, List<Project>> accessCache = new HashMap<>();
   }
 }
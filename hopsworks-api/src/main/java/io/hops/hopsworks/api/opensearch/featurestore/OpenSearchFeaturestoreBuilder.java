@@ -38,11 +38,13 @@ import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.logging.Level;
+import java.util.stream.Collectors;
 
 @Stateless
 @TransactionAttribute(TransactionAttributeType.NEVER)
@@ -105,14 +107,24 @@ public class OpenSearchFeaturestoreBuilder {
   private OpenSearchFeaturestoreDTO parseResult(Map<FeaturestoreDocType, SearchResponse> resp,
                                                 DatasetAccessController.DatasetAccessCtrl accessCtrl)
     throws OpenSearchException, GenericException {
+    //parse all hits first, so that the creators and the access of all the hits are resolved together
+    Map<SearchHit, OpenSearchFeaturestoreHit> hits = new IdentityHashMap<>();
+    for(SearchResponse response : resp.values()) {
+      for(SearchHit hitAux : response.getHits()) {
+        hits.put(hitAux, OpenSearchFeaturestoreHit.instance(hitAux));
+      }
+    }
+    Function<String, Users> creators = openSearchFeaturestoreItemBuilder.creators(hits.values());
+    accessCtrl.prefetch(hits.values().stream().map(this::inputWrapper).collect(Collectors.toList()));
+    
     OpenSearchFeaturestoreDTO result = new OpenSearchFeaturestoreDTO();
     for(Map.Entry<FeaturestoreDocType, SearchResponse> e : resp.entrySet()) {
       switch(e.getKey()) {
         case FEATUREGROUP: {
           for (SearchHit hitAux : e.getValue().getHits()) {
-            OpenSearchFeaturestoreHit hit = OpenSearchFeaturestoreHit.instance(hitAux);
+            OpenSearchFeaturestoreHit hit = hits.get(hitAux);
             OpenSearchFeaturestoreItemDTO.Base item =
-              openSearchFeaturestoreItemBuilder.fromBaseArtifact(hit);
+              openSearchFeaturestoreItemBuilder.fromBaseArtifact(hit, creators);
             item.setHighlights(getHighlights(hitAux.getHighlightFields()));
             accessCtrl.accept(inputWrapper(hit), collectorWrapper(item));
             result.addFeaturegroup(item);
@@ -121,9 +133,9 @@ public class OpenSearchFeaturestoreBuilder {
         } break;
         case FEATUREVIEW: {
           for (SearchHit hitAux : e.getValue().getHits()) {
-            OpenSearchFeaturestoreHit hit = OpenSearchFeaturestoreHit.instance(hitAux);
+            OpenSearchFeaturestoreHit hit = hits.get(hitAux);
             OpenSearchFeaturestoreItemDTO.Base item
-              = openSearchFeaturestoreItemBuilder.fromBaseArtifact(hit);
+              = openSearchFeaturestoreItemBuilder.fromBaseArtifact(hit, creators);
             item.setHighlights(getHighlights(hitAux.getHighlightFields()));
             accessCtrl.accept(inputWrapper(hit), collectorWrapper(item));
             result.addFeatureView(item);
@@ -132,9 +144,9 @@ public class OpenSearchFeaturestoreBuilder {
         } break;
         case TRAININGDATASET: {
           for (SearchHit hitAux : e.getValue().getHits()) {
-            OpenSearchFeaturestoreHit hit = OpenSearchFeaturestoreHit.instance(hitAux);
+            OpenSearchFeaturestoreHit hit = hits.get(hitAux);
             OpenSearchFeaturestoreItemDTO.Base item
-              = openSearchFeaturestoreItemBuilder.fromBaseArtifact(hit);
+              = openSearchFeaturestoreItemBuilder.fromBaseArtifact(hit, creators);
             item.setHighlights(getHighlights(hitAux.getHighlightFields()));
             accessCtrl.accept(inputWrapper(hit), collectorWrapper(item));
             result.addTrainingdataset(item);
@@ -143,8 +155,8 @@ public class OpenSearchFeaturestoreBuilder {
         } break;
         case FEATURE: {
           for (SearchHit hitAux : e.getValue().getHits()) {
-            setFeatureNameHighlights(hitAux, result, accessCtrl);
-            setFeatureDescriptionHighlights(hitAux, result, accessCtrl);
+            setFeatureNameHighlights(hitAux, hits.get(hitAux), result, accessCtrl, creators);
+            setFeatureDescriptionHighlights(hitAux, hits.get(hitAux), result, accessCtrl, creators);
           }
           //TODO Alex fix v2 - from size of features
           //result.setFeaturesTotal(e.getValue().getHits().getTotalHits().value);
@@ -155,10 +167,11 @@ public class OpenSearchFeaturestoreBuilder {
     return result;
   }
   
-  private void setFeatureNameHighlights(SearchHit hitAux, OpenSearchFeaturestoreDTO result,
-                                        DatasetAccessController.DatasetAccessCtrl accessCtrl)
-    throws OpenSearchException, GenericException {
-    OpenSearchFeaturestoreHit hit = OpenSearchFeaturestoreHit.instance(hitAux);
+  private void setFeatureNameHighlights(SearchHit hitAux, OpenSearchFeaturestoreHit hit,
+                                        OpenSearchFeaturestoreDTO result,
+                                        DatasetAccessController.DatasetAccessCtrl accessCtrl,
+                                        Function<String, Users> creators)
+    throws GenericException {
     Map<String, HighlightField> highlightFields = hitAux.getHighlightFields();
     String featureNameField = FeaturestoreXAttrsConstants.getFeaturestoreOpenSearchKey(
       FeaturestoreXAttrsConstants.FG_FEATURES, FeaturestoreXAttrsConstants.NAME);
@@ -170,13 +183,15 @@ public class OpenSearchFeaturestoreBuilder {
     };
     BiConsumer<OpenSearchFeaturestoreItemDTO.Highlights, String> highlighter =
       OpenSearchFeaturestoreItemDTO.Highlights::setName;
-    setFeatureHighlights(highlightFields.get(featureNameField), hit, matcher, highlighter, result, accessCtrl);
+    setFeatureHighlights(highlightFields.get(featureNameField), hit, matcher, highlighter, result, accessCtrl,
+      creators);
   }
   
-  private void setFeatureDescriptionHighlights(SearchHit hitAux, OpenSearchFeaturestoreDTO result,
-                                               DatasetAccessController.DatasetAccessCtrl accessCtrl)
-    throws OpenSearchException, GenericException {
-    OpenSearchFeaturestoreHit hit = OpenSearchFeaturestoreHit.instance(hitAux);
+  private void setFeatureDescriptionHighlights(SearchHit hitAux, OpenSearchFeaturestoreHit hit,
+                                               OpenSearchFeaturestoreDTO result,
+                                               DatasetAccessController.DatasetAccessCtrl accessCtrl,
+                                               Function<String, Users> creators)
+    throws GenericException {
     Map<String, HighlightField> highlightFields = hitAux.getHighlightFields();
     String featureDescriptionField = FeaturestoreXAttrsConstants.getFeaturestoreOpenSearchKey(
       FeaturestoreXAttrsConstants.FG_FEATURES, FeaturestoreXAttrsConstants.DESCRIPTION);
@@ -189,7 +204,7 @@ public class OpenSearchFeaturestoreBuilder {
     BiConsumer<OpenSearchFeaturestoreItemDTO.Highlights, String> highlighter =
       OpenSearchFeaturestoreItemDTO.Highlights::setDescription;
     setFeatureHighlights(highlightFields.get(featureDescriptionField),
-      hit, matcher, highlighter, result, accessCtrl);
+      hit, matcher, highlighter, result, accessCtrl, creators);
   }
   
   private void setFeatureHighlights(HighlightField hField,
@@ -197,7 +212,8 @@ public class OpenSearchFeaturestoreBuilder {
                                    Function<Triplet<String, String, String>, Boolean> matcher,
                                    BiConsumer<OpenSearchFeaturestoreItemDTO.Highlights, String> highlighter,
                                    OpenSearchFeaturestoreDTO result,
-                                   DatasetAccessController.DatasetAccessCtrl accessCtrl)
+                                   DatasetAccessController.DatasetAccessCtrl accessCtrl,
+                                   Function<String, Users> creators)
       throws GenericException {
     if (hField != null) {
       //highlights only return the field that matched the search, we will check the xattr for the omologue for
@@ -229,7 +245,7 @@ public class OpenSearchFeaturestoreBuilder {
               hit.getName(), featureNameAux);
             if(feature == null) {
               OpenSearchFeaturestoreItemDTO.Base fgParent
-                = openSearchFeaturestoreItemBuilder.fromBaseArtifact(hit);
+                = openSearchFeaturestoreItemBuilder.fromBaseArtifact(hit, creators);
               feature = openSearchFeaturestoreItemBuilder.fromFeature(featureNameAux, featureDescriptionAux, fgParent);
               result.addFeature(feature);
               accessCtrl.accept(inputWrapper(hit), collectorWrapper(feature));
@@ -26,13 +26,20 @@ import io.hops.hopsworks.common.opensearch.OpenSearchFeaturestoreHit;
 import io.hops.hopsworks.common.featurestore.xattr.dto.FeaturestoreXAttrsConstants;
 import io.hops.hopsworks.common.featurestore.xattr.dto.TrainingDatasetXAttrDTO;
 import io.hops.hopsworks.exceptions.GenericException;
+import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.restutils.RESTCodes;
 
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.logging.Level;
 
 @Stateless
@@ -49,7 +56,41 @@ public class OpenSearchFeaturestoreItemBuilder {
     this.userFacade = userFacade;
   }
 
+  /**
+   * Resolve the creators of all the hits of a search with a single query. Creators that are not found are looked up
+   * again, one by one, when requested.
+   * @param hits hits of one search request
+   * @return creator by email
+   */
+  public Function<String, Users> creators(Collection<OpenSearchFeaturestoreHit> hits) {
+    Set<String> emails = new HashSet<>();
+    for(OpenSearchFeaturestoreHit hit : hits) {
+      Object featureStoreXAttr = hit.getXattrs().get(FeaturestoreXAttrsConstants.FEATURESTORE);
+      if(featureStoreXAttr instanceof Map) {
+        Object creator = ((Map<?, ?>) featureStoreXAttr).get(FeaturestoreXAttrsConstants.CREATOR);
+        if(creator instanceof String) {
+          emails.add(((String) creator).toLowerCase());
+        }
+      }
+    }
+    Map<String, Users> creators = new HashMap<>();
+    for(Users user : userFacade.findByEmails(emails)) {
+      creators.put(user.getEmail().toLowerCase(), user);
+    }
+    return email -> email == null ? null : creators.computeIfAbsent(email.toLowerCase(), userFacade::findByEmail);
+  }
+  
   public OpenSearchFeaturestoreItemDTO.Base fromBaseArtifact(OpenSearchFeaturestoreHit hit) throws GenericException {
+    return fromBaseArtifact(hit, userFacade::findByEmail);
+  }
+  
+  /**
+   * @param hit search hit
+   * @param creators resolves the creator of the artifact by email
+   */
+  public OpenSearchFeaturestoreItemDTO.Base fromBaseArtifact(OpenSearchFeaturestoreHit hit,
+                                                             Function<String, Users> creators)
+    throws GenericException {
     OpenSearchFeaturestoreItemDTO.Base item = new OpenSearchFeaturestoreItemDTO.Base();
     item.elasticId = hit.getId();
     item.name = hit.getName();
@@ -61,13 +102,13 @@ public class OpenSearchFeaturestoreItemBuilder {
     if(featureStoreXAttr != null) {
       switch(hit.getDocType()) {
         case "featuregroup": {
-          populateFeatureStoreItem(item, parseAttr(featureStoreXAttr, FeaturegroupXAttr.FullDTO.class));
+          populateFeatureStoreItem(item, parseAttr(featureStoreXAttr, FeaturegroupXAttr.FullDTO.class), creators);
         } break;
         case "featureview": {
-          populateFeatureStoreItem(item, parseAttr(featureStoreXAttr, FeatureViewXAttrDTO.class));
+          populateFeatureStoreItem(item, parseAttr(featureStoreXAttr, FeatureViewXAttrDTO.class), creators);
         } break;
         case "trainingdataset": {
-          populateFeatureStoreItem(item, parseAttr(featureStoreXAttr, TrainingDatasetXAttrDTO.class));
+          populateFeatureStoreItem(item, parseAttr(featureStoreXAttr, TrainingDatasetXAttrDTO.class), creators);
         } break;
         default: break;
       }
@@ -76,11 +117,12 @@ public class OpenSearchFeaturestoreItemBuilder {
   }
   
   private OpenSearchFeaturestoreItemDTO.Base populateFeatureStoreItem(OpenSearchFeaturestoreItemDTO.Base item,
-                                                                      FeatureStoreItem src){
+                                                                      FeatureStoreItem src,
+                                                                      Function<String, Users> creators){
     item.featurestoreId = src.getFeaturestoreId();
     item.description = src.getDescription();
     item.created = new Date(src.getCreateDate());
-    item.creator = new UserDTO(userFacade.findByEmail(src.getCreator()));
+    item.creator = new UserDTO(creators.apply(src.getCreator()));
     return item;
   }
   
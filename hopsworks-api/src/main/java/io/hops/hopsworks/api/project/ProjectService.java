@@ -41,6 +41,7 @@ package io.hops.hopsworks.api.project;
 import io.hops.hopsworks.api.activities.ProjectActivitiesResource;
 import io.hops.hopsworks.api.airflow.AirflowService;
 import io.hops.hopsworks.api.alert.AlertResource;
+import io.hops.hopsworks.api.dataset.DatasetOperationsResource;
 import io.hops.hopsworks.api.dataset.DatasetResource;
 import io.hops.hopsworks.api.opensearch.OpenSearchResource;
 import io.hops.hopsworks.api.experiments.ExperimentsResource;
@@ -79,7 +80,9 @@ import io.hops.hopsworks.common.project.AccessCredentialsDTO;
 import io.hops.hopsworks.common.project.MoreInfoDTO;
 import io.hops.hopsworks.common.project.ProjectController;
 import io.hops.hopsworks.common.project.ProjectDTO;
+import io.hops.hopsworks.common.project.ProjectProvisioningTracker;
 import io.hops.hopsworks.common.project.ProjectQuotasController;
+import io.hops.hopsworks.common.project.ProvisioningProgress;
 import io.hops.hopsworks.common.project.Quotas;
 import io.hops.hopsworks.common.provenance.core.HopsFSProvenanceController;
 import io.hops.hopsworks.common.provenance.core.dto.ProvTypeDTO;
@@ -118,6 +121,7 @@ import javax.ejb.TransactionAttributeType;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.FormParam;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
@@ -125,6 +129,7 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.MediaType;
@@ -155,6 +160,8 @@ public class ProjectService {
   @EJB
   private ProjectController projectController;
   @EJB
+  private ProjectProvisioningTracker provisioningTracker;
+  @EJB
   private ProjectQuotasController projectQuotasController;
   @EJB
   private NoCacheResponse noCacheResponse;
@@ -171,6 +178,8 @@ public class ProjectService {
   @Inject
   private DatasetResource datasetResource;
   @Inject
+  private DatasetOperationsResource datasetOperationsResource;
+  @Inject
   private ExperimentsResource experiments;
   @Inject
   private ModelRegistryResource modelRegistry;
@@ -547,11 +556,19 @@ public class ProjectService {
   @POST
   @Produces(MediaType.APPLICATION_JSON)
   @Consumes(MediaType.APPLICATION_JSON)
-  public Response createProject(ProjectDTO projectDTO, @Context HttpServletRequest req, @Context SecurityContext sc)
+  public Response createProject(ProjectDTO projectDTO,
+    @QueryParam("async") @DefaultValue("false") Boolean async,
+    @Context HttpServletRequest req, @Context SecurityContext sc)
     throws DatasetException, GenericException, KafkaException, ProjectException, UserException, ServiceException,
     HopsSecurityException, FeaturestoreException, OpenSearchException, SchemaException, IOException {
 
     Users user = jWTHelper.getUserPrincipal(sc);
+    if (async) {
+      // Poll the progress at provisioning/{projectName}
+      ProvisioningProgress progress = provisioningTracker.submit(projectDTO.getProjectName(), user);
+      projectController.createProjectAsync(projectDTO, user);
+      return noCacheResponse.getNoCacheResponseBuilder(Response.Status.ACCEPTED).entity(progress).build();
+    }
     projectController.createProject(projectDTO, user);
 
     RESTApiJsonResponse json = new RESTApiJsonResponse();
@@ -565,6 +582,16 @@ public class ProjectService {
         entity(json).build();
   }
 
+  @GET
+  @Path("/provisioning/{projectName}")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getProvisioningProgress(@PathParam("projectName") String projectName,
+    @Context SecurityContext sc) throws ProjectException {
+    Users user = jWTHelper.getUserPrincipal(sc);
+    ProvisioningProgress progress = provisioningTracker.get(projectName, user);
+    return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK).entity(progress).build();
+  }
+
   @POST
   @Path("{projectId}/delete")
   @Produces(MediaType.APPLICATION_JSON)
@@ -592,6 +619,12 @@ public class ProjectService {
     return this.datasetResource;
   }
   
+  @Path("{projectId}/datasetoperations")
+  public DatasetOperationsResource datasetOperations(@PathParam("projectId") Integer id) {
+    this.datasetOperationsResource.setProjectId(id);
+    return this.datasetOperationsResource;
+  }
+  
   @Path("{projectId}/jobs")
   public JobsResource jobs(@PathParam("projectId") Integer projectId) {
     return this.jobs.setProject(projectId);
@@ -0,0 +1,257 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.api.proxy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Rewrites the links of proxied pages while they are copied to the client. The rules are compiled once into a
+ * single pattern that is applied in one pass over a bounded window of the content. At a given position the first
+ * matching rule wins, so rules are added in the order they would have been applied one after the other. A rule
+ * must not match across a line break nor more than {@link #MAX_MATCH} characters, including its lookbehind.
+ */
+public class LinkRewriter {
+
+  public static final int MAX_MATCH = 512;
+  private static final int WINDOW = 16 * 1024;
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  private final Pattern pattern;
+  // group of each rule in the combined pattern
+  private final int[] groups;
+
+  /**
+   * @param rules regular expressions of the rules, in the order they are applied
+   */
+  public LinkRewriter(String... rules) {
+    StringBuilder combined = new StringBuilder();
+    groups = new int[rules.length];
+    int group = 1;
+    for (int i = 0; i < rules.length; i++) {
+      if (i > 0) {
+        combined.append('|');
+      }
+      combined.append('(').append(rules[i]).append(')');
+      groups[i] = group;
+      group += 1 + Pattern.compile(rules[i]).matcher("").groupCount();
+    }
+    pattern = Pattern.compile(combined.toString());
+  }
+
+  /**
+   * Drops lines of the content before they are rewritten. A filter keeps state for one response.
+   */
+  @FunctionalInterface
+  public interface LineFilter {
+    boolean keep(String line);
+  }
+
+  /**
+   * @param out
+   * @param replacements literal replacement of each rule
+   * @param filter null to keep all lines
+   * @return a writer rewriting the content written to it, {@link RewritingWriter#finish()} writes the rest
+   */
+  public RewritingWriter rewrite(Writer out, String[] replacements, LineFilter filter) {
+    if (replacements.length != groups.length) {
+      throw new IllegalArgumentException("Expected " + groups.length + " replacements, got " + replacements.length);
+    }
+    return new RewritingWriter(out, replacements, filter);
+  }
+
+  /**
+   * Copy a proxied text entity to the client, decoding it if the upstream compressed it. The content is sent
+   * uncompressed, the Content-Encoding and Content-Length headers of the upstream must not be copied.
+   *
+   * @param entity
+   * @param contentEncoding Content-Encoding of the upstream response, can be null
+   * @param contentType Content-Type of the upstream response, can be null
+   * @param out
+   * @param replacements literal replacement of each rule
+   * @param filter null to keep all lines
+   * @throws IOException
+   */
+  public void copy(InputStream entity, String contentEncoding, String contentType, OutputStream out,
+    String[] replacements, LineFilter filter) throws IOException {
+    InputStream in = isGzip(contentEncoding) ? new GZIPInputStream(entity, BUFFER_SIZE) : entity;
+    Charset charset = charset(contentType);
+    Reader reader = new InputStreamReader(in, charset);
+    RewritingWriter writer = rewrite(new OutputStreamWriter(out, charset), replacements, filter);
+    char[] buffer = new char[BUFFER_SIZE];
+    int read;
+    while ((read = reader.read(buffer)) != -1) {
+      writer.write(buffer, 0, read);
+    }
+    writer.finish();
+  }
+
+  public static boolean isGzip(String contentEncoding) {
+    return contentEncoding != null && contentEncoding.toLowerCase(Locale.ENGLISH).contains("gzip");
+  }
+
+  public static Charset charset(String contentType) {
+    if (contentType != null) {
+      int index = contentType.toLowerCase(Locale.ENGLISH).indexOf("charset=");
+      if (index >= 0) {
+        String name = contentType.substring(index + "charset=".length()).split(";")[0].trim().replace("\"", "");
+        try {
+          return Charset.forName(name);
+        } catch (IllegalArgumentException e) {
+          // fall back to the default
+        }
+      }
+    }
+    return StandardCharsets.UTF_8;
+  }
+
+  /**
+   * Keeps the content that might still be part of a match, writes the rest rewritten. As soon as the window is
+   * full the content is written up to {@link #MAX_MATCH} characters before its end, or up to its last line break
+   * if that is further. With a line filter the content is written up to its last line break, a line longer than
+   * the window is filtered on its beginning and the rest of the line follows that decision.
+   */
+  public class RewritingWriter extends Writer {
+
+    private final Writer out;
+    private final String[] replacements;
+    private final LineFilter filter;
+    private final StringBuilder buffer = new StringBuilder();
+    // length of the content at the start of the buffer already written, kept for the lookbehinds
+    private int context = 0;
+    // length of the content at the start of the buffer already searched for line breaks
+    private int scanned = 0;
+    // last line break in the buffer not written yet, -1 if none
+    private int lastNewline = -1;
+    // decision of the filter for the line partially written, null at the start of a line
+    private Boolean lineKept = null;
+
+    private RewritingWriter(Writer out, String[] replacements, LineFilter filter) {
+      this.out = out;
+      this.replacements = replacements;
+      this.filter = filter;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+      buffer.append(cbuf, off, len);
+      if (buffer.length() - context >= WINDOW) {
+        rewrite(false);
+      }
+    }
+
+    /**
+     * Flushes what has been rewritten so far, the content that might still be part of a match is kept.
+     */
+    @Override
+    public void flush() throws IOException {
+      out.flush();
+    }
+
+    /**
+     * Rewrite and write the rest of the content.
+     */
+    public void finish() throws IOException {
+      rewrite(true);
+      out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      finish();
+      out.close();
+    }
+
+    private void rewrite(boolean last) throws IOException {
+      int limit = buffer.length();
+      if (!last) {
+        for (int i = scanned; i < buffer.length(); i++) {
+          if (buffer.charAt(i) == '\n') {
+            lastNewline = i;
+          }
+        }
+        if (filter != null && lastNewline >= context) {
+          limit = lastNewline + 1;
+        } else {
+          limit = Math.max(lastNewline + 1, buffer.length() - MAX_MATCH);
+        }
+      }
+      if (filter != null) {
+        limit = filter(limit);
+      }
+      Matcher matcher = pattern.matcher(buffer);
+      matcher.useTransparentBounds(true).useAnchoringBounds(false).region(context, buffer.length());
+      int position = context;
+      while (matcher.find() && matcher.start() < limit) {
+        out.append(buffer, position, matcher.start());
+        out.write(replacement(matcher));
+        position = matcher.end();
+      }
+      limit = Math.max(limit, position);
+      out.append(buffer, position, limit);
+      int written = Math.max(0, limit - MAX_MATCH);
+      buffer.delete(0, written);
+      context = limit - written;
+      // the line breaks are all before the limit, a match never crosses one
+      scanned = buffer.length();
+      lastNewline = -1;
+    }
+
+    /**
+     * Drop the lines the filter does not keep.
+     *
+     * @param limit end of the lines to filter
+     * @return the end of the kept lines
+     */
+    private int filter(int limit) {
+      int start = context;
+      while (start < limit) {
+        int newline = buffer.indexOf("\n", start);
+        boolean complete = newline >= 0 && newline < limit;
+        int end = complete ? newline + 1 : limit;
+        boolean keep = lineKept != null ? lineKept : filter.keep(buffer.substring(start, complete ? newline : limit));
+        lineKept = complete ? null : keep;
+        if (keep) {
+          start = end;
+        } else {
+          buffer.delete(start, end);
+          limit -= end - start;
+        }
+      }
+      return limit;
+    }
+
+    private String replacement(Matcher matcher) {
+      for (int i = 0; i < groups.length; i++) {
+        if (matcher.start(groups[i]) != -1) {
+          return replacements[i];
+        }
+      }
+      return matcher.group();
+    }
+  }
+}
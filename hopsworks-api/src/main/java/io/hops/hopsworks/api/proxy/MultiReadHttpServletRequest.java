@@ -16,6 +16,7 @@
 package io.hops.hopsworks.api.proxy;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
@@ -37,6 +38,22 @@ public class MultiReadHttpServletRequest extends HttpServletRequestWrapper {
     }
   }
   
+  /**
+   * @param request
+   * @param maxBodySize the largest body that is buffered
+   * @throws IOException if the body could not be read or is larger than maxBodySize
+   */
+  public MultiReadHttpServletRequest(HttpServletRequest request, long maxBodySize) throws IOException {
+    super(request);
+    if (request.getContentLengthLong() > maxBodySize) {
+      throw new IOException("Request body larger than " + maxBodySize + " bytes");
+    }
+    this.cachedBody = IOUtils.toByteArray(new BoundedInputStream(request.getInputStream(), maxBodySize + 1));
+    if (this.cachedBody.length > maxBodySize) {
+      throw new IOException("Request body larger than " + maxBodySize + " bytes");
+    }
+  }
+  
   @Override
   public ServletInputStream getInputStream() throws IOException {
     return new CachedBodyServletInputStream(this.cachedBody);
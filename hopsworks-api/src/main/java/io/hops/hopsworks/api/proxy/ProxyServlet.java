@@ -24,13 +24,16 @@ import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.AbortableHttpRequest;
 import org.apache.http.client.params.ClientPNames;
 import org.apache.http.client.params.CookiePolicy;
 import org.apache.http.client.utils.URIUtils;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.InputStreamEntity;
-import org.apache.http.impl.client.DefaultHttpClient;
-import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicHttpEntityEnclosingRequest;
 import org.apache.http.message.BasicHttpRequest;
@@ -39,6 +42,9 @@ import org.apache.http.params.BasicHttpParams;
 import org.apache.http.params.HttpParams;
 import org.apache.http.util.EntityUtils;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServlet;
@@ -47,13 +53,20 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.lang.reflect.Constructor;
 import java.net.HttpCookie;
 import java.net.URI;
 import java.util.BitSet;
 import java.util.Enumeration;
 import java.util.Formatter;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An HTTP reverse proxy/gateway servlet. It is designed to be extended for
@@ -95,6 +108,32 @@ public class ProxyServlet extends HttpServlet {
    * The parameter name for the target (destination) URI to proxy to.
    */
   protected static final String P_TARGET_URI = "targetUri";
+  /**
+   * An int parameter name for the timeouts, in milliseconds, to connect to the target and to wait for data from it.
+   */
+  public static final String P_CONNECT_TIMEOUT = "connectTimeout";
+  public static final String P_SOCKET_TIMEOUT = "socketTimeout";
+  /**
+   * An int parameter name for the size of the connection pool to the target.
+   */
+  public static final String P_MAX_CONNECTIONS = "maxConnections";
+  /**
+   * An int parameter name for the number of requests proxied concurrently, further requests are rejected with
+   * 503 so that a slow target cannot hold all the threads of the container.
+   */
+  public static final String P_MAX_CONCURRENT_REQUESTS = "maxConcurrentRequests";
+  /**
+   * A boolean parameter name to release the container thread while waiting for the target. The exchange with the
+   * target then runs on a pool of {@link #P_MAX_CONCURRENT_REQUESTS} threads of its own, so a slow target cannot
+   * hold the threads of the shared executors. Requires the servlet to be async supported.
+   */
+  public static final String P_ASYNC = "async";
+  /**
+   * An int parameter name for the time, in milliseconds, an async request may take before it is answered with 504.
+   * Defaults to the connect timeout plus the socket timeout.
+   */
+  public static final String P_ASYNC_TIMEOUT = "asyncTimeout";
+
   protected static final String ATTR_TARGET_URI = ProxyServlet.class.
       getSimpleName() + ".targetUri";
   protected static final String ATTR_TARGET_HOST = ProxyServlet.class.
@@ -125,6 +164,14 @@ public class ProxyServlet extends HttpServlet {
 
   protected HttpClient proxyClient;
 
+  protected int connectTimeout = 10000;
+  protected int socketTimeout = 120000;
+  protected int maxConnections = 100;
+  protected boolean doAsync = false;
+  protected int asyncTimeout;
+  private Semaphore concurrentRequests;
+  private ExecutorService proxyExecutor;
+
   @Override
   public String getServletInfo() {
     return "A proxy servlet by David Smiley, dsmiley@apache.org";
@@ -159,6 +206,28 @@ public class ProxyServlet extends HttpServlet {
       this.doForwardIP = Boolean.parseBoolean(doForwardIPString);
     }
 
+    connectTimeout = readIntConfigParam(P_CONNECT_TIMEOUT, connectTimeout);
+    socketTimeout = readIntConfigParam(P_SOCKET_TIMEOUT, socketTimeout);
+    maxConnections = readIntConfigParam(P_MAX_CONNECTIONS, maxConnections);
+    int maxConcurrentRequests = readIntConfigParam(P_MAX_CONCURRENT_REQUESTS, maxConnections);
+    concurrentRequests = new Semaphore(maxConcurrentRequests);
+    String doAsyncString = getConfigParam(P_ASYNC);
+    if (doAsyncString != null) {
+      this.doAsync = Boolean.parseBoolean(doAsyncString);
+    }
+    asyncTimeout = readIntConfigParam(P_ASYNC_TIMEOUT, connectTimeout + socketTimeout);
+    if (doAsync) {
+      AtomicInteger threads = new AtomicInteger();
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrentRequests, maxConcurrentRequests,
+          60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, getServletName() + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          });
+      executor.allowCoreThreadTimeOut(true);
+      proxyExecutor = executor;
+    }
+
     initTarget();//sets target*
 
     HttpParams hcParams = new BasicHttpParams();
@@ -185,34 +254,32 @@ public class ProxyServlet extends HttpServlet {
   }
 
   /**
-   * Called from {@link #init(javax.servlet.ServletConfig)}. HttpClient offers
-   * many opportunities
-   * for customization. By default,
-   * <a href="http://hc.apache.org/httpcomponents-client-ga/httpclient/apidocs/
-   * org/apache/http/impl/client/SystemDefaultHttpClient.html">
-   * SystemDefaultHttpClient</a> is used if available, otherwise it falls
-   * back to:
-   * <pre>new DefaultHttpClient(new ThreadSafeClientConnManager(),hcParams)</pre>
-   * SystemDefaultHttpClient uses PoolingClientConnectionManager. In any case,
-   * it should be thread-safe.
+   * Called from {@link #init(javax.servlet.ServletConfig)}. By default a client pooling up to
+   * {@link #P_MAX_CONNECTIONS} connections to the target, with the configured timeouts and the SSL settings of the
+   * system properties.
    */
-  @SuppressWarnings({"unchecked", "deprecation"})
   protected HttpClient createHttpClient(HttpParams hcParams) {
-    try {
-      //as of HttpComponents v4.2, this class is better since it uses System
-      // Properties:
-      Class clientClazz = Class.forName(
-          "org.apache.http.impl.client.SystemDefaultHttpClient");
-      Constructor constructor = clientClazz.getConstructor(HttpParams.class);
-      return (HttpClient) constructor.newInstance(hcParams);
-    } catch (ClassNotFoundException e) {
-      //no problem; use v4.1 below
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
+    return createHttpClientBuilder(hcParams)
+        .setSSLSocketFactory(SSLConnectionSocketFactory.getSystemSocketFactory())
+        .build();
+  }
 
-    //Fallback on using older client:
-    return new DefaultHttpClient(new ThreadSafeClientConnManager(), hcParams);
+  /**
+   * @param hcParams
+   * @return a client builder with the connection pool and request configuration of the servlet
+   */
+  protected HttpClientBuilder createHttpClientBuilder(HttpParams hcParams) {
+    RequestConfig config = RequestConfig.custom()
+        .setCookieSpec(CookieSpecs.IGNORE_COOKIES)
+        .setRedirectsEnabled(hcParams.getBooleanParameter(ClientPNames.HANDLE_REDIRECTS, true))
+        .setConnectTimeout(connectTimeout)
+        .setConnectionRequestTimeout(connectTimeout)
+        .setSocketTimeout(socketTimeout)
+        .build();
+    return HttpClients.custom()
+        .setMaxConnTotal(maxConnections)
+        .setMaxConnPerRoute(maxConnections)
+        .setDefaultRequestConfig(config);
   }
 
   /**
@@ -254,8 +321,16 @@ public class ProxyServlet extends HttpServlet {
     hcParams.setParameter(hcParamName, val_obj);
   }
 
+  private int readIntConfigParam(String key, int defaultValue) {
+    String value = getConfigParam(key);
+    return value == null ? defaultValue : Integer.parseInt(value);
+  }
+
   @Override
   public void destroy() {
+    if (proxyExecutor != null) {
+      proxyExecutor.shutdownNow();
+    }
     //As of HttpComponents v4.3, clients implement closeable
     if (proxyClient instanceof Closeable) {//TODO AutoCloseable in Java 1.6
       try {
@@ -283,7 +358,81 @@ public class ProxyServlet extends HttpServlet {
     if (servletRequest.getAttribute(ATTR_TARGET_HOST) == null) {
       servletRequest.setAttribute(ATTR_TARGET_HOST, targetHost);
     }
+    if (!concurrentRequests.tryAcquire()) {
+      servletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+          "Too many concurrent requests to " + getServletName() + ". Please try again later.");
+      return;
+    }
+    if (!doAsync || !servletRequest.isAsyncSupported()) {
+      try {
+        proxy(servletRequest, servletResponse);
+      } finally {
+        concurrentRequests.release();
+      }
+      return;
+    }
+    AsyncContext asyncContext = servletRequest.startAsync(servletRequest, servletResponse);
+    asyncContext.setTimeout(asyncTimeout);
+    // Either the exchange or the timeout completes the request, not both
+    AtomicBoolean completed = new AtomicBoolean(false);
+    asyncContext.addListener(new AsyncListener() {
+      @Override
+      public void onTimeout(AsyncEvent event) throws IOException {
+        if (completed.compareAndSet(false, true)) {
+          if (!servletResponse.isCommitted()) {
+            servletResponse.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT,
+                getServletName() + " did not answer in time.");
+          }
+          asyncContext.complete();
+        }
+      }
+
+      @Override
+      public void onComplete(AsyncEvent event) {
+      }
+
+      @Override
+      public void onError(AsyncEvent event) {
+      }
+
+      @Override
+      public void onStartAsync(AsyncEvent event) {
+      }
+    });
+    try {
+      proxyExecutor.execute(() -> {
+        try {
+          proxy(servletRequest, servletResponse);
+        } catch (Exception e) {
+          if (!completed.get()) {
+            log("Failed to proxy " + servletRequest.getRequestURI(), e);
+            if (!servletResponse.isCommitted()) {
+              servletResponse.setStatus(HttpServletResponse.SC_BAD_GATEWAY);
+            }
+          }
+        } finally {
+          // the thread was held until now, the slot is released even if the request already timed out
+          concurrentRequests.release();
+          if (completed.compareAndSet(false, true)) {
+            asyncContext.complete();
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      concurrentRequests.release();
+      if (completed.compareAndSet(false, true)) {
+        servletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        asyncContext.complete();
+      }
+    }
+  }
 
+  /**
+   * Make the request to the target and copy its response.
+   */
+  protected void proxy(HttpServletRequest servletRequest,
+      HttpServletResponse servletResponse)
+      throws ServletException, IOException {
     // Make the Request
     // note: we won't transfer the protocol version because I'm not 
     // sure it would truly be compatible
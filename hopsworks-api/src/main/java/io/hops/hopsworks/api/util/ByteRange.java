@@ -0,0 +1,121 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.api.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A satisfiable byte range of an HTTP Range request (RFC 7233), with inclusive start and end.
+ */
+public class ByteRange {
+  public static final String UNIT = "bytes";
+  //more ranges than this are ignored and the whole file is sent
+  public static final int MAX_RANGES = 16;
+
+  private final long start;
+  private final long end;
+
+  public ByteRange(long start, long end) {
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * Parse the value of a Range header.
+   *
+   * @param header value of the Range header, may be null
+   * @param length length of the file
+   * @return the satisfiable ranges, empty if none is satisfiable. null if the header is missing, is not a valid
+   * byte ranges header or asks for too many ranges, the whole file should be sent then.
+   */
+  public static List<ByteRange> parse(String header, long length) {
+    if (header == null || !header.startsWith(UNIT + "=")) {
+      return null;
+    }
+    String[] specs = header.substring(UNIT.length() + 1).split(",");
+    if (specs.length > MAX_RANGES) {
+      return null;
+    }
+    List<ByteRange> ranges = new ArrayList<>();
+    try {
+      for (String spec : specs) {
+        spec = spec.trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+          return null;
+        }
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+        if (first.isEmpty()) {
+          //suffix range, the last n bytes
+          long suffix = Long.parseLong(last);
+          if (suffix < 0) {
+            return null;
+          }
+          if (suffix > 0 && length > 0) {
+            ranges.add(new ByteRange(Math.max(0, length - suffix), length - 1));
+          }
+          continue;
+        }
+        long start = Long.parseLong(first);
+        long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+        if (start < 0 || end < start) {
+          return null;
+        }
+        if (start < length) {
+          ranges.add(new ByteRange(start, Math.min(end, length - 1)));
+        }
+      }
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    return ranges;
+  }
+
+  public long getStart() {
+    return start;
+  }
+
+  public long getEnd() {
+    return end;
+  }
+
+  public long length() {
+    return end - start + 1;
+  }
+
+  /**
+   * @param total length of the file
+   * @return the value of the Content-Range header of this range
+   */
+  public String contentRange(long total) {
+    return UNIT + " " + start + "-" + end + "/" + total;
+  }
+
+  /**
+   * @param total length of the file
+   * @return the value of the Content-Range header of a request that could not be satisfied
+   */
+  public static String unsatisfiedContentRange(long total) {
+    return UNIT + " */" + total;
+  }
+
+  @Override
+  public String toString() {
+    return start + "-" + end;
+  }
+}
@@ -70,8 +70,11 @@ import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiScope;
 import io.hops.hopsworks.restutils.RESTCodes;
 import io.swagger.annotations.ApiOperation;
+import org.apache.commons.io.IOUtils;
 import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
+import org.apache.http.HttpHeaders;
 
 import javax.ejb.EJB;
 import javax.ejb.TransactionAttribute;
@@ -87,7 +90,16 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.StreamingOutput;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -99,6 +111,7 @@ import org.javatuples.Pair;
 public class DownloadService {
 
   private static final Logger LOGGER = Logger.getLogger(DownloadService.class.getName());
+  private static final int BUFFER_SIZE = 1024 * 1024;
 
   @EJB
   private DistributedFsService dfs;
@@ -189,7 +202,7 @@ public class DownloadService {
     String fullPath = datasetPath.getFullPath().toString();
     DecodedJWT djwt = jWTHelper.verifyOneTimeToken(token, fullPath);
     Users user = userFacade.findByUsername(djwt.getSubject());
-    return download(project, datasetPath, user);
+    return download(project, datasetPath, user, req);
   }
 
   @GET
@@ -208,14 +221,16 @@ public class DownloadService {
     Project project = this.getProject();
     DatasetPath datasetPath = datasetHelper.getDatasetPathIfFileExist(project, path, datasetType);
     Users user = jWTHelper.getUserPrincipal(sc);
-    return download(project, datasetPath, user);
+    return download(project, datasetPath, user, req);
   }
 
-  private Response download(Project project, DatasetPath datasetPath, Users user) throws DatasetException {
+  private Response download(Project project, DatasetPath datasetPath, Users user, HttpServletRequest req)
+    throws DatasetException {
     doCheck();
-    Pair<Path, StreamingOutput> pathStreamPair = downloadFromHDFS(project, datasetPath, user);
-    Response.ResponseBuilder response = Response.ok(pathStreamPair.getValue1());
-    response.header("Content-disposition", "attachment; filename=\"" + pathStreamPair.getValue0().getName() + "\"");
+    Pair<Path, Response.ResponseBuilder> pathResponsePair = downloadFromHDFS(project, datasetPath, user,
+      req.getHeader(HttpHeaders.RANGE), req.getHeader(HttpHeaders.IF_RANGE));
+    Response.ResponseBuilder response = pathResponsePair.getValue1();
+    response.header("Content-disposition", "attachment; filename=\"" + pathResponsePair.getValue0().getName() + "\"");
     return response.build();
   }
 
@@ -237,7 +252,8 @@ public class DownloadService {
    * @param user
    * @return
    */
-  private Pair<Path, StreamingOutput> downloadFromHDFS(Project project, DatasetPath datasetPath, Users user)
+  private Pair<Path, Response.ResponseBuilder> downloadFromHDFS(Project project, DatasetPath datasetPath, Users user,
+                                                                 String range, String ifRange)
     throws DatasetException {
 
     String fullPath = datasetPath.getFullPath().toString();
@@ -252,46 +268,134 @@ public class DownloadService {
       throw new DatasetException(RESTCodes.DatasetErrorCode.DOWNLOAD_ERROR, Level.FINE);
     }
 
-    FSDataInputStream stream;
-    DistributedFileSystemOps udfso;
+    if (projectUsername == null) {
+      throw new DatasetException(RESTCodes.DatasetErrorCode.DOWNLOAD_ERROR, Level.WARNING);
+    }
+    DistributedFileSystemOps udfso = null;
+    boolean streaming = false;
     try {
-      if (projectUsername != null) {
-        udfso = dfs.getDfsOps(projectUsername);
-        Path p = new Path(fullPath);
-        stream = udfso.open(p);
-        return new Pair<>(p, buildOutputStream(stream, udfso));
-
+      udfso = dfs.getDfsOps(projectUsername);
+      Path p = new Path(fullPath);
+      FileStatus status = udfso.getFileStatus(p);
+      long length = status.getLen();
+      String eTag = "\"" + length + "-" + status.getModificationTime() + "\"";
+      //the length of a file under construction is not known
+      List<ByteRange> ranges = dsInode.isUnderConstruction() || !ifRangeMatches(ifRange, eTag, status) ? null :
+        ByteRange.parse(range, length);
+      Response.ResponseBuilder response;
+      if (ranges != null && ranges.isEmpty()) {
+        response = Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+          .header(HttpHeaders.CONTENT_RANGE, ByteRange.unsatisfiedContentRange(length));
       } else {
-        throw new DatasetException(RESTCodes.DatasetErrorCode.DOWNLOAD_ERROR, Level.WARNING);
+        FSDataInputStream stream = udfso.open(p);
+        streaming = true;
+        if (ranges == null) {
+          response = Response.ok(buildOutputStream(stream, udfso, null, length, null));
+          if (!dsInode.isUnderConstruction()) {
+            response.header(HttpHeaders.CONTENT_LENGTH, length);
+          }
+        } else if (ranges.size() == 1) {
+          response = Response.status(Response.Status.PARTIAL_CONTENT)
+            .entity(buildOutputStream(stream, udfso, ranges, length, null))
+            .header(HttpHeaders.CONTENT_RANGE, ranges.get(0).contentRange(length))
+            .header(HttpHeaders.CONTENT_LENGTH, ranges.get(0).length());
+        } else {
+          String boundary = UUID.randomUUID().toString().replace("-", "");
+          response = Response.status(Response.Status.PARTIAL_CONTENT)
+            .entity(buildOutputStream(stream, udfso, ranges, length, boundary))
+            .type("multipart/byteranges; boundary=" + boundary);
+        }
       }
-
+      response.header(HttpHeaders.ACCEPT_RANGES, ByteRange.UNIT)
+        .header(HttpHeaders.ETAG, eTag)
+        .lastModified(new Date(status.getModificationTime()));
+      return new Pair<>(p, response);
     } catch (IOException ex) {
       throw new DatasetException(RESTCodes.DatasetErrorCode.DOWNLOAD_ERROR, Level.SEVERE, "path: " + fullPath,
         ex.getMessage(), ex);
+    } finally {
+      if (!streaming) {
+        dfs.closeDfsClient(udfso);
+      }
+    }
+  }
+
+  //If-Range is either the entity tag or the last modification date of the file the client has a part of
+  private boolean ifRangeMatches(String ifRange, String eTag, FileStatus status) {
+    if (ifRange == null) {
+      return true;
+    }
+    if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+      return ifRange.equals(eTag);
+    }
+    try {
+      long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+      return date / 1000 == status.getModificationTime() / 1000;
+    } catch (DateTimeParseException e) {
+      return false;
     }
   }
 
   /**
+   * Stream the file, or the requested ranges of it as a single part or as multipart/byteranges if a boundary is
+   * given. Ranges are read with positional reads.
    *
    * @param stream
+   * @param udfso
+   * @param ranges null for the whole file
+   * @param length
+   * @param boundary
    * @return
    */
-  private StreamingOutput buildOutputStream(final FSDataInputStream stream, final DistributedFileSystemOps udfso) {
+  private StreamingOutput buildOutputStream(final FSDataInputStream stream, final DistributedFileSystemOps udfso,
+                                            final List<ByteRange> ranges, final long length, final String boundary) {
     return out -> {
       longRunningHttpRequests.increment();
+      long started = System.currentTimeMillis();
+      long written = 0;
       try {
-        int length;
-        byte[] buffer = new byte[1024];
-        while ((length = stream.read(buffer)) != -1) {
-          out.write(buffer, 0, length);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        if (ranges == null) {
+          int read;
+          while ((read = stream.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            written += read;
+          }
+        } else {
+          for (ByteRange range : ranges) {
+            if (boundary != null) {
+              out.write(("\r\n--" + boundary + "\r\nContent-Type: " + MediaType.APPLICATION_OCTET_STREAM +
+                "\r\nContent-Range: " + range.contentRange(length) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            }
+            written += copyRange(stream, out, buffer, range);
+          }
+          if (boundary != null) {
+            out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+          }
         }
         out.flush();
-        stream.close();
       } finally {
-        longRunningHttpRequests.decrement();
+        IOUtils.closeQuietly(stream);
+        longRunningHttpRequests.decrement(written, System.currentTimeMillis() - started);
         dfs.closeDfsClient(udfso);
       }
     };
   }
 
+  private long copyRange(FSDataInputStream stream, OutputStream out, byte[] buffer, ByteRange range)
+    throws IOException {
+    long position = range.getStart();
+    long remaining = range.length();
+    while (remaining > 0) {
+      int read = stream.read(position, buffer, 0, (int) Math.min(buffer.length, remaining));
+      if (read < 0) {
+        throw new EOFException("File ended before the end of range " + range);
+      }
+      out.write(buffer, 0, read);
+      position += read;
+      remaining -= read;
+    }
+    return range.length();
+  }
+
 }
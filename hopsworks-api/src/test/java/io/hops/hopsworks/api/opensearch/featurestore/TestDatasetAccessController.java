@@ -0,0 +1,255 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.api.opensearch.featurestore;
+
+import io.hops.hopsworks.common.dao.dataset.DatasetFacade;
+import io.hops.hopsworks.common.dao.dataset.DatasetSharedWithFacade;
+import io.hops.hopsworks.common.dao.hdfs.inode.InodeFacade;
+import io.hops.hopsworks.common.dao.project.ProjectFacade;
+import io.hops.hopsworks.common.dao.project.team.ProjectTeamFacade;
+import io.hops.hopsworks.common.featurestore.trainingdatasets.TrainingDatasetController;
+import io.hops.hopsworks.persistence.entity.dataset.Dataset;
+import io.hops.hopsworks.persistence.entity.dataset.DatasetSharedWith;
+import io.hops.hopsworks.persistence.entity.hdfs.inode.Inode;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import io.hops.hopsworks.persistence.entity.project.team.ProjectTeam;
+import io.hops.hopsworks.persistence.entity.user.Users;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class TestDatasetAccessController {
+  private static final int PARENT_PROJECTS = 20;
+  private static final int SHARED_WITH = 3;
+  private static final String ROLE = "Data scientist";
+
+  @InjectMocks
+  private DatasetAccessController target = new DatasetAccessController();
+  @Mock
+  private ProjectFacade projectFacade;
+  @Mock
+  private ProjectTeamFacade projectTeamFacade;
+  @Mock
+  private InodeFacade inodeFacade;
+  @Mock
+  private DatasetFacade datasetFacade;
+  @Mock
+  private DatasetSharedWithFacade dsSharedWithFacade;
+  @Mock
+  private TrainingDatasetController tdCtrl;
+
+  private Users user;
+  private final Map<Integer, Project> projects = new HashMap<>();
+  private final Set<Integer> memberOf = new HashSet<>();
+  private final Map<Long, Inode> inodes = new HashMap<>();
+  private final Map<Integer, Dataset> datasets = new HashMap<>();
+  private final Map<Integer, List<DatasetSharedWith>> sharedWith = new HashMap<>();
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+    user = new Users();
+    user.setEmail("doe@hopsworks.ai");
+    //every parent project has a featurestore shared with a few other projects,
+    //the user is a member of every other parent project and of the first project each featurestore is shared with
+    for (int p = 1; p <= PARENT_PROJECTS; p++) {
+      Project parent = project(p);
+      if (p % 2 == 1) {
+        memberOf.add(p);
+      }
+      Dataset dataset = new Dataset(p, "project_" + p + "_featurestore.db");
+      dataset.setProject(parent);
+      datasets.put(p, dataset);
+      Inode inode = new Inode(1L, dataset.getName(), 1L);
+      inode.setId(datasetIId(p));
+      inodes.put(inode.getId(), inode);
+      List<DatasetSharedWith> shares = new ArrayList<>();
+      for (int s = 0; s < SHARED_WITH; s++) {
+        int sharedId = 1000 + p * SHARED_WITH + s;
+        if (s == 0) {
+          memberOf.add(sharedId);
+        }
+        DatasetSharedWith share = new DatasetSharedWith();
+        share.setDataset(dataset);
+        share.setProject(project(sharedId));
+        share.setAccepted(true);
+        shares.add(share);
+      }
+      sharedWith.put(p, shares);
+    }
+
+    //batched queries
+    Mockito.when(projectFacade.findByIds(ArgumentMatchers.anyCollection())).thenAnswer(i ->
+      ((Collection<Integer>) i.getArgument(0)).stream().map(projects::get).filter(Objects::nonNull)
+        .collect(Collectors.toList()));
+    Mockito.when(projectTeamFacade.findByMemberAndProjects(ArgumentMatchers.eq(user),
+      ArgumentMatchers.anyCollection())).thenAnswer(i ->
+      ((Collection<Project>) i.getArgument(1)).stream()
+        .filter(p -> memberOf.contains(p.getId()))
+        .map(this::membership)
+        .collect(Collectors.toList()));
+    Mockito.when(inodeFacade.findByIdList(ArgumentMatchers.anyList())).thenAnswer(i ->
+      ((List<Long>) i.getArgument(0)).stream().map(inodes::get).filter(Objects::nonNull)
+        .collect(Collectors.toList()));
+    Mockito.when(datasetFacade.findByProjectsAndNames(ArgumentMatchers.anyCollection(),
+      ArgumentMatchers.anyCollection())).thenAnswer(i ->
+      ((Collection<Project>) i.getArgument(0)).stream().map(p -> datasets.get(p.getId())).collect(Collectors.toList()));
+    Mockito.when(dsSharedWithFacade.findByDatasets(ArgumentMatchers.anyCollection())).thenAnswer(i ->
+      ((Collection<Dataset>) i.getArgument(0)).stream()
+        .flatMap(d -> sharedWith.get(d.getId()).stream())
+        .collect(Collectors.toList()));
+    //per item queries
+    Mockito.when(projectFacade.find(ArgumentMatchers.anyInt())).thenAnswer(i -> projects.get(i.getArgument(0)));
+    Mockito.when(projectTeamFacade.findCurrentRole(ArgumentMatchers.any(Project.class), ArgumentMatchers.eq(user)))
+      .thenAnswer(i -> memberOf.contains(((Project) i.getArgument(0)).getId()) ? ROLE : null);
+    Mockito.when(inodeFacade.findById(ArgumentMatchers.anyLong())).thenAnswer(i -> inodes.get(i.getArgument(0)));
+    Mockito.when(datasetFacade.findByProjectAndName(ArgumentMatchers.any(Project.class), ArgumentMatchers.anyString()))
+      .thenAnswer(i -> datasets.get(((Project) i.getArgument(0)).getId()));
+    Mockito.when(dsSharedWithFacade.findByDataset(ArgumentMatchers.any(Dataset.class)))
+      .thenAnswer(i -> sharedWith.get(((Dataset) i.getArgument(0)).getId()));
+  }
+
+  private Project project(int id) {
+    return projects.computeIfAbsent(id, i -> new Project(i, "project_" + i));
+  }
+
+  private ProjectTeam membership(Project project) {
+    ProjectTeam team = new ProjectTeam(project, user);
+    team.setProject(project);
+    team.setUser(user);
+    team.setTeamRole(ROLE);
+    return team;
+  }
+
+  private long datasetIId(int projectId) {
+    return 100000L + projectId;
+  }
+
+  private List<DatasetAccessController.DatasetDetails> hits(int count) {
+    List<DatasetAccessController.DatasetDetails> hits = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      int projectId = i % PARENT_PROJECTS + 1;
+      hits.add(new DatasetAccessController.DatasetDetails() {
+        @Override
+        public Integer getParentProjectId() {
+          return projectId;
+        }
+
+        @Override
+        public Long getParentDatasetIId() {
+          return datasetIId(projectId);
+        }
+      });
+    }
+    return hits;
+  }
+
+  private List<Set<Integer>> resolve(List<DatasetAccessController.DatasetDetails> hits, boolean prefetch) {
+    DatasetAccessController.DatasetAccessCtrl accessCtrl = target.memoizedAccessorProjects(user);
+    if (prefetch) {
+      accessCtrl.prefetch(hits);
+    }
+    List<Set<Integer>> result = new ArrayList<>();
+    for (DatasetAccessController.DatasetDetails hit : hits) {
+      Set<Integer> accessProjects = new HashSet<>();
+      accessCtrl.accept(hit, project -> accessProjects.add(project.getId()));
+      result.add(accessProjects);
+    }
+    return result;
+  }
+
+  private int queries() {
+    int queries = 0;
+    for (Object facade : new Object[]{projectFacade, projectTeamFacade, inodeFacade, datasetFacade,
+      dsSharedWithFacade}) {
+      queries += Mockito.mockingDetails(facade).getInvocations().size();
+    }
+    Mockito.clearInvocations(projectFacade, projectTeamFacade, inodeFacade, datasetFacade, dsSharedWithFacade);
+    return queries;
+  }
+
+  @Test
+  public void testPrefetchedAccess() {
+    List<DatasetAccessController.DatasetDetails> hits = hits(PARENT_PROJECTS);
+    List<Set<Integer>> expected = resolve(hits, false);
+    queries();
+    List<Set<Integer>> prefetched = resolve(hits, true);
+    Assert.assertEquals(expected, prefetched);
+    for (int p = 1; p <= PARENT_PROJECTS; p++) {
+      Set<Integer> accessProjects = prefetched.get(p - 1);
+      Assert.assertEquals(p % 2 == 1, accessProjects.contains(p));
+      Assert.assertTrue(accessProjects.contains(1000 + p * SHARED_WITH));
+      Assert.assertFalse(accessProjects.contains(1000 + p * SHARED_WITH + 1));
+    }
+
+    Mockito.verify(projectFacade, Mockito.never()).find(ArgumentMatchers.anyInt());
+    Mockito.verify(projectTeamFacade, Mockito.never())
+      .findCurrentRole(ArgumentMatchers.any(Project.class), ArgumentMatchers.any(Users.class));
+    Mockito.verify(inodeFacade, Mockito.never()).findById(ArgumentMatchers.anyLong());
+    Mockito.verify(datasetFacade, Mockito.never())
+      .findByProjectAndName(ArgumentMatchers.any(Project.class), ArgumentMatchers.anyString());
+    Mockito.verify(dsSharedWithFacade, Mockito.never()).findByDataset(ArgumentMatchers.any(Dataset.class));
+  }
+
+  @Test
+  public void testStaleItems() {
+    projects.remove(2);
+    inodes.remove(datasetIId(3));
+    List<DatasetAccessController.DatasetDetails> hits = hits(PARENT_PROJECTS);
+    List<Set<Integer>> prefetched = resolve(hits, true);
+    Assert.assertTrue(prefetched.get(1).isEmpty());
+    Assert.assertTrue(prefetched.get(2).isEmpty());
+    Assert.assertFalse(prefetched.get(0).isEmpty());
+  }
+
+  /**
+   * The number of queries of the prefetched enrichment does not depend on the number of hits.
+   */
+  @Test
+  public void testQueriesDoNotDependOnHits() {
+    int previous = -1;
+    for (int count : new int[]{PARENT_PROJECTS, 5 * PARENT_PROJECTS}) {
+      List<DatasetAccessController.DatasetDetails> hits = hits(count);
+      queries();
+      resolve(hits, false);
+      int memoizedQueries = queries();
+      resolve(hits, true);
+      int prefetchedQueries = queries();
+
+      Assert.assertTrue(prefetchedQueries <= 6);
+      Assert.assertTrue(prefetchedQueries < memoizedQueries);
+      if (previous >= 0) {
+        Assert.assertEquals(previous, prefetchedQueries);
+      }
+      previous = prefetchedQueries;
+    }
+  }
+}
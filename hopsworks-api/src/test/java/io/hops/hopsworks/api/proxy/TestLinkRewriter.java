@@ -0,0 +1,119 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.api.proxy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+public class TestLinkRewriter {
+
+  private static final String[] RULES = {
+    "(?<=(href|src)=\")/(?=[a-zA-Z])",
+    "(?<=(href|src)=\")(?=http)",
+    "(?<=(href|src)=\")(?=[a-zA-Z])",
+    "for full log"};
+  private static final String[] REPLACEMENTS = {"/proxy/host/", "/proxy/", "/proxy/host/path/", "for latest logs"};
+  private static final String[] FRAGMENTS = {"<a href=\"/x\">", "<img src=\"http://h:1/y\">", "<a href=\"z\">",
+    "for full log", "text ", "\n"};
+
+  private String sequential(String content) {
+    StringBuilder result = new StringBuilder();
+    for (String line : content.split("\n", -1)) {
+      for (int i = 0; i < RULES.length; i++) {
+        line = line.replaceAll(RULES[i], REPLACEMENTS[i]);
+      }
+      result.append(line).append('\n');
+    }
+    return result.substring(0, result.length() - 1);
+  }
+
+  @Test
+  public void testSinglePassMatchesSequentialReplace() throws IOException {
+    LinkRewriter rewriter = new LinkRewriter(RULES);
+    Random random = new Random(0);
+    for (int test = 0; test < 50; test++) {
+      StringBuilder content = new StringBuilder();
+      int fragments = random.nextInt(10000);
+      //every other content has no line breaks, so the window is cut in the middle of a line
+      int kinds = test % 2 == 0 ? FRAGMENTS.length : FRAGMENTS.length - 1;
+      for (int i = 0; i < fragments; i++) {
+        content.append(FRAGMENTS[random.nextInt(kinds)]);
+      }
+      StringWriter out = new StringWriter();
+      LinkRewriter.RewritingWriter writer = rewriter.rewrite(out, REPLACEMENTS, null);
+      char[] chars = content.toString().toCharArray();
+      int position = 0;
+      while (position < chars.length) {
+        int length = Math.min(chars.length - position, 1 + random.nextInt(4096));
+        writer.write(chars, position, length);
+        position += length;
+      }
+      writer.finish();
+      Assert.assertEquals(sequential(content.toString()), out.toString());
+    }
+  }
+
+  @Test
+  public void testLineFilter() throws IOException {
+    StringWriter out = new StringWriter();
+    LinkRewriter.RewritingWriter writer = new LinkRewriter(RULES).rewrite(out, REPLACEMENTS,
+      line -> !line.contains("secret"));
+    writer.write("<a href=\"/x\">\nsecret\n<a href=\"z\">");
+    writer.finish();
+    Assert.assertEquals("<a href=\"/proxy/host/x\">\n<a href=\"/proxy/host/path/z\">", out.toString());
+  }
+
+  @Test
+  public void testLineFilterWritesLongLinesBeforeTheirEnd() throws IOException {
+    StringWriter out = new StringWriter();
+    LinkRewriter.RewritingWriter writer = new LinkRewriter(RULES).rewrite(out, REPLACEMENTS,
+      line -> !line.contains("secret"));
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      writer.write("<a href=\"/x\">");
+      expected.append("<a href=\"/proxy/host/x\">");
+    }
+    //the line is not over but most of it has been written
+    Assert.assertTrue(out.toString().length() > expected.length() - 2 * LinkRewriter.MAX_MATCH - 16 * 1024);
+    writer.write("\nsecret");
+    for (int i = 0; i < 10000; i++) {
+      writer.write("<a href=\"/x\">");
+    }
+    writer.write("\n<a href=\"z\">");
+    writer.finish();
+    Assert.assertEquals(expected + "\n<a href=\"/proxy/host/path/z\">", out.toString());
+  }
+
+  @Test
+  public void testGzipEntity() throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write("<a href=\"/x\">for full log</a>".getBytes(StandardCharsets.UTF_8));
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new LinkRewriter(RULES).copy(new ByteArrayInputStream(compressed.toByteArray()), "gzip",
+      "text/html; charset=utf-8", out, REPLACEMENTS, null);
+    Assert.assertEquals("<a href=\"/proxy/host/x\">for latest logs</a>", out.toString(StandardCharsets.UTF_8.name()));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.api.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class TestByteRange {
+
+  @Test
+  public void testSingleRanges() {
+    assertRanges("bytes=0-99", 1000, "0-99");
+    assertRanges("bytes=900-", 1000, "900-999");
+    assertRanges("bytes=-100", 1000, "900-999");
+    assertRanges("bytes=-2000", 1000, "0-999");
+    assertRanges("bytes=500-5000", 1000, "500-999");
+  }
+
+  @Test
+  public void testMultipleRanges() {
+    assertRanges("bytes=0-9, 20-29,-5", 100, "0-9", "20-29", "95-99");
+    //unsatisfiable ranges are left out
+    assertRanges("bytes=0-9,200-300", 100, "0-9");
+  }
+
+  @Test
+  public void testUnsatisfiable() {
+    Assert.assertTrue(ByteRange.parse("bytes=1000-", 1000).isEmpty());
+    Assert.assertTrue(ByteRange.parse("bytes=-0", 1000).isEmpty());
+    Assert.assertTrue(ByteRange.parse("bytes=0-", 0).isEmpty());
+  }
+
+  @Test
+  public void testIgnored() {
+    Assert.assertNull(ByteRange.parse(null, 1000));
+    Assert.assertNull(ByteRange.parse("items=0-9", 1000));
+    Assert.assertNull(ByteRange.parse("bytes=9-0", 1000));
+    Assert.assertNull(ByteRange.parse("bytes=a-b", 1000));
+    Assert.assertNull(ByteRange.parse("bytes=10", 1000));
+    StringBuilder tooMany = new StringBuilder("bytes=0-0");
+    for (int i = 1; i <= ByteRange.MAX_RANGES; i++) {
+      tooMany.append(",").append(i).append("-").append(i);
+    }
+    Assert.assertNull(ByteRange.parse(tooMany.toString(), 1000));
+  }
+
+  @Test
+  public void testContentRange() {
+    ByteRange range = ByteRange.parse("bytes=10-19", 100).get(0);
+    Assert.assertEquals(10, range.length());
+    Assert.assertEquals("bytes 10-19/100", range.contentRange(100));
+    Assert.assertEquals("bytes */100", ByteRange.unsatisfiedContentRange(100));
+  }
+
+  private void assertRanges(String header, long length, String... expected) {
+    List<ByteRange> ranges = ByteRange.parse(header, length);
+    Assert.assertNotNull(ranges);
+    Assert.assertEquals(expected.length, ranges.size());
+    for (int i = 0; i < expected.length; i++) {
+      Assert.assertEquals(expected[i], ranges.get(i).toString());
+    }
+  }
+}
@@ -58,4 +58,18 @@ public class CRLResource {
           CertificateType.APP, "Failed to read CRL", ex.getMessage(), ex);
     }
   }
+
+  @javax.ws.rs.Path("/intermediate/delta")
+  @GET
+  @Produces(MediaType.APPLICATION_OCTET_STREAM)
+  @ApiOperation(value = "Endpoint to download HopsCA intermediate CA delta Certificate Revocation List")
+  public Response fetchDeltaCRL() throws CAException {
+    try {
+      String crl = pki.getDeltaCertificateRevocationListPEM(CAType.INTERMEDIATE);
+      return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK).entity(crl).build();
+    } catch (GeneralSecurityException | IOException | CAInitializationException ex) {
+      throw new CAException(RESTCodes.CAErrorCode.CERTIFICATE_REVOCATION_LIST_READ, Level.SEVERE,
+          CertificateType.APP, "Failed to read delta CRL", ex.getMessage(), ex);
+    }
+  }
 }
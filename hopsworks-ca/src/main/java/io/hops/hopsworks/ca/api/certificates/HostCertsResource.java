@@ -72,6 +72,7 @@ import java.security.GeneralSecurityException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.logging.Logger;
 
 import static io.hops.hopsworks.ca.controllers.CertificateType.HOST;
@@ -147,9 +148,7 @@ public class HostCertsResource {
         throw new CertificateNotFoundException("Could not find a VALID certificate with ID: " + certId + " Is " +
             "exact X509 Name: " + exact);
       }
-      for (X500Name n : subjectsToRevoke) {
-        pki.revokeCertificate(n, HOST);
-      }
+      pki.revokeCertificates(subjectsToRevoke, HOST);
       return Response.ok().build();
     } catch (InvalidNameException | GeneralSecurityException | CAInitializationException ex) {
       throw pkiUtils.certificateRevocationExceptionConvertToCAException(ex, HOST);
@@ -169,9 +168,7 @@ public class HostCertsResource {
     }
     List<String> subjectsToRevoke = pkiUtils.findAllHostCertificateSubjectsForHost(hostname);
     try {
-      for (String subject : subjectsToRevoke) {
-        pki.revokeCertificate(new X500Name(subject), HOST);
-      }
+      pki.revokeCertificates(subjectsToRevoke.stream().map(X500Name::new).collect(Collectors.toList()), HOST);
       return Response.ok().build();
     } catch (GeneralSecurityException | CAInitializationException ex) {
       throw pkiUtils.certificateRevocationExceptionConvertToCAException(ex, HOST);
@@ -72,6 +72,7 @@ public class CAConf {
     SUDOERS_DIR("sudoers_dir", "/srv/hops/sbin"),
     CLOUD_EVENTS_ENDPOINT("cloud_events_endpoint", ""),
     CA_CONFIGURATION("pki_ca_configuration", ""),
+    CRL_DELTA_ENABLED("pki_crl_delta_enabled", "false"),
     // This property is duplicated in Settings.java
     KUBERNETES("kubernetes_installed", "false"),
     // This property is duplicated in Settings.java
@@ -0,0 +1,81 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.ca.controllers;
+
+import java.math.BigInteger;
+import java.security.cert.X509CRL;
+
+/**
+ * Parsed copy of a Certificate Revocation List as stored in the database. The encoded form is kept to detect when
+ * another node has updated the CRL, the PEM and the delta CRL are computed once per version.
+ */
+class CachedCRL {
+  private final byte[] encoded;
+  private final X509CRL crl;
+  private final BigInteger number;
+  private long validated;
+  private String pem;
+  private BigInteger deltaBase;
+  private String deltaPem;
+
+  CachedCRL(byte[] encoded, X509CRL crl, BigInteger number) {
+    this.encoded = encoded;
+    this.crl = crl;
+    this.number = number;
+    this.validated = System.currentTimeMillis();
+  }
+
+  byte[] getEncoded() {
+    return encoded;
+  }
+
+  X509CRL getCrl() {
+    return crl;
+  }
+
+  BigInteger getNumber() {
+    return number;
+  }
+
+  long getValidated() {
+    return validated;
+  }
+
+  void setValidated(long validated) {
+    this.validated = validated;
+  }
+
+  String getPem() {
+    return pem;
+  }
+
+  void setPem(String pem) {
+    this.pem = pem;
+  }
+
+  BigInteger getDeltaBase() {
+    return deltaBase;
+  }
+
+  String getDeltaPem() {
+    return deltaPem;
+  }
+
+  void setDelta(BigInteger deltaBase, String deltaPem) {
+    this.deltaBase = deltaBase;
+    this.deltaPem = deltaPem;
+  }
+}
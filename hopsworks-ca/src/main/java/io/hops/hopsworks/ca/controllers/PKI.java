@@ -72,6 +72,7 @@ import org.bouncycastle.asn1.x500.style.BCStyle;
 import org.bouncycastle.asn1.x500.style.IETFUtils;
 import org.bouncycastle.asn1.x509.AuthorityKeyIdentifier;
 import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.CRLNumber;
 import org.bouncycastle.asn1.x509.CRLReason;
 import org.bouncycastle.asn1.x509.Extension;
 import org.bouncycastle.asn1.x509.Extensions;
@@ -81,6 +82,7 @@ import org.bouncycastle.asn1.x509.GeneralNames;
 import org.bouncycastle.asn1.x509.KeyUsage;
 import org.bouncycastle.asn1.x509.SubjectKeyIdentifier;
 import org.bouncycastle.cert.CertIOException;
+import org.bouncycastle.cert.X509CRLEntryHolder;
 import org.bouncycastle.cert.X509CRLHolder;
 import org.bouncycastle.cert.X509CertificateHolder;
 import org.bouncycastle.cert.X509v2CRLBuilder;
@@ -140,6 +142,8 @@ import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAmount;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -165,6 +169,11 @@ public class PKI {
 
   public static final String SIGNATURE_ALGORITHM = "SHA256WithRSAEncryption";
   private static final CRLReason REVOCATION_REASON = CRLReason.lookup(CRLReason.privilegeWithdrawn);
+  private static final Provider BOUNCY_CASTLE_PROVIDER = new BouncyCastleProvider();
+  // How long a cached CRL is served before it is compared again with the one in the database
+  private static final long CRL_CACHE_TTL = TimeUnit.MINUTES.toMillis(1);
+  private final Map<CAType, CachedCRL> crls = new HashMap<>(3);
+  private final Map<CAType, CachedCRL> deltaCRLBases = new HashMap<>(3);
 
   private final AtomicBoolean CA_INITIALIZED = new AtomicBoolean(false);
   
@@ -322,8 +331,40 @@ public class PKI {
       LOGGER.log(Level.SEVERE, "Failed to initialize CA", ex);
       throw new CAInitializationException(ex);
     }
-    X509CRL crl = loadCRL(type);
-    return pkiUtils.convertToPEM(crl);
+    CachedCRL crl = getCachedCRL(type, false);
+    if (crl.getPem() == null) {
+      crl.setPem(pkiUtils.convertToPEM(crl.getCrl()));
+    }
+    return crl.getPem();
+  }
+
+  /**
+   * Delta CRL with the revocations added since a base CRL of this node. The base is kept until its next update so
+   * clients holding any complete CRL issued after it can apply the delta.
+   */
+  public String getDeltaCertificateRevocationListPEM(CAType type) throws CAInitializationException,
+      GeneralSecurityException, IOException {
+    try {
+      maybeInitializeCA();
+    } catch (Exception ex) {
+      LOGGER.log(Level.SEVERE, "Failed to initialize CA", ex);
+      throw new CAInitializationException(ex);
+    }
+    if (!caConf.getBoolean(CAConf.CAConfKeys.CRL_DELTA_ENABLED)) {
+      throw new CRLException("Delta CRLs are not enabled for " + type);
+    }
+    CachedCRL current = getCachedCRL(type, false);
+    CachedCRL base = deltaCRLBases.get(type);
+    if (base == null || base.getNumber().compareTo(current.getNumber()) > 0 || base.getCrl().getNextUpdate() == null
+        || base.getCrl().getNextUpdate().before(new Date())) {
+      base = current;
+      deltaCRLBases.put(type, base);
+    }
+    if (current.getDeltaPem() == null || !base.getNumber().equals(current.getDeltaBase())) {
+      X509CRL delta = generateDeltaCRL(type, base, current);
+      current.setDelta(base.getNumber(), pkiUtils.convertToPEM(delta));
+    }
+    return current.getDeltaPem();
   }
 
   protected void initializeCertificateAuthorities() throws GeneralSecurityException, IOException,
@@ -474,11 +515,13 @@ public class PKI {
   protected void initCRL(CAType type, X509CRL crl) throws CRLException {
     PKICrl pkiCrl = new PKICrl(type, crl.getEncoded());
     crlFacade.init(pkiCrl);
+    crls.put(type, new CachedCRL(pkiCrl.getCrl(), crl, getCRLNumber(crl)));
   }
 
   protected void updateCRL(CAType type, X509CRL crl) throws CRLException {
     PKICrl pkiCrl = new PKICrl(type, crl.getEncoded());
     crlFacade.update(pkiCrl);
+    crls.put(type, new CachedCRL(pkiCrl.getCrl(), crl, getCRLNumber(crl)));
   }
 
   protected void saveNewCertificate(CAType caType, X509Certificate certificate) throws CertificateEncodingException {
@@ -1186,49 +1229,68 @@ public class PKI {
 
   public void revokeCertificate(X500Name certificateName, CertificateType certificateType)
       throws CAInitializationException, CertificateException, KeyException, CRLException {
+    revokeCertificates(Collections.singletonList(certificateName), certificateType);
+  }
+
+  /**
+   * Revoke a number of certificates of the same type. All of them are added to the CRL with a single signature.
+   */
+  public void revokeCertificates(Collection<X500Name> certificateNames, CertificateType certificateType)
+      throws CAInitializationException, CertificateException, KeyException, CRLException {
+    if (certificateNames.isEmpty()) {
+      return;
+    }
     try {
       maybeInitializeCA();
     } catch (Exception ex) {
       LOGGER.log(Level.SEVERE, "Failed to initialize CA", ex);
       throw new CAInitializationException(ex);
     }
-    if (!certificateType.equals(CertificateType.APP)) {
-      LOGGER.log(Level.INFO, "Revoking certificate with Subject " + certificateName);
-    }
-    Optional<PKICertificate> maybeCert = pkiCertificateFacade.findById(
-        new PKICertificateId(PKICertificate.Status.VALID, certificateName.toString()));
+    List<PKICertificate> pkiCerts = new ArrayList<>(certificateNames.size());
+    List<X509Certificate> certificates = new ArrayList<>(certificateNames.size());
+    for (X500Name certificateName : certificateNames) {
+      if (!certificateType.equals(CertificateType.APP)) {
+        LOGGER.log(Level.INFO, "Revoking certificate with Subject " + certificateName);
+      }
+      Optional<PKICertificate> maybeCert = pkiCertificateFacade.findById(
+          new PKICertificateId(PKICertificate.Status.VALID, certificateName.toString()));
 
-    if (!maybeCert.isPresent()) {
-      throw new CertificateNotFoundException("Could not find certificate with Name " + certificateName.toString()
-          + " to revoke");
-    }
-    PKICertificate pkiCert = maybeCert.get();
-    LOGGER.log(Level.FINE, "Deleted certificate " + certificateName + " from database");
-    byte[] encoded = pkiCert.getCertificate();
-    X509Certificate certificate;
-    try {
-      certificate = converter.getCertificate(parseToX509CertificateHolder(encoded));
-    } catch (IOException ex) {
-      throw new CertificateException("Failed to decode certificate from CA database", ex);
+      if (!maybeCert.isPresent()) {
+        throw new CertificateNotFoundException("Could not find certificate with Name " + certificateName.toString()
+            + " to revoke");
+      }
+      PKICertificate pkiCert = maybeCert.get();
+      byte[] encoded = pkiCert.getCertificate();
+      try {
+        certificates.add(converter.getCertificate(parseToX509CertificateHolder(encoded)));
+      } catch (IOException ex) {
+        throw new CertificateException("Failed to decode certificate from CA database", ex);
+      }
+      pkiCerts.add(pkiCert);
     }
 
     if (!shouldCertificateTypeSkipCRL(certificateType)) {
       CAType caType = pkiUtils.getResponsibleCA(certificateType);
-      X509CRL newCRL = addRevocationToCRL(caType, certificate);
+      X509CRL newCRL = addRevocationsToCRL(caType, certificates);
       updateCRL(caType, newCRL);
-      LOGGER.log(Level.FINE, "Updated CRL");
+      LOGGER.log(Level.FINE, "Updated CRL with " + certificates.size() + " revocations");
     } else {
-      if (certificate != null) {
-        // Check is here only to ease testing, certificate should never be null at this point
-        LOGGER.log(Level.FINE, "Certificate " + certificate.getSubjectDN().toString() + " of type "
-            + certificateType + " is not added to CRL");
+      for (X509Certificate certificate : certificates) {
+        if (certificate != null) {
+          // Check is here only to ease testing, certificate should never be null at this point
+          LOGGER.log(Level.FINE, "Certificate " + certificate.getSubjectDN().toString() + " of type "
+              + certificateType + " is not added to CRL");
+        }
       }
     }
 
-    updateRevokedCertificate(pkiCert);
-    if (certificate!= null) {
-      // Check is here only to ease testing, certificate should never be null at this point
-      LOGGER.log(Level.INFO, "Revoked certificate with X.509 name " + certificate.getSubjectDN().toString());
+    for (int i = 0; i < pkiCerts.size(); i++) {
+      updateRevokedCertificate(pkiCerts.get(i));
+      X509Certificate certificate = certificates.get(i);
+      if (certificate != null) {
+        // Check is here only to ease testing, certificate should never be null at this point
+        LOGGER.log(Level.INFO, "Revoked certificate with X.509 name " + certificate.getSubjectDN().toString());
+      }
     }
   }
 
@@ -1256,11 +1318,45 @@ public class PKI {
   }
 
   protected X509CRL loadCRL(CAType type) throws CRLException, IOException {
+    return getCachedCRL(type, true).getCrl();
+  }
+
+  /**
+   * @param type CA of the CRL
+   * @param revalidate compare the cached CRL with the database even if it has been validated recently
+   * @return the cached CRL, parsed again only if it has changed in the database
+   */
+  protected CachedCRL getCachedCRL(CAType type, boolean revalidate) throws CRLException, IOException {
+    CachedCRL cached = crls.get(type);
+    long now = System.currentTimeMillis();
+    if (cached != null && !revalidate && now - cached.getValidated() < CRL_CACHE_TTL) {
+      return cached;
+    }
     Optional<PKICrl> maybeCrl = crlFacade.getCRL(type);
     if (!maybeCrl.isPresent()) {
       throw new CRLException("CRL for " + type + " is not present");
     }
-    return crlConverter.getCRL(new X509CRLHolder(maybeCrl.get().getCrl()));
+    byte[] encoded = maybeCrl.get().getCrl();
+    if (cached != null && Arrays.equals(cached.getEncoded(), encoded)) {
+      cached.setValidated(now);
+      return cached;
+    }
+    X509CRL crl = crlConverter.getCRL(new X509CRLHolder(encoded));
+    cached = new CachedCRL(encoded, crl, getCRLNumber(crl));
+    crls.put(type, cached);
+    return cached;
+  }
+
+  private static BigInteger getCRLNumber(X509CRL crl) throws CRLException {
+    byte[] extension = crl.getExtensionValue(Extension.cRLNumber.getId());
+    if (extension == null) {
+      return BigInteger.ZERO;
+    }
+    try {
+      return CRLNumber.getInstance(JcaX509ExtensionUtils.parseExtensionValue(extension)).getCRLNumber();
+    } catch (IOException ex) {
+      throw new CRLException(ex);
+    }
   }
 
   private X509CRL loadCRL(Path path) throws IOException, CRLException {
@@ -1275,24 +1371,118 @@ public class PKI {
 
   protected X509CRL addRevocationToCRL(CAType caType, X509Certificate certificate)
       throws CRLException, KeyException {
+    return addRevocationsToCRL(caType, Collections.singletonList(certificate));
+  }
+
+  /**
+   * Issue the next CRL with the given certificates revoked. Entries of revoked certificates which have expired since
+   * are dropped.
+   */
+  protected X509CRL addRevocationsToCRL(CAType caType, Collection<X509Certificate> certificates)
+      throws CRLException, KeyException {
     try {
       X509CRL crl = loadCRL(caType);
-      KeyPair keyPair = getCAKeyPair(caType);
-      X509v2CRLBuilder builder = new JcaX509v2CRLBuilder(crl);
-      builder.setNextUpdate(Date.from(Instant.now().plus(1, ChronoUnit.DAYS)));
-      ExtensionsGenerator extGen = new ExtensionsGenerator();
+      X509CRLHolder current = new X509CRLHolder(crl.getEncoded());
+      Date now = new Date();
+      X509v2CRLBuilder builder = new JcaX509v2CRLBuilder(crl.getIssuerX500Principal(), now);
+      builder.setNextUpdate(Date.from(now.toInstant().plus(1, ChronoUnit.DAYS)));
+
+      Set<BigInteger> expired = findExpiredRevocations(caType, current, now);
+      for (Object o : current.getRevokedCertificates()) {
+        X509CRLEntryHolder entry = (X509CRLEntryHolder) o;
+        if (!expired.contains(entry.getSerialNumber())) {
+          addCRLEntry(builder, entry);
+        }
+      }
+      if (!expired.isEmpty()) {
+        LOGGER.log(Level.FINE, "Dropped " + expired.size() + " expired certificates from the CRL of " + caType);
+      }
 
+      ExtensionsGenerator extGen = new ExtensionsGenerator();
       extGen.addExtension(Extension.reasonCode, false, REVOCATION_REASON);
-      builder.addCRLEntry(certificate.getSerialNumber(), new Date(), extGen.generate());
+      Extensions revocationExtensions = extGen.generate();
+      for (X509Certificate certificate : certificates) {
+        builder.addCRLEntry(certificate.getSerialNumber(), now, revocationExtensions);
+      }
+      copyCRLExtensions(current, builder);
+      builder.addExtension(Extension.cRLNumber, false, new CRLNumber(getCRLNumber(crl).add(BigInteger.ONE)));
+      return crlConverter.getCRL(builder.build(getCRLSigner(caType)));
+    } catch (OperatorCreationException | IOException ex) {
+      throw new CRLException(ex);
+    }
+  }
 
-      ContentSigner signer = new JcaContentSignerBuilder(SIGNATURE_ALGORITHM)
-          .setProvider(new BouncyCastleProvider()).build(keyPair.getPrivate());
-      return crlConverter.getCRL(builder.build(signer));
+  /**
+   * A revoked certificate was valid when it was revoked, so only certificates which expired after the oldest
+   * revocation of the CRL can still be in it.
+   */
+  protected Set<BigInteger> findExpiredRevocations(CAType caType, X509CRLHolder crl, Date now) {
+    Date oldestRevocation = null;
+    for (Object o : crl.getRevokedCertificates()) {
+      Date revocationDate = ((X509CRLEntryHolder) o).getRevocationDate();
+      if (oldestRevocation == null || revocationDate.before(oldestRevocation)) {
+        oldestRevocation = revocationDate;
+      }
+    }
+    if (oldestRevocation == null) {
+      return Collections.emptySet();
+    }
+    Set<BigInteger> expired = new HashSet<>();
+    for (Long serialNumber : pkiCertificateFacade.findAllSerialNumbersWithStatusExpiredBetween(caType,
+        PKICertificate.Status.REVOKED, oldestRevocation, now)) {
+      expired.add(BigInteger.valueOf(serialNumber));
+    }
+    return expired;
+  }
+
+  protected X509CRL generateDeltaCRL(CAType caType, CachedCRL base, CachedCRL current)
+      throws CRLException, KeyException {
+    try {
+      X509CRLHolder currentHolder = new X509CRLHolder(current.getEncoded());
+      X509v2CRLBuilder builder = new JcaX509v2CRLBuilder(current.getCrl().getIssuerX500Principal(), new Date());
+      if (current.getCrl().getNextUpdate() != null) {
+        builder.setNextUpdate(current.getCrl().getNextUpdate());
+      }
+      Set<BigInteger> inBase = new HashSet<>();
+      for (Object o : new X509CRLHolder(base.getEncoded()).getRevokedCertificates()) {
+        inBase.add(((X509CRLEntryHolder) o).getSerialNumber());
+      }
+      for (Object o : currentHolder.getRevokedCertificates()) {
+        X509CRLEntryHolder entry = (X509CRLEntryHolder) o;
+        if (!inBase.contains(entry.getSerialNumber())) {
+          addCRLEntry(builder, entry);
+        }
+      }
+      copyCRLExtensions(currentHolder, builder);
+      builder.addExtension(Extension.cRLNumber, false, new CRLNumber(current.getNumber()));
+      builder.addExtension(Extension.deltaCRLIndicator, true, new CRLNumber(base.getNumber()));
+      return crlConverter.getCRL(builder.build(getCRLSigner(caType)));
     } catch (OperatorCreationException | IOException ex) {
       throw new CRLException(ex);
     }
   }
 
+  private void addCRLEntry(X509v2CRLBuilder builder, X509CRLEntryHolder entry) {
+    if (entry.getExtensions() != null) {
+      builder.addCRLEntry(entry.getSerialNumber(), entry.getRevocationDate(), entry.getExtensions());
+    } else {
+      builder.addCRLEntry(entry.getSerialNumber(), entry.getRevocationDate(), CRLReason.unspecified);
+    }
+  }
+
+  private void copyCRLExtensions(X509CRLHolder crl, X509v2CRLBuilder builder) throws CertIOException {
+    for (Object oid : crl.getExtensionOIDs()) {
+      if (!Extension.cRLNumber.equals(oid) && !Extension.deltaCRLIndicator.equals(oid)) {
+        builder.addExtension(crl.getExtension((ASN1ObjectIdentifier) oid));
+      }
+    }
+  }
+
+  private ContentSigner getCRLSigner(CAType caType) throws KeyException, OperatorCreationException {
+    return new JcaContentSignerBuilder(SIGNATURE_ALGORITHM)
+        .setProvider(BOUNCY_CASTLE_PROVIDER).build(getCAKeyPair(caType).getPrivate());
+  }
+
   public X509Certificate loadCertificate(String name, PKICertificate.Status status)
       throws CertificateNotFoundException, CertificateException {
     Optional<PKICertificate> maybeCertificate = pkiCertificateFacade.findBySubjectAndStatus(name, status);
@@ -15,6 +15,7 @@
  */
 package io.hops.hopsworks.ca.persistence;
 
+import io.hops.hopsworks.persistence.entity.pki.CAType;
 import io.hops.hopsworks.persistence.entity.pki.PKICertificate;
 import io.hops.hopsworks.persistence.entity.pki.PKICertificateId;
 
@@ -22,6 +23,7 @@ import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -55,6 +57,16 @@ public class PKICertificateFacade {
         .getResultList();
   }
 
+  public List<Long> findAllSerialNumbersWithStatusExpiredBetween(CAType ca, PKICertificate.Status status, Date from,
+      Date to) {
+    return em.createNamedQuery("PKICertificate.findSerialNumberByCAStatusAndExpiration", Long.class)
+        .setParameter("ca", ca)
+        .setParameter("status", status)
+        .setParameter("from", from)
+        .setParameter("to", to)
+        .getResultList();
+  }
+
   public void saveCertificate(PKICertificate certificate) {
     em.persist(certificate);
   }
@@ -0,0 +1,120 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.ca.controllers;
+
+import io.hops.hopsworks.persistence.entity.pki.CAType;
+import io.hops.hopsworks.persistence.entity.pki.PKICrl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.hops.hopsworks.ca.controllers.PKI.EMPTY_CONFIGURATION;
+
+/**
+ * Revocations of the intermediate CRL, one by one and in batches signed as a single CRL.
+ */
+public class TestCRLBatchRevocation extends PKIMocking {
+  private static final int BATCH_SIZE = 50;
+
+  private final AtomicReference<PKICrl> storedCRL = new AtomicReference<>();
+
+  @Before
+  public void setup() throws Exception {
+    setupBasicPKI();
+    Mockito.doReturn(EMPTY_CONFIGURATION).when(pki).loadConfiguration();
+    Mockito.doAnswer(invocation -> {
+      PKICrl crl = invocation.getArgument(0);
+      if (crl.getType() == CAType.INTERMEDIATE) {
+        storedCRL.set(crl);
+      }
+      return null;
+    }).when(crlFacade).init(Mockito.any());
+    Mockito.doAnswer(invocation -> {
+      storedCRL.set(invocation.getArgument(0));
+      return null;
+    }).when(crlFacade).update(Mockito.any());
+    Mockito.when(crlFacade.getCRL(Mockito.eq(CAType.INTERMEDIATE)))
+        .thenAnswer(invocation -> Optional.ofNullable(storedCRL.get()));
+    pki.init();
+    pki.initializeCertificateAuthorities();
+    Mockito.doNothing().when(pki).maybeInitializeCA();
+  }
+
+  @Test
+  public void testBatchIsRevokedInOneCRLUpdate() throws Exception {
+    List<X509Certificate> batch = certificates(0, BATCH_SIZE);
+    Mockito.clearInvocations(crlFacade);
+    pki.updateCRL(CAType.INTERMEDIATE, pki.addRevocationsToCRL(CAType.INTERMEDIATE, batch));
+
+    Mockito.verify(crlFacade, Mockito.times(1)).update(Mockito.any());
+    X509CRL crl = pki.loadCRL(CAType.INTERMEDIATE);
+    Assert.assertEquals(BATCH_SIZE, crl.getRevokedCertificates().size());
+    for (X509Certificate certificate : batch) {
+      Assert.assertNotNull(crl.getRevokedCertificate(certificate.getSerialNumber()));
+    }
+    Assert.assertArrayEquals(crl.getEncoded(), storedCRL.get().getCrl());
+  }
+
+  @Test
+  public void testRevocationsAccumulate() throws Exception {
+    List<X509Certificate> single = certificates(0, 5);
+    for (X509Certificate certificate : single) {
+      pki.updateCRL(CAType.INTERMEDIATE, pki.addRevocationToCRL(CAType.INTERMEDIATE, certificate));
+    }
+    List<X509Certificate> batch = certificates(single.size(), BATCH_SIZE);
+    pki.updateCRL(CAType.INTERMEDIATE, pki.addRevocationsToCRL(CAType.INTERMEDIATE, batch));
+
+    X509CRL crl = pki.loadCRL(CAType.INTERMEDIATE);
+    Assert.assertEquals(single.size() + BATCH_SIZE, crl.getRevokedCertificates().size());
+    for (X509Certificate certificate : single) {
+      Assert.assertNotNull(crl.getRevokedCertificate(certificate.getSerialNumber()));
+    }
+    for (X509Certificate certificate : batch) {
+      Assert.assertNotNull(crl.getRevokedCertificate(certificate.getSerialNumber()));
+    }
+    Assert.assertNull(crl.getRevokedCertificate(BigInteger.valueOf(1000L + single.size() + BATCH_SIZE)));
+  }
+
+  @Test
+  public void testPEMIsCachedUntilTheNextRevocation() throws Exception {
+    String pem = pki.getCertificateRevocationListPEM(CAType.INTERMEDIATE);
+    Assert.assertSame(pem, pki.getCertificateRevocationListPEM(CAType.INTERMEDIATE));
+
+    pki.updateCRL(CAType.INTERMEDIATE, pki.addRevocationsToCRL(CAType.INTERMEDIATE, certificates(0, BATCH_SIZE)));
+    String updated = pki.getCertificateRevocationListPEM(CAType.INTERMEDIATE);
+    Assert.assertNotEquals(pem, updated);
+    Assert.assertSame(updated, pki.getCertificateRevocationListPEM(CAType.INTERMEDIATE));
+  }
+
+  private static List<X509Certificate> certificates(int offset, int count) {
+    List<X509Certificate> certificates = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      X509Certificate certificate = Mockito.mock(X509Certificate.class);
+      Mockito.when(certificate.getSerialNumber()).thenReturn(BigInteger.valueOf(1000L + offset + i));
+      certificates.add(certificate);
+    }
+    return certificates;
+  }
+}
@@ -21,6 +21,7 @@ import io.hops.hopsworks.persistence.entity.pki.PKICertificate;
 import io.hops.hopsworks.persistence.entity.pki.PKICertificateId;
 import org.apache.commons.lang3.SerializationUtils;
 import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.Extension;
 import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
 import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
 import org.bouncycastle.pkcs.PKCS10CertificationRequest;
@@ -40,6 +41,8 @@ import java.security.cert.X509Certificate;
 import java.sql.Date;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
 
 import static io.hops.hopsworks.ca.controllers.PKI.EMPTY_CONFIGURATION;
@@ -108,6 +111,33 @@ public class TestCertificateRevocation extends PKIMocking {
     Assert.assertEquals(CRLReason.PRIVILEGE_WITHDRAWN.toString(), crlEntry.getRevocationReason().toString());
   }
 
+  @Test
+  public void testAddRevocationsToCRLDropsExpired() throws Exception {
+    setupBasicPKI();
+    Mockito.doReturn(EMPTY_CONFIGURATION).when(pki).loadConfiguration();
+    pki.init();
+    pki.initializeCertificateAuthorities();
+    Mockito.verify(pki).initCRL(Mockito.eq(CAType.ROOT), crlCaptor.capture());
+    X509CRL crl = crlCaptor.getValue();
+    Mockito.doReturn(crl).when(pki).loadCRL(Mockito.eq(CAType.ROOT));
+
+    X509Certificate intermediateCertificate = pki.getCaCertificates().get(CAType.INTERMEDIATE);
+    X509Certificate kubeCertificate = pki.getCaCertificates().get(CAType.KUBECA);
+    X509CRL first = pki.addRevocationsToCRL(CAType.ROOT, Arrays.asList(intermediateCertificate, kubeCertificate));
+    Assert.assertEquals(2, first.getRevokedCertificates().size());
+
+    Mockito.doReturn(first).when(pki).loadCRL(Mockito.eq(CAType.ROOT));
+    Mockito.when(pkiCertificateFacade.findAllSerialNumbersWithStatusExpiredBetween(Mockito.eq(CAType.ROOT),
+        Mockito.eq(PKICertificate.Status.REVOKED), Mockito.any(), Mockito.any()))
+        .thenReturn(Collections.singletonList(intermediateCertificate.getSerialNumber().longValue()));
+    X509CRL second = pki.addRevocationsToCRL(CAType.ROOT, Collections.emptyList());
+    Assert.assertEquals(1, second.getRevokedCertificates().size());
+    Assert.assertNull(second.getRevokedCertificate(intermediateCertificate));
+    Assert.assertNotNull(second.getRevokedCertificate(kubeCertificate));
+    Assert.assertNotNull(second.getExtensionValue(Extension.authorityKeyIdentifier.getId()));
+    Assert.assertTrue(second.getNextUpdate().after(first.getThisUpdate()));
+  }
+
   @Test
   public void testRevokeCertificateDoesNotExist() throws Exception {
     setupBasicPKI();
@@ -156,12 +186,12 @@ public class TestCertificateRevocation extends PKIMocking {
     Assert.assertNotNull(pkiCertificate);
     Mockito.when(pkiCertificateFacade.findById(Mockito.any())).thenReturn(Optional.of(pkiCertificate));
 
-    Mockito.doReturn(null).when(pki).addRevocationToCRL(Mockito.any(), Mockito.any());
+    Mockito.doReturn(null).when(pki).addRevocationsToCRL(Mockito.any(), Mockito.any());
     Mockito.doNothing().when(pki).updateCRL(Mockito.any(), Mockito.any());
     Mockito.doNothing().when(pki).updateRevokedCertificate(Mockito.any());
 
     pki.revokeCertificate(new X500Name(pkiCertificate.getCertificateId().getSubject()), CertificateType.HOST);
-    Mockito.verify(pki).addRevocationToCRL(Mockito.any(), Mockito.any());
+    Mockito.verify(pki).addRevocationsToCRL(Mockito.any(), Mockito.any());
   }
 
   @Test
@@ -179,7 +209,7 @@ public class TestCertificateRevocation extends PKIMocking {
     Mockito.doNothing().when(pki).updateRevokedCertificate(Mockito.any());
 
     pki.revokeCertificate(new X500Name("CN=hello"), CertificateType.APP);
-    Mockito.verify(pki, Mockito.never()).addRevocationToCRL(Mockito.any(), Mockito.any());
+    Mockito.verify(pki, Mockito.never()).addRevocationsToCRL(Mockito.any(), Mockito.any());
     Mockito.verify(pki).updateRevokedCertificate(Mockito.any());
   }
 
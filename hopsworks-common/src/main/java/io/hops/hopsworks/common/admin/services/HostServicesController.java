@@ -16,6 +16,7 @@
 package io.hops.hopsworks.common.admin.services;
 
 import io.hops.hopsworks.common.agent.AgentController;
+import io.hops.hopsworks.common.agent.HeartbeatStateCache;
 import io.hops.hopsworks.common.dao.kagent.HostServicesFacade;
 import io.hops.hopsworks.common.hosts.HostsController;
 import io.hops.hopsworks.common.util.WebCommunication;
@@ -36,6 +37,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -50,6 +53,8 @@ public class HostServicesController {
   private WebCommunication web;
   @EJB
   private HostsController hostsController;
+  @EJB
+  private HeartbeatStateCache heartbeatStateCache;
   
   private static final Logger LOGGER = Logger.getLogger(HostServicesController.class.getName());
   
@@ -148,53 +153,92 @@ public class HostServicesController {
   }
   
   public List<HostServices> updateHostServices(AgentController.AgentHeartbeatDTO heartbeat) throws ServiceException {
-    Hosts host = hostsController.findByHostname(heartbeat.getHostId());
+    return updateHostServices(hostsController.findByHostname(heartbeat.getHostId()), heartbeat);
+  }
+  
+  /**
+   * Compare the services reported by a heartbeat with the last known services of the host. New services and status
+   * or pid changes are written right away, the stop time of services that are still running is written with the
+   * next batch of the {@link HeartbeatStateCache}.
+   *
+   * @param host
+   * @param heartbeat
+   * @return the services of the heartbeat
+   */
+  public List<HostServices> updateHostServices(Hosts host, AgentController.AgentHeartbeatDTO heartbeat) {
     final List<HostServices> hostServices = new ArrayList<>(heartbeat.getServices().size());
-    for (final AgentController.AgentServiceDTO service : heartbeat.getServices()) {
-      final String name = service.getName();
-      final String group = service.getGroup();
-      HostServices hostService;
-      try {
-        hostService = hostServicesFacade.findByHostnameServiceNameGroup(heartbeat.getHostId(), group, name)
-          .orElse(null);
-      } catch (Exception ex) {
-        LOGGER.log(Level.WARNING, "Could not find service for " + heartbeat.getHostId() + "/" + group + "/" + name);
-        continue;
-      }
-      
-      if (hostService == null) {
-        hostService = new HostServices();
-        hostService.setHost(host);
-        hostService.setGroup(group);
-        hostService.setName(name);
-        hostService.setStartTime(heartbeat.getAgentTime());
-      }
-      
-      final Integer pid = service.getPid() != null ? service.getPid(): -1;
-      hostService.setPid(pid);
-      if (service.getStatus() != null) {
-        if ((hostService.getStatus() == null || hostService.getStatus() != ServiceStatus.Started)
-          && service.getStatus() == ServiceStatus.Started) {
+    Map<String, HostServices> knownServices;
+    try {
+      knownServices = heartbeatStateCache.getServices(host.getHostname());
+    } catch (Exception ex) {
+      LOGGER.log(Level.WARNING, "Could not find services of " + host.getHostname(), ex);
+      return hostServices;
+    }
+    boolean added = false;
+    synchronized (knownServices) {
+      for (final AgentController.AgentServiceDTO service : heartbeat.getServices()) {
+        final String name = service.getName();
+        final String group = service.getGroup();
+        final String key = HeartbeatStateCache.key(group, name);
+        HostServices hostService = knownServices.get(key);
+        boolean isNew = hostService == null;
+        if (isNew) {
+          hostService = new HostServices();
+          hostService.setHost(host);
+          hostService.setGroup(group);
+          hostService.setName(name);
           hostService.setStartTime(heartbeat.getAgentTime());
         }
-        hostService.setStatus(service.getStatus());
-      } else {
-        hostService.setStatus(ServiceStatus.None);
-      }
-      
-      if (service.getStatus() == ServiceStatus.Started) {
-        hostService.setStopTime(heartbeat.getAgentTime());
-      }
-      final Long startTime = hostService.getStartTime();
-      final Long stopTime = hostService.getStopTime();
-      if (startTime != null && stopTime != null) {
-        hostService.setUptime(stopTime - startTime);
-      } else {
-        hostService.setUptime(0L);
+        final Integer previousPid = hostService.getPid();
+        final ServiceStatus previousStatus = hostService.getStatus();
+        final Long previousStartTime = hostService.getStartTime();
+        
+        final Integer pid = service.getPid() != null ? service.getPid(): -1;
+        hostService.setPid(pid);
+        if (service.getStatus() != null) {
+          if ((hostService.getStatus() == null || hostService.getStatus() != ServiceStatus.Started)
+            && service.getStatus() == ServiceStatus.Started) {
+            hostService.setStartTime(heartbeat.getAgentTime());
+          }
+          hostService.setStatus(service.getStatus());
+        } else {
+          hostService.setStatus(ServiceStatus.None);
+        }
+        
+        if (service.getStatus() == ServiceStatus.Started) {
+          hostService.setStopTime(heartbeat.getAgentTime());
+        }
+        final Long startTime = hostService.getStartTime();
+        final Long stopTime = hostService.getStopTime();
+        if (startTime != null && stopTime != null) {
+          hostService.setUptime(stopTime - startTime);
+        } else {
+          hostService.setUptime(0L);
+        }
+        
+        boolean changed = isNew || !Objects.equals(previousPid, pid) || previousStatus != hostService.getStatus()
+          || !Objects.equals(previousStartTime, hostService.getStartTime());
+        try {
+          if (isNew) {
+            store(hostService);
+            added = true;
+          } else if (changed) {
+            heartbeatStateCache.serviceUpdated(hostService.getId());
+            knownServices.put(key, hostServicesFacade.update(hostService));
+          } else if (hostService.getStatus() == ServiceStatus.Started && stopTime != null) {
+            heartbeatStateCache.serviceRunning(hostService.getId(), stopTime);
+          }
+        } catch (Exception ex) {
+          LOGGER.log(Level.WARNING, "Could not update service " + host.getHostname() + "/" + group + "/" + name, ex);
+          heartbeatStateCache.invalidateServices(host.getHostname());
+          continue;
+        }
+        hostServices.add(hostService);
       }
-      
-      store(hostService);
-      hostServices.add(hostService);
+    }
+    if (added) {
+      //reload the ids of the new services
+      heartbeatStateCache.invalidateServices(host.getHostname());
     }
     return hostServices;
   }
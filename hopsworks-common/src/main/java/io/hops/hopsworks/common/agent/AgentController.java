@@ -36,6 +36,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -53,6 +54,8 @@ public class AgentController {
   private HostsController hostsController;
   @EJB
   private HostServicesController hostServicesController;
+  @EJB
+  private HeartbeatStateCache heartbeatStateCache;
 
   public void register(String hostname, String hostIp, String password) throws ServiceException {
     Hosts host = hostsFacade.findByHostname(hostname)
@@ -72,7 +75,7 @@ public class AgentController {
     }
 
     updateHostMetrics(host, heartbeat);
-    updateServices(heartbeat);
+    updateServices(host, heartbeat);
     processSystemCommands(heartbeat);
 
     if (heartbeat.recover != null && heartbeat.recover) {
@@ -111,6 +114,14 @@ public class AgentController {
 
   private void updateHostMetrics(final Hosts host, final AgentHeartbeatDTO heartbeat) {
     host.setLastHeartbeat(new Date().getTime());
+    if (Objects.equals(host.getNumGpus(), heartbeat.numGpus) && Objects.equals(host.getPrivateIp(), heartbeat.privateIp)
+      && Objects.equals(host.getCores(), heartbeat.cores)
+      && Objects.equals(host.getMemoryCapacity(), heartbeat.memoryCapacity)) {
+      //only the last heartbeat changed, it is written with the next batch
+      heartbeatStateCache.heartbeat(host.getId(), host.getLastHeartbeat());
+      return;
+    }
+    heartbeatStateCache.hostUpdated(host.getId());
     host.setNumGpus(heartbeat.numGpus);
     host.setPrivateIp(heartbeat.privateIp);
     host.setCores(heartbeat.cores);
@@ -118,8 +129,8 @@ public class AgentController {
     hostsFacade.update(host);
   }
 
-  private void updateServices(AgentHeartbeatDTO heartbeat) throws ServiceException {
-    hostServicesController.updateHostServices(heartbeat);
+  private void updateServices(Hosts host, AgentHeartbeatDTO heartbeat) {
+    hostServicesController.updateHostServices(host, heartbeat);
   }
 
   private void processSystemCommands(AgentHeartbeatDTO heartbeat) {
@@ -0,0 +1,185 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.agent;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hops.hopsworks.common.dao.host.HostsFacade;
+import io.hops.hopsworks.common.dao.kagent.HostServicesFacade;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.entity.kagent.HostServices;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory state of the agent heartbeats, so that a heartbeat only writes what changed.
+ * <ul>
+ * <li>The services of each host, loaded once per TTL and compared with the services reported by its heartbeats.
+ * Status and pid changes are written right away by the caller.</li>
+ * <li>The last heartbeat of hosts and the stop time of running services, which change with every heartbeat. They
+ * are written periodically, with one update per timestamp.</li>
+ * </ul>
+ */
+@Startup
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class HeartbeatStateCache {
+
+  private static final Logger LOGGER = Logger.getLogger(HeartbeatStateCache.class.getName());
+
+  @EJB
+  private Settings settings;
+  @EJB
+  private HostsFacade hostsFacade;
+  @EJB
+  private HostServicesFacade hostServicesFacade;
+  @Resource
+  private TimerService timerService;
+
+  private Timer timer;
+  // hostname -> services by group and name
+  private Cache<String, Map<String, HostServices>> services;
+  // host id -> last heartbeat not written yet
+  private final ConcurrentMap<Integer, Long> lastHeartbeats = new ConcurrentHashMap<>();
+  // service id -> stop time not written yet
+  private final ConcurrentMap<Long, Long> stopTimes = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  public void init() {
+    services = Caffeine.newBuilder()
+      .expireAfterWrite(settings.getHeartbeatServicesCacheTtl(), TimeUnit.MILLISECONDS)
+      .build();
+    long interval = settings.getHeartbeatFlushInterval();
+    timer = timerService.createIntervalTimer(interval, interval, new TimerConfig("Heartbeat flush", false));
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (timer != null) {
+      timer.cancel();
+    }
+    flush();
+  }
+
+  @Timeout
+  public void onTimeout(Timer timer) {
+    flush();
+  }
+
+  /**
+   * @param hostname
+   * @return the services of the host by {@link #key(String, String)}. The map is shared by the heartbeats of the host,
+   * access it synchronized on it.
+   */
+  public Map<String, HostServices> getServices(String hostname) {
+    return services.get(hostname, h -> {
+      Map<String, HostServices> hostServices = new HashMap<>();
+      for (HostServices service : hostServicesFacade.findByHostname(h)) {
+        hostServices.put(key(service.getGroup(), service.getName()), service);
+      }
+      return hostServices;
+    });
+  }
+
+  public void invalidateServices(String hostname) {
+    services.invalidate(hostname);
+  }
+
+  public static String key(String group, String name) {
+    return group + "/" + name;
+  }
+
+  /**
+   * Record a heartbeat of a host that did not change anything else, it is written with the next batch.
+   */
+  public void heartbeat(Integer hostId, long lastHeartbeat) {
+    lastHeartbeats.merge(hostId, lastHeartbeat, Math::max);
+  }
+
+  /**
+   * The host has been written with its last heartbeat.
+   */
+  public void hostUpdated(Integer hostId) {
+    lastHeartbeats.remove(hostId);
+  }
+
+  /**
+   * Record that a service is still running, its stop time is written with the next batch.
+   */
+  public void serviceRunning(Long serviceId, long stopTime) {
+    stopTimes.merge(serviceId, stopTime, Math::max);
+  }
+
+  /**
+   * The service has been written with its stop time.
+   */
+  public void serviceUpdated(Long serviceId) {
+    stopTimes.remove(serviceId);
+  }
+
+  private void flush() {
+    try {
+      for (Map.Entry<Long, List<Integer>> hosts : drain(lastHeartbeats).entrySet()) {
+        hostsFacade.updateLastHeartbeat(hosts.getValue(), hosts.getKey());
+      }
+      for (Map.Entry<Long, List<Long>> running : drain(stopTimes).entrySet()) {
+        hostServicesFacade.updateStopTime(running.getValue(), running.getKey());
+      }
+    } catch (Exception e) {
+      LOGGER.log(Level.WARNING, "Failed to write the heartbeats", e);
+    }
+  }
+
+  /**
+   * Remove the pending timestamps, unless they have been updated meanwhile.
+   *
+   * @return the ids by timestamp
+   */
+  private <K> Map<Long, List<K>> drain(ConcurrentMap<K, Long> pending) {
+    Map<Long, List<K>> byTimestamp = new HashMap<>();
+    for (Map.Entry<K, Long> entry : pending.entrySet()) {
+      if (pending.remove(entry.getKey(), entry.getValue())) {
+        byTimestamp.computeIfAbsent(entry.getValue(), t -> new ArrayList<>()).add(entry.getKey());
+      }
+    }
+    return byTimestamp;
+  }
+}
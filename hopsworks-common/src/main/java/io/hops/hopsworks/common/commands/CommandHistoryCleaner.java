@@ -16,7 +16,7 @@
 package io.hops.hopsworks.common.commands;
 
 import io.hops.hopsworks.common.dao.commands.search.SearchFSCommandHistoryFacade;
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.common.util.Settings;
 
 import javax.annotation.PostConstruct;
@@ -45,7 +45,7 @@ public class CommandHistoryCleaner {
   @EJB
   private Settings settings;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @EJB
   private SearchFSCommandHistoryFacade commandHistoryFacade;
   
@@ -72,7 +72,7 @@ public class CommandHistoryCleaner {
   }
   
   private void cleanInt() throws CommandException {
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(CommandHistoryCleaner.class)) {
       LOGGER.log(Level.INFO, "not primary");
       return;
     }
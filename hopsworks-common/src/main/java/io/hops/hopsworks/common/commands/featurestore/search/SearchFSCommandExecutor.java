@@ -24,7 +24,7 @@ import io.hops.hopsworks.common.dao.QueryParam;
 import io.hops.hopsworks.common.dao.commands.CommandFacade;
 import io.hops.hopsworks.common.dao.commands.search.SearchFSCommandFacade;
 import io.hops.hopsworks.common.dao.commands.search.SearchFSCommandHistoryFacade;
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.OpenSearchException;
 import io.hops.hopsworks.persistence.entity.commands.Command;
@@ -33,12 +33,17 @@ import io.hops.hopsworks.persistence.entity.commands.search.SearchFSCommand;
 import io.hops.hopsworks.persistence.entity.commands.search.SearchFSCommandHistory;
 import io.hops.hopsworks.persistence.entity.commands.search.SearchFSCommandOp;
 import io.hops.hopsworks.restutils.RESTCodes;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import javax.ejb.DependsOn;
 import javax.ejb.EJB;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
 import javax.ejb.Singleton;
 import javax.ejb.Startup;
 import javax.ejb.Timeout;
@@ -49,10 +54,18 @@ import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.naming.InitialContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -65,9 +78,11 @@ import java.util.stream.Collectors;
 public class SearchFSCommandExecutor {
   private static final Logger LOGGER = Logger.getLogger(SearchFSCommandExecutor.class.getName());
   private static final String EXECUTOR_SERVICE_NAME = "concurrent/condaExecutorService";
+  //ongoing/cleaning commands not worked on by this node are failed (and retried) after this long
+  private static final long ORPHANED_COMMAND_TIMEOUT = 10 * 60 * 1000L;
   
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
   @EJB
@@ -81,6 +96,20 @@ public class SearchFSCommandExecutor {
   
   private boolean init = false;
   
+  private final AtomicLong bulkRequests = new AtomicLong();
+  private final AtomicLong indexedDocs = new AtomicLong();
+  private final AtomicLong coalescedCommands = new AtomicLong();
+  private final AtomicLong failedDocs = new AtomicLong();
+  private final AtomicLong bulkNanos = new AtomicLong();
+  private volatile long lastBulkSize;
+  private volatile long lastBulkNanos;
+  
+  //commands submitted to the executor by this node, and whether a bulk request of this node is in flight
+  private final Set<Long> inFlightCommands = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean bulkInFlight = new AtomicBoolean(false);
+  //ongoing/cleaning commands not worked on by this node, with the time they were first seen
+  private final Map<Long, Long> orphanedSince = new HashMap<>();
+  
   private ManagedExecutorService executorService;
   private Timer timer;
   
@@ -144,24 +173,28 @@ public class SearchFSCommandExecutor {
   }
   
   private void processInt() throws CommandException {
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(SearchFSCommandExecutor.class)) {
       LOGGER.log(Level.FINE, "not primary");
       return;
     }
     
-    //making sure we don't overload opensearch - have at most settings.getMaxOngoingOpensearchDocIndexOps() parallel ops
+    //making sure we don't overload opensearch - have at most settings.getMaxOngoingOpensearchDocIndexOps() parallel
+    //clean ops and a single bulk request at a time
     int active = 0;
     int maxOngoing = settings.getMaxOngoingOpensearchDocIndexOps();
+    List<SearchFSCommand> commands = commandFacade
+      .findByStatus(EnumSet.of(CommandStatus.ONGOING, CommandStatus.CLEANING, CommandStatus.FAILED));
+    failOrphanedCommands(commands);
+    Map<CommandStatus, List<SearchFSCommand>> commandsByStatus = commands.stream()
+      .collect(Collectors.groupingBy(Command::getStatus));
     //do not do new operations on an artifact with an ongoing op
-    List<SearchFSCommand> updatingCommands = commandFacade.findByQuery(queryByStatus(CommandStatus.ONGOING));
-    active += updatingCommands.size();
-    if (active >= maxOngoing) {
-      return;
-    }
+    List<SearchFSCommand> updatingCommands = commandsByStatus.getOrDefault(CommandStatus.ONGOING,
+      Collections.emptyList());
     Set<Long> updatingDocs = updatingCommands.stream().map(this::getDocId).collect(Collectors.toSet());
     Set<Integer> updatingProjects = updatingCommands.stream().map(Command::getProjectId).collect(Collectors.toSet());
     
-    List<SearchFSCommand> cleaningCommands = commandFacade.findByQuery(queryByStatus(CommandStatus.CLEANING));
+    List<SearchFSCommand> cleaningCommands = commandsByStatus.getOrDefault(CommandStatus.CLEANING,
+      Collections.emptyList());
     active += cleaningCommands.size();
     if (active >= maxOngoing) {
       return;
@@ -171,11 +204,12 @@ public class SearchFSCommandExecutor {
     
     Map<Integer, SearchFSCommand> toDeleteProjects = commandFacade.findByQuery(queryDeletedProjects(CommandStatus.NEW))
       .stream().collect(Collectors.toMap(Command::getProjectId, c -> c, (existingC, newC) -> existingC));
-    Map<Integer, SearchFSCommand> deletingProjects
-      = commandFacade.findByQuery(queryDeletedProjects(CommandStatus.CLEANING))
-      .stream().collect(Collectors.toMap(Command::getProjectId, c -> c, (existingC, newC) -> existingC));
+    Map<Integer, SearchFSCommand> deletingProjects = cleaningCommands.stream()
+      .filter(c -> SearchFSCommandOp.DELETE_PROJECT.equals(c.getOp()))
+      .collect(Collectors.toMap(Command::getProjectId, c -> c, (existingC, newC) -> existingC));
     
-    List<SearchFSCommand> failedCommands = commandFacade.findByQuery(queryByStatus(CommandStatus.FAILED));
+    List<SearchFSCommand> failedCommands = commandsByStatus.getOrDefault(CommandStatus.FAILED,
+      Collections.emptyList());
     Set<Long> failedDocs = failedCommands.stream().map(this::getDocId).collect(Collectors.toSet());
     
     //clean deleted projects that are not actively worked on
@@ -204,8 +238,11 @@ public class SearchFSCommandExecutor {
     //new
     //also exclude failed artifacts
     excludeDocs.addAll(failedDocs);
-    Set<Long> processingDocs = processArtifacts(excludeProjects, excludeDocs, maxOngoing - active);
-    excludeDocs.addAll(processingDocs);
+    //a single bulk request at a time, documents with ongoing commands are excluded above
+    if (!bulkInFlight.get()) {
+      Set<Long> processingDocs = processArtifacts(excludeProjects, excludeDocs);
+      excludeDocs.addAll(processingDocs);
+    }
     for(SearchFSCommand c : failedCommands) {
       if(shouldRetry(c)) {
         //reset failed ops if retry allows
@@ -214,6 +251,48 @@ public class SearchFSCommandExecutor {
     }
   }
   
+  /**
+   * Ongoing and cleaning commands that this node is not working on were left behind by a node that stopped or lost
+   * the work shard. They would block their documents (and count as active operations) forever, so once they have
+   * been seen for longer than ORPHANED_COMMAND_TIMEOUT they are failed, which lets them be retried.
+   */
+  private void failOrphanedCommands(List<SearchFSCommand> commands) {
+    long now = System.currentTimeMillis();
+    List<SearchFSCommand> orphaned = commands.stream()
+      .filter(c -> CommandStatus.ONGOING.equals(c.getStatus()) || CommandStatus.CLEANING.equals(c.getStatus()))
+      .filter(c -> !inFlightCommands.contains(c.getId()))
+      .collect(Collectors.toList());
+    orphanedSince.keySet().retainAll(orphaned.stream().map(Command::getId).collect(Collectors.toSet()));
+    List<SearchFSCommand> timedOut = new ArrayList<>();
+    for (SearchFSCommand command : orphaned) {
+      if (now - orphanedSince.computeIfAbsent(command.getId(), id -> now) > ORPHANED_COMMAND_TIMEOUT) {
+        timedOut.add(command);
+      }
+    }
+    if (!timedOut.isEmpty()) {
+      LOGGER.log(Level.WARNING, "Failing {0} search commands not worked on for more than {1}ms",
+        new Object[]{timedOut.size(), ORPHANED_COMMAND_TIMEOUT});
+      failCommands(timedOut, "Search command timed out. Please try again.");
+      timedOut.forEach(c -> orphanedSince.remove(c.getId()));
+    }
+  }
+  
+  private void submit(SearchFSCommand command, Runnable task) {
+    inFlightCommands.add(command.getId());
+    try {
+      executorService.submit(() -> {
+        try {
+          task.run();
+        } finally {
+          inFlightCommands.remove(command.getId());
+        }
+      });
+    } catch (RuntimeException e) {
+      inFlightCommands.remove(command.getId());
+      throw e;
+    }
+  }
+  
   private Set<Integer> unionProjects(Map<Integer, SearchFSCommand> p1, Map<Integer, SearchFSCommand> p2) {
     Set<Integer> result = new HashSet<>();
     p1.values().forEach(c -> result.add(c.getProjectId()));
@@ -223,7 +302,7 @@ public class SearchFSCommandExecutor {
   
   private void cleanDeletedProject(SearchFSCommand command) {
     updateCommand(command, CommandStatus.CLEANING);
-    executorService.submit(() -> {
+    submit(command, () -> {
       Try<Boolean> result = processFunction().apply(command);
       try {
         if(result.checkedGet()) {
@@ -257,7 +336,7 @@ public class SearchFSCommandExecutor {
   
   private void cleanDeletedArtifact(SearchFSCommand command) {
     updateCommand(command, CommandStatus.CLEANING);
-    executorService.submit(() -> {
+    submit(command, () -> {
       Try<Boolean> result = processFunction().apply(command);
       try {
         if(result.checkedGet()) {
@@ -295,34 +374,143 @@ public class SearchFSCommandExecutor {
     cleanDeletedArtifact(deleteArtifact);
   }
   
-  private Set<Long> processArtifacts(Set<Integer> excludeProjects, Set<Long> excludeDocs, int maxOngoing) {
-    Set<Long> processing = new HashSet<>();
-    List<SearchFSCommand> toProcess = commandFacade.findToProcess(excludeProjects, excludeDocs, maxOngoing);
-    for(SearchFSCommand command : toProcess) {
-      processArtifact(command, processFunction());
-      processing.add(getDocId(command));
-      if (processing.size() >= maxOngoing) {
-        break;
+  /**
+   * Collect the pending commands of up to settings.commandSearchFSBulkSize() documents, coalesce them per document
+   * and write all documents with a single bulk request.
+   */
+  private Set<Long> processArtifacts(Set<Integer> excludeProjects, Set<Long> excludeDocs) {
+    Set<Long> docs = commandFacade.findToProcess(excludeProjects, excludeDocs, settings.commandSearchFSBulkSize())
+      .stream().map(this::getDocId).collect(Collectors.toSet());
+    if (docs.isEmpty()) {
+      return docs;
+    }
+    //commands of a doc are coalesced up to the first one that cannot be part of a partial update
+    Map<Long, List<SearchFSCommand>> pending = new LinkedHashMap<>();
+    Set<Long> stopped = new HashSet<>();
+    for(SearchFSCommand command : commandFacade.findNewByDocs(docs)) {
+      Long docId = getDocId(command);
+      if (stopped.contains(docId)) {
+        continue;
+      }
+      if (!canCoalesce(command)) {
+        stopped.add(docId);
+        continue;
       }
+      pending.computeIfAbsent(docId, d -> new ArrayList<>()).add(command);
+    }
+    if (pending.isEmpty()) {
+      return Collections.emptySet();
     }
-    return processing;
+    List<SearchFSCommand> ongoing = pending.values().stream().flatMap(List::stream).collect(Collectors.toList());
+    updateCommands(ongoing, CommandStatus.ONGOING);
+    ongoing.forEach(c -> inFlightCommands.add(c.getId()));
+    bulkInFlight.set(true);
+    try {
+      executorService.submit(() -> {
+        try {
+          processBulk(pending);
+        } finally {
+          ongoing.forEach(c -> inFlightCommands.remove(c.getId()));
+          bulkInFlight.set(false);
+        }
+      });
+    } catch (RuntimeException e) {
+      ongoing.forEach(c -> inFlightCommands.remove(c.getId()));
+      bulkInFlight.set(false);
+      throw e;
+    }
+    return pending.keySet();
   }
   
-  private void processArtifact(SearchFSCommand command, Function<SearchFSCommand, Try<Boolean>> execute) {
-    updateCommand(command, CommandStatus.ONGOING);
-    
-    executorService.submit(() -> {
-      Try<Boolean> result = execute.apply(command);
-      try {
-        if(result.checkedGet()) {
-          removeCommand(command, CommandStatus.SUCCESS);
+  private boolean canCoalesce(SearchFSCommand command) {
+    switch(command.getOp()) {
+      case CREATE:
+      case UPDATE_TAGS:
+      case UPDATE_KEYWORDS:
+      case UPDATE_METADATA:
+        if (command.getProject() == null) {
+          LOGGER.log(Level.FINE, "project deleted - delaying command");
+          return false;
+        }
+        if (command.getFeatureGroup() == null && command.getFeatureView() == null
+          && command.getTrainingDataset() == null) {
+          LOGGER.log(Level.FINE, "artifact deleted - delaying command");
+          return false;
+        }
+        return true;
+      default:
+        return false;
+    }
+  }
+  
+  private void processBulk(Map<Long, List<SearchFSCommand>> pending) {
+    long start = System.nanoTime();
+    try {
+      BulkRequest request = new BulkRequest();
+      List<Long> requestDocs = new ArrayList<>();
+      for(Map.Entry<Long, List<SearchFSCommand>> doc : pending.entrySet()) {
+        try {
+          request.add(searchController.coalesce(doc.getKey(), doc.getValue()));
+          requestDocs.add(doc.getKey());
+        } catch (Exception t) {
+          LOGGER.log(Level.INFO, "Doc:{0} failed with error:{1}", new Object[]{doc.getKey(), t.getMessage()});
+          failCommands(doc.getValue(), t.getMessage());
         }
-      } catch (Throwable t) {
-        LOGGER.log(Level.INFO, "Command:{0} failed with error:{1}",
-          new Object[]{command, t.getStackTrace()});
-        failCommand(command, t.getMessage());
       }
-    });
+      if (requestDocs.isEmpty()) {
+        return;
+      }
+      BulkResponse response = searchController.bulk(request);
+      List<SearchFSCommand> done = new ArrayList<>();
+      int failed = 0;
+      for(BulkItemResponse item : response.getItems()) {
+        List<SearchFSCommand> docCommands = pending.get(requestDocs.get(item.getItemId()));
+        if (item.isFailed()) {
+          LOGGER.log(Level.INFO, "Doc:{0} failed with error:{1}",
+            new Object[]{requestDocs.get(item.getItemId()), item.getFailureMessage()});
+          failCommands(docCommands, item.getFailureMessage());
+          failed++;
+        } else {
+          done.addAll(docCommands);
+        }
+      }
+      removeCommands(done, CommandStatus.SUCCESS);
+      recordBulk(requestDocs.size(), requestDocs.size() - failed, done.size(), failed, System.nanoTime() - start);
+    } catch (Throwable t) {
+      LOGGER.log(Level.INFO, "Bulk of {0} docs failed with error:{1}",
+        new Object[]{pending.size(), t.getStackTrace()});
+      failCommands(pending.values().stream().flatMap(List::stream)
+        .filter(c -> CommandStatus.ONGOING.equals(c.getStatus()))
+        .collect(Collectors.toList()), t.getMessage());
+    }
+  }
+  
+  private void recordBulk(int bulkSize, int indexed, int commands, int failed, long durationNanos) {
+    bulkRequests.incrementAndGet();
+    indexedDocs.addAndGet(indexed);
+    coalescedCommands.addAndGet(commands);
+    failedDocs.addAndGet(failed);
+    bulkNanos.addAndGet(durationNanos);
+    lastBulkSize = bulkSize;
+    lastBulkNanos = durationNanos;
+  }
+  
+  /**
+   * Throughput of the bulk indexing since startup
+   */
+  @Lock(LockType.READ)
+  public void addIndexingStats(SearchFSCommandStatus status) {
+    long bulks = bulkRequests.get();
+    long docs = indexedDocs.get();
+    long nanos = bulkNanos.get();
+    status.setBulkRequests(bulks);
+    status.setIndexedDocs(docs);
+    status.setCoalescedCommands(coalescedCommands.get());
+    status.setFailedDocs(failedDocs.get());
+    status.setAvgBulkSize(bulks == 0 ? 0 : docs / bulks);
+    status.setLastBulkSize(lastBulkSize);
+    status.setDocsPerSecond(nanos == 0 ? 0 : docs * 1_000_000_000L / nanos);
+    status.setLastBulkDocsPerSecond(lastBulkNanos == 0 ? 0 : lastBulkSize * 1_000_000_000L / lastBulkNanos);
   }
   
   private QueryParam queryByStatus(CommandStatus status) {
@@ -371,6 +559,24 @@ public class SearchFSCommandExecutor {
     saveHistory(command);
   }
   
+  private void updateCommands(List<SearchFSCommand> commands, CommandStatus status) {
+    commands.forEach(c -> c.setStatus(status));
+    commandFacade.updateBatch(commands);
+    saveHistory(commands);
+  }
+  
+  private void removeCommands(List<SearchFSCommand> commands, CommandStatus status) {
+    commandFacade.removeByIds(commands.stream().map(Command::getId).collect(Collectors.toList()));
+    commands.forEach(c -> c.setStatus(status));
+    saveHistory(commands);
+  }
+  
+  private void failCommands(List<SearchFSCommand> commands, String msg) {
+    commands.forEach(c -> c.failWith(msg));
+    commandFacade.updateBatch(commands);
+    saveHistory(commands);
+  }
+  
   private void failCommand(SearchFSCommand command, String msg) {
     command.failWith(msg);
     commandFacade.update(command);
@@ -383,6 +589,12 @@ public class SearchFSCommandExecutor {
     }
   }
   
+  private void saveHistory(List<SearchFSCommand> commands) {
+    if(settings.commandSearchFSHistoryEnabled() && !commands.isEmpty()) {
+      commandHistoryFacade.persistBatch(commands.stream().map(this::getHistoryStep).collect(Collectors.toList()));
+    }
+  }
+  
   private boolean shouldRetry(SearchFSCommand command) {
     if(settings.commandSearchFSHistoryEnabled()) {
       return commandHistoryFacade.countRetries(command.getId()) < settings.commandRetryPerCleanInterval();
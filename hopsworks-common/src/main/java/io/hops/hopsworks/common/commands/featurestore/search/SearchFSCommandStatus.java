@@ -19,6 +19,14 @@ import io.hops.hopsworks.common.api.RestDTO;
 
 public class SearchFSCommandStatus extends RestDTO<SearchFSCommandStatus> {
   private long ongoingOperations;
+  private long bulkRequests;
+  private long indexedDocs;
+  private long coalescedCommands;
+  private long failedDocs;
+  private long avgBulkSize;
+  private long lastBulkSize;
+  private long docsPerSecond;
+  private long lastBulkDocsPerSecond;
   
   public SearchFSCommandStatus(long ongoingOperations) {
     this.ongoingOperations = ongoingOperations;
@@ -34,4 +42,68 @@ public class SearchFSCommandStatus extends RestDTO<SearchFSCommandStatus> {
   public void setOngoingOperations(long ongoingOperations) {
     this.ongoingOperations = ongoingOperations;
   }
+  
+  public long getBulkRequests() {
+    return bulkRequests;
+  }
+  
+  public void setBulkRequests(long bulkRequests) {
+    this.bulkRequests = bulkRequests;
+  }
+  
+  public long getIndexedDocs() {
+    return indexedDocs;
+  }
+  
+  public void setIndexedDocs(long indexedDocs) {
+    this.indexedDocs = indexedDocs;
+  }
+  
+  public long getCoalescedCommands() {
+    return coalescedCommands;
+  }
+  
+  public void setCoalescedCommands(long coalescedCommands) {
+    this.coalescedCommands = coalescedCommands;
+  }
+  
+  public long getFailedDocs() {
+    return failedDocs;
+  }
+  
+  public void setFailedDocs(long failedDocs) {
+    this.failedDocs = failedDocs;
+  }
+  
+  public long getAvgBulkSize() {
+    return avgBulkSize;
+  }
+  
+  public void setAvgBulkSize(long avgBulkSize) {
+    this.avgBulkSize = avgBulkSize;
+  }
+  
+  public long getLastBulkSize() {
+    return lastBulkSize;
+  }
+  
+  public void setLastBulkSize(long lastBulkSize) {
+    this.lastBulkSize = lastBulkSize;
+  }
+  
+  public long getDocsPerSecond() {
+    return docsPerSecond;
+  }
+  
+  public void setDocsPerSecond(long docsPerSecond) {
+    this.docsPerSecond = docsPerSecond;
+  }
+  
+  public long getLastBulkDocsPerSecond() {
+    return lastBulkDocsPerSecond;
+  }
+  
+  public void setLastBulkDocsPerSecond(long lastBulkDocsPerSecond) {
+    this.lastBulkDocsPerSecond = lastBulkDocsPerSecond;
+  }
 }
@@ -40,10 +40,14 @@ import io.hops.hopsworks.exceptions.FeaturestoreException;
 import io.hops.hopsworks.exceptions.OpenSearchException;
 import io.hops.hopsworks.exceptions.ServiceException;
 import io.hops.hopsworks.persistence.entity.commands.search.SearchFSCommand;
+import io.hops.hopsworks.persistence.entity.commands.search.SearchFSCommandOp;
 import io.hops.hopsworks.persistence.entity.featurestore.featureview.FeatureView;
 import io.hops.hopsworks.persistence.entity.featurestore.metadata.FeatureStoreTag;
 import io.hops.hopsworks.persistence.entity.featurestore.trainingdataset.TrainingDatasetFeature;
 import io.hops.hopsworks.restutils.RESTCodes;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
 import org.opensearch.action.delete.DeleteRequest;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.update.UpdateRequest;
@@ -60,10 +64,12 @@ import javax.inject.Inject;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
@@ -123,6 +129,46 @@ public class SearchFSOpenSearchController {
     opensearchClient.updateDoc(request);
   }
   
+  /**
+   * Coalesce the pending commands of a document into a single request. The commands only signal what changed, the
+   * document is built from the current state of the artifact, so each part is built once no matter how many
+   * commands requested it. A create indexes the whole document, otherwise the parts are sent as one partial update.
+   * @param docId document to be written
+   * @param commands pending commands of the document, oldest first
+   * @return index or update request of the document
+   * @throws CommandException
+   */
+  public DocWriteRequest<?> coalesce(Long docId, List<SearchFSCommand> commands) throws CommandException {
+    Set<SearchFSCommandOp> ops = commands.stream().map(SearchFSCommand::getOp)
+      .collect(Collectors.toCollection(() -> EnumSet.noneOf(SearchFSCommandOp.class)));
+    SearchFSCommand c = commands.get(commands.size() - 1);
+    SearchDoc doc = ops.contains(SearchFSCommandOp.CREATE) ? create(c) : new SearchDoc();
+    SearchDoc.XAttr xattr = new SearchDoc.XAttr();
+    if(ops.contains(SearchFSCommandOp.UPDATE_METADATA)) {
+      xattr.setFeaturestore(updateMetadata(c).getXattr().getFeaturestore());
+      doc.setXattr(xattr);
+    }
+    if(ops.contains(SearchFSCommandOp.UPDATE_TAGS)) {
+      xattr.setTags(updateTags(c).getXattr().getTags());
+      doc.setXattr(xattr);
+    }
+    if(ops.contains(SearchFSCommandOp.UPDATE_KEYWORDS)) {
+      xattr.setKeywords(updateKeywords(c).getXattr().getKeywords());
+      doc.setXattr(xattr);
+    }
+    if(ops.contains(SearchFSCommandOp.CREATE)) {
+      return new IndexRequest().index(Settings.FEATURESTORE_INDEX).id(String.valueOf(docId))
+        .source(docBuilder(doc));
+    } else {
+      return new UpdateRequest().index(Settings.FEATURESTORE_INDEX).id(String.valueOf(docId))
+        .doc(docBuilder(doc));
+    }
+  }
+  
+  public BulkResponse bulk(BulkRequest request) throws OpenSearchException {
+    return opensearchClient.bulkUpdateDoc(request);
+  }
+  
   private SearchDoc updateMetadata(SearchFSCommand c) throws CommandException {
     SearchDoc doc =  new SearchDoc();
     SearchDoc.XAttr xattr = new SearchDoc.XAttr();
@@ -58,9 +58,13 @@ public class SearchFSReindexer {
   private TrainingDatasetFacade trainingDatasetFacade;
   @EJB
   private SearchFSCommandLogger searchFSCommandLogger;
+  @EJB
+  private SearchFSCommandExecutor searchFSCommandExecutor;
   
   public SearchFSCommandStatus status() {
-    return new SearchFSCommandStatus(searchFSCommandLogger.count());
+    SearchFSCommandStatus status = new SearchFSCommandStatus(searchFSCommandLogger.count());
+    searchFSCommandExecutor.addIndexingStats(status);
+    return status;
   }
   /**
    * For this reindex mechanism to work properly, the cluster needs to be idle while this is ongoing
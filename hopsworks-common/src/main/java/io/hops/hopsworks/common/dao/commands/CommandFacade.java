@@ -27,6 +27,7 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -84,10 +85,29 @@ public abstract class CommandFacade<C extends Command> extends AbstractFacade<C>
     return result;
   }
   
+  public List<C> findByStatus(Set<CommandStatus> statuses) {
+    String queryStr = "SELECT c FROM " + getTableName() + " c WHERE c." + STATUS_FIELD + " IN :statuses";
+    TypedQuery<C> query = em.createQuery(queryStr, entityClass);
+    query.setParameter("statuses", statuses);
+    return query.getResultList();
+  }
+  
+  public void updateBatch(List<C> commands) {
+    commands.forEach(this::update);
+  }
+  
   public void removeById(Long commandId) {
     remove(findById(commandId));
   }
   
+  public void removeByIds(Collection<Long> commandIds) {
+    if(commandIds.isEmpty()) {
+      return;
+    }
+    String queryStr = "DELETE FROM " + getTableName() + " c WHERE c.id IN :ids";
+    em.createQuery(queryStr).setParameter("ids", commandIds).executeUpdate();
+  }
+  
   public void persistAndFlush(C command) {
     em.persist(command);
     em.flush();
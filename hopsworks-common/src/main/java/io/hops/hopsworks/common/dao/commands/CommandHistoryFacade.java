@@ -27,6 +27,7 @@ import javax.persistence.Query;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.logging.Level;
 
 public abstract class CommandHistoryFacade<C extends CommandHistory> extends AbstractFacade<C> {
@@ -49,6 +50,11 @@ public abstract class CommandHistoryFacade<C extends CommandHistory> extends Abs
     em.flush();
   }
   
+  public void persistBatch(List<C> commands) {
+    commands.forEach(em::persist);
+    em.flush();
+  }
+  
   public void deleteOlderThan(Long intervalSeconds) throws CommandException {
   
     Connection connection = em.unwrap(Connection.class);
@@ -89,6 +89,18 @@ public class SearchFSCommandFacade extends CommandFacade<SearchFSCommand> {
     return findToProcessInt(excludeProjects, excludeDocs, limit, filterFoLive);
   }
   
+  /**
+   * All new commands of the given documents, oldest first.
+   */
+  public List<SearchFSCommand> findNewByDocs(Set<Long> docs) {
+    String queryStr = "SELECT c FROM " + getTableName() + " c WHERE c.status = :status"
+      + " AND c." + DOC_ID_FIELD + " IN :docs ORDER BY c.id";
+    TypedQuery<SearchFSCommand> query = em.createQuery(queryStr, entityClass);
+    query.setParameter("status", CommandStatus.NEW);
+    query.setParameter("docs", docs);
+    return query.getResultList();
+  }
+  
   public List<SearchFSCommand> findDeleteCascaded(Set<Integer> excludeProjects, Set<Long> excludeDocs, int limit) {
     UnaryOperator<String> filterForDeleteCascaded = tableName -> {
       String filter = "(";
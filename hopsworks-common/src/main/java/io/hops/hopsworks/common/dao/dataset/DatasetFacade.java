@@ -51,6 +51,7 @@ import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -120,6 +121,22 @@ public class DatasetFacade extends AbstractFacade<Dataset> {
     }
   }
 
+  /**
+   * Find the datasets of any of the projects with any of the names. The result might contain more datasets than
+   * the requested (project, name) pairs.
+   * <p/>
+   * @param projects
+   * @param names
+   * @return
+   */
+  public List<Dataset> findByProjectsAndNames(Collection<Project> projects, Collection<String> names) {
+    if (projects.isEmpty() || names.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return em.createQuery("SELECT d FROM Dataset d WHERE d.project IN :projects AND d.name IN :names", Dataset.class)
+      .setParameter("projects", projects).setParameter("names", names).getResultList();
+  }
+
   /**
    * Finds all data sets in a project.
    * <p/>
@@ -28,6 +28,8 @@ import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -55,6 +57,14 @@ public class DatasetSharedWithFacade extends AbstractFacade<DatasetSharedWith> {
       .setParameter("dataset", dataset).getResultList();
   }
   
+  public List<DatasetSharedWith> findByDatasets(Collection<Dataset> datasets) {
+    if (datasets.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return em.createQuery("SELECT d FROM DatasetSharedWith d WHERE d.dataset IN :datasets", DatasetSharedWith.class)
+      .setParameter("datasets", datasets).getResultList();
+  }
+  
   public List<DatasetSharedWith> findByProject(Project project) {
     return em.createNamedQuery("DatasetSharedWith.findByProject", DatasetSharedWith.class)
       .setParameter("project", project).getResultList();
@@ -24,6 +24,9 @@ import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
 
@@ -54,6 +57,15 @@ public class HdfsCommandExecutionFacade extends AbstractFacade<HdfsCommandExecut
     }
   }
 
+  public List<HdfsCommandExecution> findBySrcPaths(Collection<String> srcPaths) {
+    if (srcPaths.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return entityManager.createNamedQuery("HdfsCommandExecution.findBySrcPaths", HdfsCommandExecution.class)
+      .setParameter("srcPaths", srcPaths)
+      .getResultList();
+  }
+
   public Optional<HdfsCommandExecution> findByExecution(Execution execution) {
     TypedQuery<HdfsCommandExecution>
       query = entityManager.createNamedQuery("HdfsCommandExecution.findByExecution", HdfsCommandExecution.class)
@@ -100,6 +100,18 @@ public class InodeFacade extends AbstractFacade<Inode> {
     return query.getResultList();
   }
   
+  /**
+   * Find the children of all the given parents in one query.
+   * <p/>
+   * @param parentIds
+   * @return
+   */
+  public List<Inode> findByParentIdList(List<Long> parentIds) {
+    TypedQuery<Inode> query = em.createNamedQuery("Inode.findByParentIdInList", Inode.class);
+    query.setParameter("parentIdList", parentIds);
+    return query.getResultList();
+  }
+  
   public Long countByParentId(Inode parent) {
     TypedQuery<Long> query = em.createNamedQuery("Inode.countByParentId", Long.class);
     query.setParameter("parentId", parent.getId());
@@ -254,7 +266,61 @@ public class InodeFacade extends AbstractFacade<Inode> {
     Query queryCount = em.createQuery(queryCountStr, Inode.class).setParameter("parentId", parentId);
     return getResult(offset, limit, filter, project, query, queryCount);
   }
-  
+
+  /**
+   * Keyset pagination of the children of a directory. Instead of skipping offset rows, a page starts right after
+   * the last inode of the previous page, so deep pages of large directories are as cheap as the first one.
+   * Children are ordered by name, or by modification time and name. Names are unique within a directory.
+   *
+   * @param limit
+   * @param filter
+   * @param sort NAME or MODIFICATION_TIME
+   * @param order
+   * @param afterTime modification time of the last inode of the previous page, only used with MODIFICATION_TIME
+   * @param afterName name of the last inode of the previous page, null for the first page
+   * @param parent
+   * @param project
+   * @return
+   */
+  public CollectionInfo findByParentAfter(Integer limit, Set<? extends AbstractFacade.FilterBy> filter, Sorts sort,
+    AbstractFacade.OrderBy order, Long afterTime, String afterName, Inode parent, Project project) {
+    if (sort != Sorts.NAME && sort != Sorts.MODIFICATION_TIME) {
+      throw new InvalidQueryException("Keyset pagination needs to sort by name or modification_time, but found: " +
+        sort);
+    }
+    boolean byTime = sort == Sorts.MODIFICATION_TIME;
+    String cmp = order == AbstractFacade.OrderBy.DESC ? "<" : ">";
+    String more = "i.inodePK.parentId = :parentId ";
+    if (afterName != null) {
+      more += byTime ? "AND (i.modificationTime " + cmp + " :afterTime OR (i.modificationTime = :afterTime AND " +
+        "i.inodePK.name " + cmp + " :afterName)) " : "AND i.inodePK.name " + cmp + " :afterName ";
+    }
+    String orderBy = " ORDER BY " + (byTime ? "i.modificationTime " + order.getSql() + ", " : "") +
+      "i.inodePK.name " + order.getSql();
+    Long parentId = parent != null ? parent.getId() : null;
+    Query query = em.createQuery(buildQuery("SELECT i FROM Inode i ", filter, null, more) + orderBy, Inode.class)
+      .setParameter("parentId", parentId);
+    if (afterName != null) {
+      query.setParameter("afterName", afterName);
+      if (byTime) {
+        query.setParameter("afterTime", afterTime);
+      }
+    }
+    setFilter(filter, query, project);
+    setOffsetAndLim(null, limit, query);
+    Long count;
+    if ((filter == null || filter.isEmpty()) && parent != null) {
+      //the directory keeps its number of children, no need to count them
+      count = (long) parent.getChildrenNum();
+    } else {
+      Query queryCount = em.createQuery(buildQuery("SELECT COUNT(DISTINCT i.inodePK.name) FROM Inode i ", filter,
+        null, "i.inodePK.parentId = :parentId "), Inode.class).setParameter("parentId", parentId);
+      setFilter(filter, queryCount, project);
+      count = (Long) queryCount.getSingleResult();
+    }
+    return new CollectionInfo(count, query.getResultList());
+  }
+
   private CollectionInfo getResult(Integer offset, Integer limit, Set<? extends AbstractFacade.FilterBy> filter,
     Project project, Query query, Query queryCount) {
     setFilter(filter, query, project);
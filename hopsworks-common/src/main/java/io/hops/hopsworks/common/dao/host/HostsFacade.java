@@ -48,6 +48,7 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 
@@ -134,6 +135,23 @@ public class HostsFacade extends AbstractFacade<Hosts> {
     }
   }
 
+  /**
+   * Set the last heartbeat of hosts without loading them.
+   *
+   * @param ids ids of the hosts
+   * @param lastHeartbeat
+   * @return the number of hosts updated
+   */
+  public int updateLastHeartbeat(Collection<Integer> ids, long lastHeartbeat) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    return em.createNamedQuery("Hosts.updateLastHeartbeat")
+      .setParameter("lastHeartbeat", lastHeartbeat)
+      .setParameter("ids", ids)
+      .executeUpdate();
+  }
+
   public Long countHosts() {
     TypedQuery<Long> query = em.createNamedQuery("Host.Count", Long.class);
     return query.getSingleResult();
@@ -56,6 +56,7 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -398,6 +399,29 @@ public class ExecutionFacade extends AbstractFacade<Execution> {
     return exec;
   }
 
+  /**
+   * Persist the progress and state of several executions in a single transaction. Only these two columns are
+   * written and an execution that reached a final state, or is aggregating its logs, in the meantime is left
+   * untouched, so a stop or the finalizer is never reverted by a stale copy.
+   *
+   * @param executions executions whose progress or state changed
+   * @return the number of executions updated
+   */
+  public int updateAll(Collection<Execution> executions) {
+    Set<JobState> protectedStates = JobState.getFinalStates();
+    protectedStates.add(JobState.AGGREGATING_LOGS);
+    int updated = 0;
+    for (Execution exec : executions) {
+      updated += em.createNamedQuery("Execution.updateProgressAndStateIfNotIn")
+        .setParameter("progress", exec.getProgress())
+        .setParameter("state", exec.getState())
+        .setParameter("id", exec.getId())
+        .setParameter("stateCollection", protectedStates)
+        .executeUpdate();
+    }
+    return updated;
+  }
+
   public Execution updateExecutionStart(Execution exec, long executionStart) {
     exec = getExecution(exec);
     exec.setExecutionStart(executionStart);
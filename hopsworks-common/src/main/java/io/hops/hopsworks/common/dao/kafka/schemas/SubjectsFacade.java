@@ -80,6 +80,12 @@ public class SubjectsFacade extends AbstractFacade<Subjects> {
       .executeUpdate();
   }
   
+  public List<Subjects> findAllByProject(Project project) {
+    return em.createNamedQuery("Subjects.findAllByProject", Subjects.class)
+      .setParameter("project", project)
+      .getResultList();
+  }
+  
   public List<Subjects> findSubjectByName(Project project, String subject) {
     return em.createNamedQuery("Subjects.findBySubject", Subjects.class)
       .setParameter("project", project)
@@ -44,6 +44,7 @@ import io.hops.hopsworks.persistence.entity.kagent.HostServices;
 import io.hops.hopsworks.common.dao.AbstractFacade;
 import io.hops.hopsworks.exceptions.InvalidQueryException;
 
+import java.util.Collection;
 import java.util.List;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
@@ -124,6 +125,23 @@ public class HostServicesFacade extends AbstractFacade<HostServices> {
     }
   }
   
+  /**
+   * Set the stop time, and the uptime from it, of running services without loading them.
+   *
+   * @param ids ids of the services
+   * @param stopTime
+   * @return the number of services updated
+   */
+  public int updateStopTime(Collection<Long> ids, long stopTime) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    return em.createNamedQuery("HostServices.updateStopTime")
+      .setParameter("stopTime", stopTime)
+      .setParameter("ids", ids)
+      .executeUpdate();
+  }
+  
   public CollectionInfo findAll(Integer offset, Integer limit, Set<? extends FilterBy> filter,
     Set<? extends SortBy> sort) {
     String queryStr = buildQuery("SELECT DISTINCT h FROM HostServices h ", filter, sort, "");
@@ -18,7 +18,7 @@ package io.hops.hopsworks.common.dao.maggy;
 import io.hops.hopsworks.common.livy.LivyController;
 import io.hops.hopsworks.common.livy.LivyMsg;
 import io.hops.hopsworks.common.livy.LivyMsg.Session;
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.persistence.entity.maggy.MaggyDriver;
 
@@ -51,7 +51,7 @@ public class MaggyCleaner {
   @EJB
   private Settings settings;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
   private Timer timer;
@@ -74,7 +74,7 @@ public class MaggyCleaner {
   // Run once per hour. Only one node in HA should run this, so it needs to be persistent = true.
   @Timeout
   public void maggyCleaner(Timer timer) {
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(MaggyCleaner.class)) {
       return;
     }
     try {
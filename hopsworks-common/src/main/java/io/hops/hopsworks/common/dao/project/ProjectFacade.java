@@ -38,6 +38,8 @@
  */
 package io.hops.hopsworks.common.dao.project;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -83,6 +85,14 @@ public class ProjectFacade extends AbstractFacade<Project> {
     return em.find(Project.class, id);
   }
 
+  public List<Project> findByIds(Collection<Integer> ids) {
+    if (ids.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return em.createQuery("SELECT p FROM Project p WHERE p.id IN :ids", Project.class)
+      .setParameter("ids", ids).getResultList();
+  }
+
   /**
    * Find all the studies for which the given user is owner. This implies that
    * this user created all the returned studies.
@@ -51,6 +51,7 @@ import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -215,6 +216,21 @@ public class ProjectTeamFacade extends AbstractFacade<ProjectTeam> {
     }
   }
 
+  /**
+   * Get the memberships of Users <i>user</i> in any of the given projects.
+   * <p/>
+   * @param user
+   * @param projects
+   * @return The memberships of the user, projects the user is not a member of are left out.
+   */
+  public List<ProjectTeam> findByMemberAndProjects(Users user, Collection<Project> projects) {
+    if (projects.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return em.createQuery("SELECT s FROM ProjectTeam s WHERE s.user = :user AND s.project IN :projects",
+      ProjectTeam.class).setParameter("user", user).setParameter("projects", projects).getResultList();
+  }
+
   /**
    * Get the current role of Users <i>user</i> in Project <i>project</i>.
    * <p/>
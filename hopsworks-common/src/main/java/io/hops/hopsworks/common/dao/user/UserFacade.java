@@ -55,9 +55,11 @@ import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Stateless
 public class UserFacade extends AbstractFacade<Users> {
@@ -376,6 +378,35 @@ public class UserFacade extends AbstractFacade<Users> {
     }
   }
 
+  /**
+   * Get the users with any of the given emails.
+   * <p/>
+   * @param emails
+   * @return The users found, emails without a user are left out.
+   */
+  public List<Users> findByEmails(Collection<String> emails) {
+    if (emails.isEmpty()) {
+      return new ArrayList<>();
+    }
+    List<String> lowerCase = emails.stream().map(String::toLowerCase).collect(Collectors.toList());
+    return em.createQuery("SELECT u FROM Users u WHERE u.email IN :emails", Users.class)
+      .setParameter("emails", lowerCase).getResultList();
+  }
+
+  /**
+   * Get the users with any of the given usernames.
+   * <p/>
+   * @param usernames
+   * @return The users found, usernames without a user are left out.
+   */
+  public List<Users> findByUsernames(Collection<String> usernames) {
+    if (usernames.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return em.createQuery("SELECT u FROM Users u WHERE u.username IN :usernames", Users.class)
+      .setParameter("usernames", usernames).getResultList();
+  }
+
   public void detach(Users user) {
     em.detach(user);
   }
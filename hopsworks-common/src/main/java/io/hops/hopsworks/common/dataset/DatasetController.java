@@ -39,7 +39,6 @@
 
 package io.hops.hopsworks.common.dataset;
 
-import io.hops.common.Pair;
 import io.hops.hopsworks.common.constants.auth.AllowedRoles;
 import io.hops.hopsworks.common.dao.dataset.DatasetFacade;
 import io.hops.hopsworks.common.dao.dataset.DatasetRequestFacade;
@@ -63,6 +62,7 @@ import io.hops.hopsworks.common.jupyter.JupyterController;
 import io.hops.hopsworks.common.provenance.core.HopsFSProvenanceController;
 import io.hops.hopsworks.common.provenance.core.dto.ProvTypeDTO;
 import io.hops.hopsworks.common.util.HopsUtils;
+import io.hops.hopsworks.common.util.LongRunningHttpRequests;
 import io.hops.hopsworks.common.util.ProjectUtils;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.DatasetException;
@@ -97,17 +97,21 @@ import org.apache.hadoop.fs.permission.FsAction;
 import org.apache.hadoop.fs.permission.FsPermission;
 import org.apache.hadoop.security.AccessControlException;
 
+import javax.annotation.Resource;
+import javax.ejb.Asynchronous;
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -155,6 +159,12 @@ public class DatasetController {
   private HdfsCommandExecutionController hdfsCommandExecutionController;
   @EJB
   private ProjectUtils projectUtils;
+  @EJB
+  private DatasetOperationTracker operationTracker;
+  @EJB
+  private LongRunningHttpRequests longRunningHttpRequests;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
 
   /**
    * Create a new DataSet. This is, a folder right under the project home
@@ -303,43 +313,40 @@ public class DatasetController {
 
   public void recChangeOwnershipAndPermission(Path path, FsPermission permission, String username, String group,
     DistributedFileSystemOps dfso, DistributedFileSystemOps udfso) throws IOException {
-
+    recChangeOwnershipAndPermission(treeWalker(), path, permission, username, group, dfso, udfso);
+  }
+  
+  private void recChangeOwnershipAndPermission(DatasetTreeWalker walker, Path path, FsPermission permission,
+    String username, String group, DistributedFileSystemOps dfso, DistributedFileSystemOps udfso)
+    throws IOException {
     /*
      * TODO: Currently there is no change permission recursively operation
      * available in HOPSFS client. So we build all the path of the tree and
-     * we call the set permission on each one
+     * we call the set permission on each one, the walker does it in parallel
      */
-    // Set permission/ownership for the root
-    if (username != null && group != null && dfso != null) {
-      dfso.setOwner(path, username, group);
-    }
-    udfso.setPermission(path, permission);
     Inode rootInode = inodeController.getInodeAtPath(path.toString());
-
-    // Keep a list of directories to avoid using recursion
-    // Remember also the path to avoid going to the database for path resolution
-    Stack<Pair<Inode, Path>> dirs = new Stack<>();
-    if (rootInode.isDir()) {
-      dirs.push(new Pair<>(rootInode, path));
-    }
-
-    while (!dirs.isEmpty()) {
-      Pair<Inode, Path> dirInode = dirs.pop();
-      for (Inode child : inodeController.getChildren(dirInode.getL())) {
-        Path childPath = new Path(dirInode.getR(), child.getInodePK().getName());
-
-        if (username != null && group != null && dfso != null) {
-          dfso.setOwner(childPath, username, group);
-        }
-        udfso.setPermission(childPath, permission);
-
-        if (child.isDir()) {
-          dirs.push(new Pair<>(child, childPath));
-        }
+    walker.walk(path, rootInode, (childPath, inode) -> {
+      if (username != null && group != null && dfso != null) {
+        dfso.setOwner(childPath, username, group);
       }
-    }
+      udfso.setPermission(childPath, permission);
+    });
   }
-
+  
+  private DatasetTreeWalker treeWalker() {
+    return new DatasetTreeWalker(executorService, settings.getDatasetTreeWalkParallelism(),
+      settings.getSQLMaxSelectIn(), inodes::findByParentIdList);
+  }
+  
+  private DatasetTreeWalker treeWalker(DatasetOperation operation) {
+    return treeWalker()
+      .cancelWhen(() -> operationTracker.isCancelled(operation.getId()))
+      .onProgress(visited -> {
+        operation.visited(visited);
+        operationTracker.publish(operation);
+      });
+  }
+  
   /**
    * Creates a folder in HDFS at the given path, and associates a template with
    * that folder.
@@ -938,7 +945,35 @@ public class DatasetController {
 
   public void move(Project project, Users user, Path sourcePath, Path destPath, Dataset sourceDataset,
     Dataset destDataset) throws DatasetException, HopsSecurityException {
-    String username = hdfsUsersController.getHdfsUserName(project, user);
+    checkMove(sourceDataset, destDataset);
+    move(project, user, sourcePath, destPath, sourceDataset, treeWalker());
+  }
+  
+  /**
+   * Check a move, take one of the long running request slots and register it to run in the background with
+   * {@link #moveAsync}.
+   */
+  public DatasetOperation submitMove(Project project, Users user, Path sourcePath, Path destPath,
+    Dataset sourceDataset, Dataset destDataset) throws DatasetException {
+    checkMove(sourceDataset, destDataset);
+    checkDestination(project, user, destPath);
+    acquireBackgroundSlot("move");
+    try {
+      return operationTracker.submit(DatasetOperation.Type.MOVE, project, user, sourcePath.toString(),
+        destPath.toString());
+    } catch (RuntimeException ex) {
+      longRunningHttpRequests.decrement();
+      throw ex;
+    }
+  }
+  
+  @Asynchronous
+  public void moveAsync(DatasetOperation operation, Project project, Users user, Path sourcePath, Path destPath,
+    Dataset sourceDataset) {
+    runTracked(operation, () -> move(project, user, sourcePath, destPath, sourceDataset, treeWalker(operation)));
+  }
+  
+  private void checkMove(Dataset sourceDataset, Dataset destDataset) throws DatasetException {
     if (!getOwningProject(sourceDataset).equals(destDataset.getProject())) {
       throw new DatasetException(RESTCodes.DatasetErrorCode.DATASET_OPERATION_FORBIDDEN, Level.FINE,
         "Cannot copy file/folder from another project.");
@@ -947,6 +982,11 @@ public class DatasetController {
       throw new DatasetException(RESTCodes.DatasetErrorCode.DATASET_OPERATION_FORBIDDEN, Level.FINE,
         "Can not move to a public dataset.");
     }
+  }
+  
+  private void move(Project project, Users user, Path sourcePath, Path destPath, Dataset sourceDataset,
+    DatasetTreeWalker walker) throws DatasetException, HopsSecurityException {
+    String username = hdfsUsersController.getHdfsUserName(project, user);
     DistributedFileSystemOps udfso = null;
     //We need super-user to change owner
     DistributedFileSystemOps dfso = null;
@@ -975,7 +1015,7 @@ public class DatasetController {
       udfso.moveWithinHdfs(sourcePath, destPath);
 
       // Change permissions recursively
-      recChangeOwnershipAndPermission(destPath, permission, owner, group, dfso, udfso);
+      recChangeOwnershipAndPermission(walker, destPath, permission, owner, group, dfso, udfso);
     } catch (AccessControlException ex) {
       throw new HopsSecurityException(RESTCodes.SecurityErrorCode.HDFS_ACCESS_CONTROL, Level.FINE,
         "Operation: move, from: " + sourcePath.toString() + " to: " + destPath.toString());
@@ -990,26 +1030,86 @@ public class DatasetController {
 
   public void copy(Project project, Users user, Path sourcePath, Path destPath, Dataset sourceDataset,
     Dataset destDataset) throws DatasetException {
-    String username = hdfsUsersController.getHdfsUserName(project, user);
+    checkCopy(sourceDataset, destDataset);
+    copy(project, user, sourcePath, destPath, treeWalker(), new AtomicBoolean());
+  }
+  
+  /**
+   * Check a copy, take one of the long running request slots and register it to run in the background with
+   * {@link #copyAsync}.
+   */
+  public DatasetOperation submitCopy(Project project, Users user, Path sourcePath, Path destPath,
+    Dataset sourceDataset, Dataset destDataset) throws DatasetException {
+    checkCopy(sourceDataset, destDataset);
+    checkDestination(project, user, destPath);
+    acquireBackgroundSlot("copy");
+    try {
+      return operationTracker.submit(DatasetOperation.Type.COPY, project, user, sourcePath.toString(),
+        destPath.toString());
+    } catch (RuntimeException ex) {
+      longRunningHttpRequests.decrement();
+      throw ex;
+    }
+  }
+  
+  @Asynchronous
+  public void copyAsync(DatasetOperation operation, Project project, Users user, Path sourcePath, Path destPath) {
+    AtomicBoolean destinationCreated = new AtomicBoolean();
+    runTracked(operation, () -> copy(project, user, sourcePath, destPath, treeWalker(operation), destinationCreated),
+      () -> {
+        // a partial copy would make a retry fail with DESTINATION_EXISTS
+        if (destinationCreated.get()) {
+          removePartialCopy(project, user, destPath);
+        }
+      });
+  }
+  
+  private void checkCopy(Dataset sourceDataset, Dataset destDataset) throws DatasetException {
     if (!getOwningProject(sourceDataset).equals(destDataset.getProject())) {
       throw new DatasetException(RESTCodes.DatasetErrorCode.COPY_FROM_PROJECT, Level.FINE);
     }
     if (destDataset.isPublicDs()) {
       throw new DatasetException(RESTCodes.DatasetErrorCode.COPY_TO_PUBLIC_DS, Level.FINE);
     }
-
+  }
+  
+  /**
+   * @param destinationCreated set once the copy has created the destination, which it then owns
+   */
+  private void copy(Project project, Users user, Path sourcePath, Path destPath, DatasetTreeWalker walker,
+    AtomicBoolean destinationCreated) throws DatasetException {
+    String username = hdfsUsersController.getHdfsUserName(project, user);
     DistributedFileSystemOps udfso = null;
     try {
+      String sourceRoot = sourcePath.toUri().getPath();
+      if ((destPath.toUri().getPath() + Path.SEPARATOR).startsWith(sourceRoot + Path.SEPARATOR)) {
+        throw new DatasetException(RESTCodes.DatasetErrorCode.DATASET_OPERATION_INVALID, Level.FINE,
+          "Cannot copy " + sourcePath + " into itself");
+      }
       udfso = dfs.getDfsOps(username);
       if (udfso.exists(destPath.toString())) {
         throw new DatasetException(RESTCodes.DatasetErrorCode.DESTINATION_EXISTS, Level.FINE);
       }
       //Get destination folder permissions
       FsPermission permission = udfso.getFileStatus(destPath.getParent()).getPermission();
-      udfso.copyInHdfs(sourcePath, destPath);
-      //Set permissions
-      recChangeOwnershipAndPermission(destPath, permission, null, null, null, udfso);
-
+      // Copy file by file, a directory is always created before its content
+      Inode sourceInode = inodeController.getInodeAtPath(sourcePath.toString());
+      DistributedFileSystemOps copyDfso = udfso;
+      walker.walk(sourcePath, sourceInode, (path, inode) -> {
+        String relative = path.toUri().getPath().substring(sourceRoot.length());
+        Path target = relative.isEmpty() ? destPath : new Path(destPath + relative);
+        if (relative.isEmpty()) {
+          // the destination did not exist, also a file copy that fails half way leaves it behind
+          destinationCreated.set(true);
+        }
+        if (inode.isDir()) {
+          copyDfso.mkdir(target, permission);
+        } else {
+          copyDfso.copyFileInHdfs(path, target);
+        }
+        //Set permissions
+        copyDfso.setPermission(target, permission);
+      });
     } catch (IOException ex) {
       throw new DatasetException(RESTCodes.DatasetErrorCode.DATASET_OPERATION_ERROR, Level.SEVERE, "move operation " +
         "failed for: " + sourcePath.toString(), ex.getMessage(), ex);
@@ -1017,6 +1117,85 @@ public class DatasetController {
       dfs.closeDfsClient(udfso);
     }
   }
+  
+  private void removePartialCopy(Project project, Users user, Path destPath) {
+    String username = hdfsUsersController.getHdfsUserName(project, user);
+    DistributedFileSystemOps udfso = null;
+    try {
+      udfso = dfs.getDfsOps(username);
+      udfso.rm(destPath, true);
+      LOGGER.log(Level.INFO, "Removed the partial copy {0}", destPath);
+    } catch (IOException | RuntimeException ex) {
+      LOGGER.log(Level.WARNING, "Could not remove the partial copy " + destPath, ex);
+    } finally {
+      dfs.closeDfsClient(udfso);
+    }
+  }
+  
+  private void checkDestination(Project project, Users user, Path destPath) throws DatasetException {
+    String username = hdfsUsersController.getHdfsUserName(project, user);
+    DistributedFileSystemOps udfso = null;
+    try {
+      udfso = dfs.getDfsOps(username);
+      if (udfso.exists(destPath.toString())) {
+        throw new DatasetException(RESTCodes.DatasetErrorCode.DESTINATION_EXISTS, Level.FINE,
+          "destination: " + destPath.toString());
+      }
+    } catch (IOException ex) {
+      throw new DatasetException(RESTCodes.DatasetErrorCode.DATASET_OPERATION_ERROR, Level.SEVERE,
+        "could not check destination: " + destPath.toString(), ex.getMessage(), ex);
+    } finally {
+      dfs.closeDfsClient(udfso);
+    }
+  }
+  
+  /**
+   * Background copies and moves count against the same limit as the synchronous ones, the slot is released by
+   * {@link #runTracked} once the operation is over.
+   */
+  private void acquireBackgroundSlot(String operation) throws DatasetException {
+    if (longRunningHttpRequests.get() >= settings.getMaxLongRunningHttpRequests()) {
+      LOGGER.log(Level.INFO, "The maximum number of allowed {0} operations exceeded. {1}",
+        new Object[]{operation, longRunningHttpRequests.get()});
+      throw new DatasetException(RESTCodes.DatasetErrorCode.DATASET_OPERATION_INVALID, Level.FINE,
+        "The maximum number of allowed " + operation + " operations exceeded. Please try again later.");
+    }
+    longRunningHttpRequests.increment();
+  }
+  
+  private interface TrackedOperation {
+    void run() throws DatasetException, HopsSecurityException;
+  }
+  
+  private void runTracked(DatasetOperation operation, TrackedOperation action) {
+    runTracked(operation, action, () -> { });
+  }
+  
+  /**
+   * @param onAbort undoes what the action did if it was cancelled or failed
+   */
+  private void runTracked(DatasetOperation operation, TrackedOperation action, Runnable onAbort) {
+    try {
+      action.run();
+      operation.finished(DatasetOperation.Status.FINISHED, null);
+    } catch (CancellationException ex) {
+      LOGGER.log(Level.INFO, "Dataset operation cancelled: {0}", operation);
+      onAbort.run();
+      operation.finished(DatasetOperation.Status.CANCELLED, ex.getMessage());
+    } catch (DatasetException | HopsSecurityException ex) {
+      LOGGER.log(Level.WARNING, "Dataset operation failed: " + operation, ex);
+      onAbort.run();
+      operation.finished(DatasetOperation.Status.FAILED,
+        ex.getDevMsg() != null ? ex.getDevMsg() : ex.getErrorCode().getMessage());
+    } catch (RuntimeException ex) {
+      LOGGER.log(Level.SEVERE, "Dataset operation failed: " + operation, ex);
+      onAbort.run();
+      operation.finished(DatasetOperation.Status.FAILED, ex.getMessage());
+    } finally {
+      longRunningHttpRequests.decrement();
+      operationTracker.publish(operation);
+    }
+  }
 
   public void changePermissions(Dataset ds, PermissionTransition permissionTransition, Project targetProject)
     throws DatasetException {
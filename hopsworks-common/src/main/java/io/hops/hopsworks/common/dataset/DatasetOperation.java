@@ -0,0 +1,209 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.dataset;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Progress of a copy or move of a dataset path running in the background.
+ */
+@XmlRootElement
+public class DatasetOperation implements Serializable {
+  
+  private static final long serialVersionUID = 1L;
+  
+  public enum Type {
+    COPY,
+    MOVE
+  }
+  
+  public enum Status {
+    RUNNING,
+    FINISHED,
+    FAILED,
+    CANCELLED
+  }
+  
+  private String id;
+  private Type type;
+  private Integer projectId;
+  private Integer userId;
+  private String source;
+  private String destination;
+  private Status status = Status.RUNNING;
+  private boolean cancelRequested;
+  private long visited;
+  private Date submitted;
+  private Long duration;
+  private String error;
+  
+  public DatasetOperation() {
+  }
+  
+  public DatasetOperation(Type type, Integer projectId, Integer userId, String source, String destination) {
+    this.id = UUID.randomUUID().toString();
+    this.type = type;
+    this.projectId = projectId;
+    this.userId = userId;
+    this.source = source;
+    this.destination = destination;
+    this.submitted = new Date();
+  }
+  
+  /**
+   * @return a snapshot of the operation, safe to publish while the operation goes on
+   */
+  public synchronized DatasetOperation copy() {
+    DatasetOperation copy = new DatasetOperation();
+    copy.id = id;
+    copy.type = type;
+    copy.projectId = projectId;
+    copy.userId = userId;
+    copy.source = source;
+    copy.destination = destination;
+    copy.status = status;
+    copy.cancelRequested = cancelRequested;
+    copy.visited = visited;
+    copy.submitted = submitted;
+    copy.duration = duration;
+    copy.error = error;
+    return copy;
+  }
+  
+  synchronized void visited(long visited) {
+    this.visited = visited;
+  }
+  
+  synchronized void finished(Status status, String error) {
+    this.status = status;
+    this.error = error;
+    this.duration = System.currentTimeMillis() - submitted.getTime();
+  }
+  
+  public String getId() {
+    return id;
+  }
+  
+  public void setId(String id) {
+    this.id = id;
+  }
+  
+  public Type getType() {
+    return type;
+  }
+  
+  public void setType(Type type) {
+    this.type = type;
+  }
+  
+  @XmlTransient
+  public Integer getProjectId() {
+    return projectId;
+  }
+  
+  public void setProjectId(Integer projectId) {
+    this.projectId = projectId;
+  }
+  
+  @XmlTransient
+  public Integer getUserId() {
+    return userId;
+  }
+  
+  public void setUserId(Integer userId) {
+    this.userId = userId;
+  }
+  
+  public String getSource() {
+    return source;
+  }
+  
+  public void setSource(String source) {
+    this.source = source;
+  }
+  
+  public String getDestination() {
+    return destination;
+  }
+  
+  public void setDestination(String destination) {
+    this.destination = destination;
+  }
+  
+  public Status getStatus() {
+    return status;
+  }
+  
+  public void setStatus(Status status) {
+    this.status = status;
+  }
+  
+  public boolean isCancelRequested() {
+    return cancelRequested;
+  }
+  
+  public void setCancelRequested(boolean cancelRequested) {
+    this.cancelRequested = cancelRequested;
+  }
+  
+  /**
+   * @return number of files and directories processed so far
+   */
+  public long getVisited() {
+    return visited;
+  }
+  
+  public void setVisited(long visited) {
+    this.visited = visited;
+  }
+  
+  public Date getSubmitted() {
+    return submitted;
+  }
+  
+  public void setSubmitted(Date submitted) {
+    this.submitted = submitted;
+  }
+  
+  /**
+   * @return duration of the operation in milliseconds, null while it is running
+   */
+  public Long getDuration() {
+    return duration;
+  }
+  
+  public void setDuration(Long duration) {
+    this.duration = duration;
+  }
+  
+  public String getError() {
+    return error;
+  }
+  
+  public void setError(String error) {
+    this.error = error;
+  }
+  
+  @Override
+  public synchronized String toString() {
+    return type + " " + source + " -> " + destination + " " + status + ", visited: " + visited;
+  }
+}
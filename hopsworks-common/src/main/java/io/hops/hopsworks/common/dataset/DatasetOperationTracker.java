@@ -0,0 +1,143 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.dataset;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.hops.hopsworks.exceptions.DatasetException;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import io.hops.hopsworks.persistence.entity.user.Users;
+import io.hops.hopsworks.restutils.RESTCodes;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Keeps the progress of the dataset copies and moves running in the background, cluster wide when Hazelcast is
+ * enabled, so that clients can poll or cancel them from any member.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class DatasetOperationTracker {
+  private static final String OPERATIONS_MAP = "dataset_operations";
+  private static final String CANCELLATIONS_MAP = "dataset_operation_cancellations";
+  private static final long RETENTION_MINUTES = 60;
+  
+  @Inject
+  private HazelcastInstance hazelcastInstance;
+  
+  private IMap<String, DatasetOperation> operationsMap;
+  private IMap<String, Boolean> cancellationsMap;
+  private Cache<String, DatasetOperation> localOperations;
+  private Cache<String, Boolean> localCancellations;
+  
+  @PostConstruct
+  public void init() {
+    // hazelcastInstance == null if Hazelcast is Disabled
+    if (hazelcastInstance != null) {
+      operationsMap = hazelcastInstance.getMap(OPERATIONS_MAP);
+      cancellationsMap = hazelcastInstance.getMap(CANCELLATIONS_MAP);
+    } else {
+      localOperations = Caffeine.newBuilder()
+        .expireAfterWrite(RETENTION_MINUTES, TimeUnit.MINUTES)
+        .build();
+      localCancellations = Caffeine.newBuilder()
+        .expireAfterWrite(RETENTION_MINUTES, TimeUnit.MINUTES)
+        .build();
+    }
+  }
+  
+  /**
+   * Register an operation that will run asynchronously.
+   *
+   * @return the progress of the operation
+   */
+  public DatasetOperation submit(DatasetOperation.Type type, Project project, Users user, String source,
+    String destination) {
+    DatasetOperation operation = new DatasetOperation(type, project.getId(), user.getUid(), source, destination);
+    publish(operation);
+    return operation;
+  }
+  
+  public void publish(DatasetOperation operation) {
+    DatasetOperation snapshot = operation.copy();
+    if (operationsMap != null) {
+      operationsMap.set(snapshot.getId(), snapshot, RETENTION_MINUTES, TimeUnit.MINUTES);
+    } else {
+      localOperations.put(snapshot.getId(), snapshot);
+    }
+  }
+  
+  /**
+   * @return the progress of the operation, only within the project it was submitted in
+   * @throws DatasetException if the operation does not exist or finished long ago
+   */
+  public DatasetOperation get(String id, Project project) throws DatasetException {
+    DatasetOperation operation =
+      operationsMap != null ? operationsMap.get(id) : localOperations.getIfPresent(id);
+    if (operation == null || !project.getId().equals(operation.getProjectId())) {
+      throw new DatasetException(RESTCodes.DatasetErrorCode.DATASET_OPERATION_NOT_FOUND, Level.FINE,
+        "operation: " + id);
+    }
+    operation.setCancelRequested(isCancelled(id));
+    return operation;
+  }
+  
+  /**
+   * Request the cancellation of a running copy. The copy stops at its next batch of directories, the files
+   * already copied are left in place.
+   *
+   * @throws DatasetException if the operation does not exist, already finished or belongs to another user
+   */
+  public DatasetOperation cancel(String id, Project project, Users user) throws DatasetException {
+    DatasetOperation operation = get(id, project);
+    if (!user.getUid().equals(operation.getUserId())) {
+      throw new DatasetException(RESTCodes.DatasetErrorCode.DATASET_ACCESS_PERMISSION_DENIED, Level.FINE,
+        "operation: " + id);
+    }
+    if (operation.getType() == DatasetOperation.Type.MOVE) {
+      // The rename is atomic, stopping halfway through the permissions would leave the tree inconsistent
+      throw new DatasetException(RESTCodes.DatasetErrorCode.DATASET_OPERATION_INVALID, Level.FINE,
+        "A move cannot be cancelled");
+    }
+    if (operation.getStatus() != DatasetOperation.Status.RUNNING) {
+      throw new DatasetException(RESTCodes.DatasetErrorCode.DATASET_OPERATION_INVALID, Level.FINE,
+        "Operation " + id + " is " + operation.getStatus());
+    }
+    if (cancellationsMap != null) {
+      cancellationsMap.set(id, Boolean.TRUE, RETENTION_MINUTES, TimeUnit.MINUTES);
+    } else {
+      localCancellations.put(id, Boolean.TRUE);
+    }
+    operation.setCancelRequested(true);
+    return operation;
+  }
+  
+  public boolean isCancelled(String id) {
+    return cancellationsMap != null ? cancellationsMap.containsKey(id) : localCancellations.getIfPresent(id) != null;
+  }
+}
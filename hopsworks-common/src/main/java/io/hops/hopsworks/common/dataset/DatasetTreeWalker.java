@@ -0,0 +1,171 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.dataset;
+
+import io.hops.common.Pair;
+import io.hops.hopsworks.persistence.entity.hdfs.inode.Inode;
+import org.apache.hadoop.fs.Path;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * Walks a directory tree from the inodes in the database and applies an operation to every path of the tree.
+ * The children of up to batchSize directories are listed with one query and the operation is applied to them by
+ * up to parallelism tasks, so that the walk is not bound by the latency of one file system RPC per inode.
+ * A parent is always visited before its children.
+ */
+public class DatasetTreeWalker {
+  
+  // Do not fan out fewer paths than this per task, the RPCs would not pay for the task
+  private static final int MIN_PATHS_PER_TASK = 16;
+  
+  public interface ChildLister {
+    List<Inode> list(List<Long> parentIds);
+  }
+  
+  public interface Visitor {
+    void visit(Path path, Inode inode) throws IOException;
+  }
+  
+  private final Executor executor;
+  private final int parallelism;
+  private final int batchSize;
+  private final ChildLister childLister;
+  private BooleanSupplier cancelled = () -> false;
+  private LongConsumer progress = visited -> { };
+  
+  public DatasetTreeWalker(Executor executor, int parallelism, int batchSize, ChildLister childLister) {
+    this.executor = executor;
+    this.parallelism = Math.max(1, parallelism);
+    this.batchSize = Math.max(1, batchSize);
+    this.childLister = childLister;
+  }
+  
+  /**
+   * @param cancelled checked before every batch of directories, the walk stops with a CancellationException
+   *                  when it returns true
+   */
+  public DatasetTreeWalker cancelWhen(BooleanSupplier cancelled) {
+    this.cancelled = cancelled;
+    return this;
+  }
+  
+  /**
+   * @param progress called with the number of paths visited so far after every batch of directories
+   */
+  public DatasetTreeWalker onProgress(LongConsumer progress) {
+    this.progress = progress;
+    return this;
+  }
+  
+  /**
+   * Visit the root and all its descendants.
+   *
+   * @return the number of paths visited
+   * @throws IOException the first failure of the visitor, the paths not yet visited are skipped
+   * @throws CancellationException if the walk was cancelled
+   */
+  public long walk(Path rootPath, Inode root, Visitor visitor) throws IOException {
+    visitor.visit(rootPath, root);
+    long visited = 1;
+    progress.accept(visited);
+    
+    // Keep a stack of directories to avoid using recursion
+    // Remember also the path to avoid going to the database for path resolution
+    Deque<Pair<Inode, Path>> dirs = new ArrayDeque<>();
+    if (root.isDir()) {
+      dirs.push(new Pair<>(root, rootPath));
+    }
+    while (!dirs.isEmpty()) {
+      if (cancelled.getAsBoolean()) {
+        throw new CancellationException("Cancelled after " + visited + " paths of " + rootPath);
+      }
+      Map<Long, Path> parents = new HashMap<>();
+      while (!dirs.isEmpty() && parents.size() < batchSize) {
+        Pair<Inode, Path> dir = dirs.pop();
+        parents.put(dir.getL().getId(), dir.getR());
+      }
+      List<Pair<Inode, Path>> children = new ArrayList<>();
+      for (Inode child : childLister.list(new ArrayList<>(parents.keySet()))) {
+        Path parentPath = parents.get(child.getInodePK().getParentId());
+        children.add(new Pair<>(child, new Path(parentPath, child.getInodePK().getName())));
+      }
+      visitAll(children, visitor);
+      visited += children.size();
+      progress.accept(visited);
+      for (Pair<Inode, Path> child : children) {
+        if (child.getL().isDir()) {
+          dirs.push(child);
+        }
+      }
+    }
+    return visited;
+  }
+  
+  private void visitAll(List<Pair<Inode, Path>> paths, Visitor visitor) throws IOException {
+    int tasks = Math.min(parallelism, (paths.size() + MIN_PATHS_PER_TASK - 1) / MIN_PATHS_PER_TASK);
+    if (tasks <= 1) {
+      for (Pair<Inode, Path> path : paths) {
+        visitor.visit(path.getR(), path.getL());
+      }
+      return;
+    }
+    AtomicBoolean failed = new AtomicBoolean(false);
+    int chunk = (paths.size() + tasks - 1) / tasks;
+    List<CompletableFuture<Void>> futures = new ArrayList<>(tasks);
+    for (int from = 0; from < paths.size(); from += chunk) {
+      List<Pair<Inode, Path>> slice = paths.subList(from, Math.min(paths.size(), from + chunk));
+      futures.add(CompletableFuture.runAsync(() -> {
+        for (Pair<Inode, Path> path : slice) {
+          if (failed.get()) {
+            return;
+          }
+          try {
+            visitor.visit(path.getR(), path.getL());
+          } catch (IOException | RuntimeException e) {
+            failed.set(true);
+            throw new CompletionException(e);
+          }
+        }
+      }, executor));
+    }
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+}
@@ -15,7 +15,7 @@
  */
 package io.hops.hopsworks.common.dataset.acl;
 
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -39,7 +39,7 @@ public class PermissionsCleaner {
   @EJB
   private PermissionsFixer permissionsFixer;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
   private Timer timer;
@@ -63,7 +63,7 @@ public class PermissionsCleaner {
 
   @Timeout
   public void fixDatasetPermissions(Timer timer) {
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(PermissionsCleaner.class)) {
       return;
     }
     counter = permissionsFixer.fixPermissions(counter, System.currentTimeMillis());
@@ -17,19 +17,25 @@
 
 package io.hops.hopsworks.common.featurestore.datavalidationv2.expectations;
 
+import com.google.common.collect.Lists;
 import io.hops.hopsworks.common.dao.AbstractFacade;
 import io.hops.hopsworks.common.featurestore.datavalidationv2.suites.ExpectationSuiteFacade;
+import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.Expectation;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.ExpectationSuite;
 
+import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 import javax.validation.ConstraintViolationException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.util.Optional;
@@ -44,7 +50,8 @@ public class ExpectationFacade extends AbstractFacade<Expectation> {
   private static final Logger LOGGER = Logger.getLogger(ExpectationSuiteFacade.class.getName());
   @PersistenceContext(unitName = "kthfsPU")
   private EntityManager em;
-
+  @EJB
+  private Settings settings;
 
   public ExpectationFacade() {
     super(Expectation.class);
@@ -76,6 +83,23 @@ public class ExpectationFacade extends AbstractFacade<Expectation> {
     }
   }
 
+  /**
+   * Retrieves the expectations with the given ids, one query per settings.getSQLMaxSelectIn() ids
+   *
+   * @param ids
+   *   ids of the Expectations
+   * @return the expectations that exist
+   */
+  public List<Expectation> findByIds(List<Integer> ids) {
+    List<Expectation> result = new ArrayList<>();
+    for (List<Integer> partition : Lists.partition(ids, settings.getSQLMaxSelectIn())) {
+      TypedQuery<Expectation> query = em.createNamedQuery("Expectation.findByIds", Expectation.class);
+      query.setParameter("ids", partition);
+      result.addAll(query.getResultList());
+    }
+    return result;
+  }
+
   /**
    * Retrieves all expectations which belong to the Expectation Suite
    *
@@ -24,6 +24,7 @@ import io.hops.hopsworks.common.dao.AbstractFacade.SortBy;
 import io.hops.hopsworks.common.dataset.DatasetController;
 import io.hops.hopsworks.common.featurestore.FeaturestoreController;
 import io.hops.hopsworks.common.featurestore.activity.FeaturestoreActivityFacade;
+import io.hops.hopsworks.common.featurestore.datavalidationv2.reports.ValidationReportScanner.ExpectationConfig;
 import io.hops.hopsworks.common.featurestore.datavalidationv2.results.ValidationResultController;
 import io.hops.hopsworks.common.featurestore.datavalidationv2.results.ValidationResultDTO;
 import io.hops.hopsworks.common.hdfs.DistributedFileSystemOps;
@@ -40,6 +41,7 @@ import io.hops.hopsworks.persistence.entity.dataset.DatasetAccessPermission;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.Featuregroup;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidation.alert.FeatureGroupAlert;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidation.alert.ValidationRuleAlertStatus;
+import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.Expectation;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.IngestionResult;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.ValidationReport;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.ValidationResult;
@@ -51,7 +53,6 @@ import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.restutils.RESTCodes;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.permission.FsPermission;
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -60,11 +61,14 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TimeZone;
@@ -125,33 +129,36 @@ public class ValidationReportController {
     ValidationReportDTO reportDTO)
     throws FeaturestoreException {
 
-    ValidationReport validationReport = convertReportDTOToPersistent(user, featuregroup, reportDTO);
-    validationReportFacade.persist(validationReport);
+    ValidationReportSummary summary = new ValidationReportSummary();
+    ValidationReport validationReport = convertReportDTOToPersistent(user, featuregroup, reportDTO, summary);
+    // the alerts only depend on the converted report, build them in the same pass and send them once it is stored
+    List<PostableAlert> postableAlerts = getPostableAlerts(featuregroup, validationReport, summary);
+    validationReportFacade.persist(validationReport, settings.getValidationResultInsertBatchSize());
 
     fsActivityFacade.logValidationReportActivity(user, validationReport);
     
     // trigger alerts if any
-    triggerAlerts(featuregroup, validationReport);
+    triggerAlerts(featuregroup, postableAlerts);
 
     return validationReport;
   }
   
-  private void triggerAlerts(Featuregroup featureGroup, ValidationReport validationReport) {
-    List<PostableAlert> postableAlerts = getPostableAlerts(featureGroup, validationReport);
+  private void triggerAlerts(Featuregroup featureGroup, List<PostableAlert> postableAlerts) {
     alertController.sendFgAlert(postableAlerts, featureGroup.getFeaturestore().getProject(), featureGroup.getName());
   }
   
-  private List<PostableAlert> getPostableAlerts(Featuregroup featureGroup, ValidationReport validationReport) {
+  private List<PostableAlert> getPostableAlerts(Featuregroup featureGroup, ValidationReport validationReport,
+    ValidationReportSummary summary) {
     List<PostableAlert> postableAlerts = new ArrayList<>();
     if (featureGroup.getFeatureGroupAlerts() != null && !featureGroup.getFeatureGroupAlerts().isEmpty()) {
       String name = featurestoreController.getOfflineFeaturestoreDbName(featureGroup.getFeaturestore());
       for (FeatureGroupAlert alert : featureGroup.getFeatureGroupAlerts()) {
         if (alert.getStatus() == ValidationRuleAlertStatus.FAILURE
             && validationReport.getIngestionResult() == IngestionResult.REJECTED) {
-          postableAlerts.add(getPostableAlert(alert, name, featureGroup, validationReport));
+          postableAlerts.add(getPostableAlert(alert, name, featureGroup, validationReport, summary));
         } else if (alert.getStatus() == ValidationRuleAlertStatus.SUCCESS
             && validationReport.getIngestionResult() == IngestionResult.INGESTED) {
-          postableAlerts.add(getPostableAlert(alert, name, featureGroup, validationReport));
+          postableAlerts.add(getPostableAlert(alert, name, featureGroup, validationReport, summary));
         }
       }
     }
@@ -162,11 +169,11 @@ public class ValidationReportController {
         if (ProjectServiceEnum.FEATURESTORE.equals(alert.getService())
             && alert.getStatus() == ProjectServiceAlertStatus.VALIDATION_FAILURE
             && validationReport.getIngestionResult() == IngestionResult.REJECTED) {
-          postableAlerts.add(getPostableAlert(alert, name, featureGroup, validationReport));
+          postableAlerts.add(getPostableAlert(alert, name, featureGroup, validationReport, summary));
         } else if (ProjectServiceEnum.FEATURESTORE.equals(alert.getService())
             && alert.getStatus() == ProjectServiceAlertStatus.VALIDATION_SUCCESS
             && validationReport.getIngestionResult() == IngestionResult.INGESTED) {
-          postableAlerts.add(getPostableAlert(alert, name, featureGroup, validationReport));
+          postableAlerts.add(getPostableAlert(alert, name, featureGroup, validationReport, summary));
         }
       }
     }
@@ -174,18 +181,18 @@ public class ValidationReportController {
   }
   
   private PostableAlert getPostableAlert(FeatureGroupAlert alert, String featureStoreName, Featuregroup featureGroup,
-    ValidationReport validationReport) {
+    ValidationReport validationReport, ValidationReportSummary summary) {
     return alertController.getPostableFgAlert(featureGroup.getFeaturestore().getProject().getName(),
       alert.getAlertType(), alert.getSeverity(), validationReport.getIngestionResult().toString(),
-      constructAlertSummary(featureGroup, validationReport), constructAlertDescription(validationReport),
+      constructAlertSummary(featureGroup, validationReport), constructAlertDescription(validationReport, summary),
       featureGroup.getId(), featureStoreName, featureGroup.getName(), featureGroup.getVersion());
   }
   
   private PostableAlert getPostableAlert(ProjectServiceAlert alert, String featureStoreName, Featuregroup featureGroup,
-    ValidationReport validationReport) {
+    ValidationReport validationReport, ValidationReportSummary summary) {
     return alertController.getPostableFgAlert(featureGroup.getFeaturestore().getProject().getName(),
       alert.getAlertType(), alert.getSeverity(), validationReport.getIngestionResult().toString(),
-      constructAlertSummary(featureGroup, validationReport), constructAlertDescription(validationReport),
+      constructAlertSummary(featureGroup, validationReport), constructAlertDescription(validationReport, summary),
       featureGroup.getId(), featureStoreName, featureGroup.getName(), featureGroup.getVersion());
   }
   
@@ -196,8 +203,8 @@ public class ValidationReportController {
       validationReport.getStatistics());
   }
   
-  public String constructAlertDescription(ValidationReport validationReport) {
-    return String.format("Statistics: %s", validationReport.getStatistics());
+  public String constructAlertDescription(ValidationReport validationReport, ValidationReportSummary summary) {
+    return String.format("Statistics: %s, %s", validationReport.getStatistics(), summary);
   }
 
   public void deleteValidationReportById(Users user, Integer validationReportId) throws FeaturestoreException {
@@ -255,7 +262,13 @@ public class ValidationReportController {
 
   public ValidationReport convertReportDTOToPersistent(Users user, Featuregroup featuregroup,
     ValidationReportDTO reportDTO) throws FeaturestoreException {
-    verifyValidationReportDTOFields(reportDTO);
+    return convertReportDTOToPersistent(user, featuregroup, reportDTO, new ValidationReportSummary());
+  }
+
+  public ValidationReport convertReportDTOToPersistent(Users user, Featuregroup featuregroup,
+    ValidationReportDTO reportDTO, ValidationReportSummary summary) throws FeaturestoreException {
+    StringWriter fullReport = new StringWriter();
+    List<ExpectationConfig> expectationConfigs = scanValidationReportDTO(reportDTO, fullReport, summary);
     ValidationReport report = new ValidationReport();
     report.setFeaturegroup(featuregroup);
     report.setMeta(reportDTO.getMeta());
@@ -280,23 +293,71 @@ public class ValidationReportController {
     report.setValidationTime(validationTime);
 
     // Dump the whole report to a file. 
-    String validationReportFileName = registerValidationReportToDisk(user, featuregroup, reportDTO, validationTime);
+    String validationReportFileName = registerValidationReportToDisk(user, featuregroup,
+      reportDTO.getFullJson() != null ? reportDTO.getFullJson() : fullReport.toString(), validationTime);
     report.setFileName(validationReportFileName);
 
-    List<ValidationResult> results = new ArrayList<ValidationResult>();
-
-    for (ValidationResultDTO dto : reportDTO.getResults()) {
-      results.add(validationResultController.convertResultDTOToPersistent(report, dto));
+    List<ValidationResult> results = new ArrayList<>();
+    if (!expectationConfigs.isEmpty()) {
+      List<Integer> expectationIds = new ArrayList<>();
+      expectationConfigs.forEach(expectationConfig -> expectationIds.add(expectationConfig.getExpectationId()));
+      Map<Integer, Expectation> expectations = validationResultController.getExpectationsById(expectationIds);
+      for (int i = 0; i < expectationConfigs.size(); i++) {
+        results.add(validationResultController.convertResultDTOToPersistent(report, reportDTO.getResults().get(i),
+          expectations.get(expectationIds.get(i))));
+      }
     }
     report.setValidationResults(results);
 
     return report;
   }
 
+  /**
+   * Verifies the report and its results reading each field once. The fields are copied to the full report on the
+   * way, unless the report comes with its full json, and the outcome of the results is added to the summary.
+   *
+   * @return the expectation fields of each result
+   */
+  private List<ExpectationConfig> scanValidationReportDTO(ValidationReportDTO reportDTO, Writer fullReport,
+    ValidationReportSummary summary) throws FeaturestoreException {
+    List<ExpectationConfig> expectationConfigs = new ArrayList<>();
+    try (ValidationReportScanner scanner = reportDTO.getFullJson() == null ?
+      new ValidationReportScanner(fullReport) : new ValidationReportScanner()) {
+      scanner.writeStartObject();
+      verifyValidationReportDTOFields(reportDTO, scanner);
+      scanner.writeBooleanField("success", reportDTO.getSuccess());
+      scanner.writeArrayFieldStart("results");
+      if (reportDTO.getResults() != null) {
+        for (ValidationResultDTO resultDTO : reportDTO.getResults()) {
+          scanner.writeStartObject();
+          ExpectationConfig expectationConfig =
+            validationResultController.verifyValidationResultDTOFields(resultDTO, scanner);
+          scanner.writeBooleanField("success", resultDTO.getSuccess());
+          scanner.writeEndObject();
+          summary.add(resultDTO.getSuccess(), expectationConfig.getExpectationType());
+          expectationConfigs.add(expectationConfig);
+        }
+      }
+      scanner.writeEndArray();
+      scanner.writeEndObject();
+    } catch (IOException e) {
+      throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.ERROR_SAVING_ON_DISK_VALIDATION_REPORT,
+        Level.WARNING, e.getMessage());
+    }
+    if (reportDTO.getFullJson() != null) {
+      try {
+        new ValidationReportScanner().scanObject("full_json", reportDTO.getFullJson());
+      } catch (IOException e) {
+        throw new FeaturestoreException(
+          RESTCodes.FeaturestoreErrorCode.VALIDATION_REPORT_IS_NOT_VALID_JSON, Level.WARNING, e.getMessage());
+      }
+    }
+    return expectationConfigs;
+  }
+
   private String registerValidationReportToDisk(Users user, Featuregroup featuregroup,
-    ValidationReportDTO reportDTO, Date validationTime) throws FeaturestoreException {
+    String reportJson, Date validationTime) throws FeaturestoreException {
     DistributedFileSystemOps udfso = null;
-    JSONObject reportJSON = convertValidationReportDTOToJson(reportDTO);
 
     try {
       udfso = dfs.getDfsOps(hdfsUsersController.getHdfsUserName(featuregroup.getFeaturestore().getProject(), user));
@@ -309,7 +370,7 @@ public class ValidationReportController {
         throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.ERROR_SAVING_ON_DISK_VALIDATION_REPORT,
           Level.SEVERE, String.format("Validation report with file name %s already exists.", fileName));
       }
-      udfso.create(reportPath, reportJSON.toString());
+      udfso.create(reportPath, reportJson);
       return fileName;
     } catch (FeaturestoreException | IOException  e) {
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.ERROR_SAVING_ON_DISK_VALIDATION_REPORT,
@@ -373,46 +434,19 @@ public class ValidationReportController {
     }
   }
 
-  private JSONObject convertValidationReportDTOToJson(ValidationReportDTO reportDTO) throws FeaturestoreException {
-    JSONObject reportJSON = new JSONObject();
-
-    try {
-      if (reportDTO.getFullJson() != null) {
-        reportJSON = new JSONObject(reportDTO.getFullJson());
-      } else {
-        reportJSON.put("evaluation_parameters", new JSONObject(reportDTO.getEvaluationParameters()));
-        reportJSON.put("statistics", new JSONObject(reportDTO.getStatistics()));
-        reportJSON.put("success", reportDTO.getSuccess());
-        reportJSON.put("meta", new JSONObject(reportDTO.getMeta()));
-
-
-        JSONArray resultsJsonArray = new JSONArray();
-
-        for (ValidationResultDTO resultDTO : reportDTO.getResults()) {
-          resultsJsonArray.put(validationResultController.convertValidationResultDTOToJson(resultDTO));
-        }
-
-        reportJSON.put("results", resultsJsonArray);
-      }
-    } catch (JSONException e) {
-      throw new FeaturestoreException(
-        RESTCodes.FeaturestoreErrorCode.VALIDATION_REPORT_IS_NOT_VALID_JSON, Level.WARNING, e.getMessage());
-    }
-
-    return reportJSON;
-  }
-
   ////////////////////////////////////////
   //// Input Verification for Validation Report
   ///////////////////////////////////////
 
-  public void verifyValidationReportDTOFields(ValidationReportDTO dto) throws FeaturestoreException {
-    verifyValidationReportEvaluationParameters(dto.getEvaluationParameters());
-    verifyValidationReportMeta(dto.getMeta());
-    verifyValidationReportStatistics(dto.getStatistics());
+  public void verifyValidationReportDTOFields(ValidationReportDTO dto, ValidationReportScanner scanner)
+    throws FeaturestoreException {
+    verifyValidationReportEvaluationParameters(dto.getEvaluationParameters(), scanner);
+    verifyValidationReportMeta(dto.getMeta(), scanner);
+    verifyValidationReportStatistics(dto.getStatistics(), scanner);
   }
 
-  public void verifyValidationReportStatistics(String statistics) throws FeaturestoreException {
+  public void verifyValidationReportStatistics(String statistics, ValidationReportScanner scanner)
+    throws FeaturestoreException {
     if (statistics == null) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_NULLABLE,
@@ -431,8 +465,8 @@ public class ValidationReportController {
     }
 
     try {
-      new JSONObject(statistics);
-    } catch (JSONException e) {
+      scanner.scanObject("statistics", statistics);
+    } catch (IOException e) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_VALID_JSON,
         Level.SEVERE,
@@ -442,7 +476,8 @@ public class ValidationReportController {
     }
   }
 
-  public void verifyValidationReportEvaluationParameters(String evaluationParameters) throws FeaturestoreException {
+  public void verifyValidationReportEvaluationParameters(String evaluationParameters,
+    ValidationReportScanner scanner) throws FeaturestoreException {
     if (evaluationParameters == null) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_NULLABLE,
@@ -461,8 +496,8 @@ public class ValidationReportController {
     }
 
     try {
-      new JSONObject(evaluationParameters);
-    } catch (JSONException e) {
+      scanner.scanObject("evaluation_parameters", evaluationParameters);
+    } catch (IOException e) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_VALID_JSON,
         Level.SEVERE,
@@ -472,7 +507,8 @@ public class ValidationReportController {
     }
   }
 
-  public void verifyValidationReportMeta(String meta) throws FeaturestoreException {
+  public void verifyValidationReportMeta(String meta, ValidationReportScanner scanner)
+    throws FeaturestoreException {
     if (meta == null) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_NULLABLE,
@@ -491,8 +527,8 @@ public class ValidationReportController {
     }
 
     try {
-      new JSONObject(meta);
-    } catch (JSONException e) {
+      scanner.scanObject("meta", meta);
+    } catch (IOException e) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_VALID_JSON,
         Level.SEVERE,
@@ -18,9 +18,15 @@
 package io.hops.hopsworks.common.featurestore.datavalidationv2.reports;
 
 import io.hops.hopsworks.common.dao.AbstractFacade;
+import io.hops.hopsworks.common.featurestore.datavalidationv2.results.ValidationResultFacade;
+import io.hops.hopsworks.exceptions.FeaturestoreException;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.Featuregroup;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.ValidationReport;
+import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.ValidationResult;
 
+import javax.annotation.Resource;
+import javax.ejb.EJB;
+import javax.ejb.SessionContext;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
@@ -29,6 +35,8 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.validation.ConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.List;
@@ -45,7 +53,10 @@ public class ValidationReportFacade extends AbstractFacade<ValidationReport> {
   private static final Logger LOGGER = Logger.getLogger(ValidationReportFacade.class.getName());
   @PersistenceContext(unitName = "kthfsPU")
   private EntityManager em;
-
+  @EJB
+  private ValidationResultFacade validationResultFacade;
+  @Resource
+  private SessionContext context;
 
   public ValidationReportFacade() {
     super(ValidationReport.class);
@@ -77,6 +88,38 @@ public class ValidationReportFacade extends AbstractFacade<ValidationReport> {
     }
   }
 
+  /**
+   * Persists a report and inserts its results in JDBC batches in the same transaction. The report is refreshed
+   * afterwards so that its results carry their generated ids.
+   *
+   * @param validationReport
+   *   the ValidationReport to persist, with its results
+   * @param batchSize
+   *   number of results sent to the database at once
+   * @throws FeaturestoreException if the results could not be inserted, the report is rolled back
+   */
+  @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+  public void persist(ValidationReport validationReport, int batchSize) throws FeaturestoreException {
+    Collection<ValidationResult> validationResults = validationReport.getValidationResults();
+    // the results are inserted by hand, keep the cascade from inserting them one by one
+    validationReport.setValidationResults(new ArrayList<>());
+    try {
+      em.persist(validationReport);
+      em.flush();
+    } catch (ConstraintViolationException cve) {
+      LOGGER.log(Level.WARNING, "Could not persist the new ValidationReport", cve);
+      return;
+    }
+    try {
+      validationResultFacade.insertBatch(validationResults, batchSize);
+    } catch (FeaturestoreException e) {
+      // a checked exception does not roll back the container transaction, do not keep a report without results
+      context.setRollbackOnly();
+      throw e;
+    }
+    em.refresh(validationReport);
+  }
+
   public Optional<ValidationReport> findById(Integer id) {
     try {
       return Optional.of(em.createNamedQuery("ValidationReport.findById", 
@@ -0,0 +1,218 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.datavalidationv2.reports;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Checks the stringified JSON fields of a validation report with a streaming parser. Every field is read once, the
+ * tokens are copied to the full report written to disk while they are checked and the values needed to persist the
+ * results are picked up on the way, no JSON tree is built.
+ * As with org.json, anything after the end of a field's JSON object is ignored.
+ */
+public class ValidationReportScanner implements AutoCloseable {
+
+  private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+    // great expectations writes NaN and Infinity for observed values that are not numbers
+    .enable(JsonReadFeature.ALLOW_NON_NUMERIC_NUMBERS)
+    .enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+    .build();
+
+  private final JsonGenerator report;
+
+  /**
+   * Only checks the fields
+   */
+  public ValidationReportScanner() {
+    this.report = null;
+  }
+
+  /**
+   * @param report where to write the full report
+   */
+  public ValidationReportScanner(Writer report) throws IOException {
+    this.report = JSON_FACTORY.createGenerator(report);
+  }
+
+  public void writeStartObject() throws IOException {
+    if (report != null) {
+      report.writeStartObject();
+    }
+  }
+
+  public void writeEndObject() throws IOException {
+    if (report != null) {
+      report.writeEndObject();
+    }
+  }
+
+  public void writeArrayFieldStart(String fieldName) throws IOException {
+    if (report != null) {
+      report.writeArrayFieldStart(fieldName);
+    }
+  }
+
+  public void writeEndArray() throws IOException {
+    if (report != null) {
+      report.writeEndArray();
+    }
+  }
+
+  public void writeBooleanField(String fieldName, Boolean value) throws IOException {
+    if (report != null && value != null) {
+      report.writeBooleanField(fieldName, value);
+    }
+  }
+
+  /**
+   * @param fieldName name of the field in the full report
+   * @param json stringified field
+   * @throws IOException if the field is not a JSON object
+   */
+  public void scanObject(String fieldName, String json) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+      startObject(parser, fieldName);
+      if (report != null) {
+        report.copyCurrentStructure(parser);
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  /**
+   * Scans the expectation_config of a result, picking up the expectation type and meta.expectationId.
+   *
+   * @param fieldName name of the field in the full report
+   * @param json stringified expectation config
+   * @return the expectation fields found in the config
+   * @throws IOException if the config is not a JSON object
+   */
+  public ExpectationConfig scanExpectationConfig(String fieldName, String json) throws IOException {
+    ExpectationConfig config = new ExpectationConfig();
+    try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+      startObject(parser, fieldName);
+      copy(parser);
+      String field = null;
+      boolean inMeta = false;
+      int depth = 1;
+      while (depth > 0) {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+          throw new JsonParseException(parser, "Unexpected end of expectation config");
+        }
+        copy(parser);
+        switch (token) {
+          case START_OBJECT:
+            if (depth == 1 && "meta".equals(field)) {
+              inMeta = true;
+              config.meta = true;
+            }
+            depth++;
+            break;
+          case START_ARRAY:
+            depth++;
+            break;
+          case END_OBJECT:
+          case END_ARRAY:
+            depth--;
+            if (depth == 1) {
+              inMeta = false;
+            }
+            break;
+          case FIELD_NAME:
+            field = parser.getCurrentName();
+            break;
+          default:
+            if (depth == 1 && "expectation_type".equals(field) && token == JsonToken.VALUE_STRING) {
+              config.expectationType = parser.getText();
+            } else if (depth == 2 && inMeta && "expectationId".equals(field)) {
+              config.expectationId = toInteger(parser, token);
+            }
+        }
+      }
+    }
+    return config;
+  }
+
+  private void startObject(JsonParser parser, String fieldName) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new JsonParseException(parser, "Expected a JSON object");
+    }
+    if (report != null) {
+      report.writeFieldName(fieldName);
+    }
+  }
+
+  private void copy(JsonParser parser) throws IOException {
+    if (report != null) {
+      report.copyCurrentEvent(parser);
+    }
+  }
+
+  private Integer toInteger(JsonParser parser, JsonToken token) throws IOException {
+    switch (token) {
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return parser.getNumberValue().intValue();
+      case VALUE_STRING:
+        try {
+          return Integer.valueOf(parser.getText().trim());
+        } catch (NumberFormatException e) {
+          return null;
+        }
+      default:
+        return null;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (report != null) {
+      report.close();
+    }
+  }
+
+  /**
+   * Fields of a result's expectation config needed to persist the result
+   */
+  public static class ExpectationConfig {
+    private boolean meta;
+    private Integer expectationId;
+    private String expectationType;
+
+    public boolean hasMeta() {
+      return meta;
+    }
+
+    public Integer getExpectationId() {
+      return expectationId;
+    }
+
+    public String getExpectationType() {
+      return expectationType;
+    }
+  }
+}
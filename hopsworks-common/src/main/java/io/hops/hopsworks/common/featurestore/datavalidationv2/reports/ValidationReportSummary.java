@@ -0,0 +1,68 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.datavalidationv2.reports;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Outcome of the expectations of a validation report, collected while the results are verified and sent with the
+ * alerts of the report.
+ */
+public class ValidationReportSummary {
+  // keeps the alert description short for suites with many failing expectations
+  private static final int MAX_FAILED_EXPECTATION_TYPES = 10;
+
+  private int evaluated = 0;
+  private int successful = 0;
+  private final Set<String> failedExpectationTypes = new LinkedHashSet<>();
+
+  public void add(Boolean success, String expectationType) {
+    evaluated++;
+    if (Boolean.TRUE.equals(success)) {
+      successful++;
+    } else if (expectationType != null && failedExpectationTypes.size() < MAX_FAILED_EXPECTATION_TYPES) {
+      failedExpectationTypes.add(expectationType);
+    }
+  }
+
+  public int getEvaluated() {
+    return evaluated;
+  }
+
+  public int getSuccessful() {
+    return successful;
+  }
+
+  public int getUnsuccessful() {
+    return evaluated - successful;
+  }
+
+  public Set<String> getFailedExpectationTypes() {
+    return failedExpectationTypes;
+  }
+
+  @Override
+  public String toString() {
+    String summary = String.format("evaluated expectations: %d, successful: %d, unsuccessful: %d",
+      evaluated, successful, getUnsuccessful());
+    if (!failedExpectationTypes.isEmpty()) {
+      summary += ", failed expectation types: " + String.join(", ", failedExpectationTypes);
+    }
+    return summary;
+  }
+}
@@ -21,6 +21,8 @@ import io.hops.hopsworks.common.dao.AbstractFacade.FilterBy;
 import io.hops.hopsworks.common.dao.AbstractFacade.SortBy;
 import io.hops.hopsworks.common.featurestore.FeaturestoreFacade;
 import io.hops.hopsworks.common.featurestore.datavalidationv2.expectations.ExpectationFacade;
+import io.hops.hopsworks.common.featurestore.datavalidationv2.reports.ValidationReportScanner;
+import io.hops.hopsworks.common.featurestore.datavalidationv2.reports.ValidationReportScanner.ExpectationConfig;
 import io.hops.hopsworks.exceptions.FeaturestoreException;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.Expectation;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.ValidationReport;
@@ -34,7 +36,13 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Level;
@@ -81,7 +89,23 @@ public class ValidationResultController {
 
   public ValidationResult convertResultDTOToPersistent(ValidationReport report, ValidationResultDTO dto)
     throws FeaturestoreException {
-    verifyValidationResultDTOFields(dto);
+    ExpectationConfig expectationConfig = verifyValidationResultDTOFields(dto, new ValidationReportScanner());
+    Expectation expectation = expectationFacade.findById(expectationConfig.getExpectationId()).orElseThrow(() ->
+      new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.EXPECTATION_NOT_FOUND, Level.WARNING));
+    return convertResultDTOToPersistent(report, dto, expectation);
+  }
+
+  /**
+   * Converts a result whose fields were verified with verifyValidationResultDTOFields, no field is parsed again
+   * unless it has to be shortened.
+   *
+   * @param report the report the result belongs to
+   * @param dto the verified result
+   * @param expectation the expectation referenced by the result's expectation config
+   * @return the result to persist
+   */
+  public ValidationResult convertResultDTOToPersistent(ValidationReport report, ValidationResultDTO dto,
+    Expectation expectation) {
     ValidationResult result = new ValidationResult();
     result.setMeta(dto.getMeta());
     result.setSuccess(dto.getSuccess());
@@ -90,11 +114,11 @@ public class ValidationResultController {
     result.setValidationTime(report.getValidationTime());
 
     // We need:
-    // - Get the expectation id from the meta field in the expectation_config field.
+    // - Set the expectation found from the meta field in the expectation_config field.
     // - Shorten result field if too long
     // - Shorten exceptionInfo field if too long
     // - Shorten expectationConfig field if too long
-    result.setExpectation(parseExpectationIdFromResultDTO(dto.getExpectationConfig()));
+    result.setExpectation(expectation);
 
     if (dto.getResult().length() > MAX_CHARACTERS_IN_VALIDATION_RESULT_RESULT_FIELD) {
       result.setResult(validationResultShortenResultField(dto.getResult()));
@@ -122,57 +146,44 @@ public class ValidationResultController {
     return result;
   }
 
-  private Expectation parseExpectationIdFromResultDTO(String dtoExpectationConfig) throws FeaturestoreException {
-    // 1. Parse config, 2. Look for expectation_id, 3. findExpectationById, 4. setExpectation, 5. Celebrate!
-    JSONObject expectationConfig;
-    Integer expectationId;
-    try {
-      expectationConfig = new JSONObject(dtoExpectationConfig);
-    } catch (JSONException e) {
-      throw new FeaturestoreException(
-        RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_VALID_JSON,
-        Level.SEVERE,
-        String.format("Validation result expectation config field %s is not a valid json.",
-          dtoExpectationConfig),
-        e.getMessage()
-      );
-    }
-
-    JSONObject meta;
-    try {
-      meta = expectationConfig.getJSONObject("meta");
-    } catch (JSONException e) {
-      throw new FeaturestoreException(
-        RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_VALID_JSON,
-        Level.SEVERE,
-        String.format("Validation result expectation config meta field %s is not a valid json.",
-          dtoExpectationConfig),
-        e.getMessage()
-      );
-    }
-
-    try {
-      expectationId = meta.getInt("expectationId");
-    } catch (JSONException e) {
-      throw new FeaturestoreException(
-        RESTCodes.FeaturestoreErrorCode.KEY_NOT_FOUND_OR_INVALID_VALUE_TYPE_IN_JSON_OBJECT,
-        Level.SEVERE,
-        String.format("Validation result expectation config meta %s does not contain expectationId key or the " +
-          "associated value does not convert to an integer", meta),
-        e.getMessage());
+  /**
+   * Finds the expectations referenced by the results of a report in bulk instead of one query per result.
+   *
+   * @param expectationIds ids read from the results' expectation configs
+   * @return the expectations by id
+   * @throws FeaturestoreException if an expectation does not exist
+   */
+  public Map<Integer, Expectation> getExpectationsById(Collection<Integer> expectationIds)
+    throws FeaturestoreException {
+    Map<Integer, Expectation> expectations = new HashMap<>();
+    for (Expectation expectation : expectationFacade.findByIds(new ArrayList<>(new HashSet<>(expectationIds)))) {
+      expectations.put(expectation.getId(), expectation);
     }
-
-    Optional<Expectation> expectation = expectationFacade.findById(expectationId);
-
-    if (!expectation.isPresent()) {
+    if (!expectations.keySet().containsAll(expectationIds)) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.EXPECTATION_NOT_FOUND, Level.WARNING);
     }
-
-    return expectation.get();
+    return expectations;
   }
 
   public String validationResultShortenResultField(String result) {
+    return shortenResultField(result, "Result field exceeded max available space in SQL table, " +
+      "download validation report file to access the complete result.", true);
+  }
+
+  /**
+   * Shorten the result of a result older than the payload retention. The observed value and the unexpected counts
+   * are kept for the result history, the sample of unexpected values is dropped.
+   *
+   * @param result the stored result field
+   * @return the pruned result field
+   */
+  public String validationResultPruneResultField(String result) {
+    return shortenResultField(result, "Result was removed from the database after the retention period, " +
+      "download validation report file to access the complete result.", false);
+  }
+
+  private String shortenResultField(String result, String userMessage, boolean keepPartialUnexpectedList) {
     JSONObject resultJson;
     try {
       resultJson = new JSONObject(result);
@@ -185,9 +196,6 @@ public class ValidationResultController {
 
      
     JSONObject shortResultJson = new JSONObject();
-    String userMessage =
-      "Result field exceeded max available space in SQL table, " +
-        "download validation report file to access the complete result.";
     shortResultJson.put("user_message", userMessage);
 
     if (resultJson.has(OBSERVED_VALUE_KEY)) {
@@ -207,6 +215,9 @@ public class ValidationResultController {
       shortResultJson.put(UNEXPECTED_COUNT_KEY, resultJson.getInt(UNEXPECTED_COUNT_KEY));
       shortResultJson.put(UNEXPECTED_PERCENT_KEY, resultJson.getFloat(UNEXPECTED_PERCENT_KEY));
       shortResultJson.put(UNEXPECTED_PERCENT_NONMISSING_KEY, resultJson.getFloat(UNEXPECTED_PERCENT_NONMISSING_KEY));
+      if (!keepPartialUnexpectedList) {
+        return shortResultJson.toString();
+      }
       shortResultJson.put(PARTIAL_UNEXPECTED_LIST_KEY, resultJson.getString(PARTIAL_UNEXPECTED_LIST_KEY));
 
       if (shortResultJson.toString().length() > MAX_CHARACTERS_IN_VALIDATION_RESULT_RESULT_FIELD) {
@@ -277,36 +288,33 @@ public class ValidationResultController {
     return shortexpectationConfigJson.toString();
   }
 
-  public JSONObject convertValidationResultDTOToJson(ValidationResultDTO resultDTO) throws FeaturestoreException {
-    JSONObject resultJSON = new JSONObject();
-
-    try {
-      resultJSON.put("success", resultDTO.getSuccess());
-      resultJSON.put("exception_info", new JSONObject(resultDTO.getExceptionInfo()));
-      resultJSON.put("result", new JSONObject(resultDTO.getResult()));
-      resultJSON.put("meta", new JSONObject(resultDTO.getMeta()));
-      resultJSON.put("expectation_config", new JSONObject(resultDTO.getExpectationConfig()));
-    } catch (JSONException e) {
-      throw new FeaturestoreException(
-        RESTCodes.FeaturestoreErrorCode.VALIDATION_RESULT_IS_NOT_VALID_JSON, Level.WARNING, e.getMessage());
-    }
-
-    return resultJSON;
-  }
-
   ////////////////////////////////////////
   //// Input Verification for Validation Result
   ///////////////////////////////////////
 
-  public void verifyValidationResultDTOFields(ValidationResultDTO dto) throws FeaturestoreException {
-    verifyValidationResultMeta(dto.getMeta());
-    verifyValidationResultExpectationConfig(dto.getExpectationConfig());
+  /**
+   * Verifies the fields of a result, reading each of them once. The fields are copied to the full report if the
+   * scanner writes one.
+   *
+   * @param dto the result to verify
+   * @param scanner the scanner of the report the result belongs to
+   * @return the expectation fields found in the expectation config, the expectation id is always set
+   * @throws FeaturestoreException if a field is not valid
+   */
+  public ExpectationConfig verifyValidationResultDTOFields(ValidationResultDTO dto, ValidationReportScanner scanner)
+    throws FeaturestoreException {
+    verifyValidationResultMeta(dto.getMeta(), scanner);
+    ExpectationConfig expectationConfig =
+      verifyValidationResultExpectationConfig(dto.getExpectationConfig(), scanner);
     // override with default value if null
-    dto.setResult(verifyValidationResultResult(dto.getResult()));
-    dto.setExceptionInfo(verifyValidationResultExceptionInfo(dto.getExceptionInfo()));
+    dto.setResult(verifyValidationResultResult(dto.getResult(), scanner));
+    dto.setExceptionInfo(verifyValidationResultExceptionInfo(dto.getExceptionInfo(), scanner));
+    verifyValidationResultExpectationId(dto.getExpectationConfig(), expectationConfig);
+    return expectationConfig;
   }
 
-  public void verifyValidationResultMeta(String meta) throws FeaturestoreException {
+  public void verifyValidationResultMeta(String meta, ValidationReportScanner scanner)
+    throws FeaturestoreException {
     if (meta == null) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_NULLABLE,
@@ -325,8 +333,8 @@ public class ValidationResultController {
     }
 
     try {
-      new JSONObject(meta);
-    } catch (JSONException e) {
+      scanner.scanObject("meta", meta);
+    } catch (IOException e) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_VALID_JSON,
         Level.SEVERE,
@@ -336,7 +344,8 @@ public class ValidationResultController {
     }
   }
 
-  public void verifyValidationResultExpectationConfig(String expectationConfig) throws FeaturestoreException {
+  public ExpectationConfig verifyValidationResultExpectationConfig(String expectationConfig,
+    ValidationReportScanner scanner) throws FeaturestoreException {
     if (expectationConfig == null) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_NULLABLE,
@@ -348,8 +357,8 @@ public class ValidationResultController {
     // Long expectationConfig are shortened and need not throw an error
 
     try {
-      new JSONObject(expectationConfig);
-    } catch (JSONException e) {
+      return scanner.scanExpectationConfig("expectation_config", expectationConfig);
+    } catch (IOException e) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_VALID_JSON,
         Level.SEVERE,
@@ -359,14 +368,35 @@ public class ValidationResultController {
     }
   }
 
-  public String verifyValidationResultExceptionInfo(String exceptionInfo) throws FeaturestoreException {
+  private void verifyValidationResultExpectationId(String expectationConfig, ExpectationConfig scanned)
+    throws FeaturestoreException {
+    if (!scanned.hasMeta()) {
+      throw new FeaturestoreException(
+        RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_VALID_JSON,
+        Level.SEVERE,
+        String.format("Validation result expectation config meta field %s is not a valid json.",
+          expectationConfig)
+      );
+    }
+
+    if (scanned.getExpectationId() == null) {
+      throw new FeaturestoreException(
+        RESTCodes.FeaturestoreErrorCode.KEY_NOT_FOUND_OR_INVALID_VALUE_TYPE_IN_JSON_OBJECT,
+        Level.SEVERE,
+        String.format("Validation result expectation config %s does not contain meta.expectationId key or the " +
+          "associated value does not convert to an integer", expectationConfig));
+    }
+  }
+
+  public String verifyValidationResultExceptionInfo(String exceptionInfo, ValidationReportScanner scanner)
+    throws FeaturestoreException {
     if (exceptionInfo == null) {
-      return "{}";
+      exceptionInfo = "{}";
     }
 
     try {
-      new JSONObject(exceptionInfo);
-    } catch (JSONException e) {
+      scanner.scanObject("exception_info", exceptionInfo);
+    } catch (IOException e) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_VALID_JSON,
         Level.SEVERE,
@@ -378,16 +408,17 @@ public class ValidationResultController {
     return exceptionInfo;
   }
 
-  public String verifyValidationResultResult(String result) throws FeaturestoreException {
+  public String verifyValidationResultResult(String result, ValidationReportScanner scanner)
+    throws FeaturestoreException {
     // For result_format = {"result_format": "BOOLEAN_ONLY"}, result field is null. Turned into empty JSON.
     if (result == null) {
-      return "{}";
+      result = "{}";
     }
 
     // If not null it must be valid json object
     try {
-      new JSONObject(result);
-    } catch (JSONException e) {
+      scanner.scanObject("result", result);
+    } catch (IOException e) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.INPUT_FIELD_IS_NOT_VALID_JSON,
         Level.SEVERE,
@@ -398,4 +429,4 @@ public class ValidationResultController {
 
     return result;
   }
-}
\ No newline at end of file
+}
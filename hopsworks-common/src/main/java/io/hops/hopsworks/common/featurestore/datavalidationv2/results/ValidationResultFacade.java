@@ -18,9 +18,11 @@
 package io.hops.hopsworks.common.featurestore.datavalidationv2.results;
 
 import io.hops.hopsworks.common.dao.AbstractFacade;
+import io.hops.hopsworks.exceptions.FeaturestoreException;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.Expectation;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.IngestionResult;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.ValidationResult;
+import io.hops.hopsworks.restutils.RESTCodes;
 
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
@@ -30,8 +32,15 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.validation.ConstraintViolationException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Level;
@@ -78,6 +87,106 @@ public class ValidationResultFacade extends AbstractFacade<ValidationResult> {
     }
   }
 
+  /**
+   * Inserts the results of a report with JDBC batches instead of one statement per result. Must run in the
+   * transaction that persisted the report, the results are not added to the persistence context.
+   *
+   * @param validationResults results of a persisted report
+   * @param batchSize number of results sent to the database at once
+   * @throws FeaturestoreException if the results could not be inserted
+   */
+  @TransactionAttribute(TransactionAttributeType.MANDATORY)
+  public void insertBatch(Collection<ValidationResult> validationResults, int batchSize)
+    throws FeaturestoreException {
+    Connection connection = em.unwrap(Connection.class);
+    batchSize = Math.max(batchSize, 1);
+
+    String sql = "INSERT INTO hopsworks.validation_result (validation_report_id, expectation_id, success," +
+      " ingestion_result, meta, result, expectation_config, exception_info, validation_time)" +
+      " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+      int batched = 0;
+      for (ValidationResult validationResult : validationResults) {
+        preparedStatement.setInt(1, validationResult.getValidationReport().getId());
+        if (validationResult.getExpectation() != null) {
+          preparedStatement.setInt(2, validationResult.getExpectation().getId());
+        } else {
+          preparedStatement.setNull(2, Types.INTEGER);
+        }
+        preparedStatement.setBoolean(3, validationResult.getSuccess());
+        if (validationResult.getIngestionResult() != null) {
+          preparedStatement.setString(4, validationResult.getIngestionResult().name());
+        } else {
+          preparedStatement.setNull(4, Types.VARCHAR);
+        }
+        preparedStatement.setString(5, validationResult.getMeta());
+        preparedStatement.setString(6, validationResult.getResult());
+        preparedStatement.setString(7, validationResult.getExpectationConfig());
+        preparedStatement.setString(8, validationResult.getExceptionInfo());
+        preparedStatement.setTimestamp(9, new Timestamp(validationResult.getValidationTime().getTime()));
+        preparedStatement.addBatch();
+        if (++batched % batchSize == 0) {
+          preparedStatement.executeBatch();
+        }
+      }
+      if (batched % batchSize != 0) {
+        preparedStatement.executeBatch();
+      }
+    } catch (SQLException e) {
+      throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.ERROR_SAVING_VALIDATION_RESULTS,
+        Level.WARNING, "", e.getMessage(), e);
+    }
+  }
+
+  /**
+   * @return the highest result id, 0 if there are no results
+   */
+  public int findMaxId() {
+    Number maxId = (Number) em.createNativeQuery("SELECT MAX(id) FROM hopsworks.validation_result")
+      .getSingleResult();
+    return maxId == null ? 0 : maxId.intValue();
+  }
+
+  /**
+   * Read the validation time and result field of the results in an id range, the range is resolved on the primary
+   * key so that it never scans the table.
+   *
+   * @param fromId exclusive
+   * @param toId inclusive
+   * @return id, validation_time and result of each result in the range
+   */
+  public List<Object[]> findResultFieldsInIdRange(int fromId, int toId) {
+    return em.createNativeQuery("SELECT id, validation_time, result FROM hopsworks.validation_result" +
+        " WHERE id > ?1 AND id <= ?2")
+      .setParameter(1, fromId)
+      .setParameter(2, toId)
+      .getResultList();
+  }
+
+  /**
+   * Replace the result field of results, in a single transaction.
+   *
+   * @param results new result field by result id
+   * @return the number of updated results
+   */
+  @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+  public int updateResultFields(Map<Integer, String> results) throws SQLException {
+    if (results.isEmpty()) {
+      return 0;
+    }
+    Connection connection = em.unwrap(Connection.class);
+    try (PreparedStatement preparedStatement =
+           connection.prepareStatement("UPDATE hopsworks.validation_result SET result = ? WHERE id = ?")) {
+      for (Map.Entry<Integer, String> result : results.entrySet()) {
+        preparedStatement.setString(1, result.getValue());
+        preparedStatement.setInt(2, result.getKey());
+        preparedStatement.addBatch();
+      }
+      preparedStatement.executeBatch();
+    }
+    return results.size();
+  }
+
   public Optional<ValidationResult> findById(Integer id) {
     try {
       return Optional.of(em.createNamedQuery("ValidationResult.findById",
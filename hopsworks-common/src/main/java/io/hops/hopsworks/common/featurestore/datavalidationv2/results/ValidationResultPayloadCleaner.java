@@ -0,0 +1,134 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.datavalidationv2.results;
+
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.common.util.WorkShardManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.AccessTimeout;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Singleton
+@Startup
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class ValidationResultPayloadCleaner {
+
+  private final static Logger LOG = Logger.getLogger(ValidationResultPayloadCleaner.class.getName());
+
+  private static final long INTERVAL = TimeUnit.HOURS.toMillis(1);
+  // number of ids read at once
+  private static final int BATCH_SIZE = 1000;
+
+  @EJB
+  private Settings settings;
+  @EJB
+  private ValidationResultFacade validationResultFacade;
+  @EJB
+  private ValidationResultController validationResultController;
+  @EJB
+  private WorkShardManager workShardManager;
+  @Resource
+  private TimerService timerService;
+  private Timer timer;
+  // results up to this id are older than the retention and pruned, ids grow with the validation time
+  private int prunedUpTo = 0;
+
+  @PostConstruct
+  public void init() {
+    timer = timerService.createIntervalTimer(INTERVAL, INTERVAL,
+      new TimerConfig("ValidationResultPayloadCleaner", false));
+  }
+
+  @PreDestroy
+  private void destroyTimer() {
+    if (timer != null) {
+      timer.cancel();
+    }
+  }
+
+  /**
+   * Timer bean to periodically prune the result payload of old validation results. Every report upload adds one row
+   * per expectation, with results that can hold sample values of the failing rows. Results older than
+   * validation_result_payload_retention keep their observed value and unexpected counts, the rest points to the
+   * report file. The table is walked by id ranges, from the last range pruned by this member up to the first range
+   * holding a result within the retention, so that no query scans the table on validation_time.
+   *
+   * @param timer timer
+   */
+  @Lock(LockType.WRITE)
+  @AccessTimeout(value = 1000)
+  @Timeout
+  public void prunePayloads(Timer timer) {
+    long retention = settings.getValidationResultPayloadRetention();
+    if (retention <= 0 || !workShardManager.isMine(ValidationResultPayloadCleaner.class)) {
+      return;
+    }
+    try {
+      Date validatedBefore = new Date(System.currentTimeMillis() - retention);
+      int maxId = validationResultFacade.findMaxId();
+      int total = 0;
+      boolean withinRetention = false;
+      while (!withinRetention && prunedUpTo < maxId) {
+        List<Object[]> rows = validationResultFacade.findResultFieldsInIdRange(prunedUpTo, prunedUpTo + BATCH_SIZE);
+        Map<Integer, String> pruned = new HashMap<>();
+        for (Object[] row : rows) {
+          Date validationTime = (Date) row[1];
+          if (!validationTime.before(validatedBefore)) {
+            withinRetention = true;
+            continue;
+          }
+          String result = (String) row[2];
+          if (result != null) {
+            String prunedResult = validationResultController.validationResultPruneResultField(result);
+            if (prunedResult.length() < result.length()) {
+              pruned.put(((Number) row[0]).intValue(), prunedResult);
+            }
+          }
+        }
+        total += validationResultFacade.updateResultFields(pruned);
+        if (!withinRetention) {
+          prunedUpTo += BATCH_SIZE;
+        }
+      }
+      LOG.log(Level.FINE, "Pruned the payload of {0} validation results", total);
+    } catch (Exception ex) {
+      LOG.log(Level.SEVERE, "ValidationResultPayloadCleaner timer error", ex);
+    }
+  }
+}
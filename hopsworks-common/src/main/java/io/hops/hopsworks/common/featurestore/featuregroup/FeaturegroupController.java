@@ -27,6 +27,7 @@ import io.hops.hopsworks.common.featurestore.datavalidationv2.suites.Expectation
 import io.hops.hopsworks.common.featurestore.datavalidationv2.suites.ExpectationSuiteDTO;
 import io.hops.hopsworks.common.featurestore.feature.FeatureGroupFeatureDTO;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.CachedFeaturegroupController;
+import io.hops.hopsworks.common.featurestore.featuregroup.cached.OfflineFeatureGroupController;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.CachedFeaturegroupDTO;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.FeatureGroupCommitController;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.FeaturegroupPreview;
@@ -80,6 +81,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
@@ -96,6 +98,8 @@ public class FeaturegroupController {
   @EJB
   private StreamFeatureGroupController streamFeatureGroupController;
   @EJB
+  private OfflineFeatureGroupController offlineFeatureGroupController;
+  @EJB
   private OnDemandFeaturegroupController onDemandFeaturegroupController;
   @EJB
   private FeaturestoreController featurestoreController;
@@ -803,6 +807,24 @@ public class FeaturegroupController {
     return new ArrayList<>();
   }
 
+  /**
+   * Load the schemas of the offline tables of the feature groups in bulk, one metastore client per feature store,
+   * before they are converted one by one.
+   *
+   * @param featuregroups
+   * @param project
+   * @param user
+   */
+  public void warmUpSchemaCache(List<Featuregroup> featuregroups, Project project, Users user) {
+    Map<Featurestore, List<String>> tables = featuregroups.stream()
+      .filter(fg -> fg.getFeaturegroupType() == FeaturegroupType.CACHED_FEATURE_GROUP
+        || fg.getFeaturegroupType() == FeaturegroupType.STREAM_FEATURE_GROUP)
+      .collect(Collectors.groupingBy(Featuregroup::getFeaturestore,
+        Collectors.mapping(this::getTblName, Collectors.toList())));
+    tables.forEach((featurestore, tableNames) ->
+      offlineFeatureGroupController.warmUpSchemaCache(featurestore, tableNames, project, user));
+  }
+
   public String getTblName(Featuregroup featuregroup) {
     return featuregroup.getName() + "_" + featuregroup.getVersion().toString();
   }
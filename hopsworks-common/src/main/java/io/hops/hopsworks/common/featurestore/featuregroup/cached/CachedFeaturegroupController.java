@@ -32,6 +32,8 @@ import io.hops.hopsworks.common.featurestore.query.Feature;
 import io.hops.hopsworks.common.featurestore.utils.FeaturestoreUtils;
 import io.hops.hopsworks.common.hdfs.Utils;
 import io.hops.hopsworks.common.hive.HiveController;
+import io.hops.hopsworks.common.jdbc.JdbcConnectionPool;
+import io.hops.hopsworks.common.jdbc.PooledConnectionKey;
 import io.hops.hopsworks.common.security.CertificateMaterializer;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.CryptoPasswordNotFoundException;
@@ -118,6 +120,8 @@ public class CachedFeaturegroupController {
   private FeaturegroupController featuregroupController;
   @EJB
   private FeatureGroupInputValidation featureGroupInputValidation;
+  @EJB
+  private JdbcConnectionPool jdbcConnectionPool;
 
   private static final Logger LOGGER = Logger.getLogger(CachedFeaturegroupController.class.getName());
   private static final List<String> HUDI_SPEC_FEATURE_NAMES = Arrays.asList("_hoodie_record_key",
@@ -134,7 +138,8 @@ public class CachedFeaturegroupController {
   }
 
   /**
-   * Initializes a JDBC connection (thrift RPC) to HS2 using SSL with a given project user and database
+   * Borrows a pooled JDBC connection to HS2 for a given project user and database. The certificates of the user
+   * stay materialized for as long as the underlying connection is kept open by the pool.
    *
    * @param databaseName name of the Hive database to open a connection to
    * @param project      the project of the user making the request
@@ -143,6 +148,26 @@ public class CachedFeaturegroupController {
    * @throws FeaturestoreException
    */
   private Connection initConnection(String databaseName, Project project, Users user) throws FeaturestoreException {
+    try {
+      return jdbcConnectionPool.getConnection(PooledConnectionKey.hive(project, user, databaseName),
+          () -> openConnection(databaseName, project, user),
+          () -> certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName()));
+    } catch (SQLException e) {
+      throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_INITIATE_HIVE_CONNECTION, Level.SEVERE,
+          "project: " + project.getName() + ", hive database: " + databaseName, e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Initializes a JDBC connection (thrift RPC) to HS2 using SSL with a given project user and database
+   *
+   * @param databaseName name of the Hive database to open a connection to
+   * @param project      the project of the user making the request
+   * @param user         the user making the request
+   * @return conn the JDBC connection
+   * @throws FeaturestoreException
+   */
+  private Connection openConnection(String databaseName, Project project, Users user) throws FeaturestoreException {
     try {
       // Create connection url
       String hiveEndpoint = hiveController.getHiveServerInternalEndpoint();
@@ -387,7 +412,7 @@ public class CachedFeaturegroupController {
     Connection conn = null;
     Statement stmt = null;
     try {
-      //Re-create the connection every time since the connection is database and user-specific
+      //Connections are pooled per database and user
       conn = initConnection(databaseName, project, user);
       stmt = conn.createStatement();
       ResultSet rs = stmt.executeQuery(query);
@@ -407,26 +432,23 @@ public class CachedFeaturegroupController {
       if (stmt != null) {
         stmt.close();
       }
-      closeConnection(conn, user, project);
+      closeConnection(conn);
     }
   }
 
   /**
-   * Checks if the JDBC connection to HS2 is open, and if so closes it.
+   * Returns the JDBC connection to HS2 to the pool. The certificates are removed when the pool closes the
+   * underlying connection.
    *
    * @param conn the JDBC connection
-   * @param user the user using the connection
-   * @param project the project where the connection is used
    */
-  private void closeConnection(Connection conn, Users user, Project project) {
+  private void closeConnection(Connection conn) {
     try {
       if (conn != null) {
         conn.close();
       }
     } catch (SQLException e) {
       LOGGER.log(Level.WARNING, "Error closing Hive JDBC connection: " +  e);
-    } finally {
-      certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName());
     }
   }
 
@@ -16,23 +16,17 @@
 
 package io.hops.hopsworks.common.featurestore.featuregroup.cached;
 
-import com.logicalclocks.servicediscoverclient.exceptions.ServiceDiscoveryException;
-import com.logicalclocks.servicediscoverclient.service.Service;
 import io.hops.hopsworks.common.featurestore.FeaturestoreController;
 import io.hops.hopsworks.common.featurestore.feature.FeatureGroupFeatureDTO;
 import io.hops.hopsworks.common.hdfs.HdfsUsersController;
-import io.hops.hopsworks.common.hosts.ServiceDiscoveryController;
-import io.hops.hopsworks.common.security.CertificateMaterializer;
+import io.hops.hopsworks.common.hive.HiveMetastoreClientPool;
 import io.hops.hopsworks.common.util.Settings;
-import io.hops.hopsworks.exceptions.CryptoPasswordNotFoundException;
 import io.hops.hopsworks.exceptions.FeaturestoreException;
 import io.hops.hopsworks.exceptions.ServiceException;
 import io.hops.hopsworks.persistence.entity.featurestore.Featurestore;
 import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.restutils.RESTCodes;
-import io.hops.hopsworks.servicediscovery.HopsworksService;
-import io.hops.hopsworks.servicediscovery.tags.HiveTags;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.metastore.TableType;
@@ -48,13 +42,7 @@ import org.apache.hadoop.hive.metastore.api.ThriftHiveMetastore;
 import org.apache.hadoop.hive.metastore.api.hive_metastoreConstants;
 import org.apache.hadoop.hive.metastore.conf.MetastoreConf;
 import org.apache.hadoop.hive.serde.serdeConstants;
-import org.apache.thrift.TConfiguration;
 import org.apache.thrift.TException;
-import org.apache.thrift.protocol.TBinaryProtocol;
-import org.apache.thrift.protocol.TProtocol;
-import org.apache.thrift.transport.TSSLTransportFactory;
-import org.apache.thrift.transport.TSocket;
-import org.apache.thrift.transport.TTransport;
 
 import javax.annotation.PostConstruct;
 import javax.ejb.EJB;
@@ -63,6 +51,7 @@ import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -83,9 +72,9 @@ public class OfflineFeatureGroupController {
   @EJB
   private Settings settings;
   @EJB
-  private CertificateMaterializer certificateMaterializer;
+  private HiveMetastoreClientPool metastoreClientPool;
   @EJB
-  private ServiceDiscoveryController serviceDiscoveryController;
+  private OfflineFeatureGroupSchemaCache schemaCache;
 
   private Configuration metastoreConf;
 
@@ -96,7 +85,6 @@ public class OfflineFeatureGroupController {
   }
 
   private static final String COMMENT = "comment";
-  private static final int CONNECTION_TIMEOUT = 600000;
 
   public enum Formats {
     ORC("org.apache.hadoop.hive.ql.io.orc.OrcInputFormat",
@@ -162,11 +150,14 @@ public class OfflineFeatureGroupController {
       }
     }
 
-    ThriftHiveMetastore.Client client = getMetaStoreClient(project, user);
+    HiveMetastoreClientPool.MetastoreClient client = getMetaStoreClient(project, user);
+    boolean reusable = false;
     try {
-      createTable(client, table, defaultConstraints);
+      createTable(client.getClient(), table, defaultConstraints);
+      reusable = true;
     } finally {
-      finalizeMetastoreOperation(project, user, client);
+      metastoreClientPool.release(client, reusable);
+      schemaCache.invalidate(dbName, tableName);
     }
   }
 
@@ -174,12 +165,14 @@ public class OfflineFeatureGroupController {
     List<FeatureGroupFeatureDTO> featureDTOs, Project project, Users user) throws FeaturestoreException {
     String dbName = featurestoreController.getOfflineFeaturestoreDbName(featurestore.getProject());
 
-    ThriftHiveMetastore.Client client = getMetaStoreClient(project, user);
+    HiveMetastoreClientPool.MetastoreClient client = getMetaStoreClient(project, user);
+    boolean reusable = false;
     try {
-      Table table = getTable(client, dbName, tableName);
+      Table table = getTable(client.getClient(), dbName, tableName);
 
       // modify columns here
-      List<SQLDefaultConstraint> defaultConstraints = getDefaultConstraints(client, "hive", dbName, tableName);
+      List<SQLDefaultConstraint> defaultConstraints =
+        getDefaultConstraints(client.getClient(), "hive", dbName, tableName);
       for (FeatureGroupFeatureDTO featureDTO : featureDTOs) {
         table.getSd().addToCols(
             new FieldSchema(featureDTO.getName(), featureDTO.getType().toLowerCase(), null));
@@ -190,27 +183,78 @@ public class OfflineFeatureGroupController {
               false));
         }
       }
-      alterTable(client, table);
-      addDefaultConstraints(client, defaultConstraints);
+      alterTable(client.getClient(), table);
+      addDefaultConstraints(client.getClient(), defaultConstraints);
+      reusable = true;
     } finally {
-      finalizeMetastoreOperation(project, user, client);
+      metastoreClientPool.release(client, reusable);
+      schemaCache.invalidate(dbName, tableName);
     }
   }
 
   public List<FeatureGroupFeatureDTO> getSchema(Featurestore featurestore, String tableName,
                                                 Project project, Users user) throws FeaturestoreException {
     String dbName = featurestoreController.getOfflineFeaturestoreDbName(featurestore.getProject());
-    ThriftHiveMetastore.Client client = getMetaStoreClient(project, user);
-    Table table;
-    List<FieldSchema> schema;
-    List<SQLDefaultConstraint> defaultConstraints;
+    List<FeatureGroupFeatureDTO> cached = schemaCache.get(dbName, tableName);
+    if (cached != null) {
+      return cached;
+    }
+    long generation = schemaCache.generation(dbName, tableName);
+    HiveMetastoreClientPool.MetastoreClient client = getMetaStoreClient(project, user);
+    List<FeatureGroupFeatureDTO> featureSchema;
+    boolean reusable = false;
+    try {
+      featureSchema = readSchema(client.getClient(), dbName, tableName);
+      reusable = true;
+    } finally {
+      metastoreClientPool.release(client, reusable);
+    }
+    schemaCache.put(dbName, tableName, featureSchema, generation);
+    return featureSchema;
+  }
+
+  /**
+   * Load the schemas of the tables of a feature store that are not cached yet, reusing a single metastore client.
+   * Best effort, tables that cannot be read are left to be loaded on demand.
+   *
+   * @param featurestore
+   * @param tableNames tables to load, all the tables of the feature store if null
+   * @param project
+   * @param user
+   */
+  public void warmUpSchemaCache(Featurestore featurestore, Collection<String> tableNames, Project project,
+                                Users user) {
+    String dbName = featurestoreController.getOfflineFeaturestoreDbName(featurestore.getProject());
+    if (tableNames != null && tableNames.stream().allMatch(t -> schemaCache.contains(dbName, t))) {
+      return;
+    }
+    HiveMetastoreClientPool.MetastoreClient client = null;
+    boolean reusable = false;
+    int loaded = 0;
     try {
-      table = getTable(client, dbName, tableName);
-      schema = getFields(client, dbName, tableName);
-      defaultConstraints = getDefaultConstraints(client, "hive", dbName, tableName);
+      client = getMetaStoreClient(project, user);
+      Collection<String> tables = tableNames != null ? tableNames : client.getClient().get_all_tables(dbName);
+      for (String tableName : tables) {
+        if (!schemaCache.contains(dbName, tableName)) {
+          long generation = schemaCache.generation(dbName, tableName);
+          schemaCache.put(dbName, tableName, readSchema(client.getClient(), dbName, tableName), generation);
+          loaded++;
+        }
+      }
+      reusable = true;
+    } catch (FeaturestoreException | TException e) {
+      LOGGER.log(Level.FINE, "Could not warm up the schema cache of " + dbName, e);
     } finally {
-      finalizeMetastoreOperation(project, user, client);
+      metastoreClientPool.release(client, reusable);
     }
+    LOGGER.log(Level.FINE, "Loaded {0} schemas of {1}", new Object[]{loaded, dbName});
+  }
+
+  private List<FeatureGroupFeatureDTO> readSchema(ThriftHiveMetastore.Client client, String dbName,
+                                                  String tableName) throws FeaturestoreException {
+    Table table = getTable(client, dbName, tableName);
+    List<FieldSchema> schema = getFields(client, dbName, tableName);
+    List<SQLDefaultConstraint> defaultConstraints = getDefaultConstraints(client, "hive", dbName, tableName);
 
     // Setup a map of constraint values for easy access
     Map<String, String> defaultConstraintsMap = defaultConstraints.stream()
@@ -297,95 +341,31 @@ public class OfflineFeatureGroupController {
     }
   }
   
-  private ThriftHiveMetastore.Client getMetaStoreClient(Project project, Users user) throws FeaturestoreException {
+  private HiveMetastoreClientPool.MetastoreClient getMetaStoreClient(Project project, Users user)
+      throws FeaturestoreException {
     try {
-      return openMetastoreClient(project, user);
+      return metastoreClientPool.borrow(project, user);
     } catch (ServiceException | IOException e) {
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.ERROR_CREATING_HIVE_METASTORE_CLIENT,
         Level.SEVERE, "Error opening the Hive Metastore client: " + e.getMessage(), e.getMessage(), e);
     }
   }
 
-  private void finalizeMetastoreOperation(Project project, Users user, ThriftHiveMetastore.Client client) {
-    certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName());
-    if (client != null) {
-      try {
-        client.shutdown();
-      } catch (TException e) {
-        LOGGER.log(Level.SEVERE, "Error closing Metastore connection", e);
-      }
-    }
-  }
-
   public void dropFeatureGroup(String dbName, String tableName, Project project, Users user)
       throws FeaturestoreException, ServiceException, IOException {
-    ThriftHiveMetastore.Client client = null;
+    HiveMetastoreClientPool.MetastoreClient client = null;
+    boolean reusable = false;
     try {
-      client = openMetastoreClient(project, user);
-      client.drop_table(dbName, tableName, true);
+      client = metastoreClientPool.borrow(project, user);
+      client.getClient().drop_table(dbName, tableName, true);
+      reusable = true;
     } catch (TException e) {
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_DELETE_FEATUREGROUP, Level.SEVERE,
           "Error dropping feature group in the Hive Metastore: " +  e.getMessage(), e.getMessage(), e);
     } finally {
-      finalizeMetastoreOperation(project, user, client);
-    }
-  }
-
-  // Here we can't use the HiveMetaStoreClient.java wrapper as we would need to export environment variables and so on
-  // instead we assemble directly the thirft client, which is what the HiveMetaStoreClient does behind the scenes.
-  private ThriftHiveMetastore.Client openMetastoreClient(Project project, Users user)
-      throws ServiceException, IOException {
-    String hdfsUsername = hdfsUsersController.getHdfsUserName(project, user);
-    ThriftHiveMetastore.Client client = null;
-
-    try {
-      certificateMaterializer.materializeCertificatesLocal(user.getUsername(), project.getName());
-      CertificateMaterializer.CryptoMaterial userMaterial =
-          certificateMaterializer.getUserMaterial(user.getUsername(), project.getName());
-
-      // read Password
-      String password = String.copyValueOf(userMaterial.getPassword());
-
-      // Get metastore service information from consul
-      Service metastoreService = serviceDiscoveryController
-          .getAnyAddressOfServiceWithDNS(HopsworksService.HIVE.getNameWithTag(HiveTags.metastore));
-
-      TTransport transport;
-      if (settings.getHopsRpcTls()) {
-        // Setup secure connection with the Hive metastore.
-        TSSLTransportFactory.TSSLTransportParameters params =
-            new TSSLTransportFactory.TSSLTransportParameters();
-        params.setTrustStore(certificateMaterializer.getUserTransientTruststorePath(project, user), password);
-        params.setKeyStore(certificateMaterializer.getUserTransientKeystorePath(project, user), password);
-
-        transport = TSSLTransportFactory.getClientSocket(metastoreService.getAddress(),
-            metastoreService.getPort(), CONNECTION_TIMEOUT, params);
-      } else {
-        transport = new TSocket(TConfiguration.DEFAULT, metastoreService.getAddress(), metastoreService.getPort(),
-          CONNECTION_TIMEOUT);
-      }
-
-      TProtocol protocol = new TBinaryProtocol(transport);
-      client = new ThriftHiveMetastore.Client(protocol);
-
-      // Open transport
-      if (!transport.isOpen()) {
-        transport.open();
-      }
-
-      // Set the UGI on the metastore side
-      client.set_ugi(hdfsUsername, new ArrayList<>());
-
-      if (settings.getHopsRpcTls()) {
-        // Send the certificate to the metastore so it can operate with the fs.
-        client.set_crypto(userMaterial.getKeyStore(), password, userMaterial.getTrustStore(), password, false);
-      }
-    } catch (CryptoPasswordNotFoundException | ServiceDiscoveryException | TException e) {
-      throw new ServiceException(RESTCodes.ServiceErrorCode.METASTORE_CONNECTION_ERROR, Level.SEVERE,
-          "Hive metastore connection error", e.getMessage(), e);
+      metastoreClientPool.release(client, reusable);
+      schemaCache.invalidate(dbName, tableName);
     }
-
-    return client;
   }
 
   private Table getEmptyTable(String databaseName, String tableName, String username, Formats format) {
@@ -0,0 +1,172 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.featuregroup.cached;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import io.hops.hopsworks.common.featurestore.feature.FeatureGroupFeatureDTO;
+import io.hops.hopsworks.common.util.Settings;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of the schemas of the offline feature group tables, keyed by feature store database and table. Entries are
+ * evicted on all nodes when Hopsworks creates, alters or drops the table, and expire after a while as tables can
+ * also be altered outside of Hopsworks.
+ * Callers get their own copy of the features, which they are free to modify.
+ * A schema is put together with the generation of its table read before the schema was, so that a schema read
+ * while the table was being altered is not cached after the invalidation. Tables share the generations of a fixed
+ * number of stripes.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NEVER)
+public class OfflineFeatureGroupSchemaCache {
+  private static final int GENERATION_STRIPES = 256;
+
+  @EJB
+  private Settings settings;
+  @Inject
+  private HazelcastInstance hazelcastInstance;
+
+  private Cache<String, List<FeatureGroupFeatureDTO>> schemas;
+  private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+  private ITopic<String> tableAlteredTopic;
+  private UUID listenerId;
+
+  @PostConstruct
+  public void init() {
+    schemas = Caffeine.newBuilder()
+      .maximumSize(settings.getOfflineSchemaCacheMaxSize())
+      .expireAfterWrite(settings.getOfflineSchemaCacheTtl(), TimeUnit.MILLISECONDS)
+      .recordStats()
+      .build();
+    // hazelcastInstance == null if Hazelcast is Disabled
+    if (hazelcastInstance != null) {
+      tableAlteredTopic = hazelcastInstance.getTopic("offline_feature_group_table_altered");
+      listenerId = tableAlteredTopic.addMessageListener(new MessageListenerImpl());
+    }
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (tableAlteredTopic != null) {
+      //needed for redeploy to remove the listener
+      tableAlteredTopic.removeMessageListener(listenerId);
+    }
+  }
+
+  /**
+   * @return a copy of the cached schema of the table, null if it is not cached
+   */
+  public List<FeatureGroupFeatureDTO> get(String dbName, String tableName) {
+    List<FeatureGroupFeatureDTO> schema = schemas.getIfPresent(key(dbName, tableName));
+    return schema != null ? copy(schema) : null;
+  }
+
+  /**
+   * @return the generation of the table, to read before reading its schema from the metastore
+   */
+  public long generation(String dbName, String tableName) {
+    return generations.get(stripe(key(dbName, tableName)));
+  }
+
+  /**
+   * Cache the schema of a table, unless the table has been invalidated since the generation was read.
+   */
+  public void put(String dbName, String tableName, List<FeatureGroupFeatureDTO> schema, long generation) {
+    String key = key(dbName, tableName);
+    schemas.put(key, copy(schema));
+    if (generations.get(stripe(key)) != generation) {
+      schemas.invalidate(key);
+    }
+  }
+
+  /**
+   * Unlike {@link #get} this does not count as a hit or a miss.
+   */
+  public boolean contains(String dbName, String tableName) {
+    return schemas.asMap().containsKey(key(dbName, tableName));
+  }
+
+  /**
+   * Evict the schema of a table on all nodes.
+   */
+  public void invalidate(String dbName, String tableName) {
+    String key = key(dbName, tableName);
+    invalidateLocal(key);
+    if (tableAlteredTopic != null) {
+      tableAlteredTopic.publish(key);
+    }
+  }
+
+  public OfflineFeatureGroupSchemaCacheStats getStats() {
+    CacheStats stats = schemas.stats();
+    return new OfflineFeatureGroupSchemaCacheStats(schemas.estimatedSize(), stats.hitCount(), stats.missCount(),
+      stats.evictionCount());
+  }
+
+  private void invalidateLocal(String key) {
+    generations.incrementAndGet(stripe(key));
+    schemas.invalidate(key);
+  }
+
+  private static int stripe(String key) {
+    return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+  }
+
+  private static String key(String dbName, String tableName) {
+    return dbName + "." + tableName;
+  }
+
+  private static List<FeatureGroupFeatureDTO> copy(List<FeatureGroupFeatureDTO> schema) {
+    return schema.stream()
+      .map(f -> new FeatureGroupFeatureDTO(f.getName(), f.getType(), Boolean.TRUE.equals(f.getPartition()),
+        f.getDefaultValue()))
+      .collect(Collectors.toList());
+  }
+
+  public class MessageListenerImpl implements MessageListener<String> {
+
+    @Override
+    public void onMessage(Message<String> message) {
+      if (!message.getPublishingMember().localMember()) {
+        invalidateLocal(message.getMessageObject());
+      }
+    }
+  }
+}
@@ -20,6 +20,7 @@ import io.hops.hopsworks.common.featurestore.FeaturestoreConstants;
 import io.hops.hopsworks.common.featurestore.OptionDTO;
 import io.hops.hopsworks.common.featurestore.storageconnectors.FeaturestoreConnectorFacade;
 import io.hops.hopsworks.common.featurestore.storageconnectors.StorageConnectorUtil;
+import io.hops.hopsworks.common.jdbc.JdbcConnectionPool;
 import io.hops.hopsworks.common.security.secrets.SecretsController;
 import io.hops.hopsworks.common.util.ProjectUtils;
 import io.hops.hopsworks.common.util.Settings;
@@ -78,6 +79,8 @@ public class OnlineFeaturestoreController {
   private StorageConnectorUtil storageConnectorUtil;
   @EJB
   private ProjectUtils projectUtils;
+  @EJB
+  private JdbcConnectionPool jdbcConnectionPool;
 
   /**
    * Sets up the online feature store database for a new project and creating a database-user for the project-owner
@@ -141,6 +144,7 @@ public class OnlineFeaturestoreController {
     try {
       secretsController.delete(user, dbuser); //Delete if the secret already exsits
       secretsController.add(user, dbuser, onlineFsPw, VisibilityType.PRIVATE, project.getId());
+      invalidatePooledConnections(project, user);
     } catch (UserException e) {
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.FEATURESTORE_ONLINE_SECRETS_ERROR,
               Level.SEVERE, "Problem adding online featurestore password to hopsworks secretsmgr");
@@ -273,6 +277,7 @@ public class OnlineFeaturestoreController {
         String dbUser = onlineDbUsername(project, member.getUser());
         try {
           secretsController.delete(member.getUser(), dbUser);
+          invalidatePooledConnections(project, member.getUser());
         } catch (UserException e) {
           throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.FEATURESTORE_ONLINE_SECRETS_ERROR,
             Level.SEVERE, "Problem removing user-secret to online featurestore");
@@ -300,6 +305,7 @@ public class OnlineFeaturestoreController {
 
     SecretId id = new SecretId(user.getUid(), dbUser);
     secretsFacade.deleteSecret(id);
+    invalidatePooledConnections(featurestore.getProject(), user);
     try (Connection connection = onlineFeaturestoreFacade.establishAdminConnection()) {
       onlineFeaturestoreFacade.removeOnlineFeaturestoreUser(dbUser, connection);
     } catch (SQLException se) {
@@ -406,6 +412,8 @@ public class OnlineFeaturestoreController {
       for (ProjectTeam member : projectUtils.getProjectTeamCollection(project)) {
         String dbUser = onlineDbUsername(project, member.getUser());
         onlineFeaturestoreFacade.revokeUserPrivileges(featureStoreDb, dbUser, connection);
+        // MySQL applies revoked database privileges to open sessions only on their next USE
+        invalidatePooledConnections(project, member.getUser());
       }
     } catch (SQLException e) {
       throw new FeaturestoreException(
@@ -414,6 +422,17 @@ public class OnlineFeaturestoreController {
     }
   }
 
+  /**
+   * Closes the pooled connections of a user and drops their cached credentials on all nodes, for example after the
+   * password of the user has been rotated or their privileges have changed.
+   *
+   * @param project the project of the user
+   * @param user the user
+   */
+  public void invalidatePooledConnections(Project project, Users user) {
+    jdbcConnectionPool.invalidate(project, user);
+  }
+
   /**
    * Checks if a mysql database exists
    *
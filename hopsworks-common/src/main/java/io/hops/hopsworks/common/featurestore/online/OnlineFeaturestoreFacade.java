@@ -21,6 +21,8 @@ import io.hops.hopsworks.common.featurestore.feature.FeatureGroupFeatureDTO;
 import io.hops.hopsworks.common.featurestore.featuregroup.cached.FeaturegroupPreview;
 import io.hops.hopsworks.common.featurestore.utils.FeaturestoreUtils;
 import io.hops.hopsworks.common.hosts.ServiceDiscoveryController;
+import io.hops.hopsworks.common.jdbc.JdbcConnectionPool;
+import io.hops.hopsworks.common.jdbc.PooledConnectionKey;
 import io.hops.hopsworks.common.security.secrets.SecretsController;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.FeaturestoreException;
@@ -73,6 +75,8 @@ public class OnlineFeaturestoreFacade {
   private SecretsController secretsController;
   @EJB
   private FeaturestoreUtils featurestoreUtils;
+  @EJB
+  private JdbcConnectionPool jdbcConnectionPool;
 
   @PostConstruct
   public void init() {
@@ -386,9 +390,11 @@ public class OnlineFeaturestoreFacade {
 
   public Connection establishAdminConnection() throws FeaturestoreException {
     try {
-      return DriverManager.getConnection(getJdbcURL(),
-          settings.getVariableFeaturestoreDbAdminUser(),
-          settings.getVariableFeaturestoreDbAdminPwd());
+      String jdbcUrl = getJdbcURL();
+      return jdbcConnectionPool.getConnection(PooledConnectionKey.onlineFsAdmin(),
+          () -> DriverManager.getConnection(jdbcUrl,
+              settings.getVariableFeaturestoreDbAdminUser(),
+              settings.getVariableFeaturestoreDbAdminPwd()), null);
     } catch (SQLException | ServiceDiscoveryException e) {
       throw new FeaturestoreException(
           RESTCodes.FeaturestoreErrorCode.COULD_NOT_INITIATE_MYSQL_CONNECTION_TO_ONLINE_FEATURESTORE,
@@ -397,7 +403,7 @@ public class OnlineFeaturestoreFacade {
   }
 
   /**
-   * Initializes a JDBC connection MySQL Server using an online featurestore user and password
+   * Borrows a pooled JDBC connection to MySQL Server using an online featurestore user and password
    *
    * @param databaseName name of the MySQL database to open a connection to
    * @param project      the project of the user making the request
@@ -408,18 +414,20 @@ public class OnlineFeaturestoreFacade {
   private Connection establishUserConnection(String databaseName, Project project, Users user)
       throws FeaturestoreException {
     String dbUsername = onlineFeaturestoreController.onlineDbUsername(project, user);
-    String password;
-    try {
-      password = secretsController.get(user, dbUsername).getPlaintext();
-    } catch (UserException e) {
-      throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.FEATURESTORE_ONLINE_SECRETS_ERROR,
-          Level.SEVERE, "Problem getting secrets for the JDBC connection to the online FS");
-    }
-
+    PooledConnectionKey key = PooledConnectionKey.onlineFsUser(project, user, databaseName);
     String jdbcString = "";
     try {
       jdbcString = getJdbcURL(databaseName);
-      return DriverManager.getConnection(jdbcString, dbUsername, password);
+      try {
+        return borrowUserConnection(key, jdbcString, user, dbUsername);
+      } catch (SQLException e) {
+        if (!JdbcConnectionPool.isAuthenticationFailure(e)) {
+          throw e;
+        }
+        // The cached password may be stale, e.g. rotated on another node, load it again and retry once
+        jdbcConnectionPool.invalidateCredentials(key);
+        return borrowUserConnection(key, jdbcString, user, dbUsername);
+      }
     } catch (SQLException | ServiceDiscoveryException e) {
       throw new FeaturestoreException(
           RESTCodes.FeaturestoreErrorCode.COULD_NOT_INITIATE_MYSQL_CONNECTION_TO_ONLINE_FEATURESTORE, Level.SEVERE,
@@ -428,6 +436,18 @@ public class OnlineFeaturestoreFacade {
     }
   }
 
+  private Connection borrowUserConnection(PooledConnectionKey key, String url, Users user, String dbUsername)
+      throws FeaturestoreException, SQLException {
+    String password;
+    try {
+      password = jdbcConnectionPool.getCredentials(key, () -> secretsController.get(user, dbUsername).getPlaintext());
+    } catch (UserException e) {
+      throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.FEATURESTORE_ONLINE_SECRETS_ERROR,
+          Level.SEVERE, "Problem getting secrets for the JDBC connection to the online FS");
+    }
+    return jdbcConnectionPool.getConnection(key, () -> DriverManager.getConnection(url, dbUsername, password), null);
+  }
+
   public String getJdbcURL() throws ServiceDiscoveryException {
     return getJdbcURL("");
   }
@@ -0,0 +1,117 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.statistics;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per feature layout of a statistics commit. The statistics of every feature are stored as one line of a data file,
+ * and a small index maps every feature to the offset and length of its line so that a feature can be read without
+ * reading the statistics of the others.
+ */
+public class ColumnarStatistics {
+  
+  public static final String DATA_SUFFIX = ".columns";
+  public static final String INDEX_SUFFIX = ".columns.index";
+  
+  private static final String COLUMNS = "columns";
+  private static final String COLUMN = "column";
+  private static final String OFFSET = "offset";
+  private static final String LENGTH = "length";
+  
+  private final byte[] data;
+  private final String index;
+  
+  private ColumnarStatistics(byte[] data, String index) {
+    this.data = data;
+    this.index = index;
+  }
+  
+  public byte[] getData() {
+    return data;
+  }
+  
+  public String getIndex() {
+    return index;
+  }
+  
+  /**
+   * @param content statistics of a commit as computed by Deequ, {"columns": [{"column": "name", ...}, ...]}
+   */
+  public static ColumnarStatistics encode(JSONObject content) {
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    JSONObject index = new JSONObject();
+    for (Map.Entry<String, String> column : split(content).entrySet()) {
+      byte[] line = column.getValue().getBytes(StandardCharsets.UTF_8);
+      index.put(column.getKey(), new JSONObject().put(OFFSET, data.size()).put(LENGTH, line.length));
+      data.write(line, 0, line.length);
+      data.write('\n');
+    }
+    return new ColumnarStatistics(data.toByteArray(), index.toString());
+  }
+  
+  /**
+   * @return offset and length in the data file of the statistics of every feature
+   */
+  public static Map<String, long[]> decodeIndex(String index) throws JSONException {
+    JSONObject json = new JSONObject(index);
+    Map<String, long[]> entries = new LinkedHashMap<>();
+    for (String feature : json.keySet()) {
+      JSONObject entry = json.getJSONObject(feature);
+      entries.put(feature, new long[]{entry.getLong(OFFSET), entry.getLong(LENGTH)});
+    }
+    return entries;
+  }
+  
+  /**
+   * @return the statistics of every feature of a commit, in the order they were computed. Entries without a column
+   * name cannot be looked up and are left out.
+   */
+  public static Map<String, String> split(JSONObject content) throws JSONException {
+    Map<String, String> columns = new LinkedHashMap<>();
+    JSONArray array = content.optJSONArray(COLUMNS);
+    if (array == null) {
+      return columns;
+    }
+    for (int i = 0; i < array.length(); i++) {
+      JSONObject column = array.optJSONObject(i);
+      if (column != null && column.optString(COLUMN, null) != null) {
+        columns.put(column.getString(COLUMN), column.toString());
+      }
+    }
+    return columns;
+  }
+  
+  /**
+   * @return statistics content with only the given features, in the format of the full content
+   */
+  public static String assemble(Collection<String> columns) throws JSONException {
+    JSONArray array = new JSONArray();
+    for (String column : columns) {
+      array.put(new JSONObject(column));
+    }
+    return new JSONObject().put(COLUMNS, array).toString();
+  }
+}
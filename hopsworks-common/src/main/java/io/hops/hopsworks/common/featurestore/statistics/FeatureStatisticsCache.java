@@ -0,0 +1,69 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.statistics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hops.hopsworks.common.util.Settings;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+/**
+ * Read-through cache of the statistics of single features, keyed by the statistics file they were read from.
+ * Statistics files are never rewritten and a new file gets a new inode, so entries never need to be invalidated.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NEVER)
+public class FeatureStatisticsCache {
+  
+  @EJB
+  private Settings settings;
+  
+  private Cache<String, String> columns;
+  
+  @PostConstruct
+  public void init() {
+    columns = Caffeine.newBuilder()
+      .maximumWeight(settings.getFeatureStatisticsCacheMaxSize())
+      .weigher((String key, String column) -> key.length() + column.length())
+      .build();
+  }
+  
+  /**
+   * @return the statistics of the feature, null if they are not cached
+   */
+  public String get(Long inodeId, String fileName, String feature) {
+    return columns.getIfPresent(key(inodeId, fileName, feature));
+  }
+  
+  public void put(Long inodeId, String fileName, String feature, String column) {
+    columns.put(key(inodeId, fileName, feature), column);
+  }
+  
+  private static String key(Long inodeId, String fileName, String feature) {
+    return inodeId + "/" + fileName + "/" + feature;
+  }
+}
@@ -153,8 +153,9 @@ public class FeaturestoreStatisticFacade extends AbstractFacade<FeaturestoreStat
   }
 
   public enum Filters {
-    COMMIT_TIME_GT("COMMIT_TIME_GT", "s.commitTime > :commitTime ","commitTime",""),
-    COMMIT_TIME_LT("COMMIT_TIME_LT", "s.commitTime < :commitTime ","commitTime",""),
+    // One parameter per filter so that gt and lt can be combined to read a range of commits
+    COMMIT_TIME_GT("COMMIT_TIME_GT", "s.commitTime > :commitTimeGt ","commitTimeGt",""),
+    COMMIT_TIME_LT("COMMIT_TIME_LT", "s.commitTime < :commitTimeLt ","commitTimeLt",""),
     COMMIT_TIME_EQ("COMMIT_TIME_EQ", "s.commitTime = :commitTime ","commitTime","");
 
     private final String value;
@@ -41,6 +41,7 @@ import io.hops.hopsworks.persistence.entity.hdfs.inode.Inode;
 import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.restutils.RESTCodes;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.Path;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -50,17 +51,26 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 @Stateless
 @TransactionAttribute(TransactionAttributeType.NEVER)
 public class StatisticsController {
 
+  private static final Logger LOGGER = Logger.getLogger(StatisticsController.class.getName());
+
   @EJB
   private InodeController inodeController;
   @EJB
@@ -77,6 +87,8 @@ public class StatisticsController {
   private FeaturestoreActivityFacade fsActivityFacade;
   @EJB
   private Settings settings;
+  @EJB
+  private FeatureStatisticsCache featureStatisticsCache;
 
   public String readStatisticsContent(Project project, Users user, FeaturestoreStatistic statistic)
       throws FeaturestoreException {
@@ -92,6 +104,23 @@ public class StatisticsController {
     return readContent(project, user, path);
   }
 
+  /**
+   * Read the statistics of some features only, in the format of the full content. The statistics of the other
+   * features are not read.
+   */
+  public String readStatisticsContent(Project project, Users user, FeaturestoreStatistic statistic,
+                                      Collection<String> featureNames) throws FeaturestoreException {
+    String path = inodeController.getPath(statistic.getInode());
+    return readFeatures(project, user, statistic.getInode().getId(), path, featureNames);
+  }
+
+  public String readStatisticsContent(Project project, Users user, FeaturestoreStatistic statistic, String splitName,
+                                      Collection<String> featureNames) throws FeaturestoreException {
+    String statisticsPath = inodeController.getPath(statistic.getInode());
+    String path = statisticsPath + "/" + splitStatisticsFileName(splitName, statistic.getCommitTime().getTime());
+    return readFeatures(project, user, statistic.getInode().getId(), path, featureNames);
+  }
+
   public FeaturestoreStatistic registerStatistics(Project project, Users user, Long statisticsCommitTimeStamp,
                                                   Long fgCommitId, String content, Featuregroup featuregroup)
       throws FeaturestoreException, DatasetException, HopsSecurityException, IOException {
@@ -117,7 +146,7 @@ public class StatisticsController {
       }
     }
 
-    Inode statisticsInode = registerStatistics(project, user, statisticsCommitTimeStamp, statisticsJson.toString(),
+    Inode statisticsInode = registerStatistics(project, user, statisticsCommitTimeStamp, statisticsJson,
         featuregroup.getName(), "FeatureGroups", featuregroup.getVersion(), null, false);
     Timestamp commitTime = new Timestamp(statisticsCommitTimeStamp);
 
@@ -139,10 +168,9 @@ public class StatisticsController {
                                                   boolean forTransformation)
       throws FeaturestoreException, DatasetException, HopsSecurityException, IOException {
 
-    String statContent =  null;
+    JSONObject statContent =  null;
     if (content != null) {
-      JSONObject statisticsJson = extractJsonFromContent(content);
-      statContent = statisticsJson.toString();
+      statContent = extractJsonFromContent(content);
     }
 
     Map<String, JSONObject> splitStatJson = null;
@@ -171,7 +199,7 @@ public class StatisticsController {
     return featurestoreStatistic;
   }
 
-  private Inode registerStatistics(Project project, Users user, Long commitTime, String content, String entityName,
+  private Inode registerStatistics(Project project, Users user, Long commitTime, JSONObject content, String entityName,
                                    String entitySubDir, Integer version, Map<String, JSONObject> splitStatistics,
                                    boolean forTransformation)
       throws DatasetException, HopsSecurityException, IOException {
@@ -198,6 +226,7 @@ public class StatisticsController {
         for (Map.Entry<String, JSONObject> entry: splitStatistics.entrySet()){
           Path filePath = new Path(dirPath,  splitStatisticsFileName(entry.getKey(), commitTime));
           udfso.create(filePath, entry.getValue().toString());
+          tryWriteColumnar(udfso, filePath, entry.getValue());
         }
         inode = inodeController.getInodeAtPath(dirPath.toString());
       } else {
@@ -207,7 +236,8 @@ public class StatisticsController {
         } else {
           filePath = new Path(dirPath, commitTime + ".json");
         }
-        udfso.create(filePath, content);
+        udfso.create(filePath, content.toString());
+        tryWriteColumnar(udfso, filePath, content);
         inode = inodeController.getInodeAtPath(filePath.toString());
       }
       return inode;
@@ -298,6 +328,98 @@ public class StatisticsController {
     return "transformation_fn" + "_" +  commitTime + ".json";
   }
 
+  /**
+   * Write next to the statistics file the statistics of every feature and their index, see ColumnarStatistics.
+   * The index is written last, a file without index is read as a whole.
+   */
+  private void writeColumnar(DistributedFileSystemOps udfso, Path filePath, JSONObject content) throws IOException {
+    ColumnarStatistics columnar = ColumnarStatistics.encode(content);
+    String base = columnarBase(filePath.toString());
+    udfso.create(new Path(base + ColumnarStatistics.DATA_SUFFIX), columnar.getData());
+    udfso.create(new Path(base + ColumnarStatistics.INDEX_SUFFIX),
+      columnar.getIndex().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * The per feature files are an optimization, the statistics file is already written. If they cannot be written
+   * the file is read as a whole and migrated on its first read.
+   */
+  private void tryWriteColumnar(DistributedFileSystemOps udfso, Path filePath, JSONObject content) {
+    try {
+      writeColumnar(udfso, filePath, content);
+    } catch (IOException | JSONException e) {
+      LOGGER.log(Level.FINE, "Could not write statistics " + filePath + " in the per feature layout", e);
+    }
+  }
+
+  private String columnarBase(String path) {
+    return path.endsWith(".json") ? path.substring(0, path.length() - ".json".length()) : path;
+  }
+
+  private String readFeatures(Project project, Users user, Long inodeId, String path, Collection<String> featureNames)
+      throws FeaturestoreException {
+    String fileName = new Path(path).getName();
+    Map<String, String> columns = new HashMap<>();
+    List<String> missing = new ArrayList<>();
+    for (String feature : featureNames) {
+      String column = featureStatisticsCache.get(inodeId, fileName, feature);
+      if (column != null) {
+        columns.put(feature, column);
+      } else {
+        missing.add(feature);
+      }
+    }
+    if (!missing.isEmpty()) {
+      DistributedFileSystemOps udfso = null;
+      try {
+        udfso = dfs.getDfsOps(hdfsUsersController.getHdfsUserName(project, user));
+        for (Map.Entry<String, String> column : readColumns(udfso, path, missing).entrySet()) {
+          featureStatisticsCache.put(inodeId, fileName, column.getKey(), column.getValue());
+          columns.put(column.getKey(), column.getValue());
+        }
+      } catch (IOException | JSONException e) {
+        throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.STATISTICS_READ_ERROR,
+            Level.WARNING, e.getMessage(), e.getMessage(), e);
+      } finally {
+        dfs.closeDfsClient(udfso);
+      }
+    }
+    return ColumnarStatistics.assemble(featureNames.stream()
+        .map(columns::get)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * @return the statistics of the features, or of all the features if the file has no index yet
+   */
+  private Map<String, String> readColumns(DistributedFileSystemOps udfso, String path, List<String> featureNames)
+      throws IOException {
+    String base = columnarBase(path);
+    Path indexPath = new Path(base + ColumnarStatistics.INDEX_SUFFIX);
+    if (!udfso.exists(indexPath)) {
+      // Statistics registered before the per feature layout, read the whole file once and migrate it
+      JSONObject content = new JSONObject(udfso.cat(path));
+      // e.g. the user can only read the statistics of a shared feature store
+      tryWriteColumnar(udfso, new Path(path), content);
+      return ColumnarStatistics.split(content);
+    }
+    Map<String, long[]> index = ColumnarStatistics.decodeIndex(udfso.cat(indexPath));
+    Map<String, String> columns = new HashMap<>();
+    try (FSDataInputStream in = udfso.open(new Path(base + ColumnarStatistics.DATA_SUFFIX))) {
+      for (String feature : featureNames) {
+        long[] entry = index.get(feature);
+        if (entry == null) {
+          continue;
+        }
+        byte[] column = new byte[(int) entry[1]];
+        in.readFully(entry[0], column);
+        columns.put(feature, new String(column, StandardCharsets.UTF_8));
+      }
+    }
+    return columns;
+  }
+
   private String readContent(Project project, Users user, String path) throws FeaturestoreException {
     DistributedFileSystemOps udfso = null;
     try {
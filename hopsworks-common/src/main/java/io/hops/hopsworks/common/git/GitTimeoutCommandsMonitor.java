@@ -19,6 +19,7 @@ import io.hops.hopsworks.common.dao.git.GitOpExecutionFacade;
 import io.hops.hopsworks.common.dao.git.GitRepositoryFacade;
 import io.hops.hopsworks.common.git.util.GitCommandOperationUtil;
 import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.persistence.entity.git.GitOpExecution;
 import io.hops.hopsworks.persistence.entity.git.GitRepository;
@@ -60,6 +61,8 @@ public class GitTimeoutCommandsMonitor {
   private Settings settings;
   @EJB
   private PayaraClusterManager payaraClusterManager;
+  @EJB
+  private WorkShardManager workShardManager;
 
   @Resource
   private TimerService timerService;
@@ -102,7 +105,7 @@ public class GitTimeoutCommandsMonitor {
             gitCommandOperationUtil.shutdownCommandService(repository, execution);
           }
         }
-      } else if (payaraClusterManager.amIThePrimary()) {
+      } else if (workShardManager.isMine(WorkShardManager.key("git-repository", repository.getId()))) {
         //A repository with a pid but no execution object
         try {
           long executionStart = Long.parseLong(repository.getCid());
@@ -119,6 +119,17 @@ public class DistributedFileSystemOps {
   public DistributedFileSystemOps(UserGroupInformation ugi, Configuration conf) {
     this(ugi, conf, null);
   }
+
+  /**
+   * Shares the file system of another instance. Used to hand out leases of pooled clients.
+   * <p>
+   * @param other
+   */
+  protected DistributedFileSystemOps(DistributedFileSystemOps other) {
+    this.dfs = other.dfs;
+    this.conf = other.conf;
+    this.effectiveUser = other.effectiveUser;
+  }
   
   private DistributedFileSystem getDfs(UserGroupInformation ugi,
           final Configuration conf, final URI uri) {
@@ -413,6 +424,29 @@ public class DistributedFileSystemOps {
     }
   }
 
+  /**
+   * Copy a single file within HDFS, unlike copyInHdfs the source is not expanded as a glob.
+   * <p/>
+   * @param src
+   * @param dst
+   * @throws IOException
+   */
+  public void copyFileInHdfs(Path src, Path dst) throws IOException {
+    FileUtil.copy(dfs, src, dfs, dst, false, conf);
+  }
+
+  /**
+   * Move the blocks of the sources to the end of the target, without copying any data. The sources are deleted.
+   * Target and sources need to be in the same directory.
+   * <p/>
+   * @param target
+   * @param sources
+   * @throws IOException
+   */
+  public void concat(Path target, Path[] sources) throws IOException {
+    dfs.concat(target, sources);
+  }
+
   /**
    * Creates a file and all parent dirs that does not exist and returns
    * an FSDataOutputStream
@@ -0,0 +1,55 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.hdfs;
+
+import io.hops.hopsworks.common.security.CertificateHandler;
+import io.hops.hopsworks.persistence.entity.certificates.UserCerts;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import io.hops.hopsworks.persistence.entity.user.Users;
+
+import javax.ejb.EJB;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+/**
+ * Pooled HopsFS clients hold the certificates of a project user, they are dropped when the certificates are issued
+ * again or revoked.
+ */
+@Stateless
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class DistributedFsCertificateHandler implements CertificateHandler {
+  
+  @EJB
+  private DistributedFsClientPool dfsClientPool;
+  @EJB
+  private HdfsUsersController hdfsUsersController;
+  
+  @Override
+  public void generate(Project project, Users user, UserCerts userCerts) {
+    dfsClientPool.invalidate(hdfsUsersController.getHdfsUserName(project, user));
+  }
+  
+  @Override
+  public void revoke(Project project, Users user) {
+    dfsClientPool.invalidate(hdfsUsersController.getHdfsUserName(project, user));
+  }
+  
+  @Override
+  public String getClassName() {
+    return DistributedFsCertificateHandler.class.getName();
+  }
+}
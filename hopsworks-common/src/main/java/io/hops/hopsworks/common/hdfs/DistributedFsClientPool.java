@@ -0,0 +1,306 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.hdfs;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import io.hops.hopsworks.common.security.BaseHadoopClientsService;
+import io.hops.hopsworks.common.util.Settings;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.inject.Inject;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps live HopsFS clients per effective user so that consecutive requests of the same user do not pay for a new
+ * UGI, Configuration copy, certificate materialization and file system instance. Clients are reference counted
+ * and closed by a timer once they have been idle for longer than the configured timeout.
+ * Certificates of project users stay materialized for as long as their client is in the pool. Each node in HA setup
+ * has its own pool, invalidations are sent to all of them.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class DistributedFsClientPool {
+
+  private static final Logger LOGGER = Logger.getLogger(DistributedFsClientPool.class.getName());
+  private static final long EVICTION_INTERVAL = 30 * 1000L;
+
+  @EJB
+  private Settings settings;
+  @EJB
+  private BaseHadoopClientsService bhcs;
+  @Resource
+  private TimerService timerService;
+  private Timer timer;
+  @Inject
+  private HazelcastInstance hazelcastInstance;
+  private ITopic<String> userInvalidatedTopic;
+  private UUID listenerId;
+
+  private final ConcurrentMap<String, PooledClient> clients = new ConcurrentHashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong overflows = new AtomicLong();
+
+  @PostConstruct
+  public void init() {
+    // hazelcastInstance == null if Hazelcast is Disabled
+    if (hazelcastInstance != null) {
+      userInvalidatedTopic = hazelcastInstance.getTopic("dfs_client_pool_user_invalidated");
+      listenerId = userInvalidatedTopic.addMessageListener(new MessageListenerImpl());
+    }
+    timer = timerService.createIntervalTimer(EVICTION_INTERVAL, EVICTION_INTERVAL,
+      new TimerConfig("HopsFS client pool eviction timer", false));
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (timer != null) {
+      timer.cancel();
+    }
+    if (userInvalidatedTopic != null) {
+      //needed for redeploy to remove the listener
+      userInvalidatedTopic.removeMessageListener(listenerId);
+    }
+    clients.values().forEach(this::dispose);
+    clients.clear();
+  }
+
+  /**
+   * Borrow a client for the given effective user. The returned client must be closed by the caller, which returns
+   * it to the pool. If the pool is full and no idle client can be evicted a client that is not pooled is returned.
+   *
+   * @param username effective user of the client
+   * @param factory creates a new client when there is none pooled for the user
+   * @param projectUser whether materialized certificates of the user must be removed on eviction
+   * @return the client or null if the factory failed to create one
+   */
+  public DistributedFileSystemOps borrow(String username, Supplier<DistributedFileSystemOps> factory,
+      boolean projectUser) {
+    while (true) {
+      PooledClient pooledClient = clients.get(username);
+      if (pooledClient == null) {
+        if (clients.size() >= settings.getDfsClientPoolMaxSize() && !evictOldestIdle()) {
+          overflows.incrementAndGet();
+          return factory.get();
+        }
+        DistributedFileSystemOps client = factory.get();
+        if (client == null) {
+          return null;
+        }
+        misses.incrementAndGet();
+        PooledClient created = new PooledClient(username, client, projectUser, this::dispose);
+        pooledClient = clients.putIfAbsent(username, created);
+        if (pooledClient == null) {
+          pooledClient = created;
+        } else {
+          // Lost the race with another thread creating a client for the same user
+          dispose(created);
+        }
+      } else {
+        hits.incrementAndGet();
+      }
+      if (pooledClient.acquire()) {
+        return new PooledDistributedFileSystemOps(pooledClient);
+      }
+      // The client has been evicted in the meantime, try again
+    }
+  }
+
+  @Timeout
+  public void evictIdle(Timer timer) {
+    long idleSince = System.currentTimeMillis() - settings.getDfsClientPoolIdleTimeout();
+    for (PooledClient pooledClient : clients.values()) {
+      if (pooledClient.tryEvict(idleSince)) {
+        remove(pooledClient);
+      }
+    }
+  }
+
+  /**
+   * Drop the client of a user on all nodes, after their certificates have been rotated or revoked or they left the
+   * project. A client in use is not lent anymore and is closed when its last borrower releases it.
+   *
+   * @param username effective user
+   */
+  public void invalidate(String username) {
+    invalidateLocal(username);
+    if (userInvalidatedTopic != null) {
+      userInvalidatedTopic.publish(username);
+    }
+  }
+
+  private void invalidateLocal(String username) {
+    PooledClient pooledClient = clients.remove(username);
+    if (pooledClient != null) {
+      evictions.incrementAndGet();
+      if (pooledClient.invalidate()) {
+        dispose(pooledClient);
+      }
+    }
+  }
+
+  public DistributedFsClientPoolStats getStats() {
+    long inUse = clients.values().stream().filter(PooledClient::isInUse).count();
+    return new DistributedFsClientPoolStats(clients.size(), inUse, settings.getDfsClientPoolMaxSize(), hits.get(),
+      misses.get(), evictions.get(), overflows.get());
+  }
+
+  private boolean evictOldestIdle() {
+    Optional<PooledClient> oldest = clients.values().stream()
+      .filter(c -> !c.isInUse())
+      .min(Comparator.comparingLong(PooledClient::getLastReleased));
+    if (oldest.isPresent() && oldest.get().tryEvict(Long.MAX_VALUE)) {
+      remove(oldest.get());
+      return true;
+    }
+    return false;
+  }
+
+  private void remove(PooledClient pooledClient) {
+    clients.remove(pooledClient.getUsername(), pooledClient);
+    evictions.incrementAndGet();
+    dispose(pooledClient);
+  }
+
+  private void dispose(PooledClient pooledClient) {
+    try {
+      pooledClient.getClient().close();
+    } catch (Exception ex) {
+      LOGGER.log(Level.WARNING, "Error closing pooled HopsFS client of " + pooledClient.getUsername(), ex);
+    }
+    if (pooledClient.isProjectUser()) {
+      bhcs.removeNonSuperUserCertificate(pooledClient.getUsername());
+    }
+  }
+
+  public class MessageListenerImpl implements MessageListener<String> {
+
+    @Override
+    public void onMessage(Message<String> message) {
+      if (!message.getPublishingMember().localMember()) {
+        invalidateLocal(message.getMessageObject());
+      }
+    }
+  }
+
+  public static class PooledClient {
+    private final String username;
+    private final DistributedFileSystemOps client;
+    private final boolean projectUser;
+    // disposes an invalidated client once its last borrower released it
+    private final Consumer<PooledClient> onInvalidatedRelease;
+    private int references = 0;
+    private long lastReleased = System.currentTimeMillis();
+    private boolean evicted = false;
+    private boolean invalidated = false;
+
+    PooledClient(String username, DistributedFileSystemOps client, boolean projectUser,
+        Consumer<PooledClient> onInvalidatedRelease) {
+      this.username = username;
+      this.client = client;
+      this.projectUser = projectUser;
+      this.onInvalidatedRelease = onInvalidatedRelease;
+    }
+
+    synchronized boolean acquire() {
+      if (evicted) {
+        return false;
+      }
+      references++;
+      return true;
+    }
+
+    void release() {
+      boolean dispose;
+      synchronized (this) {
+        references--;
+        lastReleased = System.currentTimeMillis();
+        dispose = invalidated && references == 0;
+      }
+      if (dispose) {
+        onInvalidatedRelease.accept(this);
+      }
+    }
+
+    /**
+     * Stop lending the client.
+     *
+     * @return true if the client is not in use and can be disposed right away, otherwise it is disposed on release
+     */
+    synchronized boolean invalidate() {
+      if (evicted) {
+        return false;
+      }
+      evicted = true;
+      invalidated = true;
+      return references == 0;
+    }
+
+    synchronized boolean tryEvict(long idleSince) {
+      if (!evicted && references == 0 && lastReleased <= idleSince) {
+        evicted = true;
+        return true;
+      }
+      return false;
+    }
+
+    synchronized boolean isInUse() {
+      return references > 0;
+    }
+
+    synchronized long getLastReleased() {
+      return lastReleased;
+    }
+
+    String getUsername() {
+      return username;
+    }
+
+    DistributedFileSystemOps getClient() {
+      return client;
+    }
+
+    boolean isProjectUser() {
+      return projectUser;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.hdfs;
+
+import io.hops.hopsworks.common.api.RestDTO;
+
+public class DistributedFsClientPoolStats extends RestDTO<DistributedFsClientPoolStats> {
+  private long size;
+  private long inUse;
+  private long maxSize;
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long overflows;
+
+  public DistributedFsClientPoolStats(long size, long inUse, long maxSize, long hits, long misses, long evictions,
+      long overflows) {
+    this.size = size;
+    this.inUse = inUse;
+    this.maxSize = maxSize;
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+    this.overflows = overflows;
+  }
+
+  public DistributedFsClientPoolStats() {
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  public void setSize(long size) {
+    this.size = size;
+  }
+
+  public long getInUse() {
+    return inUse;
+  }
+
+  public void setInUse(long inUse) {
+    this.inUse = inUse;
+  }
+
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  public void setMaxSize(long maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public void setHits(long hits) {
+    this.hits = hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  public void setMisses(long misses) {
+    this.misses = misses;
+  }
+
+  public long getEvictions() {
+    return evictions;
+  }
+
+  public void setEvictions(long evictions) {
+    this.evictions = evictions;
+  }
+
+  public long getOverflows() {
+    return overflows;
+  }
+
+  public void setOverflows(long overflows) {
+    this.overflows = overflows;
+  }
+}
@@ -76,6 +76,8 @@ import io.hops.hopsworks.persistence.entity.hdfs.user.HdfsGroups;
 public class DistributedFsService {
 
   public static final String HOPSFS_SCHEME = "hopsfs://";
+  // Keeps the pooled superuser client apart from a proxy user with the same name
+  private static final String SUPERUSER_POOL_KEY_PREFIX = "superuser:";
 
   private static final Logger logger = Logger.getLogger(
           DistributedFsService.class.
@@ -93,6 +95,8 @@ public class DistributedFsService {
   private Settings settings;
   @EJB
   private BaseHadoopClientsService bhcs;
+  @EJB
+  private DistributedFsClientPool dfsClientPool;
 
   private Configuration conf;
   private String hadoopConfDir;
@@ -152,6 +156,14 @@ public class DistributedFsService {
    * @return DistributedFileSystemOps
    */
   public DistributedFileSystemOps getDfsOps() {
+    if (settings.isDfsClientPoolEnabled()) {
+      return dfsClientPool.borrow(SUPERUSER_POOL_KEY_PREFIX + loginUser.getUserName(), this::createSuperUserDfsOps,
+        false);
+    }
+    return createSuperUserDfsOps();
+  }
+
+  private DistributedFileSystemOps createSuperUserDfsOps() {
     if (settings.getHopsRpcTls()) {
       Configuration newConf = new Configuration(conf);
   
@@ -203,6 +215,14 @@ public class DistributedFsService {
     if (username == null || username.isEmpty()) {
       throw new IllegalArgumentException("username not provided.");
     }
+    if (settings.isDfsClientPoolEnabled()) {
+      return dfsClientPool.borrow(username, () -> createDfsOps(username),
+        settings.getHopsRpcTls() && !username.equals(loginUser.getUserName()));
+    }
+    return createDfsOps(username);
+  }
+
+  private DistributedFileSystemOps createDfsOps(String username) {
     UserGroupInformation ugi;
     try {
       ugi = UserGroupInformation.createProxyUser(username, UserGroupInformation.
@@ -232,6 +252,11 @@ public class DistributedFsService {
   }
 
   public void closeDfsClient(DistributedFileSystemOps udfso) {
+    if (udfso instanceof PooledDistributedFileSystemOps) {
+      // Certificates are removed when the pool evicts the client
+      udfso.close();
+      return;
+    }
     if (null != udfso) {
       if (settings.getHopsRpcTls()
           && !udfso.getEffectiveUser().equals(loginUser.getUserName())) {
@@ -0,0 +1,41 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.hdfs;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A lease on a client owned by {@link DistributedFsClientPool}. Every borrower gets its own lease so closing it
+ * more than once, through {@link #close()} or {@link DistributedFsService#closeDfsClient}, releases the
+ * underlying client only once. The file system itself is closed when the pool evicts the client.
+ */
+class PooledDistributedFileSystemOps extends DistributedFileSystemOps {
+
+  private final DistributedFsClientPool.PooledClient pooledClient;
+  private final AtomicBoolean released = new AtomicBoolean(false);
+
+  PooledDistributedFileSystemOps(DistributedFsClientPool.PooledClient pooledClient) {
+    super(pooledClient.getClient());
+    this.pooledClient = pooledClient;
+  }
+
+  @Override
+  public void close() {
+    if (released.compareAndSet(false, true)) {
+      pooledClient.release();
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.hive;
+
+import io.hops.hopsworks.common.hdfs.HdfsUsersController;
+import io.hops.hopsworks.common.security.CertificateHandler;
+import io.hops.hopsworks.persistence.entity.certificates.UserCerts;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import io.hops.hopsworks.persistence.entity.user.Users;
+
+import javax.ejb.EJB;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+/**
+ * Pooled metastore clients authenticated with the certificates of a project user, they are closed when the
+ * certificates are issued again or revoked.
+ */
+@Stateless
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class HiveMetastoreCertificateHandler implements CertificateHandler {
+  
+  @EJB
+  private HiveMetastoreClientPool metastoreClientPool;
+  @EJB
+  private HdfsUsersController hdfsUsersController;
+  
+  @Override
+  public void generate(Project project, Users user, UserCerts userCerts) {
+    metastoreClientPool.invalidate(hdfsUsersController.getHdfsUserName(project, user));
+  }
+  
+  @Override
+  public void revoke(Project project, Users user) {
+    metastoreClientPool.invalidate(hdfsUsersController.getHdfsUserName(project, user));
+  }
+  
+  @Override
+  public String getClassName() {
+    return HiveMetastoreCertificateHandler.class.getName();
+  }
+}
@@ -0,0 +1,354 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.hive;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import com.logicalclocks.servicediscoverclient.exceptions.ServiceDiscoveryException;
+import com.logicalclocks.servicediscoverclient.service.Service;
+import io.hops.hopsworks.common.hdfs.HdfsUsersController;
+import io.hops.hopsworks.common.hosts.ServiceDiscoveryController;
+import io.hops.hopsworks.common.security.CertificateMaterializer;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.exceptions.CryptoPasswordNotFoundException;
+import io.hops.hopsworks.exceptions.ServiceException;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import io.hops.hopsworks.persistence.entity.user.Users;
+import io.hops.hopsworks.restutils.RESTCodes;
+import io.hops.hopsworks.servicediscovery.HopsworksService;
+import io.hops.hopsworks.servicediscovery.tags.HiveTags;
+import org.apache.hadoop.hive.metastore.api.ThriftHiveMetastore;
+import org.apache.thrift.TConfiguration;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TSSLTransportFactory;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool of Thrift clients to the Hive metastore, keyed by the HDFS user the client acts as. A Thrift client is not
+ * thread safe so a borrowed client is used by one caller at a time and given back with {@link #release}.
+ * Clients that failed an operation are not reused, idle clients are closed by a timer once they have been idle
+ * for too long and are checked before being reused after {@link #VALIDATION_INTERVAL}. Each node in HA setup has its
+ * own pool, invalidations are sent to all of them.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class HiveMetastoreClientPool {
+
+  private static final Logger LOGGER = Logger.getLogger(HiveMetastoreClientPool.class.getName());
+  private static final long EVICTION_INTERVAL = 30 * 1000L;
+  private static final int CONNECTION_TIMEOUT = 600000;
+  private static final long VALIDATION_INTERVAL = 30 * 1000L;
+
+  @EJB
+  private Settings settings;
+  @EJB
+  private HdfsUsersController hdfsUsersController;
+  @EJB
+  private CertificateMaterializer certificateMaterializer;
+  @EJB
+  private ServiceDiscoveryController serviceDiscoveryController;
+  @Resource
+  private TimerService timerService;
+  private Timer timer;
+  @Inject
+  private HazelcastInstance hazelcastInstance;
+  private ITopic<String> userInvalidatedTopic;
+  private UUID listenerId;
+
+  private final Map<String, ConcurrentLinkedDeque<MetastoreClient>> pools = new ConcurrentHashMap<>();
+  // Clients opened before an invalidation of their user are not returned to the pool
+  private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+  private final AtomicInteger idle = new AtomicInteger();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  @PostConstruct
+  public void init() {
+    // hazelcastInstance == null if Hazelcast is Disabled
+    if (hazelcastInstance != null) {
+      userInvalidatedTopic = hazelcastInstance.getTopic("metastore_pool_user_invalidated");
+      listenerId = userInvalidatedTopic.addMessageListener(new MessageListenerImpl());
+    }
+    timer = timerService.createIntervalTimer(EVICTION_INTERVAL, EVICTION_INTERVAL,
+      new TimerConfig("Hive metastore client pool eviction timer", false));
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (timer != null) {
+      timer.cancel();
+    }
+    if (userInvalidatedTopic != null) {
+      //needed for redeploy to remove the listener
+      userInvalidatedTopic.removeMessageListener(listenerId);
+    }
+    for (ConcurrentLinkedDeque<MetastoreClient> clients : pools.values()) {
+      MetastoreClient client;
+      while ((client = clients.pollFirst()) != null) {
+        close(client);
+      }
+    }
+  }
+
+  /**
+   * Borrow a client acting as the project user.
+   *
+   * @return an idle client of the project user that still answers, or a new one
+   * @throws ServiceException if the connection to the metastore failed
+   * @throws IOException if the certificates of the user could not be materialized
+   */
+  public MetastoreClient borrow(Project project, Users user) throws ServiceException, IOException {
+    String hdfsUsername = hdfsUsersController.getHdfsUserName(project, user);
+    ConcurrentLinkedDeque<MetastoreClient> clients = pools.get(hdfsUsername);
+    if (clients != null) {
+      MetastoreClient client;
+      while ((client = clients.pollFirst()) != null) {
+        idle.decrementAndGet();
+        if (isValid(client)) {
+          hits.incrementAndGet();
+          return client;
+        }
+        evictions.incrementAndGet();
+        close(client);
+      }
+    }
+    misses.incrementAndGet();
+    return open(project, user, hdfsUsername);
+  }
+
+  /**
+   * Give a client back to the pool.
+   *
+   * @param client the borrowed client, may be null
+   * @param reusable false if an operation failed on the client, in which case it is closed
+   */
+  public void release(MetastoreClient client, boolean reusable) {
+    if (client == null) {
+      return;
+    }
+    if (!reusable || !client.isOpen() || client.generation != generation(client.hdfsUsername).get()
+        || idle.get() >= settings.getHiveMetastoreClientPoolMaxIdle()) {
+      close(client);
+      return;
+    }
+    client.lastReleased = System.currentTimeMillis();
+    idle.incrementAndGet();
+    pools.computeIfAbsent(client.hdfsUsername, k -> new ConcurrentLinkedDeque<>()).offerFirst(client);
+  }
+
+  /**
+   * Close the clients of a user on all nodes, after their certificates have been rotated or revoked or they left
+   * the project. Borrowed clients are closed when they are released.
+   */
+  public void invalidate(String hdfsUsername) {
+    invalidateLocal(hdfsUsername);
+    if (userInvalidatedTopic != null) {
+      userInvalidatedTopic.publish(hdfsUsername);
+    }
+  }
+
+  private void invalidateLocal(String hdfsUsername) {
+    generation(hdfsUsername).incrementAndGet();
+    ConcurrentLinkedDeque<MetastoreClient> clients = pools.get(hdfsUsername);
+    if (clients != null) {
+      MetastoreClient client;
+      while ((client = clients.pollFirst()) != null) {
+        idle.decrementAndGet();
+        evictions.incrementAndGet();
+        close(client);
+      }
+    }
+  }
+
+  @Timeout
+  public void evictIdle(Timer timer) {
+    long idleSince = System.currentTimeMillis() - settings.getHiveMetastoreClientPoolIdleTimeout();
+    for (ConcurrentLinkedDeque<MetastoreClient> clients : pools.values()) {
+      for (MetastoreClient client : clients) {
+        if (client.lastReleased <= idleSince && clients.removeFirstOccurrence(client)) {
+          idle.decrementAndGet();
+          evictions.incrementAndGet();
+          close(client);
+        }
+      }
+    }
+  }
+
+  public HiveMetastoreClientPoolStats getStats() {
+    return new HiveMetastoreClientPoolStats(pools.size(), idle.get(), hits.get(), misses.get(), evictions.get());
+  }
+
+  private AtomicLong generation(String hdfsUsername) {
+    return generations.computeIfAbsent(hdfsUsername, k -> new AtomicLong());
+  }
+
+  /**
+   * A client idle for a while may have been dropped by the metastore or a firewall without its transport noticing,
+   * a cheap call makes sure it still answers.
+   */
+  private boolean isValid(MetastoreClient client) {
+    if (!client.isOpen()) {
+      return false;
+    }
+    if (System.currentTimeMillis() - client.lastReleased < VALIDATION_INTERVAL) {
+      return true;
+    }
+    try {
+      client.getClient().getStatus();
+      return true;
+    } catch (TException e) {
+      LOGGER.log(Level.FINE, "Idle Metastore connection of " + client.hdfsUsername + " is broken", e);
+      return false;
+    }
+  }
+
+  private void close(MetastoreClient client) {
+    try {
+      client.getClient().shutdown();
+    } catch (TException e) {
+      LOGGER.log(Level.FINE, "Error closing Metastore connection", e);
+    } finally {
+      client.transport.close();
+    }
+  }
+
+  // Here we can't use the HiveMetaStoreClient.java wrapper as we would need to export environment variables and so on
+  // instead we assemble directly the thirft client, which is what the HiveMetaStoreClient does behind the scenes.
+  private MetastoreClient open(Project project, Users user, String hdfsUsername)
+      throws ServiceException, IOException {
+    long generation = generation(hdfsUsername).get();
+    certificateMaterializer.materializeCertificatesLocal(user.getUsername(), project.getName());
+    try {
+      CertificateMaterializer.CryptoMaterial userMaterial =
+          certificateMaterializer.getUserMaterial(user.getUsername(), project.getName());
+
+      // read Password
+      String password = String.copyValueOf(userMaterial.getPassword());
+
+      // Get metastore service information from consul
+      Service metastoreService = serviceDiscoveryController
+          .getAnyAddressOfServiceWithDNS(HopsworksService.HIVE.getNameWithTag(HiveTags.metastore));
+
+      TTransport transport;
+      if (settings.getHopsRpcTls()) {
+        // Setup secure connection with the Hive metastore.
+        TSSLTransportFactory.TSSLTransportParameters params =
+            new TSSLTransportFactory.TSSLTransportParameters();
+        params.setTrustStore(certificateMaterializer.getUserTransientTruststorePath(project, user), password);
+        params.setKeyStore(certificateMaterializer.getUserTransientKeystorePath(project, user), password);
+
+        transport = TSSLTransportFactory.getClientSocket(metastoreService.getAddress(),
+            metastoreService.getPort(), CONNECTION_TIMEOUT, params);
+      } else {
+        transport = new TSocket(TConfiguration.DEFAULT, metastoreService.getAddress(), metastoreService.getPort(),
+          CONNECTION_TIMEOUT);
+      }
+
+      TProtocol protocol = new TBinaryProtocol(transport);
+      ThriftHiveMetastore.Client client = new ThriftHiveMetastore.Client(protocol);
+
+      // Open transport
+      if (!transport.isOpen()) {
+        transport.open();
+      }
+
+      // Set the UGI on the metastore side
+      client.set_ugi(hdfsUsername, new ArrayList<>());
+
+      if (settings.getHopsRpcTls()) {
+        // Send the certificate to the metastore so it can operate with the fs.
+        client.set_crypto(userMaterial.getKeyStore(), password, userMaterial.getTrustStore(), password, false);
+      }
+      return new MetastoreClient(hdfsUsername, generation, client, transport);
+    } catch (CryptoPasswordNotFoundException | ServiceDiscoveryException | TException e) {
+      throw new ServiceException(RESTCodes.ServiceErrorCode.METASTORE_CONNECTION_ERROR, Level.SEVERE,
+          "Hive metastore connection error", e.getMessage(), e);
+    } finally {
+      // The key stores are only read while opening the connection, they do not need to stay materialized while the
+      // client is pooled
+      certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName());
+    }
+  }
+
+  public class MessageListenerImpl implements MessageListener<String> {
+
+    @Override
+    public void onMessage(Message<String> message) {
+      if (!message.getPublishingMember().localMember()) {
+        invalidateLocal(message.getMessageObject());
+      }
+    }
+  }
+
+  public static class MetastoreClient {
+    private final String hdfsUsername;
+    private final long generation;
+    private final ThriftHiveMetastore.Client client;
+    private final TTransport transport;
+    private volatile long lastReleased = System.currentTimeMillis();
+
+    MetastoreClient(String hdfsUsername, long generation, ThriftHiveMetastore.Client client, TTransport transport) {
+      this.hdfsUsername = hdfsUsername;
+      this.generation = generation;
+      this.client = client;
+      this.transport = transport;
+    }
+
+    public ThriftHiveMetastore.Client getClient() {
+      return client;
+    }
+
+    boolean isOpen() {
+      return transport.isOpen();
+    }
+  }
+}
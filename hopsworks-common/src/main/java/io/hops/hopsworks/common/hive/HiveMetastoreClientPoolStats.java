@@ -0,0 +1,78 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.hive;
+
+import io.hops.hopsworks.common.api.RestDTO;
+
+public class HiveMetastoreClientPoolStats extends RestDTO<HiveMetastoreClientPoolStats> {
+  private long users;
+  private long idle;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  public HiveMetastoreClientPoolStats(long users, long idle, long hits, long misses, long evictions) {
+    this.users = users;
+    this.idle = idle;
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+  }
+
+  public HiveMetastoreClientPoolStats() {
+  }
+
+  public long getUsers() {
+    return users;
+  }
+
+  public void setUsers(long users) {
+    this.users = users;
+  }
+
+  public long getIdle() {
+    return idle;
+  }
+
+  public void setIdle(long idle) {
+    this.idle = idle;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public void setHits(long hits) {
+    this.hits = hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  public void setMisses(long misses) {
+    this.misses = misses;
+  }
+
+  public long getEvictions() {
+    return evictions;
+  }
+
+  public void setEvictions(long evictions) {
+    this.evictions = evictions;
+  }
+}
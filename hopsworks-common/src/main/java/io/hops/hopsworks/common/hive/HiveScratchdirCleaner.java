@@ -17,7 +17,7 @@
 
 package io.hops.hopsworks.common.hive;
 
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.persistence.entity.hdfs.inode.Inode;
 import io.hops.hopsworks.common.dao.jobhistory.YarnApplicationstateFacade;
 import io.hops.hopsworks.common.hdfs.DistributedFileSystemOps;
@@ -71,7 +71,7 @@ public class HiveScratchdirCleaner {
   @EJB
   private YarnApplicationstateFacade yarnApplicationstateFacade;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
 
@@ -108,7 +108,7 @@ public class HiveScratchdirCleaner {
   @Timeout
   @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
   public void doCleanUp() {
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(HiveScratchdirCleaner.class)) {
       return;
     }
     YarnClientWrapper yarnClientWrapper = null;
@@ -0,0 +1,380 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.jdbc;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import io.hops.hopsworks.persistence.entity.user.Users;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keyed pool of JDBC connections to the online feature store and HiveServer2. Connections are keyed by backend,
+ * project, user and database, at most a configurable number of connections are open per key, idle connections are
+ * validated before they are handed out and closed by a timer once they have been idle for too long.
+ * The decrypted credentials used to open new connections are cached for at most the idle timeout and are dropped
+ * on all nodes whenever the connections of a user are invalidated, for example because their secret was rotated.
+ * Each node in HA setup has its own pool.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class JdbcConnectionPool {
+
+  private static final Logger LOGGER = Logger.getLogger(JdbcConnectionPool.class.getName());
+  private static final long EVICTION_INTERVAL = 60 * 1000L;
+  private static final int VALIDATION_TIMEOUT_S = 5;
+  // SQL state class of invalid authorization and the MySQL access denied error
+  private static final String INVALID_AUTHORIZATION_SQL_STATE = "28";
+  private static final int MYSQL_ACCESS_DENIED_ERROR = 1045;
+
+  @EJB
+  private Settings settings;
+  @Resource
+  private TimerService timerService;
+  @Inject
+  private HazelcastInstance hazelcastInstance;
+  private Timer timer;
+  private ITopic<String> userInvalidatedTopic;
+  private UUID listenerId;
+
+  private final Map<PooledConnectionKey, KeyedConnections> pools = new ConcurrentHashMap<>();
+  private Cache<PooledConnectionKey, String> credentials;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong validationFailures = new AtomicLong();
+
+  /**
+   * Opens a new physical connection for a key.
+   */
+  @FunctionalInterface
+  public interface ConnectionFactory<E extends Exception> {
+    Connection create() throws E;
+  }
+
+  /**
+   * Loads the credentials of a key, for example by decrypting a secret.
+   */
+  @FunctionalInterface
+  public interface CredentialsLoader<E extends Exception> {
+    String load() throws E;
+  }
+
+  @PostConstruct
+  public void init() {
+    // Expire after write, a password rotated while the entry is in use must not be served forever
+    credentials = Caffeine.newBuilder()
+      .expireAfterWrite(settings.getJdbcPoolIdleTimeout(), TimeUnit.MILLISECONDS)
+      .build();
+    // hazelcastInstance == null if Hazelcast is Disabled
+    if (hazelcastInstance != null) {
+      userInvalidatedTopic = hazelcastInstance.getTopic("jdbc_pool_user_invalidated");
+      listenerId = userInvalidatedTopic.addMessageListener(new MessageListenerImpl());
+    }
+    timer = timerService.createIntervalTimer(EVICTION_INTERVAL, EVICTION_INTERVAL,
+      new TimerConfig("Feature store JDBC connection pool eviction timer", false));
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (timer != null) {
+      timer.cancel();
+    }
+    if (userInvalidatedTopic != null) {
+      //needed for redeploy to remove the listener
+      userInvalidatedTopic.removeMessageListener(listenerId);
+    }
+    invalidate(key -> true);
+  }
+
+  /**
+   * Borrow a connection. Closing the returned connection gives it back to the pool.
+   *
+   * @param key identifies the interchangeable connections
+   * @param factory opens a new connection if there is no idle one for the key
+   * @param onDestroy called after the physical connection has been closed, may be null
+   * @return a connection whose close() returns it to the pool
+   * @throws E if the factory fails to open a new connection
+   * @throws SQLException if no connection became available within the borrow timeout
+   */
+  public <E extends Exception> Connection getConnection(PooledConnectionKey key, ConnectionFactory<E> factory,
+      Runnable onDestroy) throws E, SQLException {
+    KeyedConnections connections = pools.computeIfAbsent(key,
+      k -> new KeyedConnections(k, settings.getJdbcPoolMaxPerKey()));
+    connections.acquirePermit(settings.getJdbcPoolBorrowTimeout());
+    try {
+      PooledConnection idle;
+      while ((idle = connections.idle.pollFirst()) != null) {
+        if (isValid(idle)) {
+          hits.incrementAndGet();
+          return wrap(connections, idle);
+        }
+        validationFailures.incrementAndGet();
+        destroy(idle);
+      }
+      misses.incrementAndGet();
+      PooledConnection created = new PooledConnection(factory.create(), onDestroy);
+      return wrap(connections, created);
+    } catch (Exception e) {
+      connections.permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Get the cached credentials of a key or load them.
+   */
+  public <E extends Exception> String getCredentials(PooledConnectionKey key, CredentialsLoader<E> loader) throws E {
+    String cached = credentials.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+    String loaded = loader.load();
+    credentials.put(key, loaded);
+    return loaded;
+  }
+
+  /**
+   * Drop the cached credentials of a key on this node, for example because they were rejected by the backend.
+   */
+  public void invalidateCredentials(PooledConnectionKey key) {
+    credentials.invalidate(key);
+  }
+
+  /**
+   * Close the idle connections and drop the cached credentials of a user in a project on all nodes.
+   *
+   * @param project the project of the user
+   * @param user the user
+   */
+  public void invalidate(Project project, Users user) {
+    invalidate(key -> key.belongsTo(project.getId(), user.getUid()));
+    if (userInvalidatedTopic != null) {
+      userInvalidatedTopic.publish(project.getId() + ":" + user.getUid());
+    }
+  }
+
+  /**
+   * @return true if the connection was refused because of the credentials
+   */
+  public static boolean isAuthenticationFailure(SQLException e) {
+    return e.getErrorCode() == MYSQL_ACCESS_DENIED_ERROR
+      || (e.getSQLState() != null && e.getSQLState().startsWith(INVALID_AUTHORIZATION_SQL_STATE));
+  }
+
+  /**
+   * Close all idle connections and drop the cached credentials of the matching keys on this node. Connections in
+   * use are closed when they are returned.
+   */
+  public void invalidate(Predicate<PooledConnectionKey> keys) {
+    credentials.asMap().keySet().removeIf(keys);
+    for (KeyedConnections connections : pools.values()) {
+      if (keys.test(connections.key)) {
+        connections.generation.incrementAndGet();
+        PooledConnection idle;
+        while ((idle = connections.idle.pollFirst()) != null) {
+          evictions.incrementAndGet();
+          destroy(idle);
+        }
+      }
+    }
+  }
+
+  @Timeout
+  public void evictIdle(Timer timer) {
+    long idleSince = System.currentTimeMillis() - settings.getJdbcPoolIdleTimeout();
+    for (KeyedConnections connections : pools.values()) {
+      for (PooledConnection idle : connections.idle) {
+        if (idle.lastReleased <= idleSince && connections.idle.removeFirstOccurrence(idle)) {
+          evictions.incrementAndGet();
+          destroy(idle);
+        }
+      }
+    }
+  }
+
+  public JdbcConnectionPoolStats getStats() {
+    long idle = 0;
+    long inUse = 0;
+    int maxPerKey = settings.getJdbcPoolMaxPerKey();
+    for (KeyedConnections connections : pools.values()) {
+      idle += connections.idle.size();
+      inUse += maxPerKey - connections.permits.availablePermits();
+    }
+    return new JdbcConnectionPoolStats(pools.size(), idle, inUse, hits.get(), misses.get(), evictions.get(),
+      validationFailures.get());
+  }
+
+  private boolean isValid(PooledConnection pooled) {
+    try {
+      return pooled.connection.isValid(VALIDATION_TIMEOUT_S);
+    } catch (SQLException | AbstractMethodError e) {
+      return false;
+    }
+  }
+
+  private void release(KeyedConnections connections, PooledConnection pooled, long generation) {
+    try {
+      boolean reusable = generation == connections.generation.get() && !pooled.connection.isClosed();
+      if (reusable && !pooled.connection.getAutoCommit()) {
+        pooled.connection.rollback();
+        pooled.connection.setAutoCommit(true);
+      }
+      if (reusable) {
+        pooled.connection.clearWarnings();
+        pooled.lastReleased = System.currentTimeMillis();
+        connections.idle.offerFirst(pooled);
+      } else {
+        destroy(pooled);
+      }
+    } catch (SQLException e) {
+      LOGGER.log(Level.FINE, "Discarding connection of " + connections.key, e);
+      destroy(pooled);
+    } finally {
+      connections.permits.release();
+    }
+  }
+
+  private void destroy(PooledConnection pooled) {
+    try {
+      pooled.connection.close();
+    } catch (SQLException e) {
+      LOGGER.log(Level.WARNING, "Error closing pooled JDBC connection", e);
+    } finally {
+      if (pooled.onDestroy != null) {
+        pooled.onDestroy.run();
+      }
+    }
+  }
+
+  private Connection wrap(KeyedConnections connections, PooledConnection pooled) {
+    long generation = connections.generation.get();
+    AtomicBoolean released = new AtomicBoolean(false);
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[]{Connection.class},
+      (proxy, method, args) -> {
+        switch (method.getName()) {
+          case "close":
+            if (released.compareAndSet(false, true)) {
+              release(connections, pooled, generation);
+            }
+            return null;
+          case "isClosed":
+            return released.get() || pooled.connection.isClosed();
+          case "equals":
+            return proxy == args[0];
+          case "hashCode":
+            return System.identityHashCode(proxy);
+          case "toString":
+            return "Pooled " + connections.key + " " + pooled.connection;
+          default:
+            if (released.get()) {
+              throw new SQLException("Connection has been returned to the pool");
+            }
+            try {
+              return method.invoke(pooled.connection, args);
+            } catch (InvocationTargetException e) {
+              throw e.getCause();
+            }
+        }
+      });
+  }
+
+  public class MessageListenerImpl implements MessageListener<String> {
+
+    @Override
+    public void onMessage(Message<String> message) {
+      if (!message.getPublishingMember().localMember()) {
+        String[] ids = message.getMessageObject().split(":");
+        Integer projectId = Integer.valueOf(ids[0]);
+        Integer userId = Integer.valueOf(ids[1]);
+        invalidate(key -> key.belongsTo(projectId, userId));
+      }
+    }
+  }
+
+  private static class KeyedConnections {
+    private final PooledConnectionKey key;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    // Connections borrowed before an invalidation are not returned to the pool
+    private final AtomicLong generation = new AtomicLong();
+
+    KeyedConnections(PooledConnectionKey key, int maxConnections) {
+      this.key = key;
+      this.permits = new Semaphore(maxConnections, true);
+    }
+
+    void acquirePermit(long timeoutMs) throws SQLException {
+      try {
+        if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+          throw new SQLException("Timed out waiting for a connection of " + key);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new SQLException("Interrupted while waiting for a connection of " + key, e);
+      }
+    }
+  }
+
+  private static class PooledConnection {
+    private final Connection connection;
+    private final Runnable onDestroy;
+    private volatile long lastReleased = System.currentTimeMillis();
+
+    PooledConnection(Connection connection, Runnable onDestroy) {
+      this.connection = connection;
+      this.onDestroy = onDestroy;
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.jdbc;
+
+import io.hops.hopsworks.persistence.entity.project.Project;
+import io.hops.hopsworks.persistence.entity.user.Users;
+
+import java.util.Objects;
+
+/**
+ * Identifies a set of interchangeable connections: same backend, same credentials and same default database.
+ */
+public final class PooledConnectionKey {
+
+  public enum Type {
+    ONLINE_FS_ADMIN,
+    ONLINE_FS_USER,
+    HIVE
+  }
+
+  private final Type type;
+  private final Integer projectId;
+  private final Integer userId;
+  private final String database;
+
+  private PooledConnectionKey(Type type, Integer projectId, Integer userId, String database) {
+    this.type = type;
+    this.projectId = projectId;
+    this.userId = userId;
+    this.database = database == null ? "" : database;
+  }
+
+  public static PooledConnectionKey onlineFsAdmin() {
+    return new PooledConnectionKey(Type.ONLINE_FS_ADMIN, null, null, null);
+  }
+
+  public static PooledConnectionKey onlineFsUser(Project project, Users user, String database) {
+    return new PooledConnectionKey(Type.ONLINE_FS_USER, project.getId(), user.getUid(), database);
+  }
+
+  public static PooledConnectionKey hive(Project project, Users user, String database) {
+    return new PooledConnectionKey(Type.HIVE, project.getId(), user.getUid(), database);
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public Integer getProjectId() {
+    return projectId;
+  }
+
+  public Integer getUserId() {
+    return userId;
+  }
+
+  public String getDatabase() {
+    return database;
+  }
+
+  /**
+   * @return true if the key belongs to the given user in the given project, regardless of the backend and database
+   */
+  public boolean belongsTo(Project project, Users user) {
+    return belongsTo(project.getId(), user.getUid());
+  }
+
+  /**
+   * @return true if the key belongs to the given user id in the given project id
+   */
+  public boolean belongsTo(Integer projectId, Integer userId) {
+    return Objects.equals(this.projectId, projectId) && Objects.equals(this.userId, userId);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    PooledConnectionKey that = (PooledConnectionKey) o;
+    return type == that.type && Objects.equals(projectId, that.projectId) && Objects.equals(userId, that.userId)
+      && database.equals(that.database);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(type, projectId, userId, database);
+  }
+
+  @Override
+  public String toString() {
+    return type + "[project=" + projectId + ", user=" + userId + ", database=" + database + "]";
+  }
+}
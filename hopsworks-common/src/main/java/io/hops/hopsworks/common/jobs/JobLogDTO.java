@@ -24,6 +24,10 @@ public class JobLogDTO {
   private String path;
   private LogType type;
   private Retriable retriable;
+  //window of a paged read, null if the whole log was read
+  private Long offset;
+  private Long nextOffset;
+  private Long size;
   
   public JobLogDTO() {
   }
@@ -64,6 +68,30 @@ public class JobLogDTO {
     this.retriable = retriable;
   }
   
+  public Long getOffset() {
+    return offset;
+  }
+  
+  public void setOffset(Long offset) {
+    this.offset = offset;
+  }
+  
+  public Long getNextOffset() {
+    return nextOffset;
+  }
+  
+  public void setNextOffset(Long nextOffset) {
+    this.nextOffset = nextOffset;
+  }
+  
+  public Long getSize() {
+    return size;
+  }
+  
+  public void setSize(Long size) {
+    this.size = size;
+  }
+  
   public enum LogType {
     OUT("out"),
     ERR("err");
@@ -72,17 +72,25 @@ import javax.ejb.TransactionAttributeType;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import static java.util.logging.Level.FINE;
 
 public abstract class AbstractExecutionController implements ExecutionController {
 
   private static final Logger LOGGER = Logger.getLogger(AbstractExecutionController.class.getName());
+  private static final long TAIL_INTERVAL = 5000L;
   private static final String REMOTE_PROTOCOL = "hdfs://";
 
   //Controllers
@@ -281,7 +289,6 @@ public abstract class AbstractExecutionController implements ExecutionController
     try {
       dfso = dfs.getDfsOps();
       String message;
-      String stdPath;
       String path = (dto.getType() == JobLogDTO.LogType.OUT ? execution.getStdoutPath() : execution.getStderrPath());
       JobLogDTO.Retriable retriable = (dto.getType() == JobLogDTO.LogType.OUT ? JobLogDTO.Retriable.RETRIEABLE_OUT :
         JobLogDTO.Retriable.RETRIABLE_ERR);
@@ -289,12 +296,7 @@ public abstract class AbstractExecutionController implements ExecutionController
         .SUCCEEDED));
       String hdfsPath = REMOTE_PROTOCOL + path;
       if (!Strings.isNullOrEmpty(path) && dfso.exists(hdfsPath)) {
-        Project project = execution.getJob().getProject();
-        stdPath = path.split(project.getName())[1];
-        int fileIndex = stdPath.lastIndexOf('/');
-        String stdDirPath = stdPath.substring(0, fileIndex);
-        dto.setPath(Settings.DIR_ROOT + File.separator + project.getName() + stdDirPath + File.separator +  "std" +
-          dto.getType().getName().toLowerCase() + ".log");
+        dto.setPath(logPath(execution, path, type));
         if (dfso.listStatus(new org.apache.hadoop.fs.Path(hdfsPath))[0].getLen() > Settings.JOB_LOGS_DISPLAY_SIZE) {
           dto.setLog("Log is too big to display in browser. Click on the download button to get the log file.");
         } else {
@@ -328,6 +330,162 @@ public abstract class AbstractExecutionController implements ExecutionController
     return dto;
   }
   
+  /**
+   * Read a window of the log of a finished execution. The window starts at the beginning of a line and, unless it
+   * reaches the end of the log, ends at the end of a line so that the next window starts with a complete line.
+   *
+   * @param execution
+   * @param type
+   * @param offset byte offset of the window, counted from the end of the log if negative
+   * @param length maximum length of the window, capped at {@link Settings#JOB_LOGS_DISPLAY_SIZE}
+   * @param grep if set, only the lines of the window that contain it are returned
+   * @return the window and the offset of the next one
+   */
+  @Override
+  public JobLogDTO getLog(Execution execution, JobLogDTO.LogType type, long offset, int length, String grep)
+    throws JobException {
+    if (!execution.getState().isFinalState()) {
+      throw new JobException(RESTCodes.JobErrorCode.JOB_EXECUTION_INVALID_STATE, Level.FINE, "Job still running.");
+    }
+    if (length <= 0) {
+      throw new JobException(RESTCodes.JobErrorCode.JOB_LOG, Level.FINE, "Log window length must be positive");
+    }
+    String path = type == JobLogDTO.LogType.OUT ? execution.getStdoutPath() : execution.getStderrPath();
+    String hdfsPath = REMOTE_PROTOCOL + path;
+    DistributedFileSystemOps dfso = null;
+    try {
+      dfso = dfs.getDfsOps();
+      if (Strings.isNullOrEmpty(path) || !dfso.exists(hdfsPath)) {
+        return getLog(execution, type);
+      }
+      long size = dfso.getFileStatus(new org.apache.hadoop.fs.Path(hdfsPath)).getLen();
+      long start = offset < 0 ? Math.max(0, size + offset) : Math.min(offset, size);
+      int window = (int) Math.min(Math.min(length, Settings.JOB_LOGS_DISPLAY_SIZE), size - start);
+      byte[] buffer = new byte[window];
+      try (FSDataInputStream input = dfso.open(hdfsPath)) {
+        input.readFully(start, buffer, 0, window);
+      }
+      int from = 0;
+      if (offset < 0 && start > 0) {
+        from = lineStart(buffer, 0, window);
+      }
+      int to = window;
+      if (start + window < size) {
+        to = lineEnd(buffer, from, window);
+      }
+      JobLogDTO dto = new JobLogDTO(type);
+      dto.setPath(logPath(execution, path, type));
+      dto.setLog(grep(new String(buffer, from, to - from, StandardCharsets.UTF_8), grep));
+      dto.setOffset(start + from);
+      dto.setNextOffset(start + to);
+      dto.setSize(size);
+      return dto;
+    } catch (IOException ex) {
+      throw new JobException(RESTCodes.JobErrorCode.JOB_LOG, Level.WARNING, ex.getMessage(), ex.getMessage(), ex);
+    } finally {
+      if (dfso != null) {
+        dfso.close();
+      }
+    }
+  }
+  
+  /**
+   * Follow the log of an execution, writing it to the stream as it grows. While the execution is running the
+   * aggregated logs of its containers are polled and every new aggregated file is written. Once the execution is
+   * finished its log is written from the offset and the method returns. Also returns if the stream fails, i.e. if
+   * the client went away.
+   *
+   * @param execution
+   * @param type
+   * @param offset byte offset to start from, only used once the execution has finished
+   * @param out
+   */
+  @Override
+  @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+  public void tailLog(Execution execution, JobLogDTO.LogType type, long offset, OutputStream out)
+    throws JobException, IOException {
+    String hdfsUser = hdfsUsersController.getHdfsUserName(execution.getJob().getProject(), execution.getUser());
+    PrintStream writer = new PrintStream(out, false, StandardCharsets.UTF_8.name());
+    Set<String> written = new HashSet<>();
+    DistributedFileSystemOps udfso = null;
+    try {
+      udfso = dfs.getDfsOps(hdfsUser);
+      Execution current = execution;
+      while (!current.getState().isFinalState()) {
+        if (current.getAppId() != null) {
+          String aggregatedLogPath = settings.getAggregatedLogPath(hdfsUser, current.getAppId());
+          if (aggregatedLogPath == null) {
+            throw new JobException(RESTCodes.JobErrorCode.JOB_LOG, Level.FINE, "Log aggregation is not enabled");
+          }
+          YarnLogUtil.tailAggregatedYarnLogs(udfso, aggregatedLogPath, desiredLogTypes(type), written, writer);
+        }
+        writer.flush();
+        if (writer.checkError()) {
+          return;
+        }
+        Thread.sleep(TAIL_INTERVAL);
+        current = executionFacade.findById(execution.getId()).orElse(null);
+        if (current == null) {
+          return;
+        }
+      }
+      String path = type == JobLogDTO.LogType.OUT ? current.getStdoutPath() : current.getStderrPath();
+      if (!written.isEmpty()) {
+        //the containers logs are copied to the std file once the log aggregation is done
+        writer.println("Execution finished, the complete log is available for download.");
+      } else if (!Strings.isNullOrEmpty(path) && udfso.exists(REMOTE_PROTOCOL + path)) {
+        try (FSDataInputStream input = udfso.open(REMOTE_PROTOCOL + path)) {
+          IOUtils.copyLarge(input, writer, Math.max(0, offset), -1);
+        }
+      }
+      writer.flush();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } finally {
+      dfs.closeDfsClient(udfso);
+    }
+  }
+  
+  private String logPath(Execution execution, String path, JobLogDTO.LogType type) {
+    Project project = execution.getJob().getProject();
+    String stdPath = path.split(project.getName())[1];
+    int fileIndex = stdPath.lastIndexOf('/');
+    String stdDirPath = stdPath.substring(0, fileIndex);
+    return Settings.DIR_ROOT + File.separator + project.getName() + stdDirPath + File.separator + "std" +
+      type.getName().toLowerCase() + ".log";
+  }
+  
+  private String[] desiredLogTypes(JobLogDTO.LogType type) {
+    return type == JobLogDTO.LogType.OUT ? new String[]{type.name()} : new String[]{type.name(), ".log"};
+  }
+  
+  private static int lineStart(byte[] buffer, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (buffer[i] == '\n') {
+        return i + 1;
+      }
+    }
+    return from;
+  }
+  
+  private static int lineEnd(byte[] buffer, int from, int to) {
+    for (int i = to - 1; i >= from; i--) {
+      if (buffer[i] == '\n') {
+        return i + 1;
+      }
+    }
+    return to;
+  }
+  
+  private static String grep(String log, String pattern) {
+    if (Strings.isNullOrEmpty(pattern)) {
+      return log;
+    }
+    return Arrays.stream(log.split("\n"))
+      .filter(line -> line.contains(pattern))
+      .collect(Collectors.joining("\n"));
+  }
+  
   @Override
   public JobLogDTO retryLogAggregation(Execution execution, JobLogDTO.LogType type) throws JobException {
     if (!execution.getState().isFinalState()) {
@@ -350,15 +508,13 @@ public abstract class AbstractExecutionController implements ExecutionController
           "Logs not available. This could be caused by the retention policy.");
       }
       String hdfsLogPath = null;
-      String[] desiredLogTypes = null;
+      String[] desiredLogTypes = desiredLogTypes(type);
       switch (type){
         case OUT:
           hdfsLogPath = REMOTE_PROTOCOL + execution.getStdoutPath();
-          desiredLogTypes = new String[]{type.name()};
           break;
         case ERR:
           hdfsLogPath = REMOTE_PROTOCOL + execution.getStderrPath();
-          desiredLogTypes = new String[]{type.name(), ".log"};
           break;
         default:
           break;
@@ -50,6 +50,8 @@ import io.hops.hopsworks.persistence.entity.jobs.history.Execution;
 import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.user.Users;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ExecutionController {
@@ -69,6 +71,12 @@ public interface ExecutionController {
   
   JobLogDTO getLog(Execution execution, JobLogDTO.LogType type) throws JobException;
   
+  JobLogDTO getLog(Execution execution, JobLogDTO.LogType type, long offset, int length, String grep)
+    throws JobException;
+  
+  void tailLog(Execution execution, JobLogDTO.LogType type, long offset, OutputStream out)
+    throws JobException, IOException;
+  
   JobLogDTO retryLogAggregation(Execution execution, JobLogDTO.LogType type) throws JobException;
   
   void checkAccessRight(String appId, Project project) throws JobException;
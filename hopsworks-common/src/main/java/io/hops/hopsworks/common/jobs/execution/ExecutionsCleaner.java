@@ -17,7 +17,7 @@
 package io.hops.hopsworks.common.jobs.execution;
 
 import io.hops.hopsworks.common.dao.jobhistory.ExecutionFacade;
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.persistence.entity.jobs.history.Execution;
 import org.javatuples.Pair;
@@ -57,7 +57,7 @@ public class ExecutionsCleaner {
   @EJB
   private ExecutionFacade executionFacade;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
   private Timer timer;
@@ -97,7 +97,7 @@ public class ExecutionsCleaner {
   @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
   @Timeout
   public void deleteOrphanExecutions(Timer timer) {
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(ExecutionsCleaner.class)) {
       return;
     }
     try {
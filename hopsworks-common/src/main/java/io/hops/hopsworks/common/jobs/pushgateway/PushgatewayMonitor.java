@@ -20,7 +20,7 @@ import com.logicalclocks.servicediscoverclient.exceptions.ServiceDiscoveryExcept
 import com.logicalclocks.servicediscoverclient.service.Service;
 import io.hops.hopsworks.common.hosts.ServiceDiscoveryController;
 import io.hops.hopsworks.common.proxies.client.HttpClient;
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.common.yarn.YarnClientService;
 import io.hops.hopsworks.common.yarn.YarnClientWrapper;
 import io.hops.hopsworks.servicediscovery.HopsworksService;
@@ -72,7 +72,7 @@ public class PushgatewayMonitor {
   @EJB
   private YarnClientService ycs;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
   private Timer timer;
@@ -94,12 +94,15 @@ public class PushgatewayMonitor {
 
   @Timeout
   public synchronized void monitor(Timer timer) {
-    if (!payaraClusterManager.amIThePrimary()) {
-      return;
-    }
     try {
       PushgatewayResults results = scrapeMetrics();
-      Set<String> activeApplications = getActiveApplications(results);
+      // Every member scrapes, but only cleans up the applications whose shard it owns
+      Set<String> activeApplications = getActiveApplications(results).stream()
+          .filter(applicationId -> workShardManager.isMine(WorkShardManager.key("pushgateway", applicationId)))
+          .collect(Collectors.toSet());
+      if (activeApplications.isEmpty()) {
+        return;
+      }
       List<String> applicationsToRemove = getApplicationsToRemove(activeApplications);
 
       removeActiveApplications(results, applicationsToRemove);
@@ -41,6 +41,7 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 
 import static com.cronutils.model.CronType.QUARTZ;
@@ -72,6 +73,21 @@ public class JobScheduleV2Controller {
   public void executeWithCron() throws JobException, ProjectException, ServiceException, GenericException {
     executeWithCron(Instant.now());
   }
+
+  /**
+   * Execute the due schedules accepted by the filter, used to only trigger the schedules whose shard
+   * this member owns.
+   *
+   * @param filter
+   * @throws JobException
+   * @throws ProjectException
+   * @throws ServiceException
+   * @throws GenericException
+   */
+  public void executeWithCron(Predicate<JobScheduleV2> filter)
+          throws JobException, ProjectException, ServiceException, GenericException {
+    executeWithCron(Instant.now(), filter);
+  }
   
   /**
    * For test purpose, so that job start time can be verified in unit test.
@@ -84,7 +100,15 @@ public class JobScheduleV2Controller {
    */
   public void executeWithCron(Instant currentTime)
           throws JobException, ProjectException, ServiceException, GenericException {
+    executeWithCron(currentTime, jobSchedule -> true);
+  }
+
+  private void executeWithCron(Instant currentTime, Predicate<JobScheduleV2> filter)
+          throws JobException, ProjectException, ServiceException, GenericException {
     for (JobScheduleV2 jobSchedule : jobScheduleFacade.getActiveWithCurrentExecutionTime(currentTime)) {
+      if (!filter.test(jobSchedule)) {
+        continue;
+      }
       if (executionFacade.findByJobAndNotFinished(jobSchedule.getJob()).size() > 0) {
         // Should not do parallel executions to void issues with Hudi
         continue;
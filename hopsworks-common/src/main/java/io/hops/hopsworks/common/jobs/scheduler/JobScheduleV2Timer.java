@@ -16,7 +16,7 @@
 
 package io.hops.hopsworks.common.jobs.scheduler;
 
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.exceptions.GenericException;
 import io.hops.hopsworks.exceptions.JobException;
 import io.hops.hopsworks.exceptions.ProjectException;
@@ -43,7 +43,7 @@ public class JobScheduleV2Timer {
   @EJB
   private JobScheduleV2Controller jobScheduleController;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
   private Timer timer;
@@ -65,10 +65,8 @@ public class JobScheduleV2Timer {
 
   @Timeout
   public void schedule() throws JobException, ProjectException, ServiceException, GenericException {
-    if (!payaraClusterManager.amIThePrimary()) {
-      return;
-    }
     LOGGER.fine("JobScheduleV2Timer schedule just triggered");
-    jobScheduleController.executeWithCron();
+    jobScheduleController.executeWithCron(
+        jobSchedule -> workShardManager.isMine(WorkShardManager.key("job-schedule", jobSchedule.getId())));
   }
 }
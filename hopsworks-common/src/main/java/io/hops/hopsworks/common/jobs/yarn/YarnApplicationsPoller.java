@@ -0,0 +1,95 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.jobs.yarn;
+
+import io.hops.hopsworks.common.yarn.YarnClientService;
+import io.hops.hopsworks.common.yarn.YarnClientWrapper;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.ApplicationReport;
+import org.apache.hadoop.yarn.exceptions.ApplicationNotFoundException;
+import org.apache.hadoop.yarn.exceptions.YarnException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fetches the reports of many YARN applications over a single client. All applications of the given users are
+ * listed with one getApplications call. Only applications the ResourceManager does not list anymore are asked
+ * for one by one.
+ */
+public final class YarnApplicationsPoller implements Closeable {
+
+  private static final Logger LOGGER = Logger.getLogger(YarnApplicationsPoller.class.getName());
+
+  private final YarnClientWrapper yarnClientWrapper;
+  private final YarnClientService ycs;
+
+  public YarnApplicationsPoller(YarnClientWrapper yarnClientWrapper, YarnClientService ycs) {
+    this.yarnClientWrapper = yarnClientWrapper;
+    this.ycs = ycs;
+  }
+
+  /**
+   * @param appIds applications to report on
+   * @param users owners of the applications, used to narrow down the listing on the ResourceManager
+   * @return the report of every application that could be found. Applications missing from the result could not
+   * be polled.
+   * @throws IOException
+   * @throws YarnException if the applications could not be listed
+   */
+  public Map<ApplicationId, ApplicationReport> poll(Collection<ApplicationId> appIds, Set<String> users)
+      throws IOException, YarnException {
+    Map<ApplicationId, ApplicationReport> reports = new HashMap<>(appIds.size());
+    if (appIds.isEmpty()) {
+      return reports;
+    }
+    for (ApplicationReport report : yarnClientWrapper.getYarnClient()
+        .getApplications(null, users.isEmpty() ? null : users, null, null)) {
+      if (appIds.contains(report.getApplicationId())) {
+        reports.put(report.getApplicationId(), report);
+      }
+    }
+    for (ApplicationId appId : appIds) {
+      if (!reports.containsKey(appId)) {
+        try {
+          reports.put(appId, yarnClientWrapper.getYarnClient().getApplicationReport(appId));
+        } catch (ApplicationNotFoundException ex) {
+          LOGGER.log(Level.FINE, "Application " + appId + " not found", ex);
+        } catch (IOException | YarnException ex) {
+          LOGGER.log(Level.WARNING, "Failed to get application report for " + appId, ex);
+        }
+      }
+    }
+    return reports;
+  }
+
+  public void killApplication(ApplicationId appId) throws IOException, YarnException {
+    yarnClientWrapper.getYarnClient().killApplication(appId);
+  }
+
+  @Override
+  public void close() {
+    if (yarnClientWrapper != null) {
+      ycs.closeYarnClient(yarnClientWrapper);
+    }
+  }
+}
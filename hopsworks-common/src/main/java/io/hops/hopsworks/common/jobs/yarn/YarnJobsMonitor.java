@@ -42,15 +42,14 @@ package io.hops.hopsworks.common.jobs.yarn;
 import io.hops.hopsworks.common.dao.jobhistory.ExecutionFacade;
 import io.hops.hopsworks.common.jobs.JobsMonitor;
 import io.hops.hopsworks.common.jobs.execution.ExecutionUpdateController;
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.common.yarn.YarnClientService;
-import io.hops.hopsworks.common.yarn.YarnClientWrapper;
 import io.hops.hopsworks.persistence.entity.jobs.configuration.history.JobFinalStatus;
 import io.hops.hopsworks.persistence.entity.jobs.configuration.history.JobState;
 import io.hops.hopsworks.persistence.entity.jobs.history.Execution;
 import org.apache.hadoop.yarn.api.records.ApplicationId;
-import org.apache.hadoop.yarn.api.records.FinalApplicationStatus;
+import org.apache.hadoop.yarn.api.records.ApplicationReport;
 import org.apache.hadoop.yarn.api.records.YarnApplicationState;
 import org.apache.hadoop.yarn.exceptions.YarnException;
 
@@ -70,9 +69,10 @@ import javax.ejb.TransactionAttributeType;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -96,7 +96,7 @@ public class YarnJobsMonitor implements JobsMonitor {
   @EJB
   private YarnClientService ycs;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
   private Timer timer;
@@ -114,113 +114,156 @@ public class YarnJobsMonitor implements JobsMonitor {
     if (timer != null) {
       timer.cancel();
     }
+    closePoller();
   }
 
   private int maxStatusPollRetry;
 
-  Map<String, YarnMonitor> monitors = new HashMap<>();
+  private YarnApplicationsPoller poller;
   Map<String, Integer> failures = new HashMap<>();
   private final Map<ApplicationId, Future<Execution>> copyLogsFutures = new HashMap<>();
   
   @Timeout
   public synchronized void yarnJobMonitor(Timer timer) {
-    if (!payaraClusterManager.amIThePrimary()) {
-      return;
-    }
     try {
-      Map<String, Execution> executions = new HashMap<>();
+      Map<ApplicationId, Execution> executions = new HashMap<>();
+      Set<String> users = new HashSet<>();
       List<Execution> execs = executionFacade.findNotFinished();
       if (execs != null && !execs.isEmpty()) {
         for (Execution exec : execs) {
-          if (exec.getAppId() != null) {
-            executions.put(exec.getAppId(), exec);
+          // Applications are spread over the members, each one only polls the applications of its shards
+          if (exec.getAppId() != null
+              && workShardManager.isMine(WorkShardManager.key("yarn-application", exec.getAppId()))) {
+            executions.put(ApplicationId.fromString(exec.getAppId()), exec);
+            if (exec.getHdfsUser() != null) {
+              users.add(exec.getHdfsUser());
+            }
           }
         }
-        //Remove (Close) all monitors of deleted jobs
-        Iterator<Map.Entry<String, YarnMonitor>> monitorsIter = monitors.entrySet().iterator();
-        while (monitorsIter.hasNext()) {
-          Map.Entry<String, YarnMonitor> entry = monitorsIter.next();
-          // Check if Value associated with Key is 10
-          if (!executions.keySet().contains(entry.getKey())) {
-            // Remove the element
-            entry.getValue().close();
-            monitorsIter.remove();
-          }
+        //Forget the failures of executions which are not monitored anymore
+        failures.keySet().removeIf(appId -> !executions.containsKey(ApplicationId.fromString(appId)));
+        // This is here to do bookkeeping. Remove from the map all the executions which have finished copying the logs
+        copyLogsFutures.entrySet().removeIf(futureResult -> futureResult.getValue().isDone());
+        if (executions.isEmpty()) {
+          closePoller();
+          return;
         }
         maxStatusPollRetry = settings.getMaxStatusPollRetry();
-        List<String> toRemove = new ArrayList<>();
-        for (Map.Entry<String, Execution> entry : executions.entrySet()) {
-          YarnMonitor monitor = monitors.get(entry.getKey());
-          if (monitor == null) {
-            ApplicationId appId = ApplicationId.fromString(entry.getKey());
-            YarnClientWrapper newYarnclientWrapper = ycs.getYarnClientSuper(settings
-              .getConfiguration());
-            monitor = new YarnMonitor(appId, newYarnclientWrapper, ycs);
-            monitors.put(entry.getKey(), monitor);
-          }
-          Execution exec = internalMonitor(executions.get(entry.getKey()), monitor);
-          if (exec == null) {
-            toRemove.add(entry.getKey());
-            monitor.close();
+        Map<ApplicationId, ApplicationReport> reports = pollApplications(executions, users);
+        List<Execution> changed = new ArrayList<>();
+        for (Map.Entry<ApplicationId, Execution> entry : executions.entrySet()) {
+          Execution exec = internalMonitor(entry.getKey(), entry.getValue(), reports.get(entry.getKey()));
+          if (exec != null) {
+            changed.add(exec);
           }
         }
-        for (String appID : toRemove) {
-          failures.remove(appID);
-          monitors.remove(appID);
+        //Progress and state updates of all running executions go to the database in one transaction. Executions
+        //stopped or finalized since they were read are skipped by the update.
+        if (!changed.isEmpty()) {
+          int updated = executionFacade.updateAll(changed);
+          if (updated < changed.size()) {
+            LOGGER.log(Level.FINE, "{0} executions changed state during the monitoring run and were not updated",
+                changed.size() - updated);
+          }
         }
-        // This is here to do bookkeeping. Remove from the map all the executions which have finished copying the logs
-        copyLogsFutures.entrySet().removeIf(futureResult -> futureResult.getValue().isDone());
       }
     } catch (Exception ex) {
       LOGGER.log(Level.SEVERE, "Error while monitoring jobs", ex);
     }
   }
-  
-  private Execution internalMonitor(Execution exec, YarnMonitor monitor) {
+
+  private Map<ApplicationId, ApplicationReport> pollApplications(Map<ApplicationId, Execution> executions,
+      Set<String> users) {
     try {
-      YarnApplicationState appState = monitor.getApplicationState();
-      FinalApplicationStatus finalAppStatus = monitor.getFinalApplicationStatus();
-      float progress = monitor.getProgress();
-      exec = updateProgress(progress, exec);
-      exec = updateState(JobState.getJobState(appState), exec);
-      exec = updateFinalStatus(JobFinalStatus.getJobFinalStatus(finalAppStatus), exec);
-      
-      if ((appState == YarnApplicationState.FAILED
-          || appState == YarnApplicationState.FINISHED
-          || appState == YarnApplicationState.KILLED)
-          && !copyLogsFutures.containsKey(monitor.getApplicationId())) {
-        
-        exec = executionFacade.updateState(exec, JobState.AGGREGATING_LOGS);
-        // Async call
-        Future<Execution> futureResult = execFinalizer.copyLogs(exec);
-        copyLogsFutures.put(monitor.getApplicationId(), futureResult);
-        return null;
+      if (poller == null) {
+        poller = new YarnApplicationsPoller(ycs.getYarnClientSuper(settings.getConfiguration()), ycs);
       }
+      return poller.poll(executions.keySet(), users);
     } catch (IOException | YarnException ex) {
-      Integer failure = failures.get(exec.getAppId());
-      if (failure == null) {
-        failure = 1;
-      } else {
-        failure++;
-      }
-      failures.put(exec.getAppId(), failure);
-      LOGGER.log(Level.WARNING, "Failed to get application state for execution " + exec + ". Tried " + failures
-          + " time(s).", ex);
+      LOGGER.log(Level.WARNING, "Failed to get application reports for " + executions.size() + " executions", ex);
+      //Reconnect on the next run
+      closePoller();
+      return new HashMap<>();
     }
-    if (failures.get(exec.getAppId()) != null && failures.get(exec.getAppId()) > maxStatusPollRetry) {
-      try {
-        LOGGER.log(Level.SEVERE, "Killing application, {0}, because unable to poll for status.", exec);
-        monitor.cancelJob(monitor.getApplicationId().toString());
-        exec = updateFinalStatus(JobFinalStatus.KILLED, exec);
-        exec = updateProgress(0, exec);
-        execFinalizer.finalize(exec, JobState.KILLED);
-      } catch (YarnException | IOException ex) {
-        LOGGER.log(Level.SEVERE, "Failed to cancel execution, " + exec + " after failing to poll for status.", ex);
-        execFinalizer.finalize(exec, JobState.FRAMEWORK_FAILURE);
+  }
+
+  private void closePoller() {
+    if (poller != null) {
+      poller.close();
+      poller = null;
+    }
+  }
+
+  /**
+   * Apply an application report to its execution.
+   *
+   * @return the execution if its progress or state changed and needs to be persisted, null otherwise
+   */
+  private Execution internalMonitor(ApplicationId appId, Execution exec, ApplicationReport report) {
+    if (report == null) {
+      Integer failure = failures.merge(exec.getAppId(), 1, Integer::sum);
+      LOGGER.log(Level.WARNING, "Failed to get application state for execution " + exec + ". Tried " + failure
+          + " time(s).");
+      if (failure > maxStatusPollRetry) {
+        killUnreachable(appId, exec);
       }
       return null;
     }
-    return exec;
+    YarnApplicationState appState = report.getYarnApplicationState();
+    JobState state = JobState.getJobState(appState);
+    JobFinalStatus finalStatus = JobFinalStatus.getJobFinalStatus(report.getFinalApplicationStatus());
+    float progress = report.getProgress();
+
+    boolean progressChanged = Float.compare(exec.getProgress(), progress) != 0;
+    boolean stateChanged = exec.getState() != state;
+    boolean finalStatusChanged = exec.getFinalStatus() != finalStatus;
+    boolean finished = (appState == YarnApplicationState.FAILED
+        || appState == YarnApplicationState.FINISHED
+        || appState == YarnApplicationState.KILLED)
+        && !copyLogsFutures.containsKey(appId);
+
+    if (finalStatusChanged || finished) {
+      //Transitions happen once per execution, they go through the update controller which also sends the alerts
+      if (progressChanged) {
+        exec = updateProgress(progress, exec);
+      }
+      if (stateChanged) {
+        exec = updateState(state, exec);
+      }
+      if (finalStatusChanged) {
+        exec = updateFinalStatus(finalStatus, exec);
+      }
+    } else if (progressChanged || stateChanged) {
+      exec.setProgress(progress);
+      exec.setState(state);
+      return exec;
+    }
+
+    if (finished) {
+      exec = executionFacade.updateState(exec, JobState.AGGREGATING_LOGS);
+      // Async call
+      Future<Execution> futureResult = execFinalizer.copyLogs(exec);
+      copyLogsFutures.put(appId, futureResult);
+      failures.remove(exec.getAppId());
+    }
+    return null;
+  }
+
+  private void killUnreachable(ApplicationId appId, Execution exec) {
+    try {
+      LOGGER.log(Level.SEVERE, "Killing application, {0}, because unable to poll for status.", exec);
+      if (poller == null) {
+        poller = new YarnApplicationsPoller(ycs.getYarnClientSuper(settings.getConfiguration()), ycs);
+      }
+      poller.killApplication(appId);
+      exec = updateFinalStatus(JobFinalStatus.KILLED, exec);
+      exec = updateProgress(0, exec);
+      execFinalizer.finalize(exec, JobState.KILLED);
+    } catch (YarnException | IOException ex) {
+      LOGGER.log(Level.SEVERE, "Failed to cancel execution, " + exec + " after failing to poll for status.", ex);
+      execFinalizer.finalize(exec, JobState.FRAMEWORK_FAILURE);
+    }
+    failures.remove(exec.getAppId());
   }
   
   @Override
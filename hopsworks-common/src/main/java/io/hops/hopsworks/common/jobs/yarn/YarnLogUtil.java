@@ -46,6 +46,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -62,6 +63,7 @@ import org.apache.hadoop.yarn.logaggregation.AggregatedLogFormat.ContainerLogsRe
 public class YarnLogUtil {
 
   private static final Logger LOGGER = Logger.getLogger(YarnLogUtil.class.getName());
+  private static final String TMP_FILE_SUFFIX = ".tmp";
   
   public static void writeLog(DistributedFileSystemOps dfs, String dst,
     String message) {
@@ -153,6 +155,34 @@ public class YarnLogUtil {
     }
   }
   
+  /**
+   * Write the desired log types of the aggregated log files that have not been written yet. Aggregated log files
+   * are not modified once they have been uploaded, so calling this repeatedly while the application is running
+   * follows its logs as the node managers roll the log aggregation.
+   *
+   * @param dfs
+   * @param src aggregated yarn log path
+   * @param desiredLogTypes stderr or stdout or stdlog
+   * @param written the aggregated log files already written, updated
+   * @param writer
+   */
+  public static void tailAggregatedYarnLogs(DistributedFileSystemOps dfs, String src, String[] desiredLogTypes,
+      Set<String> written, PrintStream writer) throws IOException {
+    if (!dfs.exists(src)) {
+      return;
+    }
+    for (String path : getAggregatedLogFilePaths(src, dfs)) {
+      //files being uploaded by the node managers are renamed once complete
+      if (written.contains(path) || path.endsWith(TMP_FILE_SUFFIX) || dfs.isDir(path)) {
+        continue;
+      }
+      for (String desiredLogType : desiredLogTypes) {
+        writeLogs(dfs, new String[]{path}, writer, desiredLogType);
+      }
+      written.add(path);
+    }
+  }
+
   public static LogAggregationStatus waitForLogAggregation(YarnClient yarnClient, ApplicationId appId)
       throws InterruptedException, YarnException, IOException {
     LogAggregationStatus logAggregationStatus = yarnClient.getApplicationReport(appId)
@@ -38,7 +38,7 @@
  */
 package io.hops.hopsworks.common.jupyter;
 
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.persistence.entity.jupyter.JupyterProject;
 import io.hops.hopsworks.common.dao.jupyter.config.JupyterFacade;
 import io.hops.hopsworks.common.util.Settings;
@@ -77,7 +77,7 @@ public class JupyterNotebookCleaner {
   @EJB
   private Settings settings;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
   private Timer timer;
@@ -104,7 +104,7 @@ public class JupyterNotebookCleaner {
   public void execute(Timer timer) {
     // This should return false only if clustered. And in clustered jupyter should only run on kube.
     // So it should be ok to run this timer on any node.
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(JupyterNotebookCleaner.class)) {
       return;
     }
     doCleanup();
@@ -15,7 +15,7 @@
  */
 package io.hops.hopsworks.common.jwt;
 
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.jwt.JWTController;
 
 import javax.annotation.PostConstruct;
@@ -41,7 +41,7 @@ public class InvalidatedJWTCleanup {
   @EJB
   private JWTController jWTController;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
   private Timer timer;
@@ -63,7 +63,7 @@ public class InvalidatedJWTCleanup {
 
   @Timeout
   public void cleanInvalidatedJwt(Timer timer) {
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(InvalidatedJWTCleanup.class)) {
       return;
     }
 
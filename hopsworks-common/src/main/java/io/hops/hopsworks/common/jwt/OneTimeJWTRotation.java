@@ -15,7 +15,7 @@
  */
 package io.hops.hopsworks.common.jwt;
 
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.jwt.Constants;
 import io.hops.hopsworks.jwt.JWTController;
 
@@ -41,7 +41,7 @@ public class OneTimeJWTRotation {
   @EJB
   private JWTController jWTController;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   TimerService timerService;
   private Timer timer;
@@ -62,7 +62,7 @@ public class OneTimeJWTRotation {
 
   @Timeout
   public void markOldSigningKeys() {
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(OneTimeJWTRotation.class)) {
       return;
     }
     boolean marked = jWTController.markOldSigningKeys();
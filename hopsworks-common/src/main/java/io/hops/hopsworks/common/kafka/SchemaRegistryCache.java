@@ -0,0 +1,254 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.kafka;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import io.hops.hopsworks.common.dao.kafka.schemas.SchemasFacade;
+import io.hops.hopsworks.common.dao.kafka.schemas.SubjectsFacade;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.entity.kafka.schemas.SchemaCompatibility;
+import io.hops.hopsworks.persistence.entity.kafka.schemas.Schemas;
+import io.hops.hopsworks.persistence.entity.kafka.schemas.Subjects;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import org.apache.avro.Schema;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caches of the built-in schema registry. Schemas never change once registered, so they are cached by id together
+ * with their parsed Avro form and never invalidated. The subjects of a project are indexed by name and version, the
+ * index is evicted on all nodes when a subject, a version or a compatibility level of the project changes.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NEVER)
+public class SchemaRegistryCache {
+
+  @EJB
+  private Settings settings;
+  @EJB
+  private SchemasFacade schemasFacade;
+  @EJB
+  private SubjectsFacade subjectsFacade;
+  @Inject
+  private HazelcastInstance hazelcastInstance;
+
+  private Cache<Integer, Schemas> schemasById;
+  private Cache<String, Schema> parsedSchemas;
+  private Cache<Integer, ProjectSubjects> projectSubjects;
+  private Cache<CompatibilityKey, Boolean> compatibilityChecks;
+  private ITopic<Integer> subjectsUpdatedTopic;
+  private UUID listenerId;
+
+  @PostConstruct
+  public void init() {
+    int maxSize = settings.getSchemaRegistryCacheMaxSize();
+    schemasById = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .build();
+    parsedSchemas = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .build();
+    compatibilityChecks = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .build();
+    projectSubjects = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .expireAfterWrite(settings.getSchemaRegistrySubjectsCacheTtl(), TimeUnit.MILLISECONDS)
+      .build();
+    // hazelcastInstance == null if Hazelcast is Disabled
+    if (hazelcastInstance != null) {
+      subjectsUpdatedTopic = hazelcastInstance.getTopic("schema_registry_subjects_updated");
+      listenerId = subjectsUpdatedTopic.addMessageListener(new MessageListenerImpl());
+    }
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (subjectsUpdatedTopic != null) {
+      //needed for redeploy to remove the listener
+      subjectsUpdatedTopic.removeMessageListener(listenerId);
+    }
+  }
+
+  /**
+   * @param project project the schema should belong to
+   * @param id id of the schema
+   * @return the schema if it exists in the project
+   */
+  public Optional<Schemas> findSchemaById(Project project, Integer id) {
+    Schemas schema = schemasById.getIfPresent(id);
+    if (schema == null) {
+      Optional<Schemas> found = schemasFacade.findSchemaById(project, id);
+      found.ifPresent(s -> schemasById.put(id, s));
+      return found;
+    }
+    return Objects.equals(schema.getProject().getId(), project.getId()) ? Optional.of(schema) : Optional.empty();
+  }
+
+  /**
+   * @param schema schema definition
+   * @return the parsed schema, shared between callers and not to be modified
+   * @throws org.apache.avro.SchemaParseException if the schema is not valid
+   */
+  public Schema parse(String schema) {
+    return parsedSchemas.get(schema, s -> new Schema.Parser().parse(s));
+  }
+
+  public ProjectSubjects getSubjects(Project project) {
+    return projectSubjects.get(project.getId(), id -> new ProjectSubjects(subjectsFacade.findAllByProject(project)));
+  }
+
+  /**
+   * Evict the subject index of a project on all nodes, after a subject, version or compatibility level has changed.
+   */
+  public void invalidateSubjects(Project project) {
+    projectSubjects.invalidate(project.getId());
+    if (subjectsUpdatedTopic != null) {
+      subjectsUpdatedTopic.publish(project.getId());
+    }
+  }
+
+  /**
+   * @param schema schema to test
+   * @param target registered version to test against
+   * @param compatibility compatibility level of the subject
+   * @param check computes the result if it is not memoized
+   * @return whether schema is compatible with target
+   */
+  public boolean isCompatible(Schema schema, Subjects target, SchemaCompatibility compatibility,
+    Supplier<Boolean> check) {
+    return compatibilityChecks.get(new CompatibilityKey(schema.toString(), target.getSchema().getId(),
+      compatibility), k -> check.get());
+  }
+
+  /**
+   * Versions of the subjects of a project, sorted by version.
+   */
+  public static class ProjectSubjects {
+    private final Map<String, List<Subjects>> subjects = new HashMap<>();
+    private final Map<String, SchemaCompatibility> compatibilities = new ConcurrentHashMap<>();
+
+    ProjectSubjects(List<Subjects> all) {
+      for (Subjects s : all) {
+        subjects.computeIfAbsent(s.getSubject(), k -> new ArrayList<>()).add(s);
+      }
+      for (List<Subjects> versions : subjects.values()) {
+        versions.sort(Comparator.comparing(Subjects::getVersion));
+      }
+    }
+
+    public Set<String> getSubjectNames() {
+      return Collections.unmodifiableSet(subjects.keySet());
+    }
+
+    public boolean contains(String subject) {
+      return subjects.containsKey(subject);
+    }
+
+    public List<Subjects> getVersions(String subject) {
+      return Collections.unmodifiableList(subjects.getOrDefault(subject, Collections.emptyList()));
+    }
+
+    public Optional<Subjects> getLatestVersion(String subject) {
+      List<Subjects> versions = getVersions(subject);
+      return versions.isEmpty() ? Optional.empty() : Optional.of(versions.get(versions.size() - 1));
+    }
+
+    public Optional<Subjects> getVersion(String subject, Integer version) {
+      return getVersions(subject).stream().filter(s -> s.getVersion().equals(version)).findFirst();
+    }
+
+    public Optional<Subjects> getVersionWithSchema(String subject, String schema) {
+      return getVersions(subject).stream().filter(s -> s.getSchema().getSchema().equals(schema)).findFirst();
+    }
+
+    /**
+     * Compatibility level of a subject, as resolved against the subject and project settings when first needed.
+     */
+    Map<String, SchemaCompatibility> getCompatibilities() {
+      return compatibilities;
+    }
+  }
+
+  private static class CompatibilityKey {
+    private final String schema;
+    private final Integer targetSchemaId;
+    private final SchemaCompatibility compatibility;
+
+    CompatibilityKey(String schema, Integer targetSchemaId, SchemaCompatibility compatibility) {
+      this.schema = schema;
+      this.targetSchemaId = targetSchemaId;
+      this.compatibility = compatibility;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      CompatibilityKey that = (CompatibilityKey) o;
+      return schema.equals(that.schema) && targetSchemaId.equals(that.targetSchemaId)
+        && compatibility == that.compatibility;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(schema, targetSchemaId, compatibility);
+    }
+  }
+
+  public class MessageListenerImpl implements MessageListener<Integer> {
+
+    @Override
+    public void onMessage(Message<Integer> message) {
+      if (!message.getPublishingMember().localMember()) {
+        projectSubjects.invalidate(message.getMessageObject());
+      }
+    }
+  }
+}
@@ -39,6 +39,8 @@ public class SchemasController {
   private final static Logger LOGGER = Logger.getLogger(SchemasController.class.getName());
   @EJB
   private SchemasFacade schemasFacade;
+  @EJB
+  private SchemaRegistryCache schemaRegistryCache;
   
   public Schemas addNewSchema(Project project, String schemaString) throws SchemaException {
     Schema schema = validateSchema(project, schemaString);
@@ -57,7 +59,7 @@ public class SchemasController {
       throw new IllegalArgumentException("No schema provided");
     }
     try {
-      return new Schema.Parser().parse(schema);
+      return schemaRegistryCache.parse(schema);
     } catch (SchemaParseException e) {
       throw new SchemaException(RESTCodes.SchemaRegistryErrorCode.INVALID_AVRO_SCHEMA, Level.FINE,
         "project=" + project.getName() + ", schema=" + schema);
@@ -65,7 +67,7 @@ public class SchemasController {
   }
   
   public SubjectDTO findSchemaById(Project project, Integer id) throws SchemaException {
-    Schemas schema = schemasFacade.findSchemaById(project, id).orElseThrow(() ->
+    Schemas schema = schemaRegistryCache.findSchemaById(project, id).orElseThrow(() ->
       new SchemaException(RESTCodes.SchemaRegistryErrorCode.SCHEMA_NOT_FOUND, Level.FINE,
         "project=" + project.getName() + ", schema_id=" + id));
     return new SubjectDTO(schema.getSchema());
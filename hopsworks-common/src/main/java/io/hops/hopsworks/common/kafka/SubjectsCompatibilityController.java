@@ -44,6 +44,8 @@ public class SubjectsCompatibilityController {
   private SubjectsCompatibilityFacade subjectsCompatibilityFacade;
   @EJB
   private SubjectsFacade subjectsFacade;
+  @EJB
+  private SchemaRegistryCache schemaRegistryCache;
   
   public CompatibilityLevel getProjectCompatibilityLevel(Project project) throws SchemaException {
     SchemaCompatibility sc = subjectsCompatibilityFacade.getProjectCompatibility(project)
@@ -70,6 +72,7 @@ public class SubjectsCompatibilityController {
         "Compatibility cannot be null");
     }
     subjectsCompatibilityFacade.setProjectCompatibility(project, dto.getCompatibility());
+    schemaRegistryCache.invalidateSubjects(project);
     return getProjectCompatibility(project);
   }
   
@@ -80,6 +83,7 @@ public class SubjectsCompatibilityController {
         "Compatibility cannot be null");
     }
     subjectsCompatibilityFacade.setProjectCompatibility(project, sc);
+    schemaRegistryCache.invalidateSubjects(project);
     return getProjectCompatibility(project);
   }
   
@@ -118,6 +122,7 @@ public class SubjectsCompatibilityController {
     }
   
     subjectsCompatibilityFacade.updateSubjectCompatibility(project, subject, sc);
+    schemaRegistryCache.invalidateSubjects(project);
     CompatibilityLevel levelDto = getSubjectCompatibility(project, subject);
     return new Compatibility(levelDto.getCompatibilityLevel());
   }
@@ -40,10 +40,12 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -62,16 +64,17 @@ public class SubjectsController {
   private SchemasController schemasController;
   @EJB
   private ProjectTopicsFacade projectTopicsFacade;
+  @EJB
+  private SchemaRegistryCache schemaRegistryCache;
   
   public List<String> getSubjects(Project project) {
-    return subjectsFacade.getListOfSubjects(project);
+    return new ArrayList<>(schemaRegistryCache.getSubjects(project).getSubjectNames());
   }
   
   public List<Integer> getSubjectVersions(Project project, String subject) throws SchemaException{
-    List<Integer> versions = subjectsFacade.findSubjectByName(project, subject)
+    List<Integer> versions = schemaRegistryCache.getSubjects(project).getVersions(subject)
       .stream()
       .map(Subjects::getVersion)
-      .sorted()
       .collect(Collectors.toList());
     if (versions.isEmpty()) {
       throw new SchemaException(RESTCodes.SchemaRegistryErrorCode.SUBJECT_NOT_FOUND, Level.FINE, "subject=" +
@@ -82,17 +85,13 @@ public class SubjectsController {
   
   public SubjectDTO getSubjectDetails(Project project, String subject, String version) throws SchemaException {
     validateVersion(version);
-    if (subjectsFacade.findSubjectByName(project, subject).isEmpty()) {
+    SchemaRegistryCache.ProjectSubjects subjects = schemaRegistryCache.getSubjects(project);
+    if (!subjects.contains(subject)) {
       throw new SchemaException(RESTCodes.SchemaRegistryErrorCode.SUBJECT_NOT_FOUND, Level.FINE, "subject=" +
         subject);
     }
   
-    Optional<Subjects> optional;
-    if (version.equals("latest")) {
-      optional = subjectsFacade.findSubjectLatestVersion(project, subject);
-    } else {
-      optional = subjectsFacade.findSubjectByNameAndVersion(project, subject, Integer.valueOf(version));
-    }
+    Optional<Subjects> optional = findVersion(subjects, subject, version);
     
     if (optional.isPresent()) {
       Subjects res = optional.get();
@@ -112,7 +111,7 @@ public class SubjectsController {
     validateSubject(subject, isEnablingKafkaService);
     Schema schema;
     try {
-      schema = new Schema.Parser().parse(schemaContent);
+      schema = schemaRegistryCache.parse(schemaContent);
     } catch (SchemaParseException e) {
       throw new SchemaException(RESTCodes.SchemaRegistryErrorCode.INVALID_AVRO_SCHEMA, Level.FINE,
         "schema=" + schemaContent);
@@ -137,6 +136,7 @@ public class SubjectsController {
   
     Schemas schemas = schemasController.addNewSchema(project, schema.toString());
     Integer id = subjectsFacade.insertNewSubject(project, subject, schemas, latestVersion + 1);
+    schemaRegistryCache.invalidateSubjects(project);
     return new SubjectDTO(id, subject, latestVersion + 1);
   }
   
@@ -163,7 +163,7 @@ public class SubjectsController {
     List<Schema> previousSchemas = subjectsFacade.findSubjectByName(project, subject)
       .stream()
       .sorted(Comparator.comparing(Subjects::getVersion).reversed())
-      .map(s -> new Schema.Parser().parse(s.getSchema().getSchema()))
+      .map(s -> schemaRegistryCache.parse(s.getSchema().getSchema()))
       .collect(Collectors.toList());
     try {
       
@@ -189,6 +189,17 @@ public class SubjectsController {
     return true;
   }
   
+  private SchemaCompatibility getCachedSubjectOrProjectCompatibility(Project project, String subject)
+    throws SchemaException {
+    Map<String, SchemaCompatibility> compatibilities = schemaRegistryCache.getSubjects(project).getCompatibilities();
+    SchemaCompatibility sc = compatibilities.get(subject);
+    if (sc == null) {
+      sc = getSubjectOrProjectCompatibility(project, subject);
+      compatibilities.put(subject, sc);
+    }
+    return sc;
+  }
+  
   private SchemaCompatibility getSubjectOrProjectCompatibility(Project project, String subject) throws SchemaException {
     Optional<SubjectsCompatibility> optional = subjectsCompatibilityFacade.getSubjectCompatibility(project, subject);
     if (optional.isPresent()) {
@@ -222,18 +233,19 @@ public class SubjectsController {
   
   public SubjectDTO checkIfSchemaRegistered(Project project, String subject, String schemaContent) throws
     SchemaException {
-    if (!subjectsFacade.getListOfSubjects(project).contains(subject)) {
+    SchemaRegistryCache.ProjectSubjects subjects = schemaRegistryCache.getSubjects(project);
+    if (!subjects.contains(subject)) {
       throw new SchemaException(RESTCodes.SchemaRegistryErrorCode.SUBJECT_NOT_FOUND, Level.FINE, "subject=" +
         subject);
     }
     Schema schema;
     try {
-      schema = new Schema.Parser().parse(schemaContent);
+      schema = schemaRegistryCache.parse(schemaContent);
     } catch (SchemaParseException e) {
       throw new SchemaException(RESTCodes.SchemaRegistryErrorCode.INVALID_AVRO_SCHEMA, Level.FINE,
         "schema=" + schemaContent);
     }
-    Optional<Subjects> optional = subjectsFacade.findSubjectByNameAndSchema(project, subject, schema.toString());
+    Optional<Subjects> optional = subjects.getVersionWithSchema(subject, schema.toString());
     if (!optional.isPresent()) {
       throw new SchemaException(RESTCodes.SchemaRegistryErrorCode.SCHEMA_NOT_FOUND, Level.FINE,
         "schema=" + schema.toString());
@@ -247,7 +259,16 @@ public class SubjectsController {
       throw new KafkaException(RESTCodes.KafkaErrorCode.SCHEMA_IN_USE, Level.FINE, "project=" + project.getName() +
         ", subject=" + subject);
     }
-    List<Integer> versions = getSubjectVersions(project, subject);
+    // versions from the database, the cached index of this node may not be up to date yet
+    List<Integer> versions = subjectsFacade.findSubjectByName(project, subject)
+      .stream()
+      .map(Subjects::getVersion)
+      .sorted()
+      .collect(Collectors.toList());
+    if (versions.isEmpty()) {
+      throw new SchemaException(RESTCodes.SchemaRegistryErrorCode.SUBJECT_NOT_FOUND, Level.FINE, "subject=" +
+        subject);
+    }
     Integer deleted = subjectsFacade.deleteSubject(project, subject);
     if (versions.size() != deleted) {
       throw new SchemaException(RESTCodes.SchemaRegistryErrorCode.INTERNAL_SERVER_ERROR, Level.FINE, "error deleting " +
@@ -257,6 +278,7 @@ public class SubjectsController {
     subjectsCompatibilityFacade
       .getSubjectCompatibility(project, subject)
       .ifPresent(sc -> subjectsCompatibilityFacade.remove(sc));
+    schemaRegistryCache.invalidateSubjects(project);
     return versions;
   }
   
@@ -266,29 +288,27 @@ public class SubjectsController {
     validateVersion(version);
     Schema schema;
     try {
-      schema = new Schema.Parser().parse(schemaToTest);
+      schema = schemaRegistryCache.parse(schemaToTest);
     } catch (SchemaParseException e) {
       throw new SchemaException(RESTCodes.SchemaRegistryErrorCode.INVALID_AVRO_SCHEMA, Level.FINE,
         "schema=" + schemaToTest);
     }
-    if (!subjectsFacade.getListOfSubjects(project).contains(subject)) {
+    SchemaRegistryCache.ProjectSubjects subjects = schemaRegistryCache.getSubjects(project);
+    if (!subjects.contains(subject)) {
       throw new SchemaException(RESTCodes.SchemaRegistryErrorCode.SUBJECT_NOT_FOUND, Level.FINE, "subject=" +
         subject);
     }
-    SchemaCompatibility sc = getSubjectOrProjectCompatibility(project, subject);
-    Optional<Subjects> optional;
-    if (version.equals("latest")) {
-      optional = subjectsFacade.findSubjectLatestVersion(project, subject);
-    } else {
-      optional = subjectsFacade.findSubjectByNameAndVersion(project, subject, Integer.valueOf(version));
-    }
+    SchemaCompatibility sc = getCachedSubjectOrProjectCompatibility(project, subject);
+    Optional<Subjects> optional = findVersion(subjects, subject, version);
     
     if (!optional.isPresent()) {
       throw new SchemaException(RESTCodes.SchemaRegistryErrorCode.VERSION_NOT_FOUND, Level.FINE, "project=" + project
         .getName() + ", subject=" + subject + ", version=" + version);
     }
     
-    boolean isCompatible = isCompatible(new Schema.Parser().parse(optional.get().getSchema().getSchema()), schema, sc);
+    Subjects target = optional.get();
+    boolean isCompatible = schemaRegistryCache.isCompatible(schema, target, sc,
+      () -> isCompatible(schemaRegistryCache.parse(target.getSchema().getSchema()), schema, sc));
     return new CompatibilityCheck(isCompatible);
   }
   
@@ -320,9 +340,19 @@ public class SubjectsController {
     subjectsFacade.remove(optional.get());
     subjectsCompatibilityFacade.getSubjectCompatibility(project, subject)
       .ifPresent(sc -> subjectsCompatibilityFacade.remove(sc));
+    schemaRegistryCache.invalidateSubjects(project);
     return versionToDelete;
   }
   
+  private Optional<Subjects> findVersion(SchemaRegistryCache.ProjectSubjects subjects, String subject,
+    String version) {
+    if (version.equals("latest")) {
+      return subjects.getLatestVersion(subject);
+    } else {
+      return subjects.getVersion(subject, Integer.valueOf(version));
+    }
+  }
+  
   private void validateVersion(String version) throws SchemaException {
     // check if version is "latest"
     if (version.equals("latest")) {
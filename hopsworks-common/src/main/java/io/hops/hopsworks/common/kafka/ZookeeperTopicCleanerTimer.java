@@ -40,7 +40,7 @@
 package io.hops.hopsworks.common.kafka;
 
 import io.hops.hopsworks.common.dao.kafka.HopsKafkaAdminClient;
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.persistence.entity.kafka.ProjectTopics;
 
 import javax.annotation.PostConstruct;
@@ -83,7 +83,7 @@ public class ZookeeperTopicCleanerTimer {
   @EJB
   private HopsKafkaAdminClient hopsKafkaAdminClient;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
   private Timer timer;
@@ -105,7 +105,7 @@ public class ZookeeperTopicCleanerTimer {
   // Run once per hour
   @Timeout
   public void execute(Timer timer) {
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(ZookeeperTopicCleanerTimer.class)) {
       return;
     }
     LOGGER.log(Level.FINE, "Running ZookeeperTopicCleanerTimer.");
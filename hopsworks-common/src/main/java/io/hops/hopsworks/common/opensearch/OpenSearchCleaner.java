@@ -38,7 +38,7 @@
  */
 package io.hops.hopsworks.common.opensearch;
 
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.common.util.Settings;
 
 import javax.annotation.PostConstruct;
@@ -67,7 +67,7 @@ public class OpenSearchCleaner {
   @EJB
   Settings settings;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
   private Timer timer;
@@ -94,7 +94,7 @@ public class OpenSearchCleaner {
    */
   @Timeout
   public void deleteLogIndices(Timer timer) {
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(OpenSearchCleaner.class)) {
       return;
     }
     LOGGER.log(Level.INFO, "Running OpenSearchCleaner.");
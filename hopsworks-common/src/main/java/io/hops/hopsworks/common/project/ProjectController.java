@@ -78,11 +78,13 @@ import io.hops.hopsworks.common.featurestore.FeaturestoreController;
 import io.hops.hopsworks.common.featurestore.online.OnlineFeaturestoreController;
 import io.hops.hopsworks.common.featurestore.transformationFunction.TransformationFunctionController;
 import io.hops.hopsworks.common.hdfs.DistributedFileSystemOps;
+import io.hops.hopsworks.common.hdfs.DistributedFsClientPool;
 import io.hops.hopsworks.common.hdfs.DistributedFsService;
 import io.hops.hopsworks.common.hdfs.HdfsUsersController;
 import io.hops.hopsworks.common.hdfs.Utils;
 import io.hops.hopsworks.common.hdfs.inode.InodeController;
 import io.hops.hopsworks.common.hive.HiveController;
+import io.hops.hopsworks.common.hive.HiveMetastoreClientPool;
 import io.hops.hopsworks.common.jobs.JobController;
 import io.hops.hopsworks.common.jobs.execution.ExecutionController;
 import io.hops.hopsworks.common.jobs.yarn.YarnLogUtil;
@@ -163,6 +165,7 @@ import org.apache.hadoop.yarn.client.api.YarnClient;
 import org.apache.hadoop.yarn.conf.YarnConfiguration;
 import org.apache.hadoop.yarn.exceptions.YarnException;
 
+import javax.ejb.Asynchronous;
 import javax.ejb.EJB;
 import javax.ejb.EJBException;
 import javax.ejb.Stateless;
@@ -199,6 +202,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -208,6 +212,8 @@ import java.util.stream.Collectors;
 public class ProjectController {
 
   private static final Logger LOGGER = Logger.getLogger(ProjectController.class.getName());
+  private static final Set<ProjectServiceEnum> DEPENDENT_SERVICES = EnumSet.of(ProjectServiceEnum.JUPYTER,
+    ProjectServiceEnum.JOBS, ProjectServiceEnum.FEATURESTORE, ProjectServiceEnum.KAFKA, ProjectServiceEnum.SERVING);
 
   @EJB
   protected UsersController usersController;
@@ -264,8 +270,12 @@ public class ProjectController {
   @EJB
   private HiveController hiveController;
   @EJB
+  private HiveMetastoreClientPool metastoreClientPool;
+  @EJB
   private HdfsUsersController hdfsUsersController;
   @EJB
+  private DistributedFsClientPool dfsClientPool;
+  @EJB
   private CertificatesController certificatesController;
   @EJB
   private MessageController messageController;
@@ -311,6 +321,10 @@ public class ProjectController {
   private Instance<ProjectTeamRoleHandler> projectTeamRoleHandlers;
   @EJB
   private SearchFSCommandLogger searchFSCommandLogger;
+  @EJB
+  private ProjectProvisioningTracker provisioningTracker;
+  @EJB
+  private ProjectProvisioningExecutor provisioningExecutor;
 
   public Project createProject(ProjectDTO projectDTO, Users owner) throws DatasetException,
       GenericException, KafkaException, ProjectException, UserException, HopsSecurityException, ServiceException,
@@ -338,14 +352,19 @@ public class ProjectController {
     return String.format("Project creation <%s> - %s", project.getProjectName(), stage);
   }
 
+  private String projectCreationLog(Project project, String stage) {
+    return String.format("Project creation <%s> - %s", project.getName(), stage);
+  }
+
   /**
    * Creates a new project(project), the related DIR, the different services in
    * the project, and the master of the
    * project.
    * <p>
-   * This needs to be an atomic operation (all or nothing) REQUIRES_NEW will
-   * make sure a new transaction is created even
-   * if this method is called from within a transaction.
+   * The provisioning runs as a pipeline of steps, each one starting as soon as the steps it depends on are done, so
+   * that independent steps (HDFS, OpenSearch, Hive, Kafka, ...) run in parallel. The progress and the timing of the
+   * steps is recorded in the {@link ProjectProvisioningTracker}.
+   * If a step fails the project is cleaned up, as the compensation of the step creating the project in the database.
    *
    * @param projectDTO
    * @param owner
@@ -357,7 +376,6 @@ public class ProjectController {
     FeaturestoreException, OpenSearchException, SchemaException, IOException {
 
     LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Creating project"));
-    Long startTime = System.currentTimeMillis();
 
     //check that the project name is ok
     String projectName = projectDTO.getProjectName();
@@ -370,12 +388,12 @@ public class ProjectController {
         projectServices.add(se);
       }
     }
-    LOGGER.log(Level.FINE, () -> "PROJECT CREATION TIME. Step 1: " + (System.currentTimeMillis() - startTime));
 
-    DistributedFileSystemOps dfso = null;
-    Project project = null;
-    try {
-      dfso = dfs.getDfsOps();
+    ProvisioningProgress progress = provisioningTracker.start(projectName, owner);
+    AtomicReference<Project> project = new AtomicReference<>();
+    ProvTypeDTO provType = settings.getProvType().dto;
+    ProvisioningPipeline pipeline = new ProvisioningPipeline(provisioningExecutor.getExecutor(), progress,
+      provisioningTracker::publish)
       /*
        * create a project in the database
        * if the creation go through it means that there is no other project with
@@ -384,178 +402,248 @@ public class ProjectController {
        * with the same name
        * until this project is removed from the database
        */
-      try {
-        project = createProjectDbMetadata(projectName, owner, projectDTO);
-        LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Created DB metadata"));
-      } catch (EJBException ex) {
-        LOGGER.log(Level.WARNING, null, ex);
-        throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_EXISTS, Level.SEVERE, "project: " + projectName,
-          ex.getMessage(), ex);
+      .step("project", withDfso(dfso -> project.set(provisionProject(projectName, owner, projectDTO, dfso))),
+        () -> cleanup(project.get(), null, owner))
+      //create certificate for this user
+      // User's certificates should be created before making any call to
+      // Hadoop clients. Otherwise, the client will fail if RPC TLS is enabled
+      .step("certificates", () -> provisionCertificates(project.get(), owner), "project")
+      //all the verifications have passed, we can now create the project folder
+      .step("directory", withDfso(dfso -> provisionDirectory(project.get(), provType, dfso)), "project")
+      .step("quotas", withDfso(dfso -> provisionQuotas(project.get(), owner, dfso)), "directory")
+      .step("log-resources", withDfso(dfso -> provisionLogResources(project.get(), owner, dfso)), "quotas")
+      //Delete old project indices and kibana saved objects to avoid inconsistencies
+      .step("opensearch-cleanup", () -> cleanupOpenSearch(project.get()), "project")
+      .step("operations-log", () -> logProject(project.get(), OperationType.Add), "directory");
+
+    // Services are added once the certificates are there and the old OpenSearch indices and saved objects are gone,
+    // otherwise the cleanup could delete the ones the services create. Jupyter, jobs, feature store, kafka and
+    // serving share datasets and check each other's state (e.g. kafka being enabled) so they are added one after
+    // the other, the rest in parallel
+    List<String> serviceSteps = new ArrayList<>();
+    String previousDependentService = null;
+    for (ProjectServiceEnum service : projectServices) {
+      String step = "service-" + service.name().toLowerCase();
+      if (serviceSteps.contains(step)) {
+        continue;
+      }
+      List<String> dependencies = new ArrayList<>(Arrays.asList("certificates", "log-resources",
+        "opensearch-cleanup"));
+      if (DEPENDENT_SERVICES.contains(service)) {
+        if (previousDependentService != null) {
+          dependencies.add(previousDependentService);
+        }
+        previousDependentService = step;
       }
-      LOGGER.log(Level.FINE, "PROJECT CREATION TIME. Step 2 (hdfs): {0}", System.currentTimeMillis() - startTime);
+      pipeline.step(step, withDfso(dfso -> provisionService(project.get(), service, owner, provType, dfso)),
+        dependencies.toArray(new String[0]));
+      serviceSteps.add(step);
+    }
+    List<String> postCreateDependencies = new ArrayList<>(serviceSteps);
+    postCreateDependencies.addAll(Arrays.asList("certificates", "log-resources", "opensearch-cleanup",
+      "operations-log"));
+    pipeline
+      .step("post-create-handlers", () -> runPostCreateHandlers(project.get()),
+        postCreateDependencies.toArray(new String[0]))
+      .step("python-environment", () -> project.set(provisionEnvironment(project.get(), owner)),
+        "post-create-handlers");
 
-      verifyProject(project, dfso);
-      LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Verified project"));
+    try {
+      pipeline.run();
+    } catch (DatasetException | GenericException | KafkaException | ProjectException | UserException
+      | HopsSecurityException | ServiceException | FeaturestoreException | OpenSearchException | SchemaException
+      | IOException | RuntimeException ex) {
+      provisioningFailed(progress, ex);
+      throw ex;
+    } catch (Exception ex) {
+      provisioningFailed(progress, ex);
+      throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_SERVICE_ADD_FAILURE, Level.SEVERE,
+        "project: " + projectName, ex.getMessage(), ex);
+    }
 
-      LOGGER.log(Level.FINE, "PROJECT CREATION TIME. Step 3 (verify): {0}", System.currentTimeMillis() - startTime);
+    // set project creation status to done
+    Project created = project.get();
+    created.setCreationStatus(CreationStatus.DONE);
+    projectFacade.update(created);
+    progress.finished(CreationStatus.DONE, null);
+    provisioningTracker.publish(progress);
 
-      // Run the project precreate handlers.
-      try {
-        ProjectHandler.runProjectPreCreateHandlers(projectHandlers, project);
-        LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Ran project pre-create handlers"));
-      } catch (ProjectException ex) {
-        cleanup(project, null, owner);
-        throw ex;
-      }
+    LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Finished with project creation"));
+    LOGGER.log(Level.FINE, "PROJECT CREATION TIME. {0}", progress);
+    return created;
+  }
 
-      List<Future<?>> projectCreationFutures = new ArrayList<>();
+  private void provisioningFailed(ProvisioningProgress progress, Exception ex) {
+    progress.finished(CreationStatus.FAILED, ex.getMessage());
+    provisioningTracker.publish(progress);
+    LOGGER.log(Level.INFO, "PROJECT CREATION FAILED. {0}", progress);
+  }
 
-      //create certificate for this user
-      // User's certificates should be created before making any call to
-      // Hadoop clients. Otherwise, the client will fail if RPC TLS is enabled
-      // This is an async call
-      Future<CertificatesController.CertsResult> certsResultFuture;
+  @FunctionalInterface
+  private interface DfsAction {
+    void run(DistributedFileSystemOps dfso) throws Exception;
+  }
+
+  /**
+   * Steps run in parallel, so each one gets its own superuser client.
+   */
+  private ProvisioningPipeline.Action withDfso(DfsAction action) {
+    return () -> {
+      DistributedFileSystemOps dfso = null;
       try {
-        certsResultFuture = certificatesController.generateCertificates(project, owner);
-        projectCreationFutures.add(certsResultFuture);
-        LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Started certificates creation"));
-      } catch (Exception ex) {
-        cleanup(project, projectCreationFutures, owner);
-        throw new HopsSecurityException(RESTCodes.SecurityErrorCode.CERT_CREATION_ERROR, Level.SEVERE,
-          "project: " + project.getName() +
-            "owner: " + owner.getUsername(), ex.getMessage(), ex);
+        dfso = dfs.getDfsOps();
+        action.run(dfso);
+      } finally {
+        if (dfso != null) {
+          dfso.close();
+        }
       }
+    };
+  }
 
-      LOGGER.log(Level.FINE, "PROJECT CREATION TIME. Step 4 (certs): {0}", System.currentTimeMillis() - startTime);
+  private Project provisionProject(String projectName, Users owner, ProjectDTO projectDTO,
+    DistributedFileSystemOps dfso) throws ProjectException, GenericException {
+    Project project;
+    try {
+      project = createProjectDbMetadata(projectName, owner, projectDTO);
+      LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Created DB metadata"));
+    } catch (EJBException ex) {
+      LOGGER.log(Level.WARNING, null, ex);
+      throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_EXISTS, Level.SEVERE, "project: " + projectName,
+        ex.getMessage(), ex);
+    }
 
-      //all the verifications have passed, we can now create the project
-      //create the project folder
-      ProvTypeDTO provType = settings.getProvType().dto;
-      try {
-        mkProjectDIR(projectName, dfso);
-        fsProvController.updateProjectProvType(project, provType, dfso);
-        LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Created project directory in HopsFS"));
-      } catch (IOException | EJBException | ProvenanceException ex) {
-        cleanup(project, projectCreationFutures, owner);
-        throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_FOLDER_NOT_CREATED, Level.SEVERE,
-          "project: " + projectName, ex.getMessage(), ex);
-      }
-      LOGGER.log(Level.FINE, "PROJECT CREATION TIME. Step 5 (inodes): {0}", System.currentTimeMillis() - startTime);
+    verifyProject(project, dfso);
+    LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Verified project"));
 
-      //set payment and quotas
-      try {
-        setProjectOwnerAndQuotas(project, dfso, owner);
-        LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Set project owner and quotas"));
-      } catch (IOException | EJBException ex) {
-        cleanup(project, projectCreationFutures, owner);
-        throw new ProjectException(RESTCodes.ProjectErrorCode.QUOTA_ERROR, Level.SEVERE, "project: " + project.getName()
-          , ex.getMessage(), ex);
-      }
-      LOGGER.log(Level.FINE, "PROJECT CREATION TIME. Step 6 (quotas): {0}", System.currentTimeMillis() - startTime);
+    // Run the project precreate handlers.
+    try {
+      ProjectHandler.runProjectPreCreateHandlers(projectHandlers, project);
+      LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Ran project pre-create handlers"));
+    } catch (ProjectException ex) {
+      cleanup(project, null, owner);
+      throw ex;
+    }
+    return project;
+  }
 
-      try {
-        hdfsUsersController.addProjectFolderOwner(project, dfso);
-        createProjectLogResources(owner, project, dfso);
-        LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Created project log resources"));
-      } catch (IOException | EJBException ex) {
-        cleanup(project, projectCreationFutures);
-        throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_SET_PERMISSIONS_ERROR, Level.SEVERE,
-          "project: " + projectName, ex.getMessage(), ex);
-      }
-      LOGGER.log(Level.FINE, "PROJECT CREATION TIME. Step 7 (logs): {0}", System.currentTimeMillis() - startTime);
+  private void provisionCertificates(Project project, Users owner) throws HopsSecurityException {
+    try {
+      certificatesController.generateCertificates(project, owner).get();
+      LOGGER.log(Level.INFO, projectCreationLog(project, "Created project certificates"));
+    } catch (Exception ex) {
+      LOGGER.log(Level.SEVERE, "Error while generating the certificates. Will try to cleanup...", ex);
+      throw new HopsSecurityException(RESTCodes.SecurityErrorCode.CERT_CREATION_ERROR, Level.SEVERE,
+        "project: " + project.getName() + "owner: " + owner.getUsername(), ex.getMessage(), ex);
+    }
+  }
 
-      //Delete old project indices and kibana saved objects to avoid
-      // inconsistencies
-      try {
-        openSearchController.deleteProjectIndices(project);
-        openSearchController.deleteProjectSavedObjects(project);
-        LOGGER.log(Level.FINE, "PROJECT CREATION TIME. Step 8 (opensearch cleanup): {0}",
-            System.currentTimeMillis() - startTime);
-        LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Deleted old OpenSearch indices"));
-      } catch (OpenSearchException ex){
-        LOGGER.log(Level.FINE, "Error while cleaning old project indices", ex);
-      }
+  private void provisionDirectory(Project project, ProvTypeDTO provType, DistributedFileSystemOps dfso)
+    throws ProjectException {
+    try {
+      mkProjectDIR(project.getName(), dfso);
+      fsProvController.updateProjectProvType(project, provType, dfso);
+      LOGGER.log(Level.INFO, projectCreationLog(project, "Created project directory in HopsFS"));
+    } catch (IOException | EJBException | ProvenanceException ex) {
+      throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_FOLDER_NOT_CREATED, Level.SEVERE,
+        "project: " + project.getName(), ex.getMessage(), ex);
+    }
+  }
 
-      logProject(project, OperationType.Add);
+  private void provisionQuotas(Project project, Users owner, DistributedFileSystemOps dfso) throws ProjectException {
+    //set payment and quotas
+    try {
+      setProjectOwnerAndQuotas(project, dfso, owner);
+      LOGGER.log(Level.INFO, projectCreationLog(project, "Set project owner and quotas"));
+    } catch (IOException | EJBException ex) {
+      throw new ProjectException(RESTCodes.ProjectErrorCode.QUOTA_ERROR, Level.SEVERE, "project: " + project.getName()
+        , ex.getMessage(), ex);
+    }
+  }
 
-      // wait for certs before adding services
-      try {
-        if (certsResultFuture != null) {
-          certsResultFuture.get();
-          LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Created project certificates"));
-        }
-      } catch (InterruptedException | ExecutionException ex) {
-        LOGGER.log(Level.SEVERE, "Error while waiting for the certificate generation thread to finish. Will try to " +
-          "cleanup...", ex);
-        cleanup(project, projectCreationFutures);
-        throw new HopsSecurityException(RESTCodes.SecurityErrorCode.CERT_CREATION_ERROR, Level.SEVERE, "Error while " +
-          "generating certificates.", ex.getMessage(), ex);
-      }
-      // enable services
-      for (ProjectServiceEnum service : projectServices) {
-        try {
-          LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Adding service " + service));
-          projectCreationFutures.addAll(addService(project, service, owner, dfso, provType));
-        } catch (RESTException | IOException ex) {
-          LOGGER.log(Level.SEVERE, "Error enabling service {0}: {1}. Will try to cleanup...", new Object[]{service,
-            ex.getMessage()});
-          cleanup(project, projectCreationFutures);
-          throw ex;
-        }
-      }
+  private void provisionLogResources(Project project, Users owner, DistributedFileSystemOps dfso)
+    throws ProjectException {
+    try {
+      hdfsUsersController.addProjectFolderOwner(project, dfso);
+      createProjectLogResources(owner, project, dfso);
+      LOGGER.log(Level.INFO, projectCreationLog(project, "Created project log resources"));
+    } catch (IOException | EJBException ex) {
+      throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_SET_PERMISSIONS_ERROR, Level.SEVERE,
+        "project: " + project.getName(), ex.getMessage(), ex);
+    }
+  }
 
-      try {
-        for (Future f : projectCreationFutures) {
+  private void cleanupOpenSearch(Project project) {
+    try {
+      openSearchController.deleteProjectIndices(project);
+      openSearchController.deleteProjectSavedObjects(project);
+      LOGGER.log(Level.INFO, projectCreationLog(project, "Deleted old OpenSearch indices"));
+    } catch (OpenSearchException ex){
+      LOGGER.log(Level.FINE, "Error while cleaning old project indices", ex);
+    }
+  }
+
+  private void provisionService(Project project, ProjectServiceEnum service, Users owner, ProvTypeDTO provType,
+    DistributedFileSystemOps dfso) throws Exception {
+    LOGGER.log(Level.INFO, projectCreationLog(project, "Adding service " + service));
+    List<Future<?>> futures;
+    try {
+      futures = addService(project, service, owner, dfso, provType);
+    } catch (RESTException | IOException ex) {
+      LOGGER.log(Level.SEVERE, "Error enabling service {0}: {1}. Will try to cleanup...", new Object[]{service,
+        ex.getMessage()});
+      throw ex;
+    }
+    try {
+      if (futures != null) {
+        for (Future<?> f : futures) {
           if (f != null) {
             f.get();
           }
         }
-        LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Finished with all async project creation tasks"));
-      } catch (InterruptedException | ExecutionException ex) {
-        LOGGER.log(Level.SEVERE, "Error while waiting for project creation future thread to finish. Will try to " +
-          "cleanup...", ex);
-        cleanup(project, projectCreationFutures);
-        throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_SERVICE_ADD_FAILURE, Level.SEVERE,
-          "Error while adding services.", ex.getMessage(), ex);
-      }
-
-      // Run the handlers.
-      try {
-        ProjectHandler.runProjectPostCreateHandlers(projectHandlers, project);
-        LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Ran post-create handlers"));
-      } catch (ProjectException ex) {
-        LOGGER.log(Level.SEVERE, "Error running Project Post Create Handlers {0}. Will try to cleanup...",
-          ex.getMessage());
-        cleanup(project, projectCreationFutures);
-        throw ex;
-      }
-
-      try {
-        project = environmentController.createEnv(project, owner);
-        LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Created Python environment"));
-      } catch (PythonException | EJBException ex) {
-        LOGGER.log(Level.SEVERE, "Error creating environment {0}. Will try to cleanup...", ex.getMessage());
-        cleanup(project, projectCreationFutures);
-        throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_ANACONDA_ENABLE_ERROR, Level.SEVERE,
-          "project: " + projectName, ex.getMessage(), ex);
       }
-      
-      // set project creation status to done
-      project.setCreationStatus(CreationStatus.DONE);
-      projectFacade.update(project);
-      
-      LOGGER.log(Level.FINE, "PROJECT CREATION TIME. Step 10 (env): {0}", System.currentTimeMillis() - startTime);
-      LOGGER.log(Level.INFO, projectCreationLog(projectDTO, "Finished with project creation"));
+    } catch (InterruptedException | ExecutionException ex) {
+      LOGGER.log(Level.SEVERE, "Error while waiting for project creation future thread to finish. Will try to " +
+        "cleanup...", ex);
+      throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_SERVICE_ADD_FAILURE, Level.SEVERE,
+        "Error while adding services.", ex.getMessage(), ex);
+    }
+  }
 
-      return project;
+  private void runPostCreateHandlers(Project project) throws ProjectException {
+    try {
+      ProjectHandler.runProjectPostCreateHandlers(projectHandlers, project);
+      LOGGER.log(Level.INFO, projectCreationLog(project, "Ran post-create handlers"));
+    } catch (ProjectException ex) {
+      LOGGER.log(Level.SEVERE, "Error running Project Post Create Handlers {0}. Will try to cleanup...",
+        ex.getMessage());
+      throw ex;
+    }
+  }
 
-    } finally {
-      if (dfso != null) {
-        dfso.close();
-      }
-      LOGGER.log(Level.FINE, "PROJECT CREATION TIME. Step 11 (close): {0}", System.currentTimeMillis() - startTime);
+  private Project provisionEnvironment(Project project, Users owner) throws ProjectException {
+    try {
+      Project withEnv = environmentController.createEnv(project, owner);
+      LOGGER.log(Level.INFO, projectCreationLog(project, "Created Python environment"));
+      return withEnv;
+    } catch (PythonException | EJBException ex) {
+      LOGGER.log(Level.SEVERE, "Error creating environment {0}. Will try to cleanup...", ex.getMessage());
+      throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_ANACONDA_ENABLE_ERROR, Level.SEVERE,
+        "project: " + project.getName(), ex.getMessage(), ex);
     }
+  }
 
+  /**
+   * Create a project asynchronously, the progress can be polled from the {@link ProjectProvisioningTracker}.
+   */
+  @Asynchronous
+  public void createProjectAsync(ProjectDTO projectDTO, Users owner) {
+    try {
+      createProject(projectDTO, owner);
+    } catch (Exception ex) {
+      // The failure is in the progress of the creation
+      LOGGER.log(Level.FINE, "Asynchronous creation of project " + projectDTO.getProjectName() + " failed", ex);
+    }
   }
 
   @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
@@ -2148,6 +2236,9 @@ public class ProjectController {
     }
 
     certificateMaterializer.forceRemoveLocalMaterial(userToBeRemoved.getUsername(), project.getName(), null, false);
+    // The pooled HopsFS and metastore clients of the user were authenticated before the removal
+    dfsClientPool.invalidate(hdfsUser);
+    metastoreClientPool.invalidate(hdfsUser);
     try {
       certificatesController.revokeUserSpecificCertificates(project, userToBeRemoved);
     } catch (HopsSecurityException ex) {
@@ -0,0 +1,127 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.project;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.hops.hopsworks.exceptions.ProjectException;
+import io.hops.hopsworks.persistence.entity.project.CreationStatus;
+import io.hops.hopsworks.persistence.entity.user.Users;
+import io.hops.hopsworks.restutils.RESTCodes;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Keeps the progress of the project creations, cluster wide when Hazelcast is enabled, so that clients can poll it
+ * from any member while the project is being provisioned and for a while after.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class ProjectProvisioningTracker {
+  private static final String PROGRESS_MAP = "project_provisioning_progress";
+  private static final long RETENTION_MINUTES = 60;
+
+  @Inject
+  private HazelcastInstance hazelcastInstance;
+
+  private IMap<String, ProvisioningProgress> progressMap;
+  private Cache<String, ProvisioningProgress> localProgress;
+
+  @PostConstruct
+  public void init() {
+    // hazelcastInstance == null if Hazelcast is Disabled
+    if (hazelcastInstance != null) {
+      progressMap = hazelcastInstance.getMap(PROGRESS_MAP);
+    } else {
+      localProgress = Caffeine.newBuilder()
+        .expireAfterWrite(RETENTION_MINUTES, TimeUnit.MINUTES)
+        .build();
+    }
+  }
+
+  /**
+   * Register a project creation that will run asynchronously.
+   *
+   * @return the progress of the creation
+   * @throws ProjectException if a project with the same name is already being created
+   */
+  public ProvisioningProgress submit(String projectName, Users owner) throws ProjectException {
+    ProvisioningProgress progress = new ProvisioningProgress(projectName, owner.getUid());
+    ProvisioningProgress previous = progressMap != null
+      ? progressMap.putIfAbsent(projectName, progress, RETENTION_MINUTES, TimeUnit.MINUTES)
+      : localProgress.asMap().putIfAbsent(projectName, progress.copy());
+    if (previous != null) {
+      if (previous.getStatus() == CreationStatus.ONGOING) {
+        throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_EXISTS, Level.FINE,
+          "project: " + projectName);
+      }
+      publish(progress);
+    }
+    return progress;
+  }
+
+  /**
+   * Start tracking the provisioning of a project, reusing the progress registered by {@link #submit} if any.
+   */
+  public ProvisioningProgress start(String projectName, Users owner) {
+    ProvisioningProgress submitted = find(projectName);
+    if (submitted != null && submitted.getStatus() == CreationStatus.ONGOING
+      && owner.getUid().equals(submitted.getOwnerId()) && submitted.getStages().isEmpty()) {
+      return submitted.copy();
+    }
+    ProvisioningProgress progress = new ProvisioningProgress(projectName, owner.getUid());
+    publish(progress);
+    return progress;
+  }
+
+  public void publish(ProvisioningProgress progress) {
+    ProvisioningProgress snapshot = progress.copy();
+    if (progressMap != null) {
+      progressMap.set(snapshot.getProjectName(), snapshot, RETENTION_MINUTES, TimeUnit.MINUTES);
+    } else {
+      localProgress.put(snapshot.getProjectName(), snapshot);
+    }
+  }
+
+  /**
+   * @return the progress of the creation of the project, only to the user creating it
+   * @throws ProjectException if the project is not being created or was created long ago
+   */
+  public ProvisioningProgress get(String projectName, Users user) throws ProjectException {
+    ProvisioningProgress progress = find(projectName);
+    if (progress == null || !user.getUid().equals(progress.getOwnerId())) {
+      throw new ProjectException(RESTCodes.ProjectErrorCode.PROJECT_NOT_FOUND, Level.FINE,
+        "project: " + projectName);
+    }
+    return progress;
+  }
+
+  private ProvisioningProgress find(String projectName) {
+    return progressMap != null ? progressMap.get(projectName) : localProgress.getIfPresent(projectName);
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.project;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the steps of a provisioning, e.g. of a project, as a dependency graph. A step starts as soon as the steps it
+ * depends on are done, so independent steps run in parallel on the executor.
+ * If a step fails no new step is started, the running ones are waited for and the compensations of the steps that
+ * completed are run in the reverse order of completion. The original failure is then rethrown.
+ */
+public class ProvisioningPipeline {
+  private static final Logger LOGGER = Logger.getLogger(ProvisioningPipeline.class.getName());
+
+  @FunctionalInterface
+  public interface Action {
+    void run() throws Exception;
+  }
+
+  private static class Step {
+    private final String name;
+    private final Action action;
+    private final Action compensation;
+    private final List<String> dependencies;
+
+    private Step(String name, Action action, Action compensation, List<String> dependencies) {
+      this.name = name;
+      this.action = action;
+      this.compensation = compensation;
+      this.dependencies = dependencies;
+    }
+  }
+
+  private final Executor executor;
+  private final ProvisioningProgress progress;
+  private final Consumer<ProvisioningProgress> onProgress;
+  private final Map<String, Step> steps = new LinkedHashMap<>();
+
+  /**
+   * @param executor executor to run the steps on
+   * @param progress progress to record the state and timing of the steps in
+   * @param onProgress called every time the state of a step changes
+   */
+  public ProvisioningPipeline(Executor executor, ProvisioningProgress progress,
+    Consumer<ProvisioningProgress> onProgress) {
+    this.executor = executor;
+    this.progress = progress;
+    this.onProgress = onProgress;
+  }
+
+  public ProvisioningPipeline step(String name, Action action, String... dependencies) {
+    return step(name, action, null, dependencies);
+  }
+
+  /**
+   * Add a step. Dependencies have to be added before the steps depending on them, which keeps the graph acyclic.
+   *
+   * @param name unique name of the step, also the name of its stage in the progress
+   * @param action
+   * @param compensation undoes the action if a later step fails, null if there is nothing to undo
+   * @param dependencies steps that have to complete before this one starts
+   * @return this pipeline
+   */
+  public ProvisioningPipeline step(String name, Action action, Action compensation, String... dependencies) {
+    if (steps.containsKey(name)) {
+      throw new IllegalArgumentException("Duplicate provisioning step " + name);
+    }
+    for (String dependency : dependencies) {
+      if (!steps.containsKey(dependency)) {
+        throw new IllegalArgumentException("Provisioning step " + name + " depends on unknown step " + dependency);
+      }
+    }
+    List<String> stepDependencies = new ArrayList<>();
+    Collections.addAll(stepDependencies, dependencies);
+    steps.put(name, new Step(name, action, compensation, stepDependencies));
+    progress.addStage(name);
+    return this;
+  }
+
+  public void run() throws Exception {
+    AtomicReference<Exception> failure = new AtomicReference<>();
+    // completed steps, most recent first
+    Deque<Step> completed = new ConcurrentLinkedDeque<>();
+    Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+    for (Step step : steps.values()) {
+      CompletableFuture<?>[] dependencies = step.dependencies.stream()
+        .map(futures::get)
+        .toArray(CompletableFuture[]::new);
+      futures.put(step.name, CompletableFuture.allOf(dependencies)
+        .thenRunAsync(() -> execute(step, failure, completed), executor));
+    }
+    try {
+      CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+    } catch (CompletionException | CancellationException ex) {
+      // A step threw something else than an exception
+      failure.compareAndSet(null, new IllegalStateException(ex.getCause() != null ? ex.getCause() : ex));
+    }
+    if (failure.get() == null) {
+      return;
+    }
+    // Steps depending on the failed one never started
+    progress.skipPending();
+    onProgress.accept(progress);
+    for (Step step : completed) {
+      if (step.compensation == null) {
+        continue;
+      }
+      try {
+        step.compensation.run();
+        progress.stageCompensated(step.name);
+        onProgress.accept(progress);
+      } catch (Exception ex) {
+        LOGGER.log(Level.SEVERE, "Failed to compensate provisioning step " + step.name, ex);
+      }
+    }
+    throw failure.get();
+  }
+
+  private void execute(Step step, AtomicReference<Exception> failure, Deque<Step> completed) {
+    if (failure.get() != null) {
+      progress.stageFinished(step.name, ProvisioningProgress.StageState.SKIPPED, 0);
+      onProgress.accept(progress);
+      return;
+    }
+    progress.stageStarted(step.name);
+    onProgress.accept(progress);
+    long start = System.currentTimeMillis();
+    try {
+      step.action.run();
+      completed.push(step);
+      progress.stageFinished(step.name, ProvisioningProgress.StageState.DONE, System.currentTimeMillis() - start);
+      onProgress.accept(progress);
+    } catch (Exception ex) {
+      failure.compareAndSet(null, ex);
+      progress.stageFinished(step.name, ProvisioningProgress.StageState.FAILED, System.currentTimeMillis() - start);
+      onProgress.accept(progress);
+      throw new CompletionException(ex);
+    }
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.project;
+
+import io.hops.hopsworks.persistence.entity.project.CreationStatus;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Progress of the creation of a project, with the state and duration of every provisioning stage.
+ */
+@XmlRootElement
+public class ProvisioningProgress implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  public enum StageState {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED,
+    SKIPPED,
+    COMPENSATED
+  }
+
+  @XmlRootElement
+  public static class Stage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String name;
+    private StageState state = StageState.PENDING;
+    private Date started;
+    private Long duration;
+
+    public Stage() {
+    }
+
+    public Stage(String name) {
+      this.name = name;
+    }
+
+    private Stage(Stage stage) {
+      this.name = stage.name;
+      this.state = stage.state;
+      this.started = stage.started;
+      this.duration = stage.duration;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public StageState getState() {
+      return state;
+    }
+
+    public void setState(StageState state) {
+      this.state = state;
+    }
+
+    public Date getStarted() {
+      return started;
+    }
+
+    public void setStarted(Date started) {
+      this.started = started;
+    }
+
+    /**
+     * @return duration of the stage in milliseconds
+     */
+    public Long getDuration() {
+      return duration;
+    }
+
+    public void setDuration(Long duration) {
+      this.duration = duration;
+    }
+  }
+
+  private String projectName;
+  private Integer ownerId;
+  private CreationStatus status = CreationStatus.ONGOING;
+  private Date submitted;
+  private Long duration;
+  private String error;
+  private List<Stage> stages = new ArrayList<>();
+
+  public ProvisioningProgress() {
+  }
+
+  public ProvisioningProgress(String projectName, Integer ownerId) {
+    this.projectName = projectName;
+    this.ownerId = ownerId;
+    this.submitted = new Date();
+  }
+
+  /**
+   * @return a snapshot of the progress, safe to publish while the provisioning goes on
+   */
+  public synchronized ProvisioningProgress copy() {
+    ProvisioningProgress copy = new ProvisioningProgress(projectName, ownerId);
+    copy.submitted = submitted;
+    copy.status = status;
+    copy.duration = duration;
+    copy.error = error;
+    for (Stage stage : stages) {
+      copy.stages.add(new Stage(stage));
+    }
+    return copy;
+  }
+
+  synchronized void addStage(String name) {
+    stages.add(new Stage(name));
+  }
+
+  synchronized void stageStarted(String name) {
+    Stage stage = getStage(name);
+    stage.setState(StageState.RUNNING);
+    stage.setStarted(new Date());
+  }
+
+  synchronized void stageFinished(String name, StageState state, long duration) {
+    Stage stage = getStage(name);
+    stage.setState(state);
+    stage.setDuration(duration);
+  }
+
+  synchronized void stageCompensated(String name) {
+    getStage(name).setState(StageState.COMPENSATED);
+  }
+
+  synchronized void skipPending() {
+    for (Stage stage : stages) {
+      if (stage.getState() == StageState.PENDING) {
+        stage.setState(StageState.SKIPPED);
+      }
+    }
+  }
+
+  public synchronized void finished(CreationStatus status, String error) {
+    this.status = status;
+    this.error = error;
+    this.duration = System.currentTimeMillis() - submitted.getTime();
+  }
+
+  private Stage getStage(String name) {
+    for (Stage stage : stages) {
+      if (stage.getName().equals(name)) {
+        return stage;
+      }
+    }
+    throw new IllegalArgumentException("Unknown provisioning stage " + name);
+  }
+
+  public String getProjectName() {
+    return projectName;
+  }
+
+  public void setProjectName(String projectName) {
+    this.projectName = projectName;
+  }
+
+  @XmlTransient
+  public Integer getOwnerId() {
+    return ownerId;
+  }
+
+  public void setOwnerId(Integer ownerId) {
+    this.ownerId = ownerId;
+  }
+
+  public CreationStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(CreationStatus status) {
+    this.status = status;
+  }
+
+  public Date getSubmitted() {
+    return submitted;
+  }
+
+  public void setSubmitted(Date submitted) {
+    this.submitted = submitted;
+  }
+
+  /**
+   * @return duration of the whole provisioning in milliseconds, null while it is ongoing
+   */
+  public Long getDuration() {
+    return duration;
+  }
+
+  public void setDuration(Long duration) {
+    this.duration = duration;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public void setError(String error) {
+    this.error = error;
+  }
+
+  public List<Stage> getStages() {
+    return stages;
+  }
+
+  public void setStages(List<Stage> stages) {
+    this.stages = stages;
+  }
+
+  @Override
+  public synchronized String toString() {
+    StringBuilder sb = new StringBuilder(projectName).append(" ").append(status);
+    for (Stage stage : stages) {
+      sb.append(", ").append(stage.getName()).append(": ").append(stage.getState());
+      if (stage.getDuration() != null) {
+        sb.append(" ").append(stage.getDuration()).append("ms");
+      }
+    }
+    return sb.toString();
+  }
+}
@@ -15,7 +15,7 @@
  */
 package io.hops.hopsworks.common.provenance.core;
 
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.common.util.Settings;
 import org.javatuples.Pair;
 
@@ -45,7 +45,7 @@ public class ProvenanceCleaner {
   @EJB
   private ProvenanceCleanerController cleanerCtrl;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   TimerService timerService;
   private Timer timer;
@@ -69,7 +69,7 @@ public class ProvenanceCleaner {
   @Timeout
   @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
   private void timeout(Timer timer) {
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(ProvenanceCleaner.class)) {
       return;
     }
     int cleanupSize = settings.getProvCleanupSize();
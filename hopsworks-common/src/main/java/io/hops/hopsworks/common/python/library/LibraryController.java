@@ -23,6 +23,7 @@ import io.hops.hopsworks.common.provenance.core.opensearch.OpenSearchHits;
 import io.hops.hopsworks.common.opensearch.OpenSearchClientController;
 import io.hops.hopsworks.common.provenance.util.functional.CheckedSupplier;
 import io.hops.hopsworks.common.python.commands.CommandsController;
+import io.hops.hopsworks.common.python.search.LibrarySearchIndex;
 import io.hops.hopsworks.common.python.search.PyPiLibraryOpenSearchIndexer;
 import io.hops.hopsworks.common.util.OSProcessExecutor;
 import io.hops.hopsworks.common.util.ProcessDescriptor;
@@ -85,6 +86,8 @@ public class LibraryController {
   private OpenSearchClientController provOpenSearchController;
   @EJB
   private PyPiLibraryOpenSearchIndexer pypiIndexer;
+  @EJB
+  private LibrarySearchIndex librarySearchIndex;
 
   public PythonDep getPythonDep(String dependency, Project project) throws PythonException {
     return libraryFacade.findByDependencyAndProject(dependency, project)
@@ -114,6 +117,11 @@ public class LibraryController {
   }
 
   public HashMap<String, List<LibraryVersionDTO>> condaSearch(String library, String url) throws ServiceException {
+    // served from memory when the channel is indexed, the script only runs on a miss
+    Optional<HashMap<String, List<LibraryVersionDTO>>> indexed = librarySearchIndex.searchConda(url, library);
+    if (indexed.isPresent() && !indexed.get().isEmpty()) {
+      return indexed.get();
+    }
     HashMap<String, List<LibraryVersionDTO>> libVersions = new HashMap<>();
     String prog = settings.getHopsworksDomainDir() + "/bin/condasearch.sh";
     String[] lines = condaList(prog, library, url);
@@ -169,6 +177,13 @@ public class LibraryController {
   }
 
   private void findPipLibPyPi(String libName, HashMap<String, List<LibraryVersionDTO>> versions) {
+    List<LibraryVersionDTO> libVersions = librarySearchIndex.getPyPiVersions(libName, this::getPyPiVersions);
+    if (libVersions != null) {
+      versions.put(libName, libVersions);
+    }
+  }
+
+  private List<LibraryVersionDTO> getPyPiVersions(String libName) {
     Response resp = null;
     try {
       resp = ClientBuilder.newClient()
@@ -178,19 +193,20 @@ public class LibraryController {
     } catch (Exception e) {
       LOGGER.log(Level.FINE, "PyPi REST endpoint connection failed" + settings.getPyPiRESTEndpoint().replaceFirst(
         "\\{package}", libName), e);
-      return;
+      return null;
     }
 
     if (resp.getStatusInfo().getStatusCode() != Response.Status.OK.getStatusCode()) {
-      return;
+      return null;
     }
 
     JSONObject jsonObject = new JSONObject(resp.readEntity(String.class));
 
     if (jsonObject.has("releases")) {
       JSONObject releases = jsonObject.getJSONObject("releases");
-      versions.put(libName, getVersions(releases));
+      return getVersions(releases);
     }
+    return null;
   }
 
   private List<LibraryVersionDTO> getVersions(JSONObject releases) {
@@ -28,7 +28,7 @@ import io.hops.hopsworks.common.python.environment.DockerImageController;
 import io.hops.hopsworks.common.python.environment.DockerRegistryMngr;
 import io.hops.hopsworks.common.python.environment.EnvironmentController;
 import io.hops.hopsworks.common.python.environment.EnvironmentHistoryController;
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.common.util.ProjectUtils;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.ProjectException;
@@ -118,7 +118,7 @@ public class LibraryInstaller {
   @EJB
   private DistributedFsService dfs;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @EJB
   private EnvironmentHistoryController environmentHistoryController;
 
@@ -151,7 +151,7 @@ public class LibraryInstaller {
   @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
   public void isAlive() {
     try {
-      if (!payaraClusterManager.amIThePrimary()) {
+      if (!workShardManager.isMine(LibraryInstaller.class)) {
         return;
       }
       LOG.log(Level.FINE, "isAlive-start: " + System.currentTimeMillis());
@@ -0,0 +1,291 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.python.search;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.hops.hopsworks.common.python.library.LibraryVersionDTO;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable, in memory index of the package names and versions of a conda channel. Names are kept sorted for prefix
+ * search, the versions of a package are ordered newest first.
+ * The index is encoded as gzipped lines of name\tversion:timestamp,version:timestamp to be shared between the
+ * cluster members and read back without parsing the channel's repodata again.
+ */
+public class CondaChannelIndex {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  // fuzzy matches are only looked up for queries at least this long, shorter ones match too much
+  private static final int MIN_FUZZY_QUERY_LENGTH = 3;
+  private static final long SECONDS_TIMESTAMP_BOUND = 100000000000L;
+
+  public static final CondaChannelIndex EMPTY = new Builder().build();
+
+  private final String[] names;
+  private final String[][] versions;
+  private final long[][] timestamps;
+
+  private CondaChannelIndex(String[] names, String[][] versions, long[][] timestamps) {
+    this.names = names;
+    this.versions = versions;
+    this.timestamps = timestamps;
+  }
+
+  public int size() {
+    return names.length;
+  }
+
+  /**
+   * Finds the packages matching a query: the exact name, then names starting with the query and, if there is still
+   * room, names within a small edit distance of the query.
+   *
+   * @param query the library searched for
+   * @param limit max number of packages returned
+   * @return versions by package name, in the order above, newest version first
+   */
+  public Map<String, List<LibraryVersionDTO>> search(String query, int limit) {
+    Map<String, List<LibraryVersionDTO>> found = new LinkedHashMap<>();
+    String key = query.trim().toLowerCase(Locale.ROOT);
+    if (key.isEmpty() || limit <= 0) {
+      return found;
+    }
+    int from = lowerBound(key);
+    for (int i = from; i < names.length && found.size() < limit && names[i].startsWith(key); i++) {
+      found.put(names[i], versions(i));
+    }
+    if (found.size() < limit && key.length() >= MIN_FUZZY_QUERY_LENGTH) {
+      int maxEdits = key.length() < 6 ? 1 : 2;
+      for (int i = 0; i < names.length && found.size() < limit; i++) {
+        if (!found.containsKey(names[i]) && Math.abs(names[i].length() - key.length()) <= maxEdits
+          && editDistance(key, names[i], maxEdits) <= maxEdits) {
+          found.put(names[i], versions(i));
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * @return the versions of a package, newest first, empty if the package is not in the channel
+   */
+  public List<LibraryVersionDTO> versions(String name) {
+    int i = Arrays.binarySearch(names, name.toLowerCase(Locale.ROOT));
+    return i >= 0 ? versions(i) : new ArrayList<>();
+  }
+
+  private List<LibraryVersionDTO> versions(int i) {
+    List<LibraryVersionDTO> dtos = new ArrayList<>(versions[i].length);
+    for (int j = 0; j < versions[i].length; j++) {
+      dtos.add(new LibraryVersionDTO(versions[i][j], new Date(timestamps[i][j])));
+    }
+    return dtos;
+  }
+
+  private int lowerBound(String key) {
+    int i = Arrays.binarySearch(names, key);
+    return i >= 0 ? i : -i - 1;
+  }
+
+  /**
+   * Levenshtein distance between a and b, giving up once it exceeds max.
+   */
+  static int editDistance(String a, String b, int max) {
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      int rowMin = current[0];
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+        rowMin = Math.min(rowMin, current[j]);
+      }
+      if (rowMin > max) {
+        return max + 1;
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return previous[b.length()];
+  }
+
+  public byte[] encode() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8)) {
+      for (int i = 0; i < names.length; i++) {
+        writer.write(names[i]);
+        writer.write('\t');
+        for (int j = 0; j < versions[i].length; j++) {
+          if (j > 0) {
+            writer.write(',');
+          }
+          writer.write(versions[i][j]);
+          writer.write(':');
+          writer.write(Long.toString(timestamps[i][j]));
+        }
+        writer.write('\n');
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Reads back encoded indexes, merging them into one, e.g. the subdirs of a channel.
+   */
+  public static CondaChannelIndex decode(Iterable<byte[]> encoded) throws IOException {
+    Builder builder = new Builder();
+    for (byte[] bytes : encoded) {
+      try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        new GZIPInputStream(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          int tab = line.indexOf('\t');
+          if (tab <= 0) {
+            continue;
+          }
+          String name = line.substring(0, tab);
+          for (String entry : line.substring(tab + 1).split(",")) {
+            int colon = entry.lastIndexOf(':');
+            if (colon > 0) {
+              builder.add(name, entry.substring(0, colon), Long.parseLong(entry.substring(colon + 1)));
+            }
+          }
+        }
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Streams a conda repodata.json, adding the name, version and timestamp of every package without building the
+   * document in memory.
+   */
+  public static void readRepodata(InputStream repodata, Builder builder) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(repodata)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("repodata is not a JSON object");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        JsonToken value = parser.nextToken();
+        if (("packages".equals(field) || "packages.conda".equals(field)) && value == JsonToken.START_OBJECT) {
+          // filename -> package record
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+              readPackage(parser, builder);
+            } else {
+              parser.skipChildren();
+            }
+          }
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+  }
+
+  private static void readPackage(JsonParser parser, Builder builder) throws IOException {
+    String name = null;
+    String version = null;
+    long timestamp = 0;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if ("name".equals(field) && value == JsonToken.VALUE_STRING) {
+        name = parser.getText();
+      } else if ("version".equals(field) && value == JsonToken.VALUE_STRING) {
+        version = parser.getText();
+      } else if ("timestamp".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+        timestamp = parser.getLongValue();
+        // old packages carry the timestamp in seconds
+        if (timestamp < SECONDS_TIMESTAMP_BOUND) {
+          timestamp *= 1000;
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (name != null && version != null) {
+      builder.add(name, version, timestamp);
+    }
+  }
+
+  public static class Builder {
+    private final Map<String, Map<String, Long>> packages = new HashMap<>();
+
+    /**
+     * @param timestamp upload time in milliseconds, builds of the same version keep the newest one
+     */
+    public Builder add(String name, String version, long timestamp) {
+      // versions and timestamps are written in the encoded index, they must not contain the separators
+      if (version.indexOf(',') >= 0 || version.indexOf(':') >= 0 || name.indexOf('\t') >= 0) {
+        return this;
+      }
+      packages.computeIfAbsent(name.toLowerCase(Locale.ROOT), n -> new HashMap<>())
+        .merge(version.intern(), timestamp, Math::max);
+      return this;
+    }
+
+    public CondaChannelIndex build() {
+      TreeMap<String, Map<String, Long>> sorted = new TreeMap<>(packages);
+      String[] names = new String[sorted.size()];
+      String[][] versions = new String[sorted.size()][];
+      long[][] timestamps = new long[sorted.size()][];
+      int i = 0;
+      for (Map.Entry<String, Map<String, Long>> pkg : sorted.entrySet()) {
+        List<Map.Entry<String, Long>> byTime = new ArrayList<>(pkg.getValue().entrySet());
+        byTime.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+          .thenComparing(Map.Entry.comparingByKey()));
+        names[i] = pkg.getKey();
+        versions[i] = new String[byTime.size()];
+        timestamps[i] = new long[byTime.size()];
+        for (int j = 0; j < byTime.size(); j++) {
+          versions[i][j] = byTime.get(j).getKey();
+          timestamps[i][j] = byTime.get(j).getValue();
+        }
+        i++;
+      }
+      return new CondaChannelIndex(names, versions, timestamps);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.python.search;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encoded package index of a conda channel, one entry per subdir, shared between the cluster members.
+ */
+public class CondaChannelSnapshot implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private final long refreshed;
+  private final long version;
+  private final HashMap<String, String> etags;
+  private final HashMap<String, byte[]> subdirs;
+
+  /**
+   * @param refreshed when the channel was last checked for changes
+   * @param version changes only when the content of a subdir changed
+   * @param etags ETag of the repodata of each subdir, to only download the subdirs that changed
+   * @param subdirs encoded CondaChannelIndex of each subdir
+   */
+  public CondaChannelSnapshot(long refreshed, long version, Map<String, String> etags, Map<String, byte[]> subdirs) {
+    this.refreshed = refreshed;
+    this.version = version;
+    this.etags = new HashMap<>(etags);
+    this.subdirs = new HashMap<>(subdirs);
+  }
+
+  public long getRefreshed() {
+    return refreshed;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public Map<String, String> getEtags() {
+    return etags;
+  }
+
+  public Map<String, byte[]> getSubdirs() {
+    return subdirs;
+  }
+}
@@ -0,0 +1,300 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.python.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.hops.hopsworks.common.python.library.LibraryVersionDTO;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.common.util.WorkShardManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves library search from memory instead of running condasearch.sh, or calling PyPi, for every keystroke in the
+ * library search box.
+ *
+ * The package names and versions of the conda channels in conda_search_index_channels are downloaded from the
+ * channels' repodata by the member owning the channel and shared through Hazelcast as a compact CondaChannelIndex,
+ * every member keeps the decoded index in memory. Subdirs whose repodata did not change since the last refresh are
+ * not downloaded again. Searches in other channels, or that do not match anything, still run the script.
+ */
+@Singleton
+@Startup
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class LibrarySearchIndex {
+  private static final Logger LOGGER = Logger.getLogger(LibrarySearchIndex.class.getName());
+
+  private static final String SNAPSHOTS_MAP = "conda_channel_index";
+  private static final String VERSIONS_MAP = "conda_channel_index_versions";
+  private static final String[] SUBDIRS = {"linux-64", "noarch"};
+  private static final String DEFAULTS_CHANNEL = "defaults";
+  private static final String DEFAULTS_CHANNEL_URL = "https://repo.anaconda.com/pkgs/main";
+  private static final String ANACONDA_CHANNELS_URL = "https://conda.anaconda.org/";
+  // how often the members check for a new snapshot, a refresh only happens every conda_search_index_refresh_interval
+  private static final long TICK_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+  // a stalled download must not keep the refresh, and the timer, blocked
+  private static final long CONNECT_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+  private static final long READ_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+  private static final int MAX_SEARCH_RESULTS = 50;
+  private static final int MAX_PYPI_LIBRARIES = 10000;
+
+  @EJB
+  private Settings settings;
+  @EJB
+  private WorkShardManager workShardManager;
+  @Inject
+  private HazelcastInstance hazelcastInstance;
+  @Resource
+  private TimerService timerService;
+  private Timer timer;
+
+  private IMap<String, CondaChannelSnapshot> snapshotsMap;
+  private IMap<String, Long> versionsMap;
+  private final Map<String, CondaChannelSnapshot> localSnapshots = new ConcurrentHashMap<>();
+  private final Map<String, LoadedIndex> indexes = new ConcurrentHashMap<>();
+  private final AtomicBoolean refreshing = new AtomicBoolean(false);
+  private Cache<String, List<LibraryVersionDTO>> pypiVersions;
+
+  @PostConstruct
+  public void init() {
+    // hazelcastInstance == null if Hazelcast is Disabled
+    if (hazelcastInstance != null) {
+      snapshotsMap = hazelcastInstance.getMap(SNAPSHOTS_MAP);
+      versionsMap = hazelcastInstance.getMap(VERSIONS_MAP);
+    }
+    pypiVersions = Caffeine.newBuilder()
+      .expireAfterWrite(settings.getCondaSearchIndexRefreshInterval(), TimeUnit.MILLISECONDS)
+      .maximumSize(MAX_PYPI_LIBRARIES)
+      .build();
+    timer = timerService.createIntervalTimer(0, TICK_INTERVAL, new TimerConfig("Library search index", false));
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (timer != null) {
+      timer.cancel();
+    }
+  }
+
+  /**
+   * @param channel the channel searched, the default conda repo if empty
+   * @param query the library searched for
+   * @return the matching packages and their versions, empty if the channel is not indexed (yet)
+   */
+  public Optional<HashMap<String, List<LibraryVersionDTO>>> searchConda(String channel, String query) {
+    LoadedIndex loaded = indexes.get(channelKey(channel));
+    if (loaded == null || query == null) {
+      return Optional.empty();
+    }
+    return Optional.of(new LinkedHashMap<>(loaded.index.search(query, MAX_SEARCH_RESULTS)));
+  }
+
+  /**
+   * @param library PyPi library
+   * @param loader fetches the versions from PyPi on a miss, null if the library was not found
+   * @return the versions of the library, null if it was not found
+   */
+  public List<LibraryVersionDTO> getPyPiVersions(String library, Function<String, List<LibraryVersionDTO>> loader) {
+    List<LibraryVersionDTO> versions = pypiVersions.get(library, loader);
+    // callers sort the list
+    return versions != null ? new ArrayList<>(versions) : null;
+  }
+
+  @Timeout
+  public void refresh(Timer timer) {
+    if (!refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      List<String> channels = new ArrayList<>();
+      for (String channel : settings.getCondaSearchIndexChannels()) {
+        channels.add(channelKey(channel));
+      }
+      indexes.keySet().retainAll(channels);
+      for (String channel : channels) {
+        try {
+          if (workShardManager.isMine(WorkShardManager.key("conda-search-index", channel))) {
+            refreshChannel(channel);
+          }
+          load(channel);
+        } catch (Exception e) {
+          LOGGER.log(Level.WARNING, "Could not refresh the search index of conda channel " + channel, e);
+        }
+      }
+    } finally {
+      refreshing.set(false);
+    }
+  }
+
+  private void refreshChannel(String channel) throws IOException {
+    CondaChannelSnapshot previous = getSnapshot(channel);
+    long now = System.currentTimeMillis();
+    if (previous != null && now - previous.getRefreshed() < settings.getCondaSearchIndexRefreshInterval()) {
+      return;
+    }
+    Map<String, String> etags = new HashMap<>();
+    Map<String, byte[]> subdirs = new HashMap<>();
+    boolean changed = previous == null;
+    Client client = ClientBuilder.newBuilder()
+      .connectTimeout(CONNECT_TIMEOUT, TimeUnit.MILLISECONDS)
+      .readTimeout(READ_TIMEOUT, TimeUnit.MILLISECONDS)
+      .build();
+    try {
+      for (String subdir : SUBDIRS) {
+        String etag = previous != null ? previous.getEtags().get(subdir) : null;
+        try {
+          byte[] encoded = fetchSubdir(client, channel, subdir, etag, etags);
+          if (encoded != null) {
+            subdirs.put(subdir, encoded);
+            changed = true;
+            continue;
+          }
+        } catch (ProcessingException | IOException e) {
+          LOGGER.log(Level.WARNING, "Could not download the repodata of " + channel + "/" + subdir, e);
+        }
+        // not modified, or the channel is unavailable, keep what we have
+        if (previous != null && previous.getSubdirs().containsKey(subdir)) {
+          subdirs.put(subdir, previous.getSubdirs().get(subdir));
+          if (etag != null) {
+            etags.put(subdir, etag);
+          }
+        }
+      }
+    } finally {
+      client.close();
+    }
+    long version = changed ? now : previous.getVersion();
+    CondaChannelSnapshot snapshot = new CondaChannelSnapshot(now, version, etags, subdirs);
+    if (snapshotsMap != null) {
+      snapshotsMap.set(channel, snapshot);
+      versionsMap.set(channel, version);
+    } else {
+      localSnapshots.put(channel, snapshot);
+    }
+  }
+
+  /**
+   * @return the encoded index of the subdir, null if its repodata did not change or could not be downloaded
+   */
+  private byte[] fetchSubdir(Client client, String channel, String subdir, String etag, Map<String, String> etags)
+    throws IOException {
+    Response response = client.target(channelUrl(channel) + "/" + subdir + "/repodata.json")
+      .request()
+      .header(HttpHeaders.IF_NONE_MATCH, etag)
+      .get();
+    try {
+      if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+        if (response.getStatus() != Response.Status.NOT_MODIFIED.getStatusCode()) {
+          LOGGER.log(Level.FINE, "Repodata of {0}/{1} not refreshed, status {2}",
+            new Object[]{channel, subdir, response.getStatus()});
+        }
+        return null;
+      }
+      CondaChannelIndex.Builder builder = new CondaChannelIndex.Builder();
+      try (InputStream repodata = response.readEntity(InputStream.class)) {
+        CondaChannelIndex.readRepodata(repodata, builder);
+      }
+      if (response.getHeaderString(HttpHeaders.ETAG) != null) {
+        etags.put(subdir, response.getHeaderString(HttpHeaders.ETAG));
+      }
+      return builder.build().encode();
+    } finally {
+      response.close();
+    }
+  }
+
+  private void load(String channel) throws IOException {
+    Long version = versionsMap != null ? versionsMap.get(channel) :
+      Optional.ofNullable(localSnapshots.get(channel)).map(CondaChannelSnapshot::getVersion).orElse(null);
+    LoadedIndex loaded = indexes.get(channel);
+    if (version == null || (loaded != null && loaded.version == version)) {
+      return;
+    }
+    CondaChannelSnapshot snapshot = getSnapshot(channel);
+    if (snapshot != null) {
+      CondaChannelIndex index = CondaChannelIndex.decode(snapshot.getSubdirs().values());
+      indexes.put(channel, new LoadedIndex(snapshot.getVersion(), index));
+      LOGGER.log(Level.FINE, "Loaded search index of conda channel {0}, {1} packages",
+        new Object[]{channel, index.size()});
+    }
+  }
+
+  private CondaChannelSnapshot getSnapshot(String channel) {
+    return snapshotsMap != null ? snapshotsMap.get(channel) : localSnapshots.get(channel);
+  }
+
+  private String channelKey(String channel) {
+    String key = channel == null || channel.trim().isEmpty() ? settings.getCondaDefaultRepo() : channel.trim();
+    return key.endsWith("/") ? key.substring(0, key.length() - 1) : key;
+  }
+
+  private String channelUrl(String channel) {
+    if (DEFAULTS_CHANNEL.equals(channel)) {
+      return DEFAULTS_CHANNEL_URL;
+    }
+    return channel.contains("://") ? channel : ANACONDA_CHANNELS_URL + channel;
+  }
+
+  private static class LoadedIndex {
+    private final long version;
+    private final CondaChannelIndex index;
+
+    private LoadedIndex(long version, CondaChannelIndex index) {
+      this.version = version;
+      this.index = index;
+    }
+  }
+}
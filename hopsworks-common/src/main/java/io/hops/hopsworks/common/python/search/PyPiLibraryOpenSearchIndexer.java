@@ -17,7 +17,7 @@
 package io.hops.hopsworks.common.python.search;
 
 import io.hops.hopsworks.common.opensearch.OpenSearchClientController;
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.OpenSearchException;
 import org.jsoup.Jsoup;
@@ -64,7 +64,7 @@ public class PyPiLibraryOpenSearchIndexer {
   @EJB
   private Settings settings;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
   private Timer timer;
@@ -131,7 +131,7 @@ public class PyPiLibraryOpenSearchIndexer {
   }
   
   private boolean shouldIndex() {
-    if (payaraClusterManager.amIThePrimary()) {
+    if (workShardManager.isMine(PyPiLibraryOpenSearchIndexer.class)) {
       String rawInterval = settings.getPyPiIndexerTimerInterval();
       Long intervalValue = settings.getConfTimeValue(rawInterval);
       TimeUnit intervalTimeunit = settings.getConfTimeTimeUnit(rawInterval);
@@ -38,7 +38,7 @@
  */
 package io.hops.hopsworks.common.security;
 
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.common.util.Settings;
 
 import javax.annotation.PostConstruct;
@@ -71,7 +71,7 @@ public class ServiceCertificateRotationTimer {
   @EJB
   private CertificatesMgmService certificatesMgmService;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   private Timer timer;
   
   @PostConstruct
@@ -97,7 +97,7 @@ public class ServiceCertificateRotationTimer {
   
   @Timeout
   public void rotate(Timer timer) {
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(ServiceCertificateRotationTimer.class)) {
       return;
     }
     LOG.log(Level.FINEST, "Rotating service certificates");
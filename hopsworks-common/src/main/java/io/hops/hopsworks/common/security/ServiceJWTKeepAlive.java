@@ -19,7 +19,7 @@ package io.hops.hopsworks.common.security;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.google.common.base.Strings;
 import io.hops.hopsworks.common.util.DateUtils;
-import io.hops.hopsworks.common.util.PayaraClusterManager;
+import io.hops.hopsworks.common.util.WorkShardManager;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.jwt.JWTController;
 import io.hops.hopsworks.jwt.exception.JWTException;
@@ -70,7 +70,7 @@ public class ServiceJWTKeepAlive {
   @EJB
   private JWTController jwtController;
   @EJB
-  private PayaraClusterManager payaraClusterManager;
+  private WorkShardManager workShardManager;
   @Resource
   private TimerService timerService;
   private Timer timer;
@@ -107,7 +107,7 @@ public class ServiceJWTKeepAlive {
   @Timeout
   @Lock(LockType.WRITE)
   public void renewServiceToken() {
-    if (!payaraClusterManager.amIThePrimary()) {
+    if (!workShardManager.isMine(ServiceJWTKeepAlive.class)) {
       return;
     }
     try {
@@ -0,0 +1,308 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.serving.inference.logger;
+
+import io.hops.hopsworks.common.dao.kafka.HopsKafkaAdminClient;
+import io.hops.hopsworks.common.security.CertificateMaterializer;
+import io.hops.hopsworks.common.util.HopsUtils;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.exceptions.CryptoPasswordNotFoundException;
+import io.hops.hopsworks.persistence.entity.kafka.schemas.Subjects;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.config.SslConfigs;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ships inference logs to Kafka in the background. Records are put in a bounded queue and drained in batches
+ * by a single task on the managed executor. When the queue is full new records are dropped, so that inference
+ * never waits for Kafka.
+ * One producer is kept per project, with the TLS material of the serving manager of that project, and closed
+ * once it has not been used for the configured idle timeout. Parsed schemas and their writers are cached per
+ * subject version.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class InferenceLogProducer {
+
+  private static final Logger LOGGER = Logger.getLogger(InferenceLogProducer.class.getName());
+  private static final long EVICTION_INTERVAL = 60 * 1000L;
+  private static final int DRAIN_BATCH_SIZE = 500;
+  private static final String LINGER_MS = "50";
+
+  @EJB
+  private Settings settings;
+  @EJB
+  private CertificateMaterializer certificateMaterializer;
+  @EJB
+  private HopsKafkaAdminClient hopsKafkaAdminClient;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
+  @Resource
+  private TimerService timerService;
+  private Timer timer;
+
+  private BlockingQueue<InferenceLogRecord> queue;
+  private final AtomicBoolean draining = new AtomicBoolean(false);
+  private final ConcurrentMap<Integer, ProjectProducer> producers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, SchemaWriter> schemaWriters = new ConcurrentHashMap<>();
+  private final AtomicLong dropped = new AtomicLong();
+
+  @PostConstruct
+  public void init() {
+    queue = new ArrayBlockingQueue<>(settings.getInferenceLoggerQueueSize());
+    timer = timerService.createIntervalTimer(EVICTION_INTERVAL, EVICTION_INTERVAL,
+      new TimerConfig("Inference log producer eviction timer", false));
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (timer != null) {
+      timer.cancel();
+    }
+    producers.values().forEach(this::close);
+    producers.clear();
+  }
+
+  /**
+   * @param subject subject of the topic the records are written to
+   * @return the cached schema and writer for the subject version
+   */
+  public SchemaWriter getSchemaWriter(Subjects subject) {
+    return schemaWriters.computeIfAbsent(subject.getSubject() + ":" + subject.getVersion(),
+      k -> new SchemaWriter(new Schema.Parser().parse(subject.getSchema().getSchema())));
+  }
+
+  /**
+   * Queue a record to be sent. Never blocks, the record is dropped if the queue is full.
+   *
+   * @param project project owning the topic
+   * @param topicName topic to write to
+   * @param schemaWriter writer of the record schema
+   * @param record the record
+   */
+  public void send(Project project, String topicName, SchemaWriter schemaWriter, GenericData.Record record) {
+    if (!queue.offer(new InferenceLogRecord(project, topicName, schemaWriter, record))) {
+      dropped.incrementAndGet();
+      return;
+    }
+    if (draining.compareAndSet(false, true)) {
+      try {
+        executorService.submit(this::drain);
+      } catch (RuntimeException e) {
+        draining.set(false);
+        LOGGER.log(Level.FINE, "Could not schedule inference log shipping", e);
+      }
+    }
+  }
+
+  @Timeout
+  public void evictIdle(Timer timer) {
+    long idleSince = System.currentTimeMillis() - settings.getInferenceLoggerProducerIdleTimeout();
+    for (ProjectProducer producer : producers.values()) {
+      if (producer.lastUsed <= idleSince && producers.remove(producer.projectId, producer)) {
+        close(producer);
+      }
+    }
+    long droppedRecords = dropped.getAndSet(0);
+    if (droppedRecords > 0) {
+      LOGGER.log(Level.WARNING, "Dropped " + droppedRecords + " inference logs because the queue was full");
+    }
+  }
+
+  private void drain() {
+    List<InferenceLogRecord> batch = new ArrayList<>(DRAIN_BATCH_SIZE);
+    while (true) {
+      while (queue.drainTo(batch, DRAIN_BATCH_SIZE) > 0) {
+        for (InferenceLogRecord record : batch) {
+          write(record);
+        }
+        batch.clear();
+      }
+      draining.set(false);
+      // A record may have been queued after the last drain but before the flag was cleared
+      if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+        return;
+      }
+    }
+  }
+
+  private void write(InferenceLogRecord record) {
+    try {
+      ProjectProducer producer = getProducer(record.project);
+      byte[] value = record.schemaWriter.serialize(record.record);
+      producer.kafkaProducer.send(new ProducerRecord<>(record.topicName, value), (metadata, e) -> {
+        if (e != null) {
+          LOGGER.log(Level.FINE, "Cannot write to topic: " + record.topicName, e);
+        }
+      });
+    } catch (Exception e) {
+      // We didn't manage to write the log to Kafka, nothing we can do.
+      LOGGER.log(Level.FINE, "Cannot write to topic: " + record.topicName, e);
+    }
+  }
+
+  private ProjectProducer getProducer(Project project) throws IOException, CryptoPasswordNotFoundException {
+    ProjectProducer producer = producers.get(project.getId());
+    if (producer == null) {
+      // Only the drain task creates producers, so there is no race on creation
+      producer = new ProjectProducer(project.getId(), project.getName(), setupProducer(project));
+      producers.put(project.getId(), producer);
+    }
+    producer.lastUsed = System.currentTimeMillis();
+    return producer;
+  }
+
+  private void close(ProjectProducer producer) {
+    try {
+      producer.kafkaProducer.close();
+    } catch (Exception e) {
+      LOGGER.log(Level.FINE, "Error closing inference log producer of project " + producer.projectName, e);
+    } finally {
+      certificateMaterializer.removeCertificatesLocal(KafkaInferenceLogger.SERVING_MANAGER_USERNAME,
+        producer.projectName);
+    }
+  }
+
+  private KafkaProducer<String, byte[]> setupProducer(Project project) throws IOException,
+    CryptoPasswordNotFoundException {
+    // Get default properties
+    Properties props = hopsKafkaAdminClient.getHopsworksKafkaProperties();
+
+    // Setup producer properties
+    props.put(ProducerConfig.CLIENT_ID_CONFIG, "KafkaServing");
+    props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG,
+            StringSerializer.class.getName());
+    props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+            ByteArraySerializer.class.getName());
+    props.put(ProducerConfig.LINGER_MS_CONFIG, LINGER_MS);
+
+    // Configure TLS for this producer
+    String username = KafkaInferenceLogger.SERVING_MANAGER_USERNAME;
+    certificateMaterializer.materializeCertificatesLocal(username, project.getName());
+    try {
+      CertificateMaterializer.CryptoMaterial cryptoMaterial =
+        certificateMaterializer.getUserMaterial(username, project.getName());
+
+      props.setProperty(SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG,
+        settings.getHopsworksTmpCertDir() + File.separator + HopsUtils.getProjectTruststoreName(project.getName(),
+          username));
+      props.setProperty(SslConfigs.SSL_TRUSTSTORE_PASSWORD_CONFIG, String.valueOf(cryptoMaterial.getPassword()));
+
+      props.setProperty(SslConfigs.SSL_KEYSTORE_LOCATION_CONFIG,
+        settings.getHopsworksTmpCertDir() + File.separator + HopsUtils.getProjectKeystoreName(project.getName(),
+          username));
+      props.setProperty(SslConfigs.SSL_KEYSTORE_PASSWORD_CONFIG, String.valueOf(cryptoMaterial.getPassword()));
+
+      props.setProperty(SslConfigs.SSL_KEY_PASSWORD_CONFIG, String.valueOf(cryptoMaterial.getPassword()));
+
+      return new KafkaProducer<>(props);
+    } catch (RuntimeException | CryptoPasswordNotFoundException e) {
+      certificateMaterializer.removeCertificatesLocal(username, project.getName());
+      throw e;
+    }
+  }
+
+  /**
+   * Parsed schema of a subject version together with its writer. Both are thread safe.
+   */
+  public static class SchemaWriter {
+    private final Schema schema;
+    private final DatumWriter<GenericData.Record> writer;
+
+    SchemaWriter(Schema schema) {
+      this.schema = schema;
+      this.writer = new GenericDatumWriter<>(schema);
+    }
+
+    public Schema getSchema() {
+      return schema;
+    }
+
+    byte[] serialize(GenericData.Record record) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+      writer.write(record, encoder);
+      encoder.flush();
+      return out.toByteArray();
+    }
+  }
+
+  private static class InferenceLogRecord {
+    private final Project project;
+    private final String topicName;
+    private final SchemaWriter schemaWriter;
+    private final GenericData.Record record;
+
+    InferenceLogRecord(Project project, String topicName, SchemaWriter schemaWriter, GenericData.Record record) {
+      this.project = project;
+      this.topicName = topicName;
+      this.schemaWriter = schemaWriter;
+      this.record = record;
+    }
+  }
+
+  private static class ProjectProducer {
+    private final Integer projectId;
+    private final String projectName;
+    private final KafkaProducer<String, byte[]> kafkaProducer;
+    private volatile long lastUsed = System.currentTimeMillis();
+
+    ProjectProducer(Integer projectId, String projectName, KafkaProducer<String, byte[]> kafkaProducer) {
+      this.projectId = projectId;
+      this.projectName = projectName;
+      this.kafkaProducer = kafkaProducer;
+    }
+  }
+}
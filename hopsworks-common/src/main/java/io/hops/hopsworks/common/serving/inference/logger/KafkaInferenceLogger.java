@@ -16,52 +16,21 @@
 
 package io.hops.hopsworks.common.serving.inference.logger;
 
-import io.hops.hopsworks.common.dao.kafka.HopsKafkaAdminClient;
-import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.serving.Serving;
-import io.hops.hopsworks.common.security.CertificateMaterializer;
-import io.hops.hopsworks.common.util.HopsUtils;
-import io.hops.hopsworks.common.util.Settings;
-import io.hops.hopsworks.exceptions.CryptoPasswordNotFoundException;
-import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
-import org.apache.avro.generic.GenericDatumWriter;
-import org.apache.avro.io.DatumWriter;
-import org.apache.avro.io.Encoder;
-import org.apache.avro.io.EncoderFactory;
-import org.apache.kafka.clients.producer.KafkaProducer;
-import org.apache.kafka.clients.producer.ProducerConfig;
-import org.apache.kafka.clients.producer.ProducerRecord;
-import org.apache.kafka.common.config.SslConfigs;
-import org.apache.kafka.common.serialization.ByteArraySerializer;
-import org.apache.kafka.common.serialization.StringSerializer;
 
-import javax.ejb.Asynchronous;
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.IOException;
-import java.util.Properties;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 @Stateless
 public class KafkaInferenceLogger implements InferenceLogger {
 
-  private static final Logger LOGGER = Logger.getLogger(KafkaInferenceLogger.class.getName());
-
-  @EJB
-  private Settings settings;
   @EJB
-  private CertificateMaterializer certificateMaterializer;
-  @EJB
-  private HopsKafkaAdminClient hopsKafkaAdminClient;
+  private InferenceLogProducer inferenceLogProducer;
 
   public static final String SERVING_MANAGER_USERNAME = "srvmanager";
 
   @Override
-  @Asynchronous
   public void logInferenceRequest(Serving serving, String inferenceRequest,
                                   Integer responseHttpCode, String inferenceResponse) {
 
@@ -70,52 +39,23 @@ public class KafkaInferenceLogger implements InferenceLogger {
       return;
     }
 
-    // Setup the producer for the given project
-    KafkaProducer <String, byte[]> kafkaProducer = null;
-    try {
-      kafkaProducer = setupProducer(serving.getProject());
-    } catch (IOException | CryptoPasswordNotFoundException e) {
-      LOGGER.log(Level.FINE, "Failed to setup the produce for the project: "
-          + serving.getProject().getName() , e);
-      // We didn't manage to write the log to Kafka, nothing we can do.
-    }
-    
-    //Get the schema for the topic and the serializer
-    Schema avroSchema = new Schema.Parser().parse(serving.getKafkaTopic().getSubjects().getSchema().getSchema());
+    //Get the cached schema for the topic and the serializer
+    InferenceLogProducer.SchemaWriter schemaWriter =
+      inferenceLogProducer.getSchemaWriter(serving.getKafkaTopic().getSubjects());
 
     //Get the version of the schema
     int schemaVersion = serving.getKafkaTopic().getSubjects().getVersion();
     
     // Create the GenericRecord from the avroSchema
-    GenericData.Record inferenceRecord = new GenericData.Record(avroSchema);
+    GenericData.Record inferenceRecord = new GenericData.Record(schemaWriter.getSchema());
   
     // Populate the Inference Record with data
     populateInfererenceRecord(serving, inferenceRequest, responseHttpCode, inferenceResponse, inferenceRecord,
       schemaVersion);
 
-    // Serialize record to byte array and send it to kafka
-    try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-      DatumWriter<GenericData.Record> writer = new GenericDatumWriter<>(avroSchema);
-      Encoder encoder = EncoderFactory.get().binaryEncoder(out, null);
-      writer.write(inferenceRecord, encoder);
-      encoder.flush();
-
-      // Push the record to the topic
-      ProducerRecord<String, byte[]> inferenceKakfaRecord = new ProducerRecord<>(
-          serving.getKafkaTopic().getTopicName(), out.toByteArray());
-      kafkaProducer.send(inferenceKakfaRecord);
-    } catch (Exception e) {
-      LOGGER.log(Level.FINE, "Cannot write to topic: " + serving.getKafkaTopic().getTopicName(), e);
-      // We didn't manage to write the log to Kafka, nothing we can do.
-    } finally {
-      if(kafkaProducer != null) {
-        kafkaProducer.flush();
-        kafkaProducer.close();
-      }
-    }
-
-    // De-materialize certificate
-    certificateMaterializer.removeCertificatesLocal(SERVING_MANAGER_USERNAME, serving.getProject().getName());
+    // Serialization and sending happen in the background, the record is dropped if Kafka cannot keep up
+    inferenceLogProducer.send(serving.getProject(), serving.getKafkaTopic().getTopicName(), schemaWriter,
+      inferenceRecord);
   }
   
   /**
@@ -152,38 +92,6 @@ public class KafkaInferenceLogger implements InferenceLogger {
   }
 
 
-  private KafkaProducer<String, byte[]> setupProducer(Project project) throws IOException,
-    CryptoPasswordNotFoundException {
-    // Get default properties
-    Properties props = hopsKafkaAdminClient.getHopsworksKafkaProperties();
-
-    // Setup producer properties
-    props.put(ProducerConfig.CLIENT_ID_CONFIG, "KafkaServing");
-    props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG,
-            StringSerializer.class.getName());
-    props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
-            ByteArraySerializer.class.getName());
-
-    // Configure TLS for this producer
-    certificateMaterializer.materializeCertificatesLocal(SERVING_MANAGER_USERNAME, project.getName());
-    CertificateMaterializer.CryptoMaterial cryptoMaterial =
-            certificateMaterializer.getUserMaterial(SERVING_MANAGER_USERNAME, project.getName());
-
-    props.setProperty(SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG,
-        settings.getHopsworksTmpCertDir() + File.separator + HopsUtils.getProjectTruststoreName(project.getName(),
-            SERVING_MANAGER_USERNAME));
-    props.setProperty(SslConfigs.SSL_TRUSTSTORE_PASSWORD_CONFIG, String.valueOf(cryptoMaterial.getPassword()));
-
-    props.setProperty(SslConfigs.SSL_KEYSTORE_LOCATION_CONFIG,
-        settings.getHopsworksTmpCertDir() + File.separator + HopsUtils.getProjectKeystoreName(project.getName(),
-            SERVING_MANAGER_USERNAME));
-    props.setProperty(SslConfigs.SSL_KEYSTORE_PASSWORD_CONFIG, String.valueOf(cryptoMaterial.getPassword()));
-
-    props.setProperty(SslConfigs.SSL_KEY_PASSWORD_CONFIG, String.valueOf(cryptoMaterial.getPassword()));
-
-    return new KafkaProducer<>(props);
-  }
-
   @Override
   public String getClassName() {
     return KafkaInferenceLogger.class.getName();
@@ -17,6 +17,7 @@ package io.hops.hopsworks.common.upload;
 
 import io.hops.hopsworks.common.hdfs.DistributedFileSystemOps;
 import io.hops.hopsworks.common.hdfs.DistributedFsService;
+import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.DatasetException;
 import io.hops.hopsworks.restutils.RESTCodes;
 import org.apache.commons.io.IOUtils;
@@ -48,6 +49,10 @@ public class UploadController {
   private DistributedFsService dfs;
   @EJB
   private ResumableInfoStorage storage;
+  @EJB
+  private UploadMonitor uploadMonitor;
+  @EJB
+  private Settings settings;
 
   /**
    * Check if user has permission to write to path. And destination exists.
@@ -124,14 +129,13 @@ public class UploadController {
   }
 
   //save chunk hdfs
-  private void saveChunk(DistributedFileSystemOps dfsOps, InputStream uploadedInputStream, FlowInfo info,
+  private long saveChunk(DistributedFileSystemOps dfsOps, InputStream uploadedInputStream, FlowInfo info,
     int chunkNumber) throws IOException {
     Path location = new Path(info.getFilePath(), String.valueOf(chunkNumber));
     FSDataOutputStream out = null;
     try {
       out = dfsOps.create(location);
-      // copy returns int: -1 if size > 2147483647L. Chunk should not be > 2147483647L
-      IOUtils.copy(uploadedInputStream, out);
+      return IOUtils.copyLarge(uploadedInputStream, out);
     } finally {
       IOUtils.closeQuietly(uploadedInputStream);
       IOUtils.closeQuietly(out);
@@ -146,29 +150,17 @@ public class UploadController {
       //collect
       Path location = new Path(info.getFilePath());
       if (dfsOps.exists(location) && dfsOps.getFileStatus(location).isDirectory()) {
-        FileStatus[] fileStatuses = dfsOps.listStatus(location);
+        FileStatus[] fileStatuses = listChunks(dfsOps, location);
         if (fileStatuses != null && fileStatuses.length > 0) {
-          if (fileStatuses.length > 1) {
-            Arrays.sort(fileStatuses, Comparator.comparingInt(o -> Integer.parseInt(o.getPath().getName())));
-          }
           //Here we remove ".temp" to collect files in filename
           Path collected = fromTemp(location);
-          FSDataOutputStream out = null;
-          FSDataInputStream in = null;
-          try {
-            out = dfsOps.create(collected);
-            for (FileStatus fileStatus : fileStatuses) {
-              try {
-                in = dfsOps.open(fileStatus.getPath());
-                IOUtils.copy(in, out);
-              } finally {
-                IOUtils.closeQuietly(in);
-              }
-            }
-            dfsOps.rm(location, true);
-          } finally {
-            IOUtils.closeQuietly(out);
+          long start = System.currentTimeMillis();
+          boolean concatenated = settings.isUploadConcatChunks() && concatChunks(dfsOps, fileStatuses, collected);
+          if (!concatenated) {
+            copyChunks(dfsOps, listChunks(dfsOps, location), collected);
           }
+          dfsOps.rm(location, true);
+          uploadMonitor.uploadFinished(info, concatenated, System.currentTimeMillis() - start);
         }
       }
       return true;
@@ -176,6 +168,55 @@ public class UploadController {
     return false;
   }
 
+  private FileStatus[] listChunks(DistributedFileSystemOps dfsOps, Path location) throws IOException {
+    FileStatus[] fileStatuses = dfsOps.listStatus(location);
+    if (fileStatuses != null && fileStatuses.length > 1) {
+      Arrays.sort(fileStatuses, Comparator.comparingInt(o -> Integer.parseInt(o.getPath().getName())));
+    }
+    return fileStatuses;
+  }
+
+  //move the blocks of the chunks to the first chunk, in order, and the first chunk to the collected file. The data
+  //is not read again, whatever the order the chunks arrived in.
+  private boolean concatChunks(DistributedFileSystemOps dfsOps, FileStatus[] fileStatuses, Path collected) {
+    try {
+      Path first = fileStatuses[0].getPath();
+      if (fileStatuses.length > 1) {
+        Path[] rest = new Path[fileStatuses.length - 1];
+        for (int i = 1; i < fileStatuses.length; i++) {
+          rest[i - 1] = fileStatuses[i].getPath();
+        }
+        dfsOps.concat(first, rest);
+      }
+      dfsOps.moveWithinHdfs(first, collected, true);
+      return true;
+    } catch (IOException | UnsupportedOperationException e) {
+      //the chunks left in the staging dir are copied
+      LOGGER.log(Level.INFO, "Failed to concat the chunks of {0}, copying them. {1}",
+        new Object[]{collected, e.getMessage()});
+      return false;
+    }
+  }
+
+  private void copyChunks(DistributedFileSystemOps dfsOps, FileStatus[] fileStatuses, Path collected)
+    throws IOException {
+    FSDataOutputStream out = null;
+    FSDataInputStream in = null;
+    try {
+      out = dfsOps.create(collected);
+      for (FileStatus fileStatus : fileStatuses) {
+        try {
+          in = dfsOps.open(fileStatus.getPath());
+          IOUtils.copyLarge(in, out);
+        } finally {
+          IOUtils.closeQuietly(in);
+        }
+      }
+    } finally {
+      IOUtils.closeQuietly(out);
+    }
+  }
+
   private void copyToHdfs(DistributedFileSystemOps dfsOps, FlowInfo info, String hdfsPath) throws IOException {
     try {
       Path location = new Path(hdfsPath, info.getFilename());
@@ -203,7 +244,18 @@ public class UploadController {
       String resumableFilePath = getTmpStagingDir(dfsOps, flowInfo.getFilename(), hdfsPath);
       flowInfo.setFilePath(resumableFilePath);
       storage.put(flowInfo);
-      saveChunk(dfsOps, uploadedInputStream, flowInfo, flowInfo.getChunkNumber());
+      try {
+        uploadMonitor.chunkStarted(flowInfo);
+      } catch (DatasetException e) {
+        IOUtils.closeQuietly(uploadedInputStream);
+        throw e;
+      }
+      long written = -1;
+      try {
+        written = saveChunk(dfsOps, uploadedInputStream, flowInfo, flowInfo.getChunkNumber());
+      } finally {
+        uploadMonitor.chunkFinished(flowInfo, written);
+      }
       finished =
         markAsUploadedAndCheckFinished(dfsOps, flowInfo, flowInfo.getChunkNumber(), flowInfo.getCurrentChunkSize());
       if (finished) {
@@ -0,0 +1,163 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.upload;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.exceptions.DatasetException;
+import io.hops.hopsworks.restutils.RESTCodes;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Progress of the resumable uploads received by this node. Bounds the number of chunks of a file that are written
+ * at the same time and keeps the throughput of the uploads in progress, and totals of the finished ones.
+ * Each node in HA setup only sees the chunks it received.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class UploadMonitor {
+  private static final Logger LOGGER = Logger.getLogger(UploadMonitor.class.getName());
+  //same as the upload info
+  private static final long IDLE_TIMEOUT_MIN = 30;
+
+  @EJB
+  private Settings settings;
+
+  private Cache<String, UploadProgress> uploads;
+
+  private final AtomicLong finishedUploads = new AtomicLong();
+  private final AtomicLong receivedChunks = new AtomicLong();
+  private final AtomicLong receivedBytes = new AtomicLong();
+  private final AtomicLong rejectedChunks = new AtomicLong();
+  private final AtomicLong concatenatedUploads = new AtomicLong();
+  private final AtomicLong copiedUploads = new AtomicLong();
+  private final AtomicLong assemblyMs = new AtomicLong();
+
+  @PostConstruct
+  public void init() {
+    uploads = Caffeine.newBuilder()
+      .expireAfterAccess(IDLE_TIMEOUT_MIN, TimeUnit.MINUTES)
+      .build();
+  }
+
+  /**
+   * Start writing a chunk. Every call needs to be followed by chunkFinished.
+   *
+   * @param info
+   * @throws DatasetException if the maximum number of chunks of the file are already being written
+   */
+  public void chunkStarted(FlowInfo info) throws DatasetException {
+    UploadProgress progress = uploads.get(info.getFilePath(), path -> new UploadProgress(info));
+    int maxParallelChunks = settings.getUploadMaxParallelChunks();
+    if (progress.inFlight.incrementAndGet() > maxParallelChunks && maxParallelChunks > 0) {
+      progress.inFlight.decrementAndGet();
+      rejectedChunks.incrementAndGet();
+      throw new DatasetException(RESTCodes.DatasetErrorCode.UPLOAD_PARALLEL_CHUNKS_LIMIT, Level.FINE,
+        "file: " + info.getFilename() + ", chunk: " + info.getChunkNumber());
+    }
+  }
+
+  /**
+   * @param info
+   * @param bytes written bytes, negative if the chunk failed
+   */
+  public void chunkFinished(FlowInfo info, long bytes) {
+    UploadProgress progress = uploads.getIfPresent(info.getFilePath());
+    if (progress != null) {
+      progress.inFlight.decrementAndGet();
+      if (bytes >= 0) {
+        progress.chunks.incrementAndGet();
+        progress.bytes.addAndGet(bytes);
+      }
+    }
+    if (bytes >= 0) {
+      receivedChunks.incrementAndGet();
+      receivedBytes.addAndGet(bytes);
+    }
+  }
+
+  /**
+   * @param info
+   * @param concatenated true if the chunks were assembled without copying them
+   * @param assemblyMillis time it took to assemble the chunks
+   */
+  public void uploadFinished(FlowInfo info, boolean concatenated, long assemblyMillis) {
+    UploadProgress progress = uploads.asMap().remove(info.getFilePath());
+    finishedUploads.incrementAndGet();
+    (concatenated ? concatenatedUploads : copiedUploads).incrementAndGet();
+    assemblyMs.addAndGet(assemblyMillis);
+    if (progress != null) {
+      UploadStats.Upload upload = progress.toUpload();
+      LOGGER.log(Level.INFO, "Uploaded {0}: {1} bytes in {2} chunks, {3} ms, {4} bytes/s on this node. " +
+          "Chunks {5} in {6} ms.", new Object[]{upload.getFilename(), upload.getReceivedBytes(),
+          upload.getReceivedChunks(), upload.getElapsedMs(), upload.getBytesPerSecond(),
+          concatenated ? "concatenated" : "copied", assemblyMillis});
+    }
+  }
+
+  public UploadStats getStats() {
+    List<UploadStats.Upload> inProgress = new ArrayList<>();
+    long chunksInFlight = 0;
+    for (UploadProgress progress : uploads.asMap().values()) {
+      UploadStats.Upload upload = progress.toUpload();
+      chunksInFlight += upload.getChunksInFlight();
+      inProgress.add(upload);
+    }
+    long finished = finishedUploads.get();
+    return new UploadStats(inProgress.size(), chunksInFlight, finished, receivedChunks.get(), receivedBytes.get(),
+      rejectedChunks.get(), concatenatedUploads.get(), copiedUploads.get(),
+      finished > 0 ? assemblyMs.get() / finished : 0, inProgress);
+  }
+
+  private static class UploadProgress {
+    private final String filename;
+    private final long totalSize;
+    private final long started = System.currentTimeMillis();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong chunks = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    UploadProgress(FlowInfo info) {
+      this.filename = info.getFilename();
+      this.totalSize = info.getTotalSize();
+    }
+
+    UploadStats.Upload toUpload() {
+      long elapsed = Math.max(System.currentTimeMillis() - started, 1);
+      long received = bytes.get();
+      return new UploadStats.Upload(filename, totalSize, received, chunks.get(), inFlight.get(), elapsed,
+        received * 1000 / elapsed);
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.upload;
+
+import io.hops.hopsworks.common.api.RestDTO;
+
+import java.util.List;
+
+public class UploadStats extends RestDTO<UploadStats> {
+  private long activeUploads;
+  private long chunksInFlight;
+  private long finishedUploads;
+  private long receivedChunks;
+  private long receivedBytes;
+  private long rejectedChunks;
+  private long concatenatedUploads;
+  private long copiedUploads;
+  private long avgAssemblyMs;
+  private List<Upload> uploads;
+
+  public UploadStats(long activeUploads, long chunksInFlight, long finishedUploads, long receivedChunks,
+      long receivedBytes, long rejectedChunks, long concatenatedUploads, long copiedUploads, long avgAssemblyMs,
+      List<Upload> uploads) {
+    this.activeUploads = activeUploads;
+    this.chunksInFlight = chunksInFlight;
+    this.finishedUploads = finishedUploads;
+    this.receivedChunks = receivedChunks;
+    this.receivedBytes = receivedBytes;
+    this.rejectedChunks = rejectedChunks;
+    this.concatenatedUploads = concatenatedUploads;
+    this.copiedUploads = copiedUploads;
+    this.avgAssemblyMs = avgAssemblyMs;
+    this.uploads = uploads;
+  }
+
+  public UploadStats() {
+  }
+
+  public long getActiveUploads() {
+    return activeUploads;
+  }
+
+  public void setActiveUploads(long activeUploads) {
+    this.activeUploads = activeUploads;
+  }
+
+  public long getChunksInFlight() {
+    return chunksInFlight;
+  }
+
+  public void setChunksInFlight(long chunksInFlight) {
+    this.chunksInFlight = chunksInFlight;
+  }
+
+  public long getFinishedUploads() {
+    return finishedUploads;
+  }
+
+  public void setFinishedUploads(long finishedUploads) {
+    this.finishedUploads = finishedUploads;
+  }
+
+  public long getReceivedChunks() {
+    return receivedChunks;
+  }
+
+  public void setReceivedChunks(long receivedChunks) {
+    this.receivedChunks = receivedChunks;
+  }
+
+  public long getReceivedBytes() {
+    return receivedBytes;
+  }
+
+  public void setReceivedBytes(long receivedBytes) {
+    this.receivedBytes = receivedBytes;
+  }
+
+  public long getRejectedChunks() {
+    return rejectedChunks;
+  }
+
+  public void setRejectedChunks(long rejectedChunks) {
+    this.rejectedChunks = rejectedChunks;
+  }
+
+  public long getConcatenatedUploads() {
+    return concatenatedUploads;
+  }
+
+  public void setConcatenatedUploads(long concatenatedUploads) {
+    this.concatenatedUploads = concatenatedUploads;
+  }
+
+  public long getCopiedUploads() {
+    return copiedUploads;
+  }
+
+  public void setCopiedUploads(long copiedUploads) {
+    this.copiedUploads = copiedUploads;
+  }
+
+  public long getAvgAssemblyMs() {
+    return avgAssemblyMs;
+  }
+
+  public void setAvgAssemblyMs(long avgAssemblyMs) {
+    this.avgAssemblyMs = avgAssemblyMs;
+  }
+
+  public List<Upload> getUploads() {
+    return uploads;
+  }
+
+  public void setUploads(List<Upload> uploads) {
+    this.uploads = uploads;
+  }
+
+  public static class Upload {
+    private String filename;
+    private long totalSize;
+    private long receivedBytes;
+    private long receivedChunks;
+    private long chunksInFlight;
+    private long elapsedMs;
+    private long bytesPerSecond;
+
+    public Upload(String filename, long totalSize, long receivedBytes, long receivedChunks, long chunksInFlight,
+        long elapsedMs, long bytesPerSecond) {
+      this.filename = filename;
+      this.totalSize = totalSize;
+      this.receivedBytes = receivedBytes;
+      this.receivedChunks = receivedChunks;
+      this.chunksInFlight = chunksInFlight;
+      this.elapsedMs = elapsedMs;
+      this.bytesPerSecond = bytesPerSecond;
+    }
+
+    public Upload() {
+    }
+
+    public String getFilename() {
+      return filename;
+    }
+
+    public void setFilename(String filename) {
+      this.filename = filename;
+    }
+
+    public long getTotalSize() {
+      return totalSize;
+    }
+
+    public void setTotalSize(long totalSize) {
+      this.totalSize = totalSize;
+    }
+
+    public long getReceivedBytes() {
+      return receivedBytes;
+    }
+
+    public void setReceivedBytes(long receivedBytes) {
+      this.receivedBytes = receivedBytes;
+    }
+
+    public long getReceivedChunks() {
+      return receivedChunks;
+    }
+
+    public void setReceivedChunks(long receivedChunks) {
+      this.receivedChunks = receivedChunks;
+    }
+
+    public long getChunksInFlight() {
+      return chunksInFlight;
+    }
+
+    public void setChunksInFlight(long chunksInFlight) {
+      this.chunksInFlight = chunksInFlight;
+    }
+
+    public long getElapsedMs() {
+      return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+      this.elapsedMs = elapsedMs;
+    }
+
+    public long getBytesPerSecond() {
+      return bytesPerSecond;
+    }
+
+    public void setBytesPerSecond(long bytesPerSecond) {
+      this.bytesPerSecond = bytesPerSecond;
+    }
+  }
+}
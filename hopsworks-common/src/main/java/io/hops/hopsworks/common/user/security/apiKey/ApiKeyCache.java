@@ -0,0 +1,139 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.user.security.apiKey;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.exceptions.ApiKeyException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.inject.Inject;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of verified API keys by prefix, so that repeated requests with the same key do not query the key
+ * and its scopes and do not recompute the salted digest. A cached key only matches the exact secret it was
+ * verified with. Entries expire after a short TTL, which also bounds how long a change of the user's status or
+ * roles takes to apply, and are evicted on all nodes as soon as the key is deleted or its scopes change.
+ * Invalidations are counted, so that a key verified against the database while it was being changed is not cached
+ * after the invalidation.
+ */
+@Singleton
+@DependsOn("Settings")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class ApiKeyCache {
+
+  @EJB
+  private Settings settings;
+  @Inject
+  private HazelcastInstance hazelcastInstance;
+
+  private Cache<String, VerifiedApiKey> verifiedKeys;
+  private final AtomicLong invalidations = new AtomicLong();
+  private ITopic<String> apiKeyUpdatedTopic;
+  private UUID listenerId;
+
+  /**
+   * Verifies a key against the database.
+   */
+  @FunctionalInterface
+  public interface ApiKeyVerifier {
+    VerifiedApiKey verify() throws ApiKeyException;
+  }
+
+  @PostConstruct
+  public void init() {
+    verifiedKeys = Caffeine.newBuilder()
+      .maximumSize(settings.getApiKeyCacheMaxSize())
+      .expireAfterWrite(settings.getApiKeyCacheTtl(), TimeUnit.MILLISECONDS)
+      .build();
+    // hazelcastInstance == null if Hazelcast is Disabled
+    if (hazelcastInstance != null) {
+      apiKeyUpdatedTopic = hazelcastInstance.getTopic("api_key_updated");
+      listenerId = apiKeyUpdatedTopic.addMessageListener(new MessageListenerImpl());
+    }
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (apiKeyUpdatedTopic != null) {
+      //needed for redeploy to remove the listener
+      apiKeyUpdatedTopic.removeMessageListener(listenerId);
+    }
+  }
+
+  /**
+   * @param prefix prefix of the presented key
+   * @param secret secret of the presented key
+   * @param verifier verifies the key if it is not cached or was cached with a different secret
+   * @return the verified key
+   * @throws ApiKeyException if the key could not be verified
+   */
+  public VerifiedApiKey get(String prefix, String secret, ApiKeyVerifier verifier) throws ApiKeyException {
+    VerifiedApiKey cached = verifiedKeys.getIfPresent(prefix);
+    if (cached != null && cached.matches(secret)) {
+      return cached;
+    }
+    long generation = invalidations.get();
+    VerifiedApiKey verified = verifier.verify();
+    verifiedKeys.put(prefix, verified);
+    if (invalidations.get() != generation) {
+      // the key might have changed after it was read, do not keep what was verified
+      verifiedKeys.invalidate(prefix);
+    }
+    return verified;
+  }
+
+  /**
+   * Evict a key on all nodes, after it has been deleted or its scopes have changed.
+   *
+   * @param prefix prefix of the key
+   */
+  public void invalidate(String prefix) {
+    invalidateLocal(prefix);
+    if (apiKeyUpdatedTopic != null) {
+      apiKeyUpdatedTopic.publish(prefix);
+    }
+  }
+
+  private void invalidateLocal(String prefix) {
+    invalidations.incrementAndGet();
+    verifiedKeys.invalidate(prefix);
+  }
+
+  public class MessageListenerImpl implements MessageListener<String> {
+
+    @Override
+    public void onMessage(Message<String> message) {
+      if (!message.getPublishingMember().localMember()) {
+        invalidateLocal(message.getMessageObject());
+      }
+    }
+  }
+}
@@ -24,6 +24,7 @@ import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.common.dao.user.security.ua.UserAccountsEmailMessages;
 import io.hops.hopsworks.common.security.utils.Secret;
 import io.hops.hopsworks.common.security.utils.SecurityUtils;
+import io.hops.hopsworks.common.user.UsersController;
 import io.hops.hopsworks.common.util.EmailBean;
 import io.hops.hopsworks.exceptions.ApiKeyException;
 import io.hops.hopsworks.exceptions.UserException;
@@ -62,6 +63,10 @@ public class ApiKeyController {
   private SecurityUtils securityUtils;
   @EJB
   private EmailBean emailBean;
+  @EJB
+  private ApiKeyCache apiKeyCache;
+  @EJB
+  private UsersController usersController;
   @Inject
   @Any
   private Instance<ApiKeyHandler> apiKeyHandlers;
@@ -167,6 +172,26 @@ public class ApiKeyController {
     return apiKey;
   }
   
+  /**
+   * Like {@link #getApiKey(String)} but served from the {@link ApiKeyCache} when the same key has been verified
+   * recently.
+   *
+   * @param key
+   * @return the verified key with the scopes of the key and the roles of its user
+   * @throws ApiKeyException
+   */
+  public VerifiedApiKey getVerifiedApiKey(String key) throws ApiKeyException {
+    String[] parts = key.split(Secret.KEY_ID_SEPARATOR_REGEX);
+    if (parts.length < 2) {
+      throw new ApiKeyException(RESTCodes.ApiKeyErrorCode.KEY_INVALID, Level.FINE);
+    }
+    return apiKeyCache.get(parts[0], parts[1], () -> {
+      ApiKey apiKey = getApiKey(key);
+      return new VerifiedApiKey(parts[0], parts[1], apiKey.getUser(), getScopes(apiKey),
+        usersController.getUserRoles(apiKey.getUser()));
+    });
+  }
+  
   /**
    *
    * @param user
@@ -190,6 +215,7 @@ public class ApiKeyController {
     ApiKeyHandler.runApiKeyDeleteHandlers(apiKeyHandlers, apiKey);
     
     apiKeyFacade.remove(apiKey);
+    apiKeyCache.invalidate(apiKey.getPrefix());
     sendDeletedEmail(user, keyName);
   }
   
@@ -202,6 +228,7 @@ public class ApiKeyController {
     for (ApiKey key : keys) {
       ApiKeyHandler.runApiKeyDeleteHandlers(apiKeyHandlers, key); // run delete handlers
       apiKeyFacade.remove(key);
+      apiKeyCache.invalidate(key.getPrefix());
     }
     sendDeletedAllEmail(user);
   }
@@ -224,6 +251,7 @@ public class ApiKeyController {
       apiKey.getApiKeyScopeCollection().addAll(newScopes);
       apiKey.setModified(new Date());
       apiKey = apiKeyFacade.update(apiKey);
+      apiKeyCache.invalidate(apiKey.getPrefix());
       // run api key update handlers
       ApiKeyHandler.runApiKeyCreateHandlers(apiKeyHandlers, apiKey);
     }
@@ -258,6 +286,7 @@ public class ApiKeyController {
       }
       apiKey.setModified(new Date());
       apiKey = apiKeyFacade.update(apiKey);
+      apiKeyCache.invalidate(apiKey.getPrefix());
       // run api key update handlers
       ApiKeyHandler.runApiKeyDeleteHandlers(apiKeyHandlers, apiKey, toRemove);
     } else if (removed && apiKey.getApiKeyScopeCollection().isEmpty()) {
@@ -312,6 +341,7 @@ public class ApiKeyController {
       apiKey.setApiKeyScopeCollection(toKeep);
       apiKey.setModified(new Date());
       apiKey = apiKeyFacade.update(apiKey);
+      apiKeyCache.invalidate(apiKey.getPrefix());
       // run api key handlers
       ApiKeyHandler.runApiKeyCreateHandlers(apiKeyHandlers, apiKey, toAdd);
       ApiKeyHandler.runApiKeyDeleteHandlers(apiKeyHandlers, apiKey, toRemove);
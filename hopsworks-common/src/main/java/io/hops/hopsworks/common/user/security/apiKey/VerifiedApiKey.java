@@ -0,0 +1,88 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.user.security.apiKey;
+
+import io.hops.hopsworks.persistence.entity.user.Users;
+import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiScope;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An API key whose secret has been checked against the salted digest in the database, together with what the
+ * authentication filters need to know about it.
+ */
+public class VerifiedApiKey {
+  private static final SecureRandom RANDOM = new SecureRandom();
+  private static final int SALT_LENGTH = 16;
+
+  private final String prefix;
+  // the secret is not kept in memory, only a digest salted per entry
+  private final byte[] salt;
+  private final byte[] secretDigest;
+  private final Users user;
+  private final Set<ApiScope> scopes;
+  private final List<String> roles;
+
+  VerifiedApiKey(String prefix, String secret, Users user, Set<ApiScope> scopes, List<String> roles) {
+    this.prefix = prefix;
+    this.salt = new byte[SALT_LENGTH];
+    RANDOM.nextBytes(this.salt);
+    this.secretDigest = digest(secret);
+    this.user = user;
+    this.scopes = Collections.unmodifiableSet(scopes);
+    this.roles = Collections.unmodifiableList(roles);
+  }
+
+  public String getPrefix() {
+    return prefix;
+  }
+
+  public Users getUser() {
+    return user;
+  }
+
+  public Set<ApiScope> getScopes() {
+    return scopes;
+  }
+
+  public List<String> getRoles() {
+    return roles;
+  }
+
+  /**
+   * Constant time comparison with the digest of the secret that was verified.
+   */
+  boolean matches(String secret) {
+    return MessageDigest.isEqual(secretDigest, digest(secret));
+  }
+
+  private byte[] digest(String secret) {
+    try {
+      MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+      messageDigest.update(salt);
+      return messageDigest.digest(secret.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      // SHA-256 is required on every Java platform
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -27,6 +27,10 @@ public class LongRunningHttpRequests {
   // requests the user is prompted to try again. If the retry is served by a node with activeRequestCount < maximum
   // number of long-running http requests, it will succeed.
   private int activeRequestCount = 0;
+  private long finishedRequestCount = 0;
+  private long transferredBytes = 0;
+  private long transferMs = 0;
+  private long lastBytesPerSecond = 0;
   
   @Lock(LockType.READ)
   public int get() {
@@ -40,4 +44,24 @@ public class LongRunningHttpRequests {
   public void decrement() {
     activeRequestCount--;
   }
+  
+  /**
+   * Decrement the active requests and account for the data the finished request transferred.
+   *
+   * @param bytes
+   * @param durationMs
+   */
+  public void decrement(long bytes, long durationMs) {
+    activeRequestCount--;
+    finishedRequestCount++;
+    transferredBytes += bytes;
+    transferMs += durationMs;
+    lastBytesPerSecond = bytes * 1000 / Math.max(durationMs, 1);
+  }
+  
+  @Lock(LockType.READ)
+  public LongRunningHttpRequestsStats getStats() {
+    return new LongRunningHttpRequestsStats(activeRequestCount, finishedRequestCount, transferredBytes,
+      transferredBytes * 1000 / Math.max(transferMs, 1), lastBytesPerSecond);
+  }
 }
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.util;
+
+import io.hops.hopsworks.common.api.RestDTO;
+
+public class LongRunningHttpRequestsStats extends RestDTO<LongRunningHttpRequestsStats> {
+  private long active;
+  private long finished;
+  private long transferredBytes;
+  private long avgBytesPerSecond;
+  private long lastBytesPerSecond;
+
+  public LongRunningHttpRequestsStats(long active, long finished, long transferredBytes, long avgBytesPerSecond,
+      long lastBytesPerSecond) {
+    this.active = active;
+    this.finished = finished;
+    this.transferredBytes = transferredBytes;
+    this.avgBytesPerSecond = avgBytesPerSecond;
+    this.lastBytesPerSecond = lastBytesPerSecond;
+  }
+
+  public LongRunningHttpRequestsStats() {
+  }
+
+  public long getActive() {
+    return active;
+  }
+
+  public void setActive(long active) {
+    this.active = active;
+  }
+
+  public long getFinished() {
+    return finished;
+  }
+
+  public void setFinished(long finished) {
+    this.finished = finished;
+  }
+
+  public long getTransferredBytes() {
+    return transferredBytes;
+  }
+
+  public void setTransferredBytes(long transferredBytes) {
+    this.transferredBytes = transferredBytes;
+  }
+
+  public long getAvgBytesPerSecond() {
+    return avgBytesPerSecond;
+  }
+
+  public void setAvgBytesPerSecond(long avgBytesPerSecond) {
+    this.avgBytesPerSecond = avgBytesPerSecond;
+  }
+
+  public long getLastBytesPerSecond() {
+    return lastBytesPerSecond;
+  }
+
+  public void setLastBytesPerSecond(long lastBytesPerSecond) {
+    this.lastBytesPerSecond = lastBytesPerSecond;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.util;
+
+import io.hops.hopsworks.persistence.entity.util.Variables;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable view of the variables table at a given version. A snapshot is loaded with a single query and is
+ * never modified afterwards, a configuration change publishes a new snapshot with a higher version.
+ */
+public final class VariablesSnapshot {
+
+  public static final VariablesSnapshot EMPTY = new VariablesSnapshot(0L, Collections.emptyList());
+
+  private final long version;
+  private final long loadedAt;
+  private final Map<String, Variables> variables;
+
+  VariablesSnapshot(long version, Collection<Variables> variables) {
+    this.version = version;
+    this.loadedAt = System.currentTimeMillis();
+    Map<String, Variables> copy = new HashMap<>(variables.size());
+    for (Variables variable : variables) {
+      // Copy the entity so the snapshot is not tied to the persistence context
+      copy.put(variable.getId(), new Variables(variable.getId(), variable.getValue(), variable.getVisibility(),
+        variable.isHide()));
+    }
+    this.variables = Collections.unmodifiableMap(copy);
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public long getLoadedAt() {
+    return loadedAt;
+  }
+
+  public int size() {
+    return variables.size();
+  }
+
+  public Optional<Variables> find(String id) {
+    return Optional.ofNullable(variables.get(id));
+  }
+}
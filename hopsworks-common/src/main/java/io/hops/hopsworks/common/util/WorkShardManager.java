@@ -0,0 +1,302 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.util;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.cluster.MembershipEvent;
+import com.hazelcast.cluster.MembershipListener;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Spreads background work over the members of the Hopsworks cluster instead of running all of it on the primary.
+ * Work units, such as an application to monitor or a timer, are hashed to a fixed number of shards and the shards are
+ * assigned to the members by consistent hashing, so that a membership change only moves the shards of the members
+ * that joined or left. A member works on a shard only while it holds its lease, which it releases when the shard
+ * moves to another member and which expires if the member crashes.
+ * Without Hazelcast, or with a single member, all the work is local.
+ * <p>
+ * The leases of the shards held by the local member are renewed in the background, so they do not expire while a
+ * long unit of work, like a cleanup timer, is running. Ownership is still at-least-once: when a shard moves to another
+ * member, because a member joined or left or could not renew in time, the new owner may start on the shard while the
+ * previous owner is finishing the work it already started. The work has to be idempotent.
+ */
+@Startup
+@Singleton
+@DependsOn({"Settings", "PayaraClusterManager"})
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class WorkShardManager {
+  private static final Logger LOGGER = Logger.getLogger(WorkShardManager.class.getName());
+  private static final int SHARDS = 271;
+  private static final int VIRTUAL_NODES = 64;
+  private static final String LEASES = "work_shard_leases";
+
+  @EJB
+  private Settings settings;
+  @EJB
+  private PayaraClusterManager payaraClusterManager;
+  @Inject
+  private HazelcastInstance hazelcastInstance;
+  @Resource
+  private TimerService timerService;
+
+  private volatile NavigableMap<Integer, UUID> ring = Collections.emptyNavigableMap();
+  private IMap<Integer, String> leases;
+  // last time the local member acquired or renewed the lease of each shard, 0 if it does not hold it
+  private final long[] renewed = new long[SHARDS];
+  private UUID listenerId;
+  private Timer timer;
+
+  @PostConstruct
+  public void init() {
+    // hazelcastInstance == null if Hazelcast is Disabled
+    if (hazelcastInstance != null) {
+      leases = hazelcastInstance.getMap(LEASES);
+      listenerId = hazelcastInstance.getCluster().addMembershipListener(new MembershipListenerImpl());
+      rebalance();
+      long renewInterval = Math.max(1, settings.getWorkShardLeaseTtl() / 3);
+      timer = timerService.createIntervalTimer(renewInterval, renewInterval,
+        new TimerConfig("Work shard lease renewal", false));
+    }
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (timer != null) {
+      timer.cancel();
+    }
+    if (hazelcastInstance != null) {
+      hazelcastInstance.getCluster().removeMembershipListener(listenerId);
+      //let the other members take over right away
+      releaseAll(shard -> true);
+    }
+  }
+
+  /**
+   * @param workType kind of work, e.g. the class doing it
+   * @param id id of the unit of work
+   * @return the key of a unit of work
+   */
+  public static String key(String workType, Object id) {
+    return workType + "/" + id;
+  }
+
+  /**
+   * Work that runs as a single unit on one member, like a cleanup timer.
+   */
+  public boolean isMine(Class<?> work) {
+    return isMine(work.getName());
+  }
+
+  /**
+   * @param workUnit key of the unit of work
+   * @return true if the local member should do the work now
+   */
+  public boolean isMine(String workUnit) {
+    try {
+      if (hazelcastInstance == null || hazelcastInstance.getCluster().getMembers().size() < 2) {
+        return true;
+      }
+      int shard = shardOf(workUnit);
+      UUID local = hazelcastInstance.getCluster().getLocalMember().getUuid();
+      if (!local.equals(ownerOf(shard))) {
+        release(shard, local);
+        return false;
+      }
+      return acquire(shard, local);
+    } catch (Exception ex) {
+      // To not stop the work
+      LOGGER.log(Level.SEVERE, "Error checking the owner of " + workUnit + ", falling back to the primary", ex);
+      return payaraClusterManager.amIThePrimary();
+    }
+  }
+
+  private boolean acquire(int shard, UUID local) {
+    long now = System.currentTimeMillis();
+    long leaseTtl = settings.getWorkShardLeaseTtl();
+    synchronized (renewed) {
+      if (renewed[shard] > 0 && now - renewed[shard] < leaseTtl / 3) {
+        return true;
+      }
+    }
+    return lease(shard, local, now, leaseTtl);
+  }
+
+  private boolean lease(int shard, UUID local, long now, long leaseTtl) {
+    String holder = leases.putIfAbsent(shard, local.toString(), leaseTtl, TimeUnit.MILLISECONDS);
+    boolean held = holder == null
+      || (holder.equals(local.toString()) && leases.setTtl(shard, leaseTtl, TimeUnit.MILLISECONDS));
+    if (!held) {
+      LOGGER.log(Level.FINE, "Shard {0} is still leased to {1}", new Object[]{shard, holder});
+    }
+    synchronized (renewed) {
+      renewed[shard] = held ? now : 0;
+    }
+    return held;
+  }
+
+  /**
+   * Renew the leases of the shards the local member holds, also while nobody asks for them, so that they do not expire
+   * in the middle of a unit of work that takes longer than the lease.
+   */
+  @Timeout
+  public void renewLeases(Timer timer) {
+    try {
+      UUID local = hazelcastInstance.getCluster().getLocalMember().getUuid();
+      long now = System.currentTimeMillis();
+      long leaseTtl = settings.getWorkShardLeaseTtl();
+      List<Integer> held = new ArrayList<>();
+      synchronized (renewed) {
+        for (int shard = 0; shard < SHARDS; shard++) {
+          if (renewed[shard] > 0) {
+            held.add(shard);
+          }
+        }
+      }
+      for (Integer shard : held) {
+        if (local.equals(ownerOf(shard))) {
+          lease(shard, local, now, leaseTtl);
+        } else {
+          release(shard, local);
+        }
+      }
+    } catch (Exception ex) {
+      LOGGER.log(Level.WARNING, "Error renewing the leases of background work", ex);
+    }
+  }
+
+  private void release(int shard, UUID local) {
+    synchronized (renewed) {
+      if (renewed[shard] == 0) {
+        return;
+      }
+      renewed[shard] = 0;
+    }
+    leases.remove(shard, local.toString());
+  }
+
+  private void releaseAll(IntPredicate filter) {
+    UUID local = hazelcastInstance.getCluster().getLocalMember().getUuid();
+    List<Integer> released = new ArrayList<>();
+    for (int shard = 0; shard < SHARDS; shard++) {
+      if (filter.test(shard)) {
+        synchronized (renewed) {
+          if (renewed[shard] > 0) {
+            released.add(shard);
+          }
+        }
+      }
+    }
+    for (Integer shard : released) {
+      release(shard, local);
+    }
+    if (!released.isEmpty()) {
+      LOGGER.log(Level.INFO, "Released {0} shards of background work", released.size());
+    }
+  }
+
+  /**
+   * Rebuild the ring from the live members and hand over the shards the local member does not own anymore.
+   */
+  private void rebalance() {
+    List<Member> members = new ArrayList<>();
+    for (Member member : hazelcastInstance.getCluster().getMembers()) {
+      // The DAS does not run background work, as with the primary
+      if (!payaraClusterManager.isDASInstance(member)) {
+        members.add(member);
+      }
+    }
+    if (members.isEmpty()) {
+      members.addAll(hazelcastInstance.getCluster().getMembers());
+    }
+    NavigableMap<Integer, UUID> newRing = new TreeMap<>();
+    for (Member member : members) {
+      for (int i = 0; i < VIRTUAL_NODES; i++) {
+        newRing.put(hash(member.getUuid() + "#" + i), member.getUuid());
+      }
+    }
+    ring = newRing;
+    LOGGER.log(Level.INFO, "Background work is sharded over {0} members", members.size());
+    UUID local = hazelcastInstance.getCluster().getLocalMember().getUuid();
+    releaseAll(shard -> !local.equals(ownerOf(shard)));
+  }
+
+  private UUID ownerOf(int shard) {
+    NavigableMap<Integer, UUID> current = ring;
+    if (current.isEmpty()) {
+      return null;
+    }
+    Map.Entry<Integer, UUID> owner = current.ceilingEntry(hash("shard#" + shard));
+    return owner != null ? owner.getValue() : current.firstEntry().getValue();
+  }
+
+  private static int shardOf(String workUnit) {
+    return Math.floorMod(hash(workUnit), SHARDS);
+  }
+
+  // String.hashCode with the murmur3 finalizer, to spread similar keys over the ring
+  private static int hash(String key) {
+    int h = key.hashCode();
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  private class MembershipListenerImpl implements MembershipListener {
+
+    @Override
+    public void memberAdded(MembershipEvent membershipEvent) {
+      rebalance();
+    }
+
+    @Override
+    public void memberRemoved(MembershipEvent membershipEvent) {
+      rebalance();
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.dataset;
+
+import io.hops.hopsworks.persistence.entity.hdfs.inode.Inode;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestDatasetTreeWalker {
+
+  private ExecutorService executor;
+  private final Map<Long, List<Inode>> children = new HashMap<>();
+  private final AtomicInteger listings = new AtomicInteger();
+  private long nextId = 1;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testVisitsParentsBeforeChildren() throws Exception {
+    Inode root = dir(0, "root");
+    Inode a = dir(root.getId(), "a");
+    for (int i = 0; i < 100; i++) {
+      file(a.getId(), "f" + i);
+    }
+    Inode b = dir(a.getId(), "b");
+    file(b.getId(), "g");
+    dir(root.getId(), "empty");
+
+    Set<String> visited = Collections.synchronizedSet(new HashSet<>());
+    long count = walker(4, 10).walk(new Path("/root"), root, (path, inode) -> {
+      if (!path.getName().equals("root")) {
+        Assert.assertTrue("Parent of " + path + " not visited", visited.contains(path.getParent().toString()));
+      }
+      Assert.assertTrue(visited.add(path.toString()));
+    });
+
+    Assert.assertEquals(105, count);
+    Assert.assertEquals(105, visited.size());
+    Assert.assertTrue(visited.contains("/root/a/b/g"));
+    Assert.assertTrue(visited.contains("/root/a/f99"));
+  }
+
+  @Test
+  public void testListsDirectoriesInBatches() throws Exception {
+    Inode root = dir(0, "root");
+    for (int i = 0; i < 50; i++) {
+      dir(root.getId(), "d" + i);
+    }
+    walker(1, 20).walk(new Path("/root"), root, (path, inode) -> { });
+    // The root, then the 50 empty directories by 20
+    Assert.assertEquals(4, listings.get());
+  }
+
+  @Test
+  public void testStopsAtFirstFailure() {
+    Inode root = dir(0, "root");
+    for (int i = 0; i < 200; i++) {
+      file(root.getId(), "f" + i);
+    }
+    AtomicInteger visits = new AtomicInteger();
+    try {
+      walker(4, 10).walk(new Path("/root"), root, (path, inode) -> {
+        if (visits.incrementAndGet() == 10) {
+          throw new IOException("boom");
+        }
+      });
+      Assert.fail("The failure of the visitor should stop the walk");
+    } catch (IOException e) {
+      Assert.assertEquals("boom", e.getMessage());
+    }
+    Assert.assertTrue(visits.get() < 201);
+  }
+
+  @Test(expected = CancellationException.class)
+  public void testCancel() throws Exception {
+    Inode root = dir(0, "root");
+    dir(dir(root.getId(), "a").getId(), "b");
+    List<Long> progress = new ArrayList<>();
+    walker(1, 1)
+      .cancelWhen(() -> progress.size() > 1)
+      .onProgress(progress::add)
+      .walk(new Path("/root"), root, (path, inode) -> { });
+  }
+
+  private DatasetTreeWalker walker(int parallelism, int batchSize) {
+    return new DatasetTreeWalker(executor, parallelism, batchSize, parentIds -> {
+      listings.incrementAndGet();
+      Assert.assertTrue(parentIds.size() <= batchSize);
+      List<Inode> result = new ArrayList<>();
+      for (Long parentId : parentIds) {
+        result.addAll(children.getOrDefault(parentId, Collections.emptyList()));
+      }
+      return result;
+    });
+  }
+
+  private Inode dir(long parentId, String name) {
+    Inode inode = file(parentId, name);
+    inode.setDir(true);
+    return inode;
+  }
+
+  private Inode file(long parentId, String name) {
+    Inode inode = new Inode(parentId, name, 0);
+    inode.setId(nextId++);
+    children.computeIfAbsent(parentId, id -> new ArrayList<>()).add(inode);
+    return inode;
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.featurestore.datavalidationv2;
+
+import io.hops.hopsworks.common.featurestore.datavalidationv2.reports.ValidationReportFacade;
+import io.hops.hopsworks.common.featurestore.datavalidationv2.results.ValidationResultFacade;
+import io.hops.hopsworks.exceptions.FeaturestoreException;
+import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.ValidationReport;
+import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.ValidationResult;
+import io.hops.hopsworks.restutils.RESTCodes;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.ejb.SessionContext;
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.logging.Level;
+
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class TestValidationReportFacade {
+
+  @Mock
+  private EntityManager em;
+  @Mock
+  private ValidationResultFacade validationResultFacade;
+  @Mock
+  private SessionContext context;
+  @InjectMocks
+  private ValidationReportFacade validationReportFacade = new ValidationReportFacade();
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  @Test
+  public void testFailedBatchRollsBackReport() throws FeaturestoreException {
+    ValidationReport report = new ValidationReport();
+    report.setValidationResults(new ArrayList<>(Collections.singletonList(new ValidationResult())));
+    doThrow(new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.ERROR_SAVING_VALIDATION_RESULTS,
+      Level.WARNING, "")).when(validationResultFacade).insertBatch(anyCollection(), anyInt());
+
+    assertThrows(FeaturestoreException.class, () -> validationReportFacade.persist(report, 10));
+
+    // the report row inserted in the same transaction must not be committed without its results
+    verify(em).persist(report);
+    verify(context).setRollbackOnly();
+    verify(em, never()).refresh(any());
+  }
+
+  @Test
+  public void testSuccessfulBatchKeepsReport() throws FeaturestoreException {
+    ValidationReport report = new ValidationReport();
+    report.setValidationResults(new ArrayList<>(Collections.singletonList(new ValidationResult())));
+
+    validationReportFacade.persist(report, 10);
+
+    verify(context, never()).setRollbackOnly();
+    verify(em).refresh(report);
+  }
+}
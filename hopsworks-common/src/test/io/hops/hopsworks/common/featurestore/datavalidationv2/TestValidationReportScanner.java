@@ -0,0 +1,82 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.datavalidationv2;
+
+import io.hops.hopsworks.common.featurestore.datavalidationv2.reports.ValidationReportScanner;
+import io.hops.hopsworks.common.featurestore.datavalidationv2.reports.ValidationReportScanner.ExpectationConfig;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class TestValidationReportScanner {
+
+  private static final String EXPECTATION_CONFIG =
+    "{\"kwargs\":{\"column\":\"score_8\",\"meta\":{\"expectationId\":1}}," +
+      "\"expectation_type\":\"expect_column_min_to_be_between\",\"meta\":{\"expectationId\":1028}}";
+
+  @Test
+  public void testScanExpectationConfig() throws IOException {
+    ExpectationConfig config = new ValidationReportScanner().scanExpectationConfig("config", EXPECTATION_CONFIG);
+    assertTrue(config.hasMeta());
+    // the id in the kwargs must not be picked up
+    assertEquals(Integer.valueOf(1028), config.getExpectationId());
+    assertEquals("expect_column_min_to_be_between", config.getExpectationType());
+
+    config = new ValidationReportScanner().scanExpectationConfig("config", "{\"kwargs\":{}}");
+    assertFalse(config.hasMeta());
+    assertNull(config.getExpectationId());
+  }
+
+  @Test
+  public void testRejectInvalidJson() {
+    ValidationReportScanner scanner = new ValidationReportScanner();
+    assertThrows(IOException.class, () -> scanner.scanObject("meta", "I am not a Json"));
+    assertThrows(IOException.class, () -> scanner.scanObject("meta", "[1, 2]"));
+    assertThrows(IOException.class, () -> scanner.scanObject("meta", "{\"unterminated\": "));
+    assertThrows(IOException.class, () -> scanner.scanExpectationConfig("config", "{\"meta\": {"));
+  }
+
+  @Test
+  public void testCopyReport() throws IOException {
+    StringWriter report = new StringWriter();
+    try (ValidationReportScanner scanner = new ValidationReportScanner(report)) {
+      scanner.writeStartObject();
+      scanner.scanObject("statistics", "{\"evaluated_expectations\": 1, \"observed\": [NaN, 2]}");
+      scanner.writeArrayFieldStart("results");
+      scanner.writeStartObject();
+      scanner.scanExpectationConfig("expectation_config", EXPECTATION_CONFIG);
+      scanner.writeBooleanField("success", false);
+      scanner.writeEndObject();
+      scanner.writeEndArray();
+      scanner.writeEndObject();
+    }
+
+    JSONObject json = new JSONObject(report.toString());
+    assertEquals(1, json.getJSONObject("statistics").getInt("evaluated_expectations"));
+    JSONObject result = json.getJSONArray("results").getJSONObject(0);
+    assertFalse(result.getBoolean("success"));
+    assertEquals(1028, result.getJSONObject("expectation_config").getJSONObject("meta").getInt("expectationId"));
+  }
+}
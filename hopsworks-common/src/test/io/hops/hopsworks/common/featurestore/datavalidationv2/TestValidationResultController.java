@@ -24,12 +24,15 @@ import io.hops.hopsworks.exceptions.FeaturestoreException;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.IngestionResult;
 import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.datavalidationv2.ValidationReport;
 
+import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 import java.util.Date;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 import static io.hops.hopsworks.common.featurestore.FeaturestoreConstants.MAX_CHARACTERS_IN_VALIDATION_RESULT_EXPECTATION_CONFIG;
 import static io.hops.hopsworks.common.featurestore.FeaturestoreConstants.MAX_CHARACTERS_IN_VALIDATION_RESULT_META;
@@ -161,4 +164,17 @@ public class TestValidationResultController {
 
     // Long input is silently caught and result is truncated for result field.
   }
+
+  @Test
+  public void testPruneValidationResultResultKeepsObservedValue() {
+    String result = "{\"observed_value\":\"4\",\"element_count\":5,\"unexpected_count\":2," +
+      "\"unexpected_percent\":40.0,\"unexpected_percent_nonmissing\":40.0," +
+      "\"partial_unexpected_list\":\"[1, 2]\"}";
+    JSONObject pruned = new JSONObject(validationResultController.validationResultPruneResultField(result));
+    assertEquals("4", pruned.getString("observed_value"));
+    assertEquals(2, pruned.getInt("unexpected_count"));
+    assertFalse(pruned.has("partial_unexpected_list"));
+    assertFalse(pruned.has("element_count"));
+    assertTrue(pruned.has("user_message"));
+  }
 }
@@ -0,0 +1,84 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.featuregroup.cached;
+
+import io.hops.hopsworks.common.featurestore.feature.FeatureGroupFeatureDTO;
+import io.hops.hopsworks.common.util.Settings;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+public class TestOfflineFeatureGroupSchemaCache {
+  @InjectMocks
+  private OfflineFeatureGroupSchemaCache schemaCache = new OfflineFeatureGroupSchemaCache();
+  @Mock
+  private Settings settings;
+
+  private final List<FeatureGroupFeatureDTO> schema =
+    Collections.singletonList(new FeatureGroupFeatureDTO("id", "int", false, null));
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+    when(settings.getOfflineSchemaCacheMaxSize()).thenReturn(100);
+    when(settings.getOfflineSchemaCacheTtl()).thenReturn(60000L);
+    schemaCache.init();
+  }
+
+  @Test
+  public void testSchemaIsCached() {
+    long generation = schemaCache.generation("fs", "fg_1");
+    schemaCache.put("fs", "fg_1", schema, generation);
+    List<FeatureGroupFeatureDTO> cached = schemaCache.get("fs", "fg_1");
+    Assert.assertEquals(1, cached.size());
+    Assert.assertEquals("id", cached.get(0).getName());
+  }
+
+  @Test
+  public void testInvalidatedSchemaIsDropped() {
+    schemaCache.put("fs", "fg_1", schema, schemaCache.generation("fs", "fg_1"));
+    schemaCache.invalidate("fs", "fg_1");
+    Assert.assertNull(schemaCache.get("fs", "fg_1"));
+  }
+
+  @Test
+  public void testSchemaReadBeforeAnInvalidationIsNotCached() {
+    long generation = schemaCache.generation("fs", "fg_1");
+    // the table is altered while its previous schema is being read
+    schemaCache.invalidate("fs", "fg_1");
+    schemaCache.put("fs", "fg_1", schema, generation);
+    Assert.assertNull(schemaCache.get("fs", "fg_1"));
+    Assert.assertFalse(schemaCache.contains("fs", "fg_1"));
+  }
+
+  @Test
+  public void testOtherTablesAreNotAffected() {
+    long generation = schemaCache.generation("fs", "fg_1");
+    // fs.fg_1 and fs.fg_2 are in different stripes
+    schemaCache.invalidate("fs", "fg_2");
+    schemaCache.put("fs", "fg_1", schema, generation);
+    Assert.assertNotNull(schemaCache.get("fs", "fg_1"));
+  }
+}
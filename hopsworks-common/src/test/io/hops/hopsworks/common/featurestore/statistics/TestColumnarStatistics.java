@@ -0,0 +1,72 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.statistics;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+public class TestColumnarStatistics {
+
+  private JSONObject content() {
+    return new JSONObject().put("columns", new JSONArray()
+        .put(new JSONObject().put("column", "age").put("mean", 42.5))
+        .put(new JSONObject().put("column", "città").put("completeness", 1.0))
+        .put(new JSONObject().put("column", "amount").put("histogram", new JSONArray().put(1).put(2))));
+  }
+
+  @Test
+  public void testIndexPointsToEveryFeature() {
+    ColumnarStatistics columnar = ColumnarStatistics.encode(content());
+    Map<String, long[]> index = ColumnarStatistics.decodeIndex(columnar.getIndex());
+    Assert.assertEquals(3, index.size());
+    for (Map.Entry<String, String> column : ColumnarStatistics.split(content()).entrySet()) {
+      long[] entry = index.get(column.getKey());
+      String read = new String(columnar.getData(), (int) entry[0], (int) entry[1], StandardCharsets.UTF_8);
+      Assert.assertTrue(new JSONObject(read).similar(new JSONObject(column.getValue())));
+    }
+  }
+
+  @Test
+  public void testAssembleKeepsTheContentFormat() {
+    Map<String, String> columns = ColumnarStatistics.split(content());
+    String assembled = ColumnarStatistics.assemble(Arrays.asList(columns.get("amount"), columns.get("age")));
+    JSONArray array = new JSONObject(assembled).getJSONArray("columns");
+    Assert.assertEquals(2, array.length());
+    Assert.assertEquals("amount", array.getJSONObject(0).getString("column"));
+    Assert.assertEquals("age", array.getJSONObject(1).getString("column"));
+  }
+
+  @Test
+  public void testContentWithoutColumns() {
+    ColumnarStatistics columnar = ColumnarStatistics.encode(new JSONObject().put("other", 1));
+    Assert.assertEquals(0, columnar.getData().length);
+    Assert.assertTrue(ColumnarStatistics.decodeIndex(columnar.getIndex()).isEmpty());
+  }
+
+  @Test
+  public void testColumnWithoutNameIsLeftOut() {
+    JSONObject content = content();
+    content.getJSONArray("columns").put(new JSONObject().put("mean", 1.0));
+    Assert.assertEquals(3, ColumnarStatistics.decodeIndex(ColumnarStatistics.encode(content).getIndex()).size());
+  }
+}
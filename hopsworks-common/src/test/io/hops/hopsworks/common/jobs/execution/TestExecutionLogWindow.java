@@ -0,0 +1,141 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.jobs.execution;
+
+import io.hops.hopsworks.common.hdfs.DistributedFileSystemOps;
+import io.hops.hopsworks.common.hdfs.DistributedFsService;
+import io.hops.hopsworks.common.jobs.JobLogDTO;
+import io.hops.hopsworks.exceptions.JobException;
+import io.hops.hopsworks.persistence.entity.jobs.configuration.history.JobState;
+import io.hops.hopsworks.persistence.entity.jobs.description.Jobs;
+import io.hops.hopsworks.persistence.entity.jobs.history.Execution;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import io.hops.hopsworks.restutils.RESTCodes;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestExecutionLogWindow {
+  private static final String LOG = "line one\nline two\nline three\nline four\n";
+  private static final String STDOUT = "/Projects/demo/Logs/Spark/application_1/stdout.log";
+
+  @InjectMocks
+  private YARNExecutionController executionController = new YARNExecutionController();
+  @Mock
+  private DistributedFsService dfs;
+  @Mock
+  private DistributedFileSystemOps dfso;
+
+  private Execution execution;
+
+  @Before
+  public void setup() throws Exception {
+    MockitoAnnotations.openMocks(this);
+    byte[] log = LOG.getBytes(StandardCharsets.UTF_8);
+    FileStatus status = mock(FileStatus.class);
+    when(status.getLen()).thenReturn((long) log.length);
+    FSDataInputStream input = mock(FSDataInputStream.class);
+    doAnswer(invocation -> {
+      long position = invocation.getArgument(0);
+      System.arraycopy(log, (int) position, invocation.getArgument(1), invocation.<Integer>getArgument(2),
+        invocation.<Integer>getArgument(3));
+      return null;
+    }).when(input).readFully(anyLong(), any(byte[].class), anyInt(), anyInt());
+    when(dfs.getDfsOps()).thenReturn(dfso);
+    when(dfso.exists(anyString())).thenReturn(true);
+    when(dfso.getFileStatus(any(Path.class))).thenReturn(status);
+    when(dfso.open(anyString())).thenReturn(input);
+
+    Jobs job = new Jobs();
+    job.setProject(new Project("demo"));
+    execution = new Execution();
+    execution.setJob(job);
+    execution.setState(JobState.FINISHED);
+    execution.setStdoutPath(STDOUT);
+  }
+
+  @Test
+  public void testWindowEndsAtTheEndOfALine() throws JobException {
+    // "line one\nline two\nli" is cut back to the last complete line
+    JobLogDTO dto = executionController.getLog(execution, JobLogDTO.LogType.OUT, 0, 20, null);
+    Assert.assertEquals("line one\nline two\n", dto.getLog());
+    Assert.assertEquals(Long.valueOf(0), dto.getOffset());
+    Assert.assertEquals(Long.valueOf(18), dto.getNextOffset());
+    Assert.assertEquals(Long.valueOf(LOG.length()), dto.getSize());
+  }
+
+  @Test
+  public void testNextWindowStartsAtTheNextOffset() throws JobException {
+    JobLogDTO dto = executionController.getLog(execution, JobLogDTO.LogType.OUT, 18, 100, null);
+    Assert.assertEquals("line three\nline four\n", dto.getLog());
+    Assert.assertEquals(Long.valueOf(LOG.length()), dto.getNextOffset());
+  }
+
+  @Test
+  public void testNegativeOffsetStartsAtTheBeginningOfALine() throws JobException {
+    // the last 15 bytes, "hree\nline four\n", start in the middle of "line three"
+    JobLogDTO dto = executionController.getLog(execution, JobLogDTO.LogType.OUT, -15, 100, null);
+    Assert.assertEquals("line four\n", dto.getLog());
+    Assert.assertEquals(Long.valueOf(LOG.length() - 10), dto.getOffset());
+  }
+
+  @Test
+  public void testOffsetPastTheEndReturnsAnEmptyWindow() throws JobException {
+    JobLogDTO dto = executionController.getLog(execution, JobLogDTO.LogType.OUT, 1000, 100, null);
+    Assert.assertEquals("", dto.getLog());
+    Assert.assertEquals(Long.valueOf(LOG.length()), dto.getNextOffset());
+  }
+
+  @Test
+  public void testGrepFiltersTheLinesOfTheWindow() throws JobException {
+    JobLogDTO dto = executionController.getLog(execution, JobLogDTO.LogType.OUT, 0, 100, "t");
+    Assert.assertEquals("line two\nline three", dto.getLog());
+    // the offsets are those of the window, not of the matching lines
+    Assert.assertEquals(Long.valueOf(LOG.length()), dto.getNextOffset());
+  }
+
+  @Test
+  public void testNonPositiveLengthIsABadRequest() {
+    JobException ex = Assert.assertThrows(JobException.class,
+      () -> executionController.getLog(execution, JobLogDTO.LogType.OUT, 0, 0, null));
+    Assert.assertEquals(RESTCodes.JobErrorCode.JOB_LOG, ex.getErrorCode());
+  }
+
+  @Test
+  public void testRunningExecutionIsRejected() {
+    execution.setState(JobState.RUNNING);
+    JobException ex = Assert.assertThrows(JobException.class,
+      () -> executionController.getLog(execution, JobLogDTO.LogType.OUT, 0, 100, null));
+    Assert.assertEquals(RESTCodes.JobErrorCode.JOB_EXECUTION_INVALID_STATE, ex.getErrorCode());
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.project;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class TestProvisioningPipeline {
+
+  @Test
+  public void testIndependentStepsRunInParallel() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      ProvisioningProgress progress = new ProvisioningProgress("test", 1);
+      // Both steps wait for each other, the pipeline only completes if they run at the same time
+      CountDownLatch latch = new CountDownLatch(2);
+      List<String> order = Collections.synchronizedList(new ArrayList<>());
+      new ProvisioningPipeline(executor, progress, p -> { })
+        .step("root", () -> order.add("root"))
+        .step("a", () -> {
+          latch.countDown();
+          Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+          order.add("a");
+        }, "root")
+        .step("b", () -> {
+          latch.countDown();
+          Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+          order.add("b");
+        }, "root")
+        .step("last", () -> order.add("last"), "a", "b")
+        .run();
+
+      Assert.assertEquals(4, order.size());
+      Assert.assertEquals("root", order.get(0));
+      Assert.assertEquals("last", order.get(3));
+      for (ProvisioningProgress.Stage stage : progress.getStages()) {
+        Assert.assertEquals(ProvisioningProgress.StageState.DONE, stage.getState());
+        Assert.assertNotNull(stage.getDuration());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testFailureCompensatesCompletedSteps() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      ProvisioningProgress progress = new ProvisioningProgress("test", 1);
+      List<String> compensated = Collections.synchronizedList(new ArrayList<>());
+      IllegalStateException failure = new IllegalStateException("failed");
+      ProvisioningPipeline pipeline = new ProvisioningPipeline(executor, progress, p -> { })
+        .step("root", () -> { }, () -> compensated.add("root"))
+        .step("child", () -> { }, () -> compensated.add("child"), "root")
+        .step("failing", () -> {
+          throw failure;
+        }, "child")
+        .step("after", () -> Assert.fail("Should not run"), () -> compensated.add("after"), "failing");
+      try {
+        pipeline.run();
+        Assert.fail("Expected the failure of the pipeline");
+      } catch (IllegalStateException ex) {
+        Assert.assertSame(failure, ex);
+      }
+
+      Assert.assertEquals(Arrays.asList("child", "root"), compensated);
+      Assert.assertEquals(ProvisioningProgress.StageState.COMPENSATED, progress.getStages().get(0).getState());
+      Assert.assertEquals(ProvisioningProgress.StageState.FAILED, progress.getStages().get(2).getState());
+      Assert.assertEquals(ProvisioningProgress.StageState.SKIPPED, progress.getStages().get(3).getState());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownDependency() {
+    new ProvisioningPipeline(Runnable::run, new ProvisioningProgress("test", 1), p -> { })
+      .step("a", () -> { }, "b");
+  }
+}
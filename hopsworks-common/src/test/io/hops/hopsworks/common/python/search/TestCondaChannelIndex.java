@@ -0,0 +1,85 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.python.search;
+
+import io.hops.hopsworks.common.python.library.LibraryVersionDTO;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestCondaChannelIndex {
+
+  private CondaChannelIndex index() {
+    return new CondaChannelIndex.Builder()
+      .add("numpy", "1.26.0", 2000L)
+      .add("numpy", "1.25.0", 1000L)
+      .add("numpydoc", "1.5.0", 1000L)
+      .add("pandas", "2.1.0", 3000L)
+      .add("dropbox", "11.36.2", 1000L)
+      .build();
+  }
+
+  @Test
+  public void testPrefixSearch() {
+    Map<String, List<LibraryVersionDTO>> found = index().search("numpy", 50);
+    assertEquals(Arrays.asList("numpy", "numpydoc"), Arrays.asList(found.keySet().toArray()));
+    // newest first
+    assertEquals("1.26.0", found.get("numpy").get(0).getVersion());
+    assertEquals("1.25.0", found.get("numpy").get(1).getVersion());
+    assertEquals(1, index().search("numpy", 1).size());
+  }
+
+  @Test
+  public void testFuzzySearch() {
+    assertTrue(index().search("pandsa", 50).containsKey("pandas"));
+    assertTrue(index().search("dropbx", 50).containsKey("dropbox"));
+    assertTrue(index().search("zz", 50).isEmpty());
+    assertEquals(1, CondaChannelIndex.editDistance("numpy", "numpi", 2));
+  }
+
+  @Test
+  public void testEncodeDecode() throws IOException {
+    CondaChannelIndex decoded = CondaChannelIndex.decode(Arrays.asList(index().encode(),
+      new CondaChannelIndex.Builder().add("scipy", "1.11.0", 1000L).build().encode()));
+    assertEquals(index().size() + 1, decoded.size());
+    assertEquals(2, decoded.versions("numpy").size());
+    assertEquals("1.26.0", decoded.versions("numpy").get(0).getVersion());
+    assertFalse(decoded.versions("scipy").isEmpty());
+  }
+
+  @Test
+  public void testReadRepodata() throws IOException {
+    String repodata = "{\"info\":{\"subdir\":\"noarch\"}," +
+      "\"packages\":{\"six-1.16.0-py_0.tar.bz2\":{\"name\":\"six\",\"version\":\"1.16.0\",\"timestamp\":1620000000," +
+      "\"depends\":[\"python\"]}}," +
+      "\"packages.conda\":{\"six-1.15.0-py_0.conda\":{\"name\":\"six\",\"version\":\"1.15.0\"," +
+      "\"timestamp\":1600000000000}}}";
+    CondaChannelIndex.Builder builder = new CondaChannelIndex.Builder();
+    CondaChannelIndex.readRepodata(new ByteArrayInputStream(repodata.getBytes(StandardCharsets.UTF_8)), builder);
+    List<LibraryVersionDTO> versions = builder.build().versions("six");
+    assertEquals(2, versions.size());
+    assertEquals("1.16.0", versions.get(0).getVersion());
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.user.security.apiKey;
+
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.exceptions.ApiKeyException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.when;
+
+public class TestApiKeyCache {
+  @InjectMocks
+  private ApiKeyCache apiKeyCache = new ApiKeyCache();
+  @Mock
+  private Settings settings;
+
+  private final AtomicInteger verifications = new AtomicInteger();
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+    when(settings.getApiKeyCacheMaxSize()).thenReturn(100);
+    when(settings.getApiKeyCacheTtl()).thenReturn(60000L);
+    apiKeyCache.init();
+  }
+
+  @Test
+  public void testVerifiedKeyIsCached() throws ApiKeyException {
+    apiKeyCache.get("prefix", "secret", () -> verify("secret"));
+    apiKeyCache.get("prefix", "secret", () -> verify("secret"));
+    Assert.assertEquals(1, verifications.get());
+  }
+
+  @Test
+  public void testOtherSecretIsVerified() throws ApiKeyException {
+    apiKeyCache.get("prefix", "secret", () -> verify("secret"));
+    apiKeyCache.get("prefix", "other", () -> verify("other"));
+    Assert.assertEquals(2, verifications.get());
+  }
+
+  @Test
+  public void testInvalidatedKeyIsVerifiedAgain() throws ApiKeyException {
+    apiKeyCache.get("prefix", "secret", () -> verify("secret"));
+    apiKeyCache.invalidate("prefix");
+    apiKeyCache.get("prefix", "secret", () -> verify("secret"));
+    Assert.assertEquals(2, verifications.get());
+  }
+
+  @Test
+  public void testKeyInvalidatedWhileVerifyingIsNotCached() throws ApiKeyException {
+    apiKeyCache.get("prefix", "secret", () -> {
+      // the scopes of the key are updated after the verifier read them
+      apiKeyCache.invalidate("prefix");
+      return verify("secret");
+    });
+    apiKeyCache.get("prefix", "secret", () -> verify("secret"));
+    Assert.assertEquals(2, verifications.get());
+  }
+
+  private VerifiedApiKey verify(String secret) {
+    verifications.incrementAndGet();
+    return new VerifiedApiKey("prefix", secret, null, Collections.emptySet(), Collections.emptyList());
+  }
+}
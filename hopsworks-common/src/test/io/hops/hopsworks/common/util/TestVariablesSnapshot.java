@@ -0,0 +1,49 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.util;
+
+import io.hops.hopsworks.persistence.entity.util.Variables;
+import io.hops.hopsworks.persistence.entity.util.VariablesVisibility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestVariablesSnapshot {
+
+  @Test
+  public void testSnapshotIsDetachedFromSource() {
+    List<Variables> variables = new ArrayList<>();
+    Variables variable = new Variables("hops_rpc_tls", "true", VariablesVisibility.ADMIN);
+    variables.add(variable);
+
+    VariablesSnapshot snapshot = new VariablesSnapshot(1L, variables);
+    variable.setValue("false");
+    variables.add(new Variables("spark_dir", "/srv/hops/spark", VariablesVisibility.ADMIN));
+
+    Assert.assertEquals(1L, snapshot.getVersion());
+    Assert.assertEquals(1, snapshot.size());
+    Assert.assertEquals("true", snapshot.find("hops_rpc_tls").get().getValue());
+    Assert.assertFalse(snapshot.find("spark_dir").isPresent());
+  }
+
+  @Test
+  public void testEmptySnapshot() {
+    Assert.assertEquals(0L, VariablesSnapshot.EMPTY.getVersion());
+    Assert.assertFalse(VariablesSnapshot.EMPTY.find("hops_rpc_tls").isPresent());
+  }
+}
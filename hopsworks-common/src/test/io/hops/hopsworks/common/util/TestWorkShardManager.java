@@ -0,0 +1,246 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.util;
+
+import com.hazelcast.cluster.Cluster;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.cluster.MembershipListener;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.ejb.TimerService;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestWorkShardManager {
+  private static final long LEASE_TTL = 60000L;
+  private static final int WORK_UNITS = 500;
+
+  // the leases map shared by all the members of the test cluster
+  private Map<Integer, String> leases;
+  private Set<Member> members;
+  private Member das;
+  private List<Node> nodes;
+
+  @Before
+  public void setup() {
+    leases = new ConcurrentHashMap<>();
+    members = new LinkedHashSet<>();
+    nodes = new ArrayList<>();
+    das = member();
+    members.add(das);
+  }
+
+  @Test
+  public void testWithoutHazelcastAllWorkIsLocal() {
+    WorkShardManager manager = new WorkShardManager();
+    manager.init();
+    for (String workUnit : workUnits()) {
+      Assert.assertTrue(manager.isMine(workUnit));
+    }
+    Assert.assertTrue(manager.isMine(TestWorkShardManager.class));
+  }
+
+  @Test
+  public void testSingleMemberDoesAllTheWork() {
+    members.clear();
+    Node a = join(member());
+    for (String workUnit : workUnits()) {
+      Assert.assertTrue(a.manager.isMine(workUnit));
+    }
+    verify(a.leases, never()).putIfAbsent(anyInt(), anyString(), anyLong(), any(TimeUnit.class));
+  }
+
+  @Test
+  public void testWorkIsShardedOverTheMembersButTheDAS() {
+    Node dasNode = join(das);
+    Node a = join(member());
+    Node b = join(member());
+    for (String workUnit : workUnits()) {
+      Assert.assertFalse(dasNode.manager.isMine(workUnit));
+    }
+    assertOneOwner(a, b);
+    Assert.assertTrue(owned(a) > 0);
+    Assert.assertTrue(owned(b) > 0);
+  }
+
+  @Test
+  public void testLeaseOfAnotherMemberIsRespected() {
+    Node a = join(member());
+    // a member that crashed still holds the leases until they expire
+    String crashed = UUID.randomUUID().toString();
+    for (int shard = 0; shard < 271; shard++) {
+      leases.put(shard, crashed);
+    }
+    Assert.assertEquals(0, owned(a));
+    leases.clear();
+    Assert.assertEquals(WORK_UNITS, owned(a));
+  }
+
+  @Test
+  public void testLeasesAreRenewedInTheBackground() {
+    Node a = join(member());
+    Assert.assertEquals(WORK_UNITS, owned(a));
+    a.manager.renewLeases(null);
+    verify(a.leases, atLeastOnce()).setTtl(anyInt(), eq(LEASE_TTL), eq(TimeUnit.MILLISECONDS));
+    // the leases expired while the work was running, take them again
+    leases.clear();
+    a.manager.renewLeases(null);
+    Assert.assertFalse(leases.isEmpty());
+    Assert.assertTrue(leases.values().stream().allMatch(a.uuid()::equals));
+  }
+
+  @Test
+  public void testLeasesAreReleasedOnDestroy() {
+    Node a = join(member());
+    Node b = join(member());
+    assertOneOwner(a, b);
+    a.manager.destroy();
+    Assert.assertFalse(leases.isEmpty());
+    Assert.assertFalse(leases.containsValue(a.uuid()));
+  }
+
+  @Test
+  public void testRebalanceOnMembershipChange() {
+    Node a = join(member());
+    Node b = join(member());
+    assertOneOwner(a, b);
+
+    Node c = join(member());
+    // the shards moved to c were released by a and b
+    assertOneOwner(a, b, c);
+    Assert.assertTrue(owned(c) > 0);
+
+    // c crashed and its leases expired
+    members.remove(c.member);
+    leases.values().removeIf(c.uuid()::equals);
+    a.listener.memberRemoved(null);
+    b.listener.memberRemoved(null);
+    assertOneOwner(a, b);
+  }
+
+  private Node join(Member member) {
+    members.add(member);
+    Node node = new Node(member);
+    for (Node other : nodes) {
+      other.listener.memberAdded(null);
+    }
+    nodes.add(node);
+    return node;
+  }
+
+  private void assertOneOwner(Node... nodes) {
+    for (String workUnit : workUnits()) {
+      int owners = 0;
+      for (Node node : nodes) {
+        owners += node.manager.isMine(workUnit) ? 1 : 0;
+      }
+      Assert.assertEquals("Owners of " + workUnit, 1, owners);
+    }
+  }
+
+  private int owned(Node node) {
+    int owned = 0;
+    for (String workUnit : workUnits()) {
+      owned += node.manager.isMine(workUnit) ? 1 : 0;
+    }
+    return owned;
+  }
+
+  private List<String> workUnits() {
+    List<String> workUnits = new ArrayList<>();
+    for (int i = 0; i < WORK_UNITS; i++) {
+      workUnits.add(WorkShardManager.key("test", i));
+    }
+    return workUnits;
+  }
+
+  private Member member() {
+    Member member = mock(Member.class);
+    when(member.getUuid()).thenReturn(UUID.randomUUID());
+    return member;
+  }
+
+  private class Node {
+    @InjectMocks
+    private WorkShardManager manager = new WorkShardManager();
+    @Mock
+    private Settings settings;
+    @Mock
+    private PayaraClusterManager payaraClusterManager;
+    @Mock
+    private HazelcastInstance hazelcastInstance;
+    @Mock
+    private TimerService timerService;
+    @Mock
+    private Cluster cluster;
+    @Mock
+    private IMap<Integer, String> leases;
+    private final Member member;
+    private MembershipListener listener;
+
+    Node(Member member) {
+      MockitoAnnotations.openMocks(this);
+      this.member = member;
+      Map<Integer, String> shared = TestWorkShardManager.this.leases;
+      when(settings.getWorkShardLeaseTtl()).thenReturn(LEASE_TTL);
+      when(payaraClusterManager.isDASInstance(das)).thenReturn(true);
+      when(hazelcastInstance.getCluster()).thenReturn(cluster);
+      when(hazelcastInstance.<Integer, String>getMap(anyString())).thenReturn(leases);
+      when(cluster.getMembers()).thenReturn(members);
+      when(cluster.getLocalMember()).thenReturn(member);
+      when(leases.putIfAbsent(anyInt(), anyString(), anyLong(), any(TimeUnit.class)))
+        .thenAnswer(invocation -> shared.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)));
+      when(leases.setTtl(anyInt(), anyLong(), any(TimeUnit.class)))
+        .thenAnswer(invocation -> shared.containsKey(invocation.<Integer>getArgument(0)));
+      when(leases.remove(any(), any()))
+        .thenAnswer(invocation -> shared.remove(invocation.getArgument(0), invocation.getArgument(1)));
+      manager.init();
+      ArgumentCaptor<MembershipListener> captor = ArgumentCaptor.forClass(MembershipListener.class);
+      verify(cluster).addMembershipListener(captor.capture());
+      listener = captor.getValue();
+    }
+
+    private String uuid() {
+      return member.getUuid().toString();
+    }
+  }
+}
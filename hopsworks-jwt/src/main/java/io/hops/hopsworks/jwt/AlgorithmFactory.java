@@ -15,6 +15,7 @@
  */
 package io.hops.hopsworks.jwt;
 
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.ECDSAKeyProvider;
@@ -36,6 +37,8 @@ public class AlgorithmFactory {
 
   @EJB
   private JwtSigningKeyFacade jwtSigningKeyFacade;
+  @EJB
+  private JWTVerificationCache jwtVerificationCache;
 
   public Algorithm getAlgorithm(DecodedJWT jwt) throws SigningKeyNotFoundException {
     return getAlgorithm(jwt.getAlgorithm(), jwt.getKeyId());
@@ -51,6 +54,16 @@ public class AlgorithmFactory {
   }
 
   public Algorithm getAlgorithm(SignatureAlgorithm algorithm, String keyId) throws SigningKeyNotFoundException {
+    return jwtVerificationCache.getAlgorithm(algorithm, keyId, () -> createAlgorithm(algorithm, keyId));
+  }
+
+  public JWTVerifier getVerifier(String algorithm, String keyId, String issuer, int expLeeway)
+    throws SigningKeyNotFoundException {
+    SignatureAlgorithm alg = SignatureAlgorithm.valueOf(algorithm);
+    return jwtVerificationCache.getVerifier(alg, keyId, issuer, expLeeway, () -> createAlgorithm(alg, keyId));
+  }
+
+  private Algorithm createAlgorithm(SignatureAlgorithm algorithm, String keyId) throws SigningKeyNotFoundException {
     switch (algorithm) {
       case ES256:
         return getES256Algorithm(keyId);
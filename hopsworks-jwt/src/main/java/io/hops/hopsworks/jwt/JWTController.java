@@ -18,7 +18,6 @@ package io.hops.hopsworks.jwt;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.JWTVerifier;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import io.hops.hopsworks.jwt.dao.InvalidJwtFacade;
@@ -72,6 +71,8 @@ public class JWTController {
   private AlgorithmFactory algorithmFactory;
   @EJB
   private JwtSigningKeyFacade jwtSigningKeyFacade;
+  @EJB
+  private JWTVerificationCache jwtVerificationCache;
 
   /**
    * Create a jwt.
@@ -270,7 +271,7 @@ public class JWTController {
     DecodedJWT jwt = JWT.decode(token);
     issuer = issuer == null || issuer.isEmpty() ? jwt.getIssuer() : issuer;
     int expLeeway = getExpLeewayClaim(jwt);
-    jwt = verifyToken(token, issuer, expLeeway, algorithmFactory.getAlgorithm(jwt));
+    jwt = verifyToken(token, issuer, expLeeway, jwt.getAlgorithm(), jwt.getKeyId());
 
     if (isTokenInvalidated(jwt)) {
       throw new VerificationException("Invalidated token.");
@@ -309,7 +310,8 @@ public class JWTController {
     SigningKeyNotFoundException, VerificationException, AccessException {
     JsonWebToken jwt = new JsonWebToken(JWT.decode(token));
     issuer = issuer == null || issuer.isEmpty() ? jwt.getIssuer() : issuer;
-    DecodedJWT djwt = verifyToken(token, issuer, jwt.getExpLeeway(), algorithmFactory.getAlgorithm(jwt));
+    DecodedJWT djwt = verifyToken(token, issuer, jwt.getExpLeeway(), jwt.getAlgorithm().name(),
+        jwt.getKeyId());
 
     if (isTokenInvalidated(djwt)) {
       throw new VerificationException("Invalidated token.");
@@ -331,14 +333,12 @@ public class JWTController {
     return djwt;
   }
   
-  private DecodedJWT verifyToken(String token, String issuer, int expLeeway, Algorithm algorithm) throws
-      VerificationException {
+  private DecodedJWT verifyToken(String token, String issuer, int expLeeway, String algorithm, String keyId)
+      throws SigningKeyNotFoundException, VerificationException {
+    // Verifiers are reused across requests, the signing key is only fetched when it is not cached
+    JWTVerifier verifier = algorithmFactory.getVerifier(algorithm, keyId, issuer, expLeeway);
     DecodedJWT jwt = null;
     try {
-      JWTVerifier verifier = JWT.require(algorithm)
-          .withIssuer(issuer)
-          .acceptExpiresAt(expLeeway)
-          .build();
       jwt = verifier.verify(token);
     } catch (Exception e) {
       throw new VerificationException(e.getMessage());
@@ -357,7 +357,7 @@ public class JWTController {
   }
 
   /**
-   * Checks if the token is in the invalid tokens table.
+   * Checks if the token is in the invalid tokens table. Answered from memory, see {@link JWTVerificationCache}.
    *
    * @param jwt
    * @return
@@ -367,8 +367,7 @@ public class JWTController {
   }
 
   private boolean isTokenInvalidated(String id) {
-    InvalidJwt invalidJwt = invalidJwtFacade.find(id);
-    return invalidJwt != null;
+    return jwtVerificationCache.isInvalidated(id);
   }
 
   /**
@@ -624,6 +623,7 @@ public class JWTController {
     } catch (Exception e) {
       throw new InvalidationException("Could not persist token.", e.getCause());
     }
+    jwtVerificationCache.invalidated(id, exp, leeway);
   }
 
   /**
@@ -699,7 +699,11 @@ public class JWTController {
    * @param keyName a unique name given to signing key when created.
    */
   public void deleteSigningKey(String keyName) {
-    jwtSigningKeyFacade.remove(keyName);
+    JwtSigningKey jwtSigningKey = jwtSigningKeyFacade.findByName(keyName);
+    if (jwtSigningKey != null) {
+      jwtSigningKeyFacade.remove(jwtSigningKey);
+      jwtVerificationCache.signingKeyRemoved(jwtSigningKey.getId().toString());
+    }
   }
 
   public JwtSigningKey findSigningKeyById(Integer id) {
@@ -745,6 +749,7 @@ public class JWTController {
     JwtSigningKey jwtSigningKey = jwtSigningKeyFacade.findByName(Constants.OLD_ONE_TIME_JWT_SIGNING_KEY_NAME);
     if (jwtSigningKey != null) {
       jwtSigningKeyFacade.remove(jwtSigningKey);
+      jwtVerificationCache.signingKeyRemoved(jwtSigningKey.getId().toString());
     }
   }
   
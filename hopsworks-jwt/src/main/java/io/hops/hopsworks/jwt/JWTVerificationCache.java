@@ -0,0 +1,292 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2024, Hopsworks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import io.hops.hopsworks.jwt.dao.InvalidJwtFacade;
+import io.hops.hopsworks.jwt.exception.SigningKeyNotFoundException;
+import io.hops.hopsworks.persistence.entity.jwt.InvalidJwt;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.Timer;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.inject.Inject;
+import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory state of the JWT verification path, so that verifying a valid token does not hit the database.
+ * <ul>
+ * <li>The ids of invalidated tokens, loaded from the invalid jwt table and kept until the tokens could not be
+ * verified anyway, i.e. until their expiration plus leeway has passed.</li>
+ * <li>The signing algorithms per signature algorithm and key id, and the verifiers built from them per issuer and
+ * leeway. Both are dropped when their signing key is removed.</li>
+ * </ul>
+ * Invalidations and signing key removals are published to the other members of the cluster. The invalidated ids
+ * are also reconciled with the database periodically, and the algorithms and verifiers dropped, which bounds how long
+ * a change made on another node goes unnoticed if Hazelcast is disabled.
+ */
+@Startup
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class JWTVerificationCache {
+
+  private static final Logger LOGGER = Logger.getLogger(JWTVerificationCache.class.getName());
+  private static final long RECONCILE_INTERVAL = 5 * 60 * 1000L;
+  private static final String MESSAGE_SEPARATOR = "|";
+
+  @EJB
+  private InvalidJwtFacade invalidJwtFacade;
+  @Resource
+  private TimerService timerService;
+  @Inject
+  private HazelcastInstance hazelcastInstance;
+
+  private Timer timer;
+  private ITopic<String> invalidatedTopic;
+  private ITopic<String> signingKeyRemovedTopic;
+  private UUID invalidatedListenerId;
+  private UUID signingKeyRemovedListenerId;
+
+  // jti -> time after which the token cannot be verified anymore
+  private final ConcurrentMap<String, Long> invalidated = new ConcurrentHashMap<>();
+  private final ConcurrentMap<AlgorithmKey, Algorithm> algorithms = new ConcurrentHashMap<>();
+  private final ConcurrentMap<VerifierKey, JWTVerifier> verifiers = new ConcurrentHashMap<>();
+
+  /**
+   * Creates the algorithm of a signing key, fetching the key if needed.
+   */
+  @FunctionalInterface
+  public interface AlgorithmLoader {
+    Algorithm load() throws SigningKeyNotFoundException;
+  }
+
+  @PostConstruct
+  public void init() {
+    // hazelcastInstance == null if Hazelcast is Disabled
+    if (hazelcastInstance != null) {
+      invalidatedTopic = hazelcastInstance.getTopic("jwt_invalidated");
+      invalidatedListenerId = invalidatedTopic.addMessageListener(new InvalidatedListener());
+      signingKeyRemovedTopic = hazelcastInstance.getTopic("jwt_signing_key_removed");
+      signingKeyRemovedListenerId = signingKeyRemovedTopic.addMessageListener(new SigningKeyRemovedListener());
+    }
+    reconcile();
+    timer = timerService.createIntervalTimer(RECONCILE_INTERVAL, RECONCILE_INTERVAL,
+      new TimerConfig("JWT verification cache reconciliation", false));
+  }
+
+  @PreDestroy
+  public void destroy() {
+    if (timer != null) {
+      timer.cancel();
+    }
+    //needed for redeploy to remove the listeners
+    if (invalidatedTopic != null) {
+      invalidatedTopic.removeMessageListener(invalidatedListenerId);
+    }
+    if (signingKeyRemovedTopic != null) {
+      signingKeyRemovedTopic.removeMessageListener(signingKeyRemovedListenerId);
+    }
+  }
+
+  @Timeout
+  public void onTimeout(Timer timer) {
+    reconcile();
+  }
+
+  /**
+   * @param jti the id of a token
+   * @return true if the token has been invalidated
+   */
+  public boolean isInvalidated(String jti) {
+    return invalidated.containsKey(jti);
+  }
+
+  /**
+   * Record a token that has been added to the invalid jwt table and notify the other nodes.
+   *
+   * @param jti the id of the token
+   * @param expiresAt expiration of the token
+   * @param leeway expiration leeway of the token in seconds
+   */
+  public void invalidated(String jti, Date expiresAt, int leeway) {
+    long until = verifiableUntil(expiresAt, leeway);
+    invalidated.put(jti, until);
+    if (invalidatedTopic != null) {
+      invalidatedTopic.publish(until + MESSAGE_SEPARATOR + jti);
+    }
+  }
+
+  public Algorithm getAlgorithm(SignatureAlgorithm algorithm, String keyId, AlgorithmLoader loader)
+    throws SigningKeyNotFoundException {
+    AlgorithmKey key = new AlgorithmKey(algorithm, keyId);
+    Algorithm cached = algorithms.get(key);
+    if (cached == null) {
+      cached = loader.load();
+      algorithms.put(key, cached);
+    }
+    return cached;
+  }
+
+  public JWTVerifier getVerifier(SignatureAlgorithm algorithm, String keyId, String issuer, int leeway,
+    AlgorithmLoader loader) throws SigningKeyNotFoundException {
+    VerifierKey key = new VerifierKey(new AlgorithmKey(algorithm, keyId), issuer, leeway);
+    JWTVerifier cached = verifiers.get(key);
+    if (cached == null) {
+      cached = JWT.require(getAlgorithm(algorithm, keyId, loader))
+        .withIssuer(issuer)
+        .acceptExpiresAt(leeway)
+        .build();
+      verifiers.put(key, cached);
+    }
+    return cached;
+  }
+
+  /**
+   * Drop the algorithms and verifiers of a removed signing key on all nodes.
+   *
+   * @param keyId id of the signing key
+   */
+  public void signingKeyRemoved(String keyId) {
+    evictSigningKey(keyId);
+    if (signingKeyRemovedTopic != null) {
+      signingKeyRemovedTopic.publish(keyId);
+    }
+  }
+
+  private void evictSigningKey(String keyId) {
+    verifiers.keySet().removeIf(key -> key.algorithmKey.keyId.equals(keyId));
+    algorithms.keySet().removeIf(key -> key.keyId.equals(keyId));
+  }
+
+  private void reconcile() {
+    long now = System.currentTimeMillis();
+    invalidated.values().removeIf(until -> until < now);
+    try {
+      for (InvalidJwt invalidJwt : invalidJwtFacade.findAll()) {
+        long until = verifiableUntil(invalidJwt.getExpirationTime(), invalidJwt.getRenewableForSec());
+        if (until >= now) {
+          invalidated.merge(invalidJwt.getJti(), until, Math::max);
+        }
+      }
+    } catch (Exception e) {
+      LOGGER.log(Level.WARNING, "Failed to load invalidated tokens", e);
+    }
+    // Keys of one time tokens are rotated, verifiers of removed keys would otherwise never be dropped
+    algorithms.clear();
+    verifiers.clear();
+  }
+
+  private long verifiableUntil(Date expiresAt, int leeway) {
+    return expiresAt == null ? Long.MAX_VALUE : expiresAt.getTime() + leeway * 1000L;
+  }
+
+  private class InvalidatedListener implements MessageListener<String> {
+    @Override
+    public void onMessage(Message<String> message) {
+      if (!message.getPublishingMember().localMember()) {
+        String value = message.getMessageObject();
+        int separator = value.indexOf(MESSAGE_SEPARATOR);
+        invalidated.put(value.substring(separator + 1), Long.parseLong(value.substring(0, separator)));
+      }
+    }
+  }
+
+  private class SigningKeyRemovedListener implements MessageListener<String> {
+    @Override
+    public void onMessage(Message<String> message) {
+      if (!message.getPublishingMember().localMember()) {
+        evictSigningKey(message.getMessageObject());
+      }
+    }
+  }
+
+  private static class AlgorithmKey {
+    private final SignatureAlgorithm algorithm;
+    private final String keyId;
+
+    AlgorithmKey(SignatureAlgorithm algorithm, String keyId) {
+      this.algorithm = algorithm;
+      this.keyId = keyId == null ? "" : keyId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      AlgorithmKey that = (AlgorithmKey) o;
+      return algorithm == that.algorithm && keyId.equals(that.keyId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(algorithm, keyId);
+    }
+  }
+
+  private static class VerifierKey {
+    private final AlgorithmKey algorithmKey;
+    private final String issuer;
+    private final int leeway;
+
+    VerifierKey(AlgorithmKey algorithmKey, String issuer, int leeway) {
+      this.algorithmKey = algorithmKey;
+      this.issuer = issuer;
+      this.leeway = leeway;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      VerifierKey that = (VerifierKey) o;
+      return leeway == that.leeway && algorithmKey.equals(that.algorithmKey) && Objects.equals(issuer, that.issuer);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(algorithmKey, issuer, leeway);
+    }
+  }
+}
@@ -35,7 +35,8 @@ import java.util.Objects;
 @Entity
 @Table(name = "expectation", catalog = "hopsworks")
 @NamedQueries({
-  @NamedQuery(name="Expectation.findById", query="SELECT e FROM Expectation e WHERE e.id=:id")})
+  @NamedQuery(name="Expectation.findById", query="SELECT e FROM Expectation e WHERE e.id=:id"),
+  @NamedQuery(name="Expectation.findByIds", query="SELECT e FROM Expectation e WHERE e.id IN :ids")})
 @XmlRootElement
 public class Expectation implements Serializable {
   private static final long serialVersionUID = 1L;
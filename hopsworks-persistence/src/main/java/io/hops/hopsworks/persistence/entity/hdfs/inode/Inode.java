@@ -73,6 +73,9 @@ import javax.xml.bind.annotation.XmlRootElement;
   @NamedQuery(name = "Inode.findByParentId",
           query
           = "SELECT i FROM Inode i WHERE i.inodePK.parentId = :parentId"),
+  @NamedQuery(name = "Inode.findByParentIdInList",
+          query
+          = "SELECT i FROM Inode i WHERE i.inodePK.parentId IN :parentIdList"),
   @NamedQuery(name = "Inode.countByParentId",
           query
           = "SELECT COUNT(DISTINCT i.inodePK.name) FROM Inode i WHERE i.inodePK.parentId = :parentId"),
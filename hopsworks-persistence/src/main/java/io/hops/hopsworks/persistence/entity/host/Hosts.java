@@ -70,7 +70,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
     "h.registered = false"),
   @NamedQuery(name = "Host.TotalCores", query = "SELECT SUM(h.cores) FROM Hosts h"),
   @NamedQuery(name = "Host.TotalGPUs", query = "SELECT SUM(h.numGpus) FROM Hosts h"),
-  @NamedQuery(name = "Host.TotalMemoryCapacity", query = "SELECT SUM(h.memoryCapacity) FROM Hosts h")})
+  @NamedQuery(name = "Host.TotalMemoryCapacity", query = "SELECT SUM(h.memoryCapacity) FROM Hosts h"),
+  @NamedQuery(name = "Hosts.updateLastHeartbeat",
+          query = "UPDATE Hosts h SET h.lastHeartbeat = :lastHeartbeat WHERE h.id IN :ids")})
 public class Hosts implements Serializable {
 
   private static final int HEARTBEAT_INTERVAL = 10;
@@ -148,6 +148,9 @@ import java.util.List;
       + "AND e.hdfsUser = :hdfsUser AND e.state IN :stateCollection ORDER BY e.submissionTime DESC"),
   @NamedQuery(name = "Execution.deleteBatch",
               query  = "DELETE FROM Execution e WHERE e.id IN :executionIds"),
+  @NamedQuery(name = "Execution.updateProgressAndStateIfNotIn",
+              query  = "UPDATE Execution e SET e.progress = :progress, e.state = :state WHERE e.id = :id "
+                + "AND e.state NOT IN :stateCollection"),
   })
 public class Execution implements Serializable {
 
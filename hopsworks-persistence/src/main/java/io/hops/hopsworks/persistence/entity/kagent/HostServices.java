@@ -75,7 +75,10 @@ import javax.validation.constraints.Size;
   @NamedQuery(name = "HostServices.CountServices",
     query = "SELECT COUNT(r) FROM HostServices r WHERE r.group = :group"),
   @NamedQuery(name = "HostServices.findByServiceNameAndHostname",
-    query = "SELECT r FROM HostServices r WHERE r.host.hostname = :hostname AND r.name = :name")})
+    query = "SELECT r FROM HostServices r WHERE r.host.hostname = :hostname AND r.name = :name"),
+  @NamedQuery(name = "HostServices.updateStopTime",
+    query = "UPDATE HostServices r SET r.stopTime = :stopTime, r.uptime = :stopTime - r.startTime " +
+      "WHERE r.id IN :ids AND r.startTime IS NOT NULL")})
 public class HostServices implements Serializable {
 
   private static final long serialVersionUID = 1L;
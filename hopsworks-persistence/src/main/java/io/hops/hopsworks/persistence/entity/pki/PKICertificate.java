@@ -50,7 +50,10 @@ CREATE TABLE IF NOT EXISTS `pki_certificate` (
                       ".subject = :subject"),
         @NamedQuery(name = "PKICertificate.findSubjectByStatusAndPartialSubject",
                   query = "SELECT c.certificateId.subject FROM PKICertificate c WHERE c.certificateId.status = " +
-                      ":status AND c.certificateId.subject LIKE CONCAT('%', :subject, '%')")
+                      ":status AND c.certificateId.subject LIKE CONCAT('%', :subject, '%')"),
+        @NamedQuery(name = "PKICertificate.findSerialNumberByCAStatusAndExpiration",
+                  query = "SELECT c.serialNumber FROM PKICertificate c WHERE c.ca = :ca AND c.certificateId.status = " +
+                      ":status AND c.notAfter >= :from AND c.notAfter < :to")
   })
 public class PKICertificate implements Serializable {
   private static final long serialVersionUID = 1L;
@@ -317,7 +317,10 @@ public class RESTCodes {
     DATASET_ACCESS_PERMISSION_DENIED(50, "Permission denied.", Response.Status.FORBIDDEN),
     PATH_ENCODING_NOT_SUPPORTED(51, "Unsupported encoding.", Response.Status.BAD_REQUEST),
     ATTACH_XATTR_ERROR(52, "Failed to attach Xattr.", Response.Status.INTERNAL_SERVER_ERROR),
-    TARGET_PROJECT_NOT_FOUND(53, "Target project not found.", Response.Status.INTERNAL_SERVER_ERROR);
+    TARGET_PROJECT_NOT_FOUND(53, "Target project not found.", Response.Status.INTERNAL_SERVER_ERROR),
+    UPLOAD_PARALLEL_CHUNKS_LIMIT(54, "Too many chunks of this file are being uploaded, retry later.",
+        Response.Status.SERVICE_UNAVAILABLE),
+    DATASET_OPERATION_NOT_FOUND(55, "Dataset operation not found.", Response.Status.NOT_FOUND);
 
 
     private Integer code;
@@ -1679,7 +1682,9 @@ public class RESTCodes {
       "of a feature view join.", Response.Status.BAD_REQUEST),
     FEATURE_GROUP_DUPLICATE_FEATURE(224, "Feature list contains duplicate", Response.Status.BAD_REQUEST),
     HELPER_COL_NOT_FOUND(225, "Could not find helper column in feature view schema",
-      Response.Status.NOT_FOUND);
+      Response.Status.NOT_FOUND),
+    ERROR_SAVING_VALIDATION_RESULTS(226, "Error saving the results of a validation report.",
+      Response.Status.INTERNAL_SERVER_ERROR);
 
     private int code;
     private String message;